@@ -0,0 +1,27 @@
+package com.example.B2XKlaim.benchmarks;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * BPMN diagrams used as benchmark input. The backend's test diagrams are
+ * packaged under {@code corpus/}.
+ */
+public final class Corpus {
+
+    private Corpus() {
+    }
+
+    public static String load(String path) {
+        try (InputStream is = Corpus.class.getClassLoader().getResourceAsStream("corpus/" + path)) {
+            if (is == null) {
+                throw new IllegalArgumentException("Corpus file not found: " + path);
+            }
+            return new String(is.readAllBytes(), StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,62 @@
+package com.example.B2XKlaim.benchmarks;
+
+import java.util.List;
+import java.util.Map;
+
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import com.example.B2XKlaim.Service.CodeFormattingService;
+import com.example.B2XKlaim.Service.Parser.BpmnParser;
+import com.example.B2XKlaim.Service.bpmnElements.BpmnElements;
+import com.example.B2XKlaim.Service.codeGenerator.Generator;
+import com.example.B2XKlaim.Service.codeGenerator.Optimizer;
+
+/**
+ * One corpus diagram and the input of every pipeline stage, prepared once so
+ * each benchmark measures only its own stage.
+ *
+ * <ul>
+ *   <li>{@code small}: {@code EB_SingleMessage_Timer.bpmn}, two pools, one
+ *       message raced against a timer</li>
+ *   <li>{@code medium}: {@code ComplexCollaboration.bpmn}, two pools with
+ *       gateways, timers, signals and call activities</li>
+ *   <li>{@code large}: {@link SyntheticCorpus}, 16 pools of 300 blocks each</li>
+ * </ul>
+ */
+@State(Scope.Benchmark)
+public class Diagram {
+
+    @Param({"small", "medium", "large"})
+    public String size;
+
+    public String xml;
+    public BpmnElements elements;
+    public List<String> translated;
+    public List<String> optimized;
+    public List<Map<String, String>> procs;
+
+    @Setup
+    public void setUp() throws Exception {
+        xml = switch (size) {
+            case "small" -> Corpus.load("eb_gateway_patterns/EB_SingleMessage_Timer.bpmn");
+            case "medium" -> Corpus.load("ComplexCollaboration.bpmn");
+            case "large" -> SyntheticCorpus.collaboration(16, 300);
+            default -> throw new IllegalArgumentException("Unknown corpus size: " + size);
+        };
+
+        elements = new BpmnParser().parse(xml);
+        elements.analyzeInteractions();
+        translated = new Generator(Map.of("main", elements)).translateBpmnCollaboration();
+        if (translated.isEmpty()) {
+            throw new IllegalStateException("Corpus '" + size + "' produced no collaboration code");
+        }
+        optimized = Optimizer.optimize(translated);
+        procs = new CodeFormattingService().extractProcessBlocks(String.join("\n", optimized));
+        if (procs.isEmpty()) {
+            throw new IllegalStateException("Corpus '" + size + "' produced no proc blocks");
+        }
+    }
+}
@@ -0,0 +1,94 @@
+package com.example.B2XKlaim.benchmarks;
+
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import com.example.B2XKlaim.Service.Parser.BpmnParser;
+import com.example.B2XKlaim.Service.bpmnElements.BpmnElement;
+import com.example.B2XKlaim.Service.bpmnElements.BpmnElements;
+import com.example.B2XKlaim.Service.bpmnElements.events.NSE;
+import com.example.B2XKlaim.Service.codeGenerator.BPMNTranslator;
+
+/**
+ * Visitor dispatch in {@link BPMNTranslator#translateProcessBody} on a linear
+ * process of about 5,000 elements (2,500 script tasks and their flows).
+ *
+ * <p>{@code dispatchReflective} repeats the per-element lookup the translator
+ * used before: {@code getMethod("visit", ...)} up the class hierarchy, then
+ * {@code Method.invoke}. {@code dispatchAccept} is what it does now.</p>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class DispatchBenchmark {
+
+    private BPMNTranslator translator;
+    private BpmnElement start;
+    private List<BpmnElement> chain;
+
+    @Setup
+    public void setUp() throws Exception {
+        BpmnElements elements = new BpmnParser().parse(SyntheticCorpus.linearProcess(2500));
+        elements.analyzeInteractions();
+        translator = new BPMNTranslator(elements);
+        start = elements.getElementsByType(NSE.class).get(0);
+
+        chain = new ArrayList<>();
+        for (BpmnElement e = start; e != null; ) {
+            chain.add(e);
+            String flowId = e.getOutgoingEdge();
+            if (flowId == null) {
+                break;
+            }
+            chain.add(elements.getElementById(flowId));
+            e = elements.getElementAfterSequenceFlow(flowId);
+        }
+    }
+
+    @Benchmark
+    public String translateProcessBody() throws Exception {
+        return translator.translateProcessBody(start);
+    }
+
+    @Benchmark
+    public void dispatchAccept(Blackhole bh) throws Exception {
+        for (BpmnElement element : chain) {
+            bh.consume(element.accept(translator));
+        }
+    }
+
+    @Benchmark
+    public void dispatchReflective(Blackhole bh) throws Exception {
+        for (BpmnElement element : chain) {
+            bh.consume(findVisitMethod(element.getClass()).invoke(translator, element));
+        }
+    }
+
+    private static Method findVisitMethod(Class<?> elementType) throws NoSuchMethodException {
+        for (Class<?> c = elementType; c != null && BpmnElement.class.isAssignableFrom(c); c = c.getSuperclass()) {
+            try {
+                return BPMNTranslator.class.getMethod("visit", c);
+            } catch (NoSuchMethodException e) {
+                // try the superclass
+            }
+        }
+        return BPMNTranslator.class.getMethod("visit", BpmnElement.class);
+    }
+}
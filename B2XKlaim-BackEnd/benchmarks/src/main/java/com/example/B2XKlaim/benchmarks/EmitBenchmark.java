@@ -0,0 +1,44 @@
+package com.example.B2XKlaim.benchmarks;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.example.B2XKlaim.Service.codeGenerator.Generator;
+import com.example.B2XKlaim.Service.codeGenerator.LineJoiner;
+import com.example.B2XKlaim.Service.codeGenerator.Optimizer;
+
+/**
+ * Collaboration code from translator to optimized text. {@code splitOptimizeJoin}
+ * is the old list pipeline (split into lines, optimize into a new list, join);
+ * {@code ir} pairs out/in on the IR nodes with RendezvousPass and prints the
+ * remaining lines into one buffer.
+ * Run with {@code -prof gc} to compare allocation per operation.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class EmitBenchmark {
+
+    @Benchmark
+    public String splitOptimizeJoin(Diagram diagram) throws Exception {
+        Generator generator = new Generator(Map.of("main", diagram.elements));
+        return String.join("\n", Optimizer.optimize(generator.translateBpmnCollaboration()));
+    }
+
+    @Benchmark
+    public String ir(Diagram diagram) throws Exception {
+        LineJoiner optimized = new LineJoiner();
+        new Generator(Map.of("main", diagram.elements)).translateOptimizedCollaboration(optimized);
+        return optimized.toString();
+    }
+}
@@ -0,0 +1,49 @@
+package com.example.B2XKlaim.benchmarks;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import com.example.B2XKlaim.Service.CodeFormattingService;
+
+/**
+ * {@link CodeFormattingService#formatProcessCode} over every proc block of the
+ * optimised code, with the indent {@code ResponseBuilderService} uses.
+ *
+ * <p>{@code formatProcessCodeRegex} is the replaceAll-based formatter it used
+ * before, kept in {@link RegexFormatter}; both produce the same text.</p>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class FormatBenchmark {
+
+    private final CodeFormattingService formatter = new CodeFormattingService();
+
+    @Benchmark
+    public void formatProcessCode(Diagram diagram, Blackhole bh) {
+        for (Map<String, String> proc : diagram.procs) {
+            bh.consume(formatter.formatProcessCode(proc.get("code"), "  "));
+        }
+    }
+
+    @Benchmark
+    public void formatProcessCodeRegex(Diagram diagram, Blackhole bh) {
+        for (Map<String, String> proc : diagram.procs) {
+            bh.consume(RegexFormatter.formatProcessCode(proc.get("code"), "  "));
+        }
+    }
+}
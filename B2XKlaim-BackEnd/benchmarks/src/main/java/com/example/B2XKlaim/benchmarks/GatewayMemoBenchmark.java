@@ -0,0 +1,67 @@
+package com.example.B2XKlaim.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+import org.w3c.dom.NodeList;
+
+import com.example.B2XKlaim.Service.Parser.BpmnDocumentIndex;
+import com.example.B2XKlaim.Service.Parser.BpmnElementFactory;
+import com.example.B2XKlaim.Service.Parser.BpmnStreamReader;
+
+/**
+ * {@link BpmnElementFactory} over every element of a 10-level nested XOR/AND
+ * tree ({@link SyntheticCorpus#nestedGatewayTree}), with and without the
+ * per-factory gateway memo. Without it a gateway {@code k} levels deep is
+ * analysed again by each of its {@code k} enclosing splits.
+ *
+ * <p>Document and index are built once in setup; each invocation creates a
+ * fresh factory, as one parse does.</p>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class GatewayMemoBenchmark {
+
+    private Document document;
+    private BpmnDocumentIndex index;
+    private NodeList elements;
+
+    @Setup
+    public void setUp() throws Exception {
+        document = new BpmnStreamReader().read(SyntheticCorpus.nestedGatewayTree(10));
+        index = new BpmnDocumentIndex(document);
+        elements = document.getElementsByTagName("*");
+    }
+
+    @Benchmark
+    public void memoized(Blackhole bh) {
+        createAll(new BpmnElementFactory(document, index, true), bh);
+    }
+
+    @Benchmark
+    public void unmemoized(Blackhole bh) {
+        createAll(new BpmnElementFactory(document, index, false), bh);
+    }
+
+    private void createAll(BpmnElementFactory factory, Blackhole bh) {
+        for (int i = 0; i < elements.getLength(); i++) {
+            bh.consume(factory.createBpmnElement((Element) elements.item(i)));
+        }
+    }
+}
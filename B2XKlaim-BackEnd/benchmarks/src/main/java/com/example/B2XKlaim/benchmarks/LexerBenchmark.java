@@ -0,0 +1,111 @@
+package com.example.B2XKlaim.benchmarks;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import com.example.B2XKlaim.Service.Parser.BpmnParser;
+import com.example.B2XKlaim.Service.bpmnElements.BpmnElements;
+import com.example.B2XKlaim.Service.codeGenerator.Generator;
+import com.example.B2XKlaim.Service.codeGenerator.Optimizer;
+import com.example.B2XKlaim.Service.codeGenerator.XklaimLexer;
+
+/**
+ * {@link XklaimLexer} against the regexes {@link Optimizer} matched every line
+ * with before, on 100,000 lines of translator output ({@code ComplexCollaboration.bpmn}
+ * repeated).
+ *
+ * <p>{@code optimizeRegex} is the former out/in pair elimination, which ran the
+ * out pattern on the held line and the in pattern on the next one;
+ * {@code optimizeLexer} is {@link Optimizer#optimize} now. The {@code classify}
+ * pair reads the out and in arguments of every line, without the pairing.</p>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class LexerBenchmark {
+
+    private static final int LINES = 100_000;
+
+    private static final Pattern OUT_PATTERN = Pattern.compile("^\\s*out\\((['\"].*?['\"]|[^()]+)\\)@.*");
+    private static final Pattern IN_PATTERN = Pattern.compile("^\\s*in\\((['\"].*?['\"]|[^()]+)\\)@.*");
+
+    private List<String> lines;
+
+    @Setup
+    public void setUp() throws Exception {
+        BpmnElements elements = new BpmnParser().parse(Corpus.load("ComplexCollaboration.bpmn"));
+        elements.analyzeInteractions();
+        List<String> translated = new Generator(Map.of("main", elements)).translateBpmnCollaboration();
+
+        lines = new ArrayList<>(LINES);
+        while (lines.size() < LINES) {
+            lines.addAll(translated.subList(0, Math.min(translated.size(), LINES - lines.size())));
+        }
+        if (!optimizeRegex().equals(optimizeLexer())) {
+            throw new IllegalStateException("Lexer and regex optimizers disagree");
+        }
+    }
+
+    @Benchmark
+    public List<String> optimizeRegex() {
+        List<String> optimized = new ArrayList<>(lines.size());
+        int i = 0;
+        while (i < lines.size()) {
+            String current = lines.get(i);
+            if (i + 1 < lines.size()) {
+                String outArg = argument(OUT_PATTERN, current);
+                if (outArg != null && outArg.equals(argument(IN_PATTERN, lines.get(i + 1)))) {
+                    i += 2;
+                    continue;
+                }
+            }
+            optimized.add(current);
+            i++;
+        }
+        return optimized;
+    }
+
+    @Benchmark
+    public List<String> optimizeLexer() {
+        return Optimizer.optimize(lines);
+    }
+
+    @Benchmark
+    public void classifyRegex(Blackhole bh) {
+        for (String line : lines) {
+            bh.consume(argument(OUT_PATTERN, line));
+            bh.consume(argument(IN_PATTERN, line));
+        }
+    }
+
+    @Benchmark
+    public void classifyLexer(Blackhole bh) {
+        for (String line : lines) {
+            bh.consume(XklaimLexer.scan(line));
+        }
+    }
+
+    private static String argument(Pattern pattern, String line) {
+        Matcher matcher = pattern.matcher(line);
+        return matcher.matches() ? matcher.group(1) : null;
+    }
+}
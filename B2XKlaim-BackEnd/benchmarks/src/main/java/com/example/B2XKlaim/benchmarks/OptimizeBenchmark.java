@@ -0,0 +1,30 @@
+package com.example.B2XKlaim.benchmarks;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.example.B2XKlaim.Service.codeGenerator.Optimizer;
+
+/**
+ * {@link Optimizer#optimize} over the translator's output lines.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class OptimizeBenchmark {
+
+    @Benchmark
+    public List<String> optimize(Diagram diagram) {
+        return Optimizer.optimize(diagram.translated);
+    }
+}
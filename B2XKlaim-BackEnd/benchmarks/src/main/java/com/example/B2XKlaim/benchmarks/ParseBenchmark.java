@@ -0,0 +1,38 @@
+package com.example.B2XKlaim.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.example.B2XKlaim.Service.Parser.BpmnParser;
+import com.example.B2XKlaim.Service.bpmnElements.BpmnElements;
+
+/**
+ * {@link BpmnParser#parse} from raw XML, and {@link BpmnElements#analyzeInteractions}
+ * on an already parsed diagram. The analysis resets its own results, so it is
+ * safe to repeat on the same instance.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ParseBenchmark {
+
+    @Benchmark
+    public BpmnElements parse(Diagram diagram) throws Exception {
+        return new BpmnParser().parse(diagram.xml);
+    }
+
+    @Benchmark
+    public BpmnElements analyzeInteractions(Diagram diagram) {
+        diagram.elements.analyzeInteractions();
+        return diagram.elements;
+    }
+}
@@ -0,0 +1,88 @@
+package com.example.B2XKlaim.benchmarks;
+
+/**
+ * {@code CodeFormattingService.formatProcessCode} as it was before the
+ * single-pass formatter: replaceAll chains over the text and each line.
+ */
+final class RegexFormatter {
+
+    static String formatProcessCode(String rawCode, String indentString) {
+        if (rawCode == null || rawCode.isEmpty()) {
+            return "";
+        }
+        String cleanedCode = rawCode
+            .replaceAll("\\r\\n", "\n")
+            .replaceAll("\\r", "\n")
+            .replaceAll("\\n\\s*\\n\\s*\\n+", "\n\n")
+            .replaceAll("\\s+$", "")
+            .trim();
+
+        StringBuilder indentedCode = new StringBuilder();
+        int currentIndentLevel = 0;
+        String[] lines = cleanedCode.trim().split("\\r?\\n");
+
+        for (int i = 0; i < lines.length; i++) {
+            String trimmedLine = lines[i].trim();
+            if (trimmedLine.isEmpty()) {
+                indentedCode.append("\n");
+                continue;
+            }
+            if (trimmedLine.equals("}") || trimmedLine.startsWith("} else")) {
+                if (currentIndentLevel > 0) {
+                    currentIndentLevel--;
+                }
+            }
+            boolean isProcStart = i == 0 && trimmedLine.startsWith("proc ");
+            if (!isProcStart) {
+                indentedCode.append(indentString.repeat(currentIndentLevel));
+            }
+            String formattedLine = formatLineContent(trimmedLine);
+            indentedCode.append(formattedLine);
+            indentedCode.append(shouldAddExtraLineBreak(formattedLine, i, lines) ? "\n\n" : "\n");
+            if (formattedLine.endsWith("{") && !formattedLine.startsWith("/*") && !formattedLine.startsWith("//")) {
+                currentIndentLevel++;
+            }
+            if (formattedLine.contains("{") && formattedLine.endsWith("}")
+                    && !formattedLine.startsWith("/*") && !formattedLine.startsWith("//")) {
+                if (currentIndentLevel > 0) {
+                    currentIndentLevel--;
+                }
+            }
+        }
+        return indentedCode.toString().trim() + "\n";
+    }
+
+    private static String formatLineContent(String line) {
+        String formatted = line;
+        formatted = formatted.replaceAll("if\\s*\\(", "if (");
+        formatted = formatted.replaceAll("else\\s*\\{", "else {");
+        formatted = formatted.replaceAll("\\}\\s*else\\s*\\{", "} else {");
+        if (!formatted.trim().startsWith("/*") && !formatted.trim().startsWith("//")) {
+            formatted = formatted.replaceAll(",(?!\\s)", ", ");
+            formatted = formatted.replaceAll("\\)\\s*@\\s*", ")@");
+            formatted = formatted.replaceAll("eval\\s*\\(", "eval(");
+            formatted = formatted.replaceAll("new\\s+", "new ");
+            formatted = formatted.replaceAll("\\s{2,}", " ").trim();
+        }
+        return formatted;
+    }
+
+    private static boolean shouldAddExtraLineBreak(String currentLine, int currentIndex, String[] allLines) {
+        if (currentLine.matches("proc\\s+\\w+.*\\{")) {
+            return true;
+        }
+        if (currentIndex < allLines.length - 1) {
+            String nextLine = allLines[currentIndex + 1].trim();
+            if (nextLine.startsWith("else") || nextLine.equals("}")) {
+                return false;
+            }
+        }
+        if (currentLine.equals("}") && currentIndex < allLines.length - 1) {
+            String nextLine = allLines[currentIndex + 1].trim();
+            if (!nextLine.equals("}") && !nextLine.startsWith("else")) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
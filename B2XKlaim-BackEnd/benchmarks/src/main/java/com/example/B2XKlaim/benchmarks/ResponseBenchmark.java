@@ -0,0 +1,81 @@
+package com.example.B2XKlaim.benchmarks;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.example.B2XKlaim.Controller.TranslationResponseConverter;
+import com.example.B2XKlaim.Service.CodeFormattingService;
+import com.example.B2XKlaim.Service.builder.ResponseBuilder;
+import com.example.B2XKlaim.Service.dto.TranslationResponse;
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Serialization of a /generate-code response holding the diagram's net and
+ * formatted procs, into a stream that discards the bytes.
+ *
+ * <p>{@code writeMap} is Jackson serializing the response map
+ * {@link ResponseBuilder#build()} returns, as the controller did before;
+ * {@code writeStreaming} is {@link TranslationResponseConverter} writing the
+ * typed response with a {@link JsonGenerator} (use {@code -prof gc} for
+ * allocation).</p>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ResponseBenchmark {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private Map<String, Object> map;
+    private TranslationResponse response;
+
+    @Setup
+    public void setUp(Diagram diagram) {
+        List<Map<String, String>> procs = new CodeFormattingService().formatProcessList(diagram.procs, "  ");
+        List<String> callActivities = new ArrayList<>();
+        for (Map<String, String> proc : procs) {
+            callActivities.add(proc.get("code"));
+        }
+        ResponseBuilder builder = ResponseBuilder.create()
+                .withCollaboration(String.join("\n", diagram.optimized))
+                .withProcessList(procs)
+                .withCallActivities(Map.of("CallActivity", callActivities))
+                .withParticipants(Set.of("Participant"));
+        map = builder.build();
+        response = builder.buildTranslationResponse();
+    }
+
+    @Benchmark
+    public void writeMap() throws IOException {
+        objectMapper.writeValue(OutputStream.nullOutputStream(), map);
+    }
+
+    @Benchmark
+    public void writeStreaming() throws IOException {
+        try (JsonGenerator generator = objectMapper.getFactory()
+                .createGenerator(OutputStream.nullOutputStream(), JsonEncoding.UTF8)) {
+            TranslationResponseConverter.write(response, generator);
+        }
+    }
+}
@@ -0,0 +1,271 @@
+package com.example.B2XKlaim.benchmarks;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Generates collaborations far larger than anything in the test corpus.
+ *
+ * <p>Each of the {@code pools} participants runs a chain of {@code segments}
+ * blocks cycling through a script task, an XOR diamond (one conditional and
+ * one default branch) and an AND diamond. Pool {@code p} ends with a message
+ * end event that starts pool {@code p + 1}, as in the {@code MessageFlow}
+ * diagram. Every node also gets a DI shape so the parser sees realistic
+ * diagram noise.</p>
+ */
+public final class SyntheticCorpus {
+
+    private SyntheticCorpus() {
+    }
+
+    public static String collaboration(int pools, int segments) {
+        StringBuilder xml = new StringBuilder(pools * segments * 1200);
+        List<String> shapes = new ArrayList<>();
+
+        appendHeader(xml);
+        xml.append("  <bpmn:collaboration id=\"Collaboration_synthetic\">\n");
+        for (int p = 0; p < pools; p++) {
+            xml.append("    <bpmn:participant id=\"Participant_").append(p)
+                    .append("\" name=\"Robot").append(p)
+                    .append("\" processRef=\"Process_").append(p).append("\" />\n");
+        }
+        for (int p = 0; p + 1 < pools; p++) {
+            xml.append("    <bpmn:messageFlow id=\"MessageFlow_").append(p)
+                    .append("\" sourceRef=\"End_").append(p)
+                    .append("\" targetRef=\"Start_").append(p + 1).append("\" />\n");
+        }
+        xml.append("  </bpmn:collaboration>\n");
+
+        for (int p = 0; p < pools; p++) {
+            appendProcess(xml, shapes, p, pools, segments);
+        }
+        for (int p = 0; p + 1 < pools; p++) {
+            xml.append("  <bpmn:message id=\"Message_").append(p)
+                    .append("\" name=\"Message_").append(p).append("\" />\n");
+        }
+
+        appendDiagram(xml, shapes);
+        return xml.toString();
+    }
+
+    /**
+     * A single pool whose process is one straight chain: start event,
+     * {@code tasks} script tasks, end event. Elements plus sequence flows
+     * come to roughly {@code 2 * tasks}.
+     */
+    public static String linearProcess(int tasks) {
+        StringBuilder xml = new StringBuilder(tasks * 600);
+        appendHeader(xml);
+        xml.append("  <bpmn:collaboration id=\"Collaboration_synthetic\">\n")
+                .append("    <bpmn:participant id=\"Participant_0\" name=\"Robot0\" processRef=\"Process_0\" />\n")
+                .append("  </bpmn:collaboration>\n");
+
+        ProcessBuilder process = new ProcessBuilder(0);
+        String last = "Start_0";
+        process.node(last, "startEvent", "start", null);
+        for (int t = 0; t < tasks; t++) {
+            String task = "Task_" + t;
+            process.node(task, "scriptTask", "Step" + t, null);
+            process.flow(last, task, null);
+            last = task;
+        }
+        process.node("End_0", "endEvent", "finish", null);
+        process.flow(last, "End_0", null);
+        process.appendTo(xml);
+
+        appendDiagram(xml, new ArrayList<>(process.nodes.keySet()));
+        return xml.toString();
+    }
+
+    /**
+     * A single pool whose process is a complete binary tree of gateways,
+     * {@code depth} levels deep: XOR splits on even levels, AND splits on odd
+     * ones, each closed by a merge of the same kind, with a script task on
+     * every leaf. A depth of 10 gives 1,023 split/merge pairs.
+     */
+    public static String nestedGatewayTree(int depth) {
+        StringBuilder xml = new StringBuilder((1 << depth) * 1500);
+        appendHeader(xml);
+        xml.append("  <bpmn:collaboration id=\"Collaboration_synthetic\">\n")
+                .append("    <bpmn:participant id=\"Participant_0\" name=\"Robot0\" processRef=\"Process_0\" />\n")
+                .append("  </bpmn:collaboration>\n");
+
+        ProcessBuilder process = new ProcessBuilder(0);
+        process.node("Start_0", "startEvent", "start", null);
+        String[] tree = subtree(process, "", 0, depth);
+        process.node("End_0", "endEvent", "finish", null);
+        process.flow("Start_0", tree[0], null);
+        process.flow(tree[1], "End_0", null);
+        process.appendTo(xml);
+
+        appendDiagram(xml, new ArrayList<>(process.nodes.keySet()));
+        return xml.toString();
+    }
+
+    /** Adds the subtree rooted at {@code path}; returns its entry and exit ids. */
+    private static String[] subtree(ProcessBuilder process, String path, int level, int depth) {
+        if (level == depth) {
+            String task = "Task_" + path;
+            process.node(task, "scriptTask", "Leaf" + path, null);
+            return new String[]{task, task};
+        }
+        String tag = level % 2 == 0 ? "exclusiveGateway" : "parallelGateway";
+        String split = "Split_" + path;
+        String merge = "Merge_" + path;
+        process.node(split, tag, null, null);
+        String[] left = subtree(process, path + "a", level + 1, depth);
+        String[] right = subtree(process, path + "b", level + 1, depth);
+        process.node(merge, tag, null, null);
+
+        process.flow(split, left[0], level % 2 == 0 ? "x == " + path + "a" : null);
+        process.flow(split, right[0], null);
+        process.flow(left[1], merge, null);
+        process.flow(right[1], merge, null);
+        return new String[]{split, merge};
+    }
+
+    private static void appendHeader(StringBuilder xml) {
+        xml.append("<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n")
+                .append("<bpmn:definitions xmlns:xsi=\"http://www.w3.org/2001/XMLSchema-instance\"")
+                .append(" xmlns:bpmn=\"http://www.omg.org/spec/BPMN/20100524/MODEL\"")
+                .append(" xmlns:bpmndi=\"http://www.omg.org/spec/BPMN/20100524/DI\"")
+                .append(" xmlns:dc=\"http://www.omg.org/spec/DD/20100524/DC\"")
+                .append(" id=\"Definitions_synthetic\" targetNamespace=\"http://bpmn.io/schema/bpmn\">\n");
+    }
+
+    private static void appendDiagram(StringBuilder xml, List<String> shapes) {
+        xml.append("  <bpmndi:BPMNDiagram id=\"BPMNDiagram_synthetic\">\n")
+                .append("    <bpmndi:BPMNPlane id=\"BPMNPlane_synthetic\" bpmnElement=\"Collaboration_synthetic\">\n");
+        for (int i = 0; i < shapes.size(); i++) {
+            String id = shapes.get(i);
+            xml.append("      <bpmndi:BPMNShape id=\"").append(id).append("_di\" bpmnElement=\"").append(id)
+                    .append("\"><dc:Bounds x=\"").append(150 * (i % 64))
+                    .append("\" y=\"").append(120 * (i / 64))
+                    .append("\" width=\"100\" height=\"80\" /></bpmndi:BPMNShape>\n");
+        }
+        xml.append("    </bpmndi:BPMNPlane>\n")
+                .append("  </bpmndi:BPMNDiagram>\n")
+                .append("</bpmn:definitions>\n");
+    }
+
+    private static void appendProcess(StringBuilder xml, List<String> shapes, int p, int pools, int segments) {
+        ProcessBuilder process = new ProcessBuilder(p);
+
+        String start = "Start_" + p;
+        process.node(start, "startEvent", "start",
+                p > 0 ? "<bpmn:messageEventDefinition messageRef=\"Message_" + (p - 1) + "\" />" : null);
+
+        String last = start;
+        for (int s = 0; s < segments; s++) {
+            String suffix = p + "_" + s;
+            switch (s % 3) {
+                case 0 -> {
+                    String task = "Task_" + suffix;
+                    process.node(task, "scriptTask", "Step" + suffix, null);
+                    process.flow(last, task, null);
+                    last = task;
+                }
+                case 1 -> last = process.diamond(last, "exclusiveGateway", "XOR", suffix);
+                default -> last = process.diamond(last, "parallelGateway", "AND", suffix);
+            }
+        }
+
+        String end = "End_" + p;
+        process.node(end, "endEvent", "finish",
+                p + 1 < pools ? "<bpmn:messageEventDefinition messageRef=\"Message_" + p + "\" />" : null);
+        process.flow(last, end, null);
+
+        process.appendTo(xml);
+        shapes.addAll(process.nodes.keySet());
+    }
+
+    private static final class ProcessBuilder {
+
+        private final int pool;
+        private final Map<String, Node> nodes = new LinkedHashMap<>();
+        private final StringBuilder flows = new StringBuilder();
+        private int flowCount;
+
+        ProcessBuilder(int pool) {
+            this.pool = pool;
+        }
+
+        void node(String id, String tag, String name, String body) {
+            nodes.put(id, new Node(tag, name, body));
+        }
+
+        void flow(String source, String target, String condition) {
+            String id = "Flow_" + pool + "_" + flowCount++;
+            nodes.get(source).outgoing.add(id);
+            nodes.get(target).incoming.add(id);
+            flows.append("    <bpmn:sequenceFlow id=\"").append(id)
+                    .append("\" sourceRef=\"").append(source)
+                    .append("\" targetRef=\"").append(target).append('"');
+            if (condition == null) {
+                flows.append(" />\n");
+            } else {
+                flows.append(">\n      <bpmn:conditionExpression xsi:type=\"bpmn:tFormalExpression\">")
+                        .append(condition).append("</bpmn:conditionExpression>\n    </bpmn:sequenceFlow>\n");
+            }
+        }
+
+        /** Split, two single-task branches, merge; returns the merge id. */
+        String diamond(String from, String tag, String prefix, String suffix) {
+            String split = prefix + "_Split_" + suffix;
+            String merge = prefix + "_Merge_" + suffix;
+            String left = "Task_L_" + suffix;
+            String right = "Task_R_" + suffix;
+            node(split, tag, null, null);
+            node(left, "scriptTask", "Left" + suffix, null);
+            node(right, "scriptTask", "Right" + suffix, null);
+            node(merge, tag, null, null);
+            flow(from, split, null);
+            flow(split, left, "exclusiveGateway".equals(tag) ? "x &gt; " + suffix.replace('_', '0') : null);
+            flow(split, right, null);
+            flow(left, merge, null);
+            flow(right, merge, null);
+            return merge;
+        }
+
+        void appendTo(StringBuilder xml) {
+            xml.append("  <bpmn:process id=\"Process_").append(pool)
+                    .append("\" name=\"Mission").append(pool).append("\" isExecutable=\"false\">\n");
+            for (Map.Entry<String, Node> entry : nodes.entrySet()) {
+                Node node = entry.getValue();
+                xml.append("    <bpmn:").append(node.tag).append(" id=\"").append(entry.getKey()).append('"');
+                if (node.name != null) {
+                    xml.append(" name=\"").append(node.name).append('"');
+                }
+                xml.append(">\n");
+                for (String in : node.incoming) {
+                    xml.append("      <bpmn:incoming>").append(in).append("</bpmn:incoming>\n");
+                }
+                for (String out : node.outgoing) {
+                    xml.append("      <bpmn:outgoing>").append(out).append("</bpmn:outgoing>\n");
+                }
+                if (node.body != null) {
+                    xml.append("      ").append(node.body).append('\n');
+                }
+                xml.append("    </bpmn:").append(node.tag).append(">\n");
+            }
+            xml.append(flows);
+            xml.append("  </bpmn:process>\n");
+        }
+    }
+
+    private static final class Node {
+        final String tag;
+        final String name;
+        final String body;
+        final List<String> incoming = new ArrayList<>(2);
+        final List<String> outgoing = new ArrayList<>(2);
+
+        Node(String tag, String name, String body) {
+            this.tag = tag;
+            this.name = name;
+            this.body = body;
+        }
+    }
+}
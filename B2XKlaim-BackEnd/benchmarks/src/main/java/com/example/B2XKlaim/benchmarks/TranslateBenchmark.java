@@ -0,0 +1,50 @@
+package com.example.B2XKlaim.benchmarks;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.example.B2XKlaim.Service.bpmnElements.objects.pool.Collab;
+import com.example.B2XKlaim.Service.codeGenerator.BPMNTranslator;
+import com.example.B2XKlaim.Service.codeGenerator.Generator;
+
+/**
+ * {@link Generator#translateBpmnCollaboration} on a parsed and analysed
+ * diagram, with a fresh generator per call as {@code CollaborationCodeStrategy} does.
+ * The {@code visitCollab*} pair compares sequential and concurrent
+ * per-participant translation of the same collaboration.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TranslateBenchmark {
+
+    @Benchmark
+    public List<String> translateBpmnCollaboration(Diagram diagram) throws Exception {
+        return new Generator(Map.of("main", diagram.elements)).translateBpmnCollaboration();
+    }
+
+    @Benchmark
+    public String visitCollabSequential(Diagram diagram) throws Exception {
+        return new BPMNTranslator(diagram.elements, false).visit(collab(diagram));
+    }
+
+    @Benchmark
+    public String visitCollabParallel(Diagram diagram) throws Exception {
+        return new BPMNTranslator(diagram.elements, true).visit(collab(diagram));
+    }
+
+    private static Collab collab(Diagram diagram) {
+        return diagram.elements.getElementsByType(Collab.class).get(0);
+    }
+}
@@ -0,0 +1,66 @@
+package com.example.B2XKlaim.benchmarks;
+
+import java.io.StringReader;
+import java.util.concurrent.TimeUnit;
+
+import javax.xml.parsers.DocumentBuilder;
+import javax.xml.parsers.DocumentBuilderFactory;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.w3c.dom.Document;
+import org.xml.sax.InputSource;
+
+import com.example.B2XKlaim.Service.Parser.XmlParsers;
+
+/**
+ * Per-call JAXP factory lookup and builder construction (what BpmnParser did)
+ * versus the shared, thread-local builders of {@link XmlParsers}.
+ * Run with 4 threads, as under concurrent requests.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@Threads(4)
+@State(Scope.Benchmark)
+public class XmlParsersBenchmark {
+
+    private String xml;
+
+    @Setup
+    public void setUp() {
+        xml = Corpus.load("ComplexCollaboration.bpmn");
+    }
+
+    @Benchmark
+    public DocumentBuilder acquirePerCall() throws Exception {
+        return DocumentBuilderFactory.newInstance().newDocumentBuilder();
+    }
+
+    @Benchmark
+    public DocumentBuilder acquirePooled() {
+        return XmlParsers.documentBuilder();
+    }
+
+    @Benchmark
+    public Document parsePerCall() throws Exception {
+        DocumentBuilder builder = DocumentBuilderFactory.newInstance().newDocumentBuilder();
+        return builder.parse(new InputSource(new StringReader(xml)));
+    }
+
+    @Benchmark
+    public Document parsePooled() throws Exception {
+        return XmlParsers.documentBuilder().parse(new InputSource(new StringReader(xml)));
+    }
+}
@@ -0,0 +1,149 @@
+package com.example.B2XKlaim.Controller;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.CrossOrigin;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+
+import com.example.B2XKlaim.Service.ResponseBuilderService;
+import com.example.B2XKlaim.Service.TranslationService;
+import com.example.B2XKlaim.Service.dto.BatchTranslationLine;
+import com.example.B2XKlaim.Service.dto.BatchTranslationRequest;
+import com.example.B2XKlaim.Service.dto.TranslationRequest;
+import com.example.B2XKlaim.Service.dto.TranslationResponse;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Translates many independent process sets in one request, for bulk
+ * regeneration. The sets are translated in parallel and each result is
+ * streamed back as one line of NDJSON as soon as it is ready, so lines come in
+ * completion order and carry the index of their set in the request:
+ * <pre>
+ * {"index":1,"result":{"collaboration":...}}
+ * {"index":0,"error":"Translation failed: ..."}
+ * </pre>
+ * A failed set only fails its own line, and a batch that runs longer than
+ * {@link #BATCH_TIMEOUT_MILLIS} is cut off there.
+ */
+@CrossOrigin(origins = "*")
+@RestController
+@Slf4j
+public class BatchTranslationController {
+
+    static final MediaType APPLICATION_NDJSON = MediaType.parseMediaType("application/x-ndjson");
+
+    /**
+     * How long a batch may stream before pending translations are cancelled.
+     * Applies to this endpoint only; other async requests keep the default.
+     */
+    static final long BATCH_TIMEOUT_MILLIS = TimeUnit.MINUTES.toMillis(30);
+
+    @Autowired
+    private TranslationService translationService;
+
+    @Autowired
+    private ResponseBuilderService responseBuilderService;
+
+    @PostMapping("/generate-code/batch")
+    public ResponseEntity<ResponseBodyEmitter> generateCodeBatch(@RequestBody BatchTranslationRequest request)
+            throws IOException {
+        List<TranslationRequest> requests = request.requests();
+        if (requests == null || requests.isEmpty()) {
+            return badRequest("Missing 'requests' in batch request");
+        }
+        List<Map<String, String>> batch = new ArrayList<>(requests.size());
+        for (int i = 0; i < requests.size(); i++) {
+            Map<String, String> processes = requests.get(i).processes();
+            if (processes == null) {
+                return badRequest("Missing 'processes' in request " + i);
+            }
+            batch.add(processes);
+        }
+
+        log.info("Received batch of {} translation requests", batch.size());
+        List<CompletableFuture<TranslationResponse>> results = translationService.translateBatch(batch);
+        ResponseBodyEmitter emitter = new ResponseBodyEmitter(BATCH_TIMEOUT_MILLIS);
+        stream(results, emitter);
+        return ResponseEntity.ok().contentType(APPLICATION_NDJSON).body(emitter);
+    }
+
+    /**
+     * Sends one line per result as it completes, written by
+     * {@link BatchTranslationLineConverter}. If the client goes away or the
+     * batch times out, translations that have not started are skipped.
+     */
+    private void stream(List<CompletableFuture<TranslationResponse>> results, ResponseBodyEmitter emitter) {
+        AtomicInteger remaining = new AtomicInteger(results.size());
+        emitter.onTimeout(() -> {
+            log.warn("Batch of {} translations timed out, cancelling pending translations", results.size());
+            cancel(results);
+        });
+        emitter.onError(failure -> {
+            log.warn("Batch client went away, cancelling pending translations: {}", failure.getMessage());
+            cancel(results);
+        });
+
+        for (int i = 0; i < results.size(); i++) {
+            int index = i;
+            results.get(i).whenComplete((response, failure) -> {
+                try {
+                    emitter.send(line(index, response, failure), APPLICATION_NDJSON);
+                } catch (IOException | IllegalStateException e) {
+                    // the client is gone or the batch timed out
+                    cancel(results);
+                    return;
+                }
+                if (remaining.decrementAndGet() == 0) {
+                    log.info("Streamed batch of {} translations", results.size());
+                    emitter.complete();
+                }
+            });
+        }
+    }
+
+    private BatchTranslationLine line(int index, TranslationResponse response, Throwable failure) {
+        if (failure == null) {
+            return BatchTranslationLine.success(index, response);
+        }
+        Throwable cause = failure instanceof CompletionException && failure.getCause() != null
+                ? failure.getCause() : failure;
+        log.error("Batch translation {} failed: {}", index, cause.getMessage(), cause);
+        Object error = responseBuilderService.buildErrorResponse(cause.getMessage()).get("error");
+        return BatchTranslationLine.failure(index, String.valueOf(error));
+    }
+
+    private static void cancel(List<CompletableFuture<TranslationResponse>> results) {
+        for (CompletableFuture<TranslationResponse> result : results) {
+            if (result != null) {
+                result.cancel(false);
+            }
+        }
+    }
+
+    /**
+     * The error map of the other endpoints, sent as the only item of an
+     * emitter since this endpoint only returns emitters.
+     */
+    private ResponseEntity<ResponseBodyEmitter> badRequest(String message) throws IOException {
+        log.warn("Rejected batch request: {}", message);
+        ResponseBodyEmitter emitter = new ResponseBodyEmitter();
+        emitter.send(responseBuilderService.buildErrorResponse(message), MediaType.APPLICATION_JSON);
+        emitter.complete();
+        return ResponseEntity.status(HttpStatus.BAD_REQUEST).contentType(MediaType.APPLICATION_JSON).body(emitter);
+    }
+}
@@ -0,0 +1,66 @@
+package com.example.B2XKlaim.Controller;
+
+import java.io.IOException;
+
+import org.springframework.http.HttpInputMessage;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.AbstractHttpMessageConverter;
+import org.springframework.http.converter.HttpMessageNotReadableException;
+import org.springframework.stereotype.Component;
+
+import com.example.B2XKlaim.Service.dto.BatchTranslationLine;
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Writes each {@link BatchTranslationLine} of a batch stream straight to the
+ * response body as one NDJSON line, with the result written by
+ * {@link TranslationResponseConverter#write}, so a line is never buffered
+ * before it is sent.
+ */
+@Component
+public class BatchTranslationLineConverter extends AbstractHttpMessageConverter<BatchTranslationLine> {
+
+    private final JsonFactory jsonFactory;
+
+    public BatchTranslationLineConverter(ObjectMapper objectMapper) {
+        super(BatchTranslationController.APPLICATION_NDJSON);
+        this.jsonFactory = objectMapper.getFactory();
+    }
+
+    @Override
+    protected boolean supports(Class<?> clazz) {
+        return BatchTranslationLine.class.isAssignableFrom(clazz);
+    }
+
+    @Override
+    protected boolean canRead(MediaType mediaType) {
+        return false;
+    }
+
+    @Override
+    protected BatchTranslationLine readInternal(Class<? extends BatchTranslationLine> clazz,
+                                                HttpInputMessage inputMessage) {
+        throw new HttpMessageNotReadableException("Batch translation lines are not read", inputMessage);
+    }
+
+    @Override
+    protected void writeInternal(BatchTranslationLine line, HttpOutputMessage outputMessage) throws IOException {
+        try (JsonGenerator generator = jsonFactory.createGenerator(outputMessage.getBody(), JsonEncoding.UTF8)) {
+            generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            generator.writeStartObject();
+            generator.writeNumberField("index", line.index());
+            if (line.result() != null) {
+                generator.writeFieldName("result");
+                TranslationResponseConverter.write(line.result(), generator);
+            } else {
+                generator.writeStringField("error", line.error());
+            }
+            generator.writeEndObject();
+            generator.writeRaw('\n');
+        }
+    }
+}
@@ -9,54 +9,67 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.CrossOrigin;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RestController;
 
-import com.example.B2XKlaim.Service.BpmnParsingService;
-import com.example.B2XKlaim.Service.CodeGenerationService;
-import com.example.B2XKlaim.Service.CodeGenerationService.GenerationResult;
 import com.example.B2XKlaim.Service.ResponseBuilderService;
-import com.example.B2XKlaim.Service.bpmnElements.BpmnElements;
+import com.example.B2XKlaim.Service.TranslationResponseCache;
+import com.example.B2XKlaim.Service.TranslationService;
+import com.example.B2XKlaim.Service.dto.TranslationRequest;
+import com.example.B2XKlaim.Service.dto.TranslationResponse;
 
 import lombok.extern.slf4j.Slf4j;
 
-@CrossOrigin(origins = "*")
+@CrossOrigin(origins = "*", exposedHeaders = "ETag")
 @RestController
 @Slf4j
 @EqualsAndHashCode(callSuper = false)
 public class TranslationController {
 
     @Autowired
-    private BpmnParsingService bpmnParsingService;
+    private TranslationService translationService;
 
     @Autowired
-    private CodeGenerationService codeGenerationService;
+    private ResponseBuilderService responseBuilderService;
 
     @Autowired
-    private ResponseBuilderService responseBuilderService;
+    private TranslationResponseCache translationResponseCache;
 
+    /**
+     * Translates the request's processes. A successful response is a
+     * {@link TranslationResponse}, written by {@link TranslationResponseConverter};
+     * a failure is an error map.
+     */
     @PostMapping("/generate-code")
-    public ResponseEntity<Map<String, Object>> generateCode(@RequestBody Map<String, Object> request) {
+    public ResponseEntity<?> generateCode(
+            @RequestBody TranslationRequest request,
+            @RequestHeader(value = "If-None-Match", required = false) String ifNoneMatch) {
         try {
             log.info("Received request to generate code");
 
             // Validate request
-            if (!request.containsKey("processes")) {
+            Map<String, String> processes = request.processes();
+            if (processes == null) {
                 throw new IllegalArgumentException("Missing 'processes' in request");
             }
 
-            // Parse BPMN processes
-            Map<String, Object> processes = (Map<String, Object>) request.get("processes");
-            Map<String, BpmnElements> parsedProcesses = bpmnParsingService.parseMultipleProcesses(processes);
-
-            // Generate code
-            GenerationResult generationResult = codeGenerationService.generateCode(parsedProcesses);
+            // Identical process sets are answered from the response cache
+            TranslationResponseCache.Key key = translationResponseCache.key(processes);
+            String eTag = "\"" + key.digest() + "\"";
+            TranslationResponse cached = translationResponseCache.get(key.digest());
+            if (cached != null) {
+                if (matchesETag(ifNoneMatch, eTag)) {
+                    log.info("Process set unchanged, responding 304");
+                    return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(eTag).build();
+                }
+                log.info("Code generation served from cache");
+                return ResponseEntity.ok().eTag(eTag).body(cached);
+            }
 
-            // Build response using the full generated code from the result
-            Map<String, Object> response = responseBuilderService.buildResponse(
-                generationResult, generationResult.getFullGeneratedCode());
+            TranslationResponse response = translationService.translate(key, processes);
 
             log.info("Code generation successful");
-            return ResponseEntity.ok(response);
+            return ResponseEntity.ok().eTag(eTag).body(response);
 
         } catch (Exception e) {
             log.error("Error during code generation: {}", e.getMessage(), e);
@@ -64,4 +77,26 @@ public class TranslationController {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(errorResponse);
         }
     }
-}
\ No newline at end of file
+
+    /**
+     * "*" is not honoured: it would answer any cached POST with 304, which
+     * RFC 9110 does not allow for a wildcard on unsafe methods.
+     *
+     * @return true if the If-None-Match header lists the ETag (weak or strong)
+     */
+    private static boolean matchesETag(String ifNoneMatch, String eTag) {
+        if (ifNoneMatch == null) {
+            return false;
+        }
+        for (String candidate : ifNoneMatch.split(",")) {
+            String tag = candidate.trim();
+            if (tag.startsWith("W/")) {
+                tag = tag.substring(2);
+            }
+            if (tag.equals(eTag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
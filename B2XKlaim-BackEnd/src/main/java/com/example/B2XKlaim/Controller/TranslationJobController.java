@@ -0,0 +1,92 @@
+package com.example.B2XKlaim.Controller;
+
+import java.net.URI;
+import java.util.Map;
+import java.util.concurrent.RejectedExecutionException;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.CrossOrigin;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.example.B2XKlaim.Service.ResponseBuilderService;
+import com.example.B2XKlaim.Service.TranslationJobService;
+import com.example.B2XKlaim.Service.dto.TranslationJob;
+import com.example.B2XKlaim.Service.dto.TranslationRequest;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Asynchronous translations for models too large to translate within a request:
+ * POST a request, poll the job until it has finished, and read the result from it.
+ */
+@CrossOrigin(origins = "*", exposedHeaders = {"Location", "Retry-After"})
+@RestController
+@Slf4j
+public class TranslationJobController {
+
+    /** Seconds a client is asked to wait before resubmitting when the queue is full. */
+    static final String RETRY_AFTER_SECONDS = "5";
+
+    @Autowired
+    private TranslationJobService translationJobService;
+
+    @Autowired
+    private ResponseBuilderService responseBuilderService;
+
+    /**
+     * Queues a translation.
+     *
+     * @return 202 with the queued job and its URL, 400 without processes, or 503 if the queue is full
+     */
+    @PostMapping("/translations")
+    public ResponseEntity<?> submit(@RequestBody TranslationRequest request) {
+        if (request.processes() == null) {
+            return error(HttpStatus.BAD_REQUEST, "Missing 'processes' in request");
+        }
+        try {
+            TranslationJob job = translationJobService.submit(request.processes());
+            return ResponseEntity.accepted().location(URI.create("/translations/" + job.id())).body(job);
+        } catch (RejectedExecutionException e) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .header(HttpHeaders.RETRY_AFTER, RETRY_AFTER_SECONDS)
+                    .body(responseBuilderService.buildErrorResponse("Too many translations queued, retry later"));
+        }
+    }
+
+    /**
+     * @return 200 with the job's status, and its result once it has succeeded, or 404
+     */
+    @GetMapping("/translations/{id}")
+    public ResponseEntity<?> get(@PathVariable String id) {
+        TranslationJob job = translationJobService.get(id);
+        return job != null ? ResponseEntity.ok(job) : notFound(id);
+    }
+
+    /**
+     * Cancels a queued or running job.
+     *
+     * @return 200 with the job's status after cancelling, or 404
+     */
+    @DeleteMapping("/translations/{id}")
+    public ResponseEntity<?> cancel(@PathVariable String id) {
+        TranslationJob job = translationJobService.cancel(id);
+        return job != null ? ResponseEntity.ok(job) : notFound(id);
+    }
+
+    private ResponseEntity<Map<String, Object>> notFound(String id) {
+        return error(HttpStatus.NOT_FOUND, "Unknown translation job: " + id);
+    }
+
+    private ResponseEntity<Map<String, Object>> error(HttpStatus status, String message) {
+        log.warn("Translation job request failed ({}): {}", status.value(), message);
+        return ResponseEntity.status(status).body(responseBuilderService.buildErrorResponse(message));
+    }
+}
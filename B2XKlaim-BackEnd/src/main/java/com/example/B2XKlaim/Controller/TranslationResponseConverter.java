@@ -0,0 +1,100 @@
+package com.example.B2XKlaim.Controller;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.http.HttpInputMessage;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.AbstractHttpMessageConverter;
+import org.springframework.http.converter.HttpMessageNotReadableException;
+import org.springframework.stereotype.Component;
+
+import com.example.B2XKlaim.Service.dto.ProcessEntry;
+import com.example.B2XKlaim.Service.dto.TranslationResponse;
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Writes {@link TranslationResponse}s to the response body with a
+ * {@link JsonGenerator}. The generated code goes out string by string as it is
+ * escaped, so a multi-MB response is neither held as a tree of maps nor
+ * serialized by reflection, and only the generator's buffer is allocated on
+ * top of the response itself. Spring Boot registers the converter ahead of
+ * the default Jackson one.
+ */
+@Component
+public class TranslationResponseConverter extends AbstractHttpMessageConverter<TranslationResponse> {
+
+    private final JsonFactory jsonFactory;
+
+    public TranslationResponseConverter(ObjectMapper objectMapper) {
+        super(MediaType.APPLICATION_JSON);
+        this.jsonFactory = objectMapper.getFactory();
+    }
+
+    @Override
+    protected boolean supports(Class<?> clazz) {
+        return TranslationResponse.class.isAssignableFrom(clazz);
+    }
+
+    @Override
+    protected boolean canRead(MediaType mediaType) {
+        return false;
+    }
+
+    @Override
+    protected TranslationResponse readInternal(Class<? extends TranslationResponse> clazz, HttpInputMessage inputMessage) {
+        throw new HttpMessageNotReadableException("Translation responses are not read", inputMessage);
+    }
+
+    @Override
+    protected void writeInternal(TranslationResponse response, HttpOutputMessage outputMessage) throws IOException {
+        try (JsonGenerator generator = jsonFactory.createGenerator(outputMessage.getBody(), JsonEncoding.UTF8)) {
+            generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            write(response, generator);
+        }
+    }
+
+    /**
+     * Writes the response as one JSON object, in the field order of the record.
+     */
+    public static void write(TranslationResponse response, JsonGenerator generator) throws IOException {
+        generator.writeStartObject();
+        generator.writeStringField("collaboration", response.collaboration());
+        generator.writeArrayFieldStart("processes");
+        for (ProcessEntry process : response.processes()) {
+            generator.writeStartObject();
+            generator.writeStringField("name", process.name());
+            generator.writeStringField("code", process.code());
+            generator.writeEndObject();
+        }
+        generator.writeEndArray();
+        writeCodeMap(generator, "callActivities", response.callActivities());
+        writeCodeMap(generator, "scriptTaskProcs", response.scriptTaskProcs());
+        writeCodeMap(generator, "eventSubProcesses", response.eventSubProcesses());
+        writeCodeMap(generator, "andBranchProcs", response.andBranchProcs());
+        generator.writeArrayFieldStart("participants");
+        for (String participant : response.participants()) {
+            generator.writeString(participant);
+        }
+        generator.writeEndArray();
+        generator.writeEndObject();
+    }
+
+    private static void writeCodeMap(JsonGenerator generator, String field, Map<String, List<String>> codes)
+            throws IOException {
+        generator.writeObjectFieldStart(field);
+        for (Map.Entry<String, List<String>> entry : codes.entrySet()) {
+            generator.writeArrayFieldStart(entry.getKey());
+            for (String code : entry.getValue()) {
+                generator.writeString(code);
+            }
+            generator.writeEndArray();
+        }
+        generator.writeEndObject();
+    }
+}
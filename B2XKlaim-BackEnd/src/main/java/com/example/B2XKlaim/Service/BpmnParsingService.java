@@ -1,13 +1,26 @@
 package com.example.B2XKlaim.Service;
 
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.springframework.stereotype.Service;
 
+import com.example.B2XKlaim.Service.Parser.BpmnContentHash;
 import com.example.B2XKlaim.Service.Parser.BpmnParser;
 import com.example.B2XKlaim.Service.bpmnElements.BpmnElements;
+import com.example.B2XKlaim.Service.cache.BoundedCache;
+import com.example.B2XKlaim.Service.cache.CacheStats;
 
+import jakarta.annotation.PreDestroy;
 import lombok.extern.slf4j.Slf4j;
 
 /**
@@ -18,39 +31,155 @@ import lombok.extern.slf4j.Slf4j;
 @Slf4j
 public class BpmnParsingService {
 
+    /**
+     * Parsing is CPU-bound, so processes are parsed on a fixed pool sized to the
+     * machine rather than one thread per process.
+     */
+    private final ExecutorService parsingExecutor;
+
+    /**
+     * Parsed processes keyed by {@link BpmnContentHash} of their XML. The modeler
+     * resends every process on each request, usually with at most one changed,
+     * so unchanged processes skip parsing and interaction analysis entirely.
+     * Entries are weighed by the length of their XML.
+     */
+    private final BoundedCache<String, BpmnElements> parseCache;
+
+    static final int DEFAULT_CACHE_ENTRIES = 512;
+    static final long DEFAULT_CACHE_WEIGHT = 32L * 1024 * 1024;
+
+    public BpmnParsingService() {
+        this(Runtime.getRuntime().availableProcessors());
+    }
+
+    public BpmnParsingService(int parallelism) {
+        this(parallelism, DEFAULT_CACHE_ENTRIES, DEFAULT_CACHE_WEIGHT);
+    }
+
+    /**
+     * @param parallelism number of processes parsed at the same time
+     * @param cacheEntries maximum number of cached parses; 0 disables the cache
+     * @param cacheWeight maximum total length, in chars, of the XML of the cached processes
+     */
+    public BpmnParsingService(int parallelism, int cacheEntries, long cacheWeight) {
+        this.parsingExecutor = Executors.newFixedThreadPool(Math.max(1, parallelism), parserThreads());
+        this.parseCache = new BoundedCache<>(cacheEntries, cacheWeight);
+    }
+
+    private static ThreadFactory parserThreads() {
+        AtomicInteger counter = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, "bpmn-parser-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        parsingExecutor.shutdownNow();
+    }
+
     /**
      * Parses multiple BPMN processes from a map of process IDs to XML content.
+     * Each process is parsed and analysed concurrently with its own parser; the
+     * results are merged in the iteration order of {@code processes}, so the
+     * returned map is the same as a sequential parse would build.
      * 
      * @param processes Map of process ID to XML content
      * @return Map of process ID to parsed BpmnElements
-     * @throws RuntimeException if parsing fails for any process
+     * @throws RuntimeException if parsing fails for any process; the first failing
+     *         process in iteration order is reported, the others are suppressed
      */
-    public Map<String, BpmnElements> parseMultipleProcesses(Map<String, Object> processes) {
+    public Map<String, BpmnElements> parseMultipleProcesses(Map<String, ?> processes) {
+        return parseMultipleProcesses(processes, Map.of());
+    }
+
+    /**
+     * As {@link #parseMultipleProcesses(Map)}, with the {@link BpmnContentHash}
+     * of processes whose XML has already been hashed, e.g. for the response
+     * cache; those are looked up in the parse cache without hashing them again.
+     *
+     * @param processes Map of process ID to XML content
+     * @param contentHashes Content hash of the XML by process ID; processes without one are hashed here
+     * @return Map of process ID to parsed BpmnElements
+     */
+    public Map<String, BpmnElements> parseMultipleProcesses(Map<String, ?> processes,
+                                                            Map<String, String> contentHashes) {
         log.info("Parsing {} BPMN processes", processes.size());
-        
-        Map<String, BpmnElements> parsedProcesses = new HashMap<>();
-        BpmnParser parser = new BpmnParser();
 
-        for (Map.Entry<String, Object> entry : processes.entrySet()) {
+        Map<String, Future<BpmnElements>> pending = new LinkedHashMap<>();
+        for (Map.Entry<String, ?> entry : processes.entrySet()) {
             String processId = entry.getKey();
             String xml = (String) entry.getValue();
-            
+            String contentHash = contentHashes.get(processId);
+            pending.put(processId, parsingExecutor.submit(() -> parseProcess(processId, xml, contentHash)));
+        }
+
+        Map<String, BpmnElements> parsedProcesses = new HashMap<>();
+        List<RuntimeException> failures = new ArrayList<>();
+        for (Map.Entry<String, Future<BpmnElements>> entry : pending.entrySet()) {
+            String processId = entry.getKey();
             try {
-                log.debug("Parsing process: {}", processId);
-                BpmnElements elements = parser.parse(xml);
-                elements.analyzeInteractions();
-                parsedProcesses.put(processId, elements);
-                log.debug("Successfully parsed process: {}", processId);
-            } catch (Exception e) {
-                log.error("Error parsing process '{}': {}", processId, e.getMessage(), e);
-                throw new RuntimeException("Failed to parse process: " + processId, e);
+                parsedProcesses.put(processId, entry.getValue().get());
+            } catch (ExecutionException e) {
+                Throwable cause = e.getCause();
+                log.error("Error parsing process '{}': {}", processId, cause.getMessage(), cause);
+                failures.add(new RuntimeException("Failed to parse process: " + processId, cause));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                pending.values().forEach(future -> future.cancel(true));
+                throw new RuntimeException("Interrupted while parsing process: " + processId, e);
             }
         }
 
-        log.info("Successfully parsed all {} processes", parsedProcesses.size());
+        if (!failures.isEmpty()) {
+            RuntimeException first = failures.get(0);
+            failures.stream().skip(1).forEach(first::addSuppressed);
+            throw first;
+        }
+
+        log.info("Successfully parsed all {} processes ({})", parsedProcesses.size(), parseCache.stats());
         return parsedProcesses;
     }
 
+    /**
+     * Parses and analyses one process, or returns the cached result for identical
+     * model XML. Returned elements are frozen, since cached ones are shared
+     * between requests.
+     */
+    private BpmnElements parseProcess(String processId, String xml, String contentHash) throws Exception {
+        String key = contentHash != null ? contentHash : BpmnContentHash.of(xml);
+        BpmnElements cached = parseCache.get(key);
+        if (cached != null) {
+            log.debug("Parse cache hit for process: {}", processId);
+            return cached;
+        }
+
+        log.debug("Parsing process: {}", processId);
+        BpmnElements frozen = parseAndAnalyze(xml).toSnapshot();
+        parseCache.put(key, frozen, xml.length());
+        log.debug("Successfully parsed process: {}", processId);
+        return frozen;
+    }
+
+    /**
+     * Parses and analyses without keeping a reference, so the caller can snapshot
+     * the result and hand its elements over.
+     */
+    private static BpmnElements parseAndAnalyze(String xml) throws Exception {
+        BpmnElements elements = new BpmnParser().parse(xml);
+        elements.analyzeInteractions();
+        return elements;
+    }
+
+    /**
+     * @return hit/miss/eviction counters of the parse cache
+     */
+    public CacheStats getParseCacheStats() {
+        return parseCache.stats();
+    }
+
     /**
      * Parses a single BPMN XML content.
      * 
@@ -62,9 +191,7 @@ public class BpmnParsingService {
         log.info("Parsing single BPMN process");
         
         try {
-            BpmnParser parser = new BpmnParser();
-            BpmnElements elements = parser.parse(xml);
-            elements.analyzeInteractions();
+            BpmnElements elements = parseProcess("single", xml, null);
             log.info("Successfully parsed single process");
             return elements;
         } catch (Exception e) {
@@ -9,6 +9,8 @@ import java.util.regex.Pattern;
 
 import org.springframework.stereotype.Service;
 
+import com.example.B2XKlaim.Service.codeGenerator.CodeBlock;
+
 import lombok.extern.slf4j.Slf4j;
 
 /**
@@ -119,7 +121,48 @@ public class CodeFormattingService {
     }
 
     /**
-     * Applies proper indentation and spacing to XKlaim proc code.
+     * Cuts the 'net ... { ... }' block out of the generated code at the range
+     * the generator recorded, without scanning the code.
+     * 
+     * @param fullCode The complete generated XKlaim code
+     * @param blocks The blocks recorded while generating {@code fullCode}
+     * @return The collaboration block, or "" if none was generated
+     */
+    public String collaborationBlock(String fullCode, List<CodeBlock> blocks) {
+        for (CodeBlock block : blocks) {
+            if (block.kind() == CodeBlock.Kind.NET) {
+                return block.code(fullCode).trim();
+            }
+        }
+        log.warn("No net block was recorded for the generated code");
+        return "";
+    }
+
+    /**
+     * Cuts the 'proc ... { ... }' blocks out of the generated code at the
+     * ranges the generator recorded, without scanning the code.
+     * 
+     * @param fullCode The complete generated XKlaim code
+     * @param blocks The blocks recorded while generating {@code fullCode}
+     * @return List of process entries with name and code
+     */
+    public List<Map<String, String>> processBlocks(String fullCode, List<CodeBlock> blocks) {
+        List<Map<String, String>> processes = new ArrayList<>();
+        for (CodeBlock block : blocks) {
+            if (block.kind() == CodeBlock.Kind.PROC) {
+                Map<String, String> processEntry = new HashMap<>();
+                processEntry.put("name", block.name());
+                processEntry.put("code", block.code(fullCode).trim());
+                processes.add(processEntry);
+            }
+        }
+        log.debug("Took {} process blocks from the recorded ranges", processes.size());
+        return processes;
+    }
+
+    /**
+     * Applies proper indentation and spacing to XKlaim proc code, in one pass
+     * over its characters (see {@link ProcessCodeFormatter}).
      * 
      * @param rawCode The unindented code block
      * @param indentString The indentation string (e.g., "  ")
@@ -131,61 +174,7 @@ public class CodeFormattingService {
         }
 
         log.trace("Formatting process code ({} characters)", rawCode.length());
-        
-        // First, clean and normalize the code
-        String cleanedCode = cleanAndNormalizeCode(rawCode);
-        
-        StringBuilder indentedCode = new StringBuilder();
-        int currentIndentLevel = 0;
-        String[] lines = cleanedCode.trim().split("\\r?\\n");
-
-        for (int i = 0; i < lines.length; i++) {
-            String trimmedLine = lines[i].trim();
-            
-            if (trimmedLine.isEmpty()) {
-                indentedCode.append("\n");
-                continue;
-            }
-
-            // Decrease indent level before processing closing braces and else statements
-            if (trimmedLine.equals("}") || trimmedLine.startsWith("} else")) {
-                if (currentIndentLevel > 0) {
-                    currentIndentLevel--;
-                }
-            }
-
-            // Apply indentation (skip for first "proc..." line)
-            boolean isProcStart = i == 0 && trimmedLine.startsWith("proc ");
-            if (!isProcStart) {
-                indentedCode.append(indentString.repeat(currentIndentLevel));
-            }
-
-            // Format the line content for better readability
-            String formattedLine = formatLineContent(trimmedLine);
-            indentedCode.append(formattedLine);
-
-            // Add proper line breaks
-            if (shouldAddExtraLineBreak(formattedLine, i, lines)) {
-                indentedCode.append("\n\n");
-            } else {
-                indentedCode.append("\n");
-            }
-
-            // Increase indent level after processing opening braces
-            if (formattedLine.endsWith("{") && !formattedLine.startsWith("/*") && !formattedLine.startsWith("//")) {
-                currentIndentLevel++;
-            }
-            
-            // Handle immediate block close (e.g., proc foo() {})
-            if (formattedLine.contains("{") && formattedLine.endsWith("}") && 
-                !formattedLine.startsWith("/*") && !formattedLine.startsWith("//")) {
-                if (currentIndentLevel > 0) {
-                    currentIndentLevel--;
-                }
-            }
-        }
-
-        return indentedCode.toString().trim() + "\n";
+        return ProcessCodeFormatter.format(rawCode, indentString);
     }
 
     /**
@@ -241,90 +230,4 @@ public class CodeFormattingService {
         
         return -1; // No matching brace found
     }
-
-    /**
-     * Cleans and normalizes the code by removing extra whitespace and fixing common formatting issues.
-     */
-    private String cleanAndNormalizeCode(String rawCode) {
-        if (rawCode == null || rawCode.isEmpty()) {
-            return "";
-        }
-
-        // Normalize line endings and remove excessive whitespace
-        String cleaned = rawCode
-            .replaceAll("\\r\\n", "\n")  // Normalize line endings
-            .replaceAll("\\r", "\n")     // Normalize line endings
-            .replaceAll("\\n\\s*\\n\\s*\\n+", "\n\n") // Reduce multiple empty lines to double
-            .replaceAll("\\s+$", "")     // Remove trailing whitespace from each line
-            .trim();
-
-        return cleaned;
-    }
-
-    /**
-     * Formats individual line content for better readability.
-     */
-    private String formatLineContent(String line) {
-        if (line == null || line.isEmpty()) {
-            return line;
-        }
-
-        String formatted = line;
-
-        // Add spaces around control structures
-        formatted = formatted.replaceAll("if\\s*\\(", "if (");
-        formatted = formatted.replaceAll("else\\s*\\{", "else {");
-        formatted = formatted.replaceAll("\\}\\s*else\\s*\\{", "} else {");
-
-        // Add spaces around operators but preserve existing spacing in comments
-        if (!formatted.trim().startsWith("/*") && !formatted.trim().startsWith("//")) {
-            // Add space after commas if not already present
-            formatted = formatted.replaceAll(",(?!\\s)", ", ");
-            
-            // Fix spacing around @ symbols in X-Klaim specific syntax
-            formatted = formatted.replaceAll("\\)\\s*@\\s*", ")@");
-            
-            // Ensure proper spacing in eval statements
-            formatted = formatted.replaceAll("eval\\s*\\(", "eval(");
-            formatted = formatted.replaceAll("new\\s+", "new ");
-            
-            // Clean up excessive spaces but preserve intentional indentation
-            formatted = formatted.replaceAll("\\s{2,}", " ").trim();
-        }
-
-        return formatted;
-    }
-
-    /**
-     * Determines if an extra line break should be added after the current line.
-     */
-    private boolean shouldAddExtraLineBreak(String currentLine, int currentIndex, String[] allLines) {
-        if (currentLine == null || currentLine.isEmpty()) {
-            return false;
-        }
-
-        // Add extra line break after proc declaration
-        if (currentLine.matches("proc\\s+\\w+.*\\{")) {
-            return true;
-        }
-
-        // Add extra line break before else statements
-        if (currentIndex < allLines.length - 1) {
-            String nextLine = allLines[currentIndex + 1].trim();
-            if (nextLine.startsWith("else") || nextLine.equals("}")) {
-                return false; // Don't add extra space before else or closing brace
-            }
-        }
-
-        // Add extra line break after closing braces (except the final one)
-        if (currentLine.equals("}") && currentIndex < allLines.length - 1) {
-            String nextLine = allLines[currentIndex + 1].trim();
-            // Don't add extra space if next line is another closing brace or else
-            if (!nextLine.equals("}") && !nextLine.startsWith("else")) {
-                return true;
-            }
-        }
-
-        return false;
-    }
 }
\ No newline at end of file
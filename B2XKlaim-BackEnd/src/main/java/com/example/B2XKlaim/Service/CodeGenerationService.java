@@ -1,19 +1,34 @@
 package com.example.B2XKlaim.Service;
 
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
 import com.example.B2XKlaim.Service.bpmnElements.BpmnElements;
 import com.example.B2XKlaim.Service.builder.GenerationResultBuilder;
+import com.example.B2XKlaim.Service.codeGenerator.CodeBlock;
 import com.example.B2XKlaim.Service.codeGenerator.Generator;
 import com.example.B2XKlaim.Service.strategy.CodeGenerationStrategy;
 import com.example.B2XKlaim.Service.strategy.CollaborationCodeStrategy;
 import com.example.B2XKlaim.Service.strategy.StandaloneProcessStrategy;
 
+import jakarta.annotation.PreDestroy;
+import lombok.Builder;
+import lombok.Getter;
 import lombok.extern.slf4j.Slf4j;
 
 /**
@@ -30,9 +45,42 @@ public class CodeGenerationService {
     @Autowired
     private StandaloneProcessStrategy standaloneProcessStrategy;
 
+    static final String STAGE_STRATEGY = "strategy";
+    static final String STAGE_CALL_ACTIVITIES = "callActivities";
+    static final String STAGE_SCRIPT_TASKS = "scriptTasks";
+    static final String STAGE_EVENT_SUB_PROCESSES = "eventSubProcesses";
+    static final String STAGE_AND_BRANCH_PROCS = "andBranchProcs";
+
+    private static final List<String> STAGES = List.of(STAGE_STRATEGY, STAGE_CALL_ACTIVITIES,
+            STAGE_SCRIPT_TASKS, STAGE_EVENT_SUB_PROCESSES, STAGE_AND_BRANCH_PROCS);
+
+    /**
+     * Runs the call activity, script task and event sub-process stages while the
+     * request thread runs the strategy. Sized like the parsing pool; the stages
+     * are CPU-bound and never submit further work here.
+     */
+    private final ExecutorService stageExecutor = Executors.newFixedThreadPool(
+            Math.max(3, Runtime.getRuntime().availableProcessors()), stageThreads());
+
+    private static ThreadFactory stageThreads() {
+        AtomicInteger counter = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, "codegen-stage-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        stageExecutor.shutdownNow();
+    }
+
     /**
      * Result object containing all generated code components.
      */
+    @Getter
+    @Builder(toBuilder = true)
     public static class GenerationResult {
         private final String collaborationCode;
         private final String fullGeneratedCode;
@@ -42,29 +90,14 @@ public class CodeGenerationService {
         private final Map<String, List<String>> eventSubProcesses;
         private final Map<String, List<String>> andBranchProcs;
         private final Set<String> participants;
-
-        public GenerationResult(String collaborationCode, String fullGeneratedCode, List<ProcessCode> processes,
-                              Map<String, List<String>> callActivities, Map<String, List<String>> scriptTasks,
-                              Map<String, List<String>> eventSubProcesses, Map<String, List<String>> andBranchProcs,
-                              Set<String> participants) {
-            this.collaborationCode = collaborationCode;
-            this.fullGeneratedCode = fullGeneratedCode;
-            this.processes = processes;
-            this.callActivities = callActivities;
-            this.scriptTasks = scriptTasks;
-            this.eventSubProcesses = eventSubProcesses;
-            this.andBranchProcs = andBranchProcs;
-            this.participants = participants;
-        }
-
-        public String getCollaborationCode() { return collaborationCode; }
-        public String getFullGeneratedCode() { return fullGeneratedCode; }
-        public List<ProcessCode> getProcesses() { return processes; }
-        public Map<String, List<String>> getCallActivities() { return callActivities; }
-        public Map<String, List<String>> getScriptTasks() { return scriptTasks; }
-        public Map<String, List<String>> getEventSubProcesses() { return eventSubProcesses; }
-        public Map<String, List<String>> getAndBranchProcs() { return andBranchProcs; }
-        public Set<String> getParticipants() { return participants; }
+        /** Wall-clock time of each generation stage, in execution order. */
+        @Builder.Default
+        private final Map<String, Duration> stageTimings = Map.of();
+        /** Tuple operations (outs and ins) the optimizer removed from the generated code. */
+        private final long eliminatedTupleOperations;
+        /** The net and procs of the full generated code, as the generator emitted them; empty if unknown. */
+        @Builder.Default
+        private final List<CodeBlock> codeBlocks = List.of();
     }
 
     /**
@@ -85,6 +118,10 @@ public class CodeGenerationService {
 
     /**
      * Generates XKlaim code from parsed BPMN processes using strategy pattern.
+     * The call activity, script task and event sub-process stages only read the
+     * parsed model, so they run on the stage pool while the strategy runs on the
+     * calling thread; the request then takes about as long as its slowest stage.
+     * AND branch procs are collected once every stage has finished.
      * 
      * @param parsedProcesses Map of process ID to BpmnElements
      * @return GenerationResult containing all generated code components
@@ -94,42 +131,115 @@ public class CodeGenerationService {
 
         Generator codeGenerator = new Generator(parsedProcesses);
         BpmnElements mainBpmnElements = parsedProcesses.get("main");
+        Map<String, Duration> timings = new ConcurrentHashMap<>();
+        long started = System.nanoTime();
 
+        List<Future<?>> pending = new ArrayList<>();
         try {
             // Select appropriate strategy
             CodeGenerationStrategy strategy = selectStrategy(mainBpmnElements);
             log.info("Using strategy: {}", strategy.getStrategyName());
 
+            // Generate supporting elements
+            Future<Map<String, List<String>>> callActivities =
+                    submitStage(STAGE_CALL_ACTIVITIES, timings, codeGenerator::translateCallActivity, pending);
+            Future<Map<String, List<String>>> scriptTasks =
+                    submitStage(STAGE_SCRIPT_TASKS, timings, codeGenerator::translateST, pending);
+            Future<Map<String, List<String>>> eventSubProcesses =
+                    submitStage(STAGE_EVENT_SUB_PROCESSES, timings, codeGenerator::translateEventSubProcesses, pending);
+
             // Generate code using strategy
-            String collaborationCode = strategy.generateCollaborationCode(codeGenerator, mainBpmnElements);
-            List<ProcessCode> processes = strategy.generateProcesses(codeGenerator, mainBpmnElements, collaborationCode);
+            String collaborationCode = timed(STAGE_STRATEGY, timings,
+                    () -> strategy.generateCollaborationCode(codeGenerator, mainBpmnElements));
+            List<ProcessCode> processes = timed(STAGE_STRATEGY, timings,
+                    () -> strategy.generateProcesses(codeGenerator, mainBpmnElements, collaborationCode));
             Set<String> participants = strategy.extractParticipants(mainBpmnElements);
 
-            // Generate supporting elements
-            Map<String, List<String>> callActivities = codeGenerator.translateCallActivity();
-            Map<String, List<String>> scriptTasks = codeGenerator.translateST();
-            Map<String, List<String>> eventSubProcesses = codeGenerator.translateEventSubProcesses();
-            Map<String, List<String>> andBranchProcs = codeGenerator.translateAndBranchProcs();
-
-            log.info("Code generation completed successfully using {}", strategy.getStrategyName());
-            
-            // Build result using GenerationResultBuilder
-            return GenerationResultBuilder.create()
+            GenerationResultBuilder result = GenerationResultBuilder.create()
                     .withCode(collaborationCode)
                     .withProcesses(processes)
-                    .withCallActivities(callActivities)
-                    .withScriptTasks(scriptTasks)
-                    .withEventSubProcesses(eventSubProcesses)
-                    .withAndBranchProcs(andBranchProcs)
-                    .withParticipants(participants)
+                    .withCallActivities(await(callActivities))
+                    .withScriptTasks(await(scriptTasks))
+                    .withEventSubProcesses(await(eventSubProcesses))
+                    .withParticipants(participants);
+            result.withAndBranchProcs(timed(STAGE_AND_BRANCH_PROCS, timings, codeGenerator::translateAndBranchProcs));
+
+            Map<String, Duration> stageTimings = orderedTimings(timings);
+            long eliminated = codeGenerator.getEliminatedTupleOperations();
+            log.info("Code generation completed successfully using {} in {} ms (stages: {}, tuple operations eliminated: {})",
+                    strategy.getStrategyName(), Duration.ofNanos(System.nanoTime() - started).toMillis(),
+                    describe(stageTimings), eliminated);
+
+            // Build result using GenerationResultBuilder
+            return result.withStageTimings(stageTimings)
+                    .withEliminatedTupleOperations(eliminated)
+                    .withCodeBlocks(codeGenerator.getCollaborationBlocks())
                     .build();
 
         } catch (Exception e) {
+            pending.forEach(future -> future.cancel(true));
             log.error("Error during code generation: {}", e.getMessage(), e);
             throw new RuntimeException("Code generation failed", e);
         }
     }
 
+    private <T> Future<T> submitStage(String stage, Map<String, Duration> timings, Callable<T> work,
+                                      List<Future<?>> pending) {
+        Future<T> future = stageExecutor.submit(() -> timed(stage, timings, work));
+        pending.add(future);
+        return future;
+    }
+
+    /**
+     * Runs one stage and adds its wall-clock time to the stage's total.
+     */
+    private static <T> T timed(String stage, Map<String, Duration> timings, Callable<T> work) throws Exception {
+        long start = System.nanoTime();
+        try {
+            return work.call();
+        } finally {
+            Duration elapsed = Duration.ofNanos(System.nanoTime() - start);
+            timings.merge(stage, elapsed, Duration::plus);
+            log.debug("Stage '{}' took {} ms", stage, elapsed.toMillis());
+        }
+    }
+
+    /**
+     * Waits for a stage and rethrows its failure as the original exception.
+     */
+    private static <T> T await(Future<T> stage) throws Exception {
+        try {
+            return stage.get();
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof Exception exception) throw exception;
+            throw e;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw e;
+        }
+    }
+
+    private static Map<String, Duration> orderedTimings(Map<String, Duration> timings) {
+        Map<String, Duration> ordered = new LinkedHashMap<>();
+        for (String stage : STAGES) {
+            Duration elapsed = timings.get(stage);
+            if (elapsed != null) {
+                ordered.put(stage, elapsed);
+            }
+        }
+        return ordered;
+    }
+
+    private static String describe(Map<String, Duration> timings) {
+        StringBuilder description = new StringBuilder();
+        timings.forEach((stage, elapsed) -> {
+            if (description.length() > 0) description.append(", ");
+            description.append(stage).append('=').append(elapsed.toMillis()).append("ms");
+        });
+        return description.toString();
+    }
+
     /**
      * Selects the appropriate code generation strategy based on BPMN elements.
      * 
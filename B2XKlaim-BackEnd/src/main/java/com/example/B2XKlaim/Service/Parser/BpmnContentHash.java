@@ -0,0 +1,114 @@
+/*
+ * Copyright 2023 Khalid BOURR
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.example.B2XKlaim.Service.Parser;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+
+/**
+ * Content address of a BPMN document: the SHA-256 of its model part.
+ *
+ * The XML is normalized the way {@link BpmnStreamReader} reads it before hashing:
+ * {@code bpmndi:*} elements are cut out and line endings are unified, so moving a
+ * shape in the modeler or saving on another platform does not change the hash,
+ * while any change to the model does.
+ */
+public final class BpmnContentHash {
+
+    private static final String DI_OPEN = "<bpmndi:";
+
+    private BpmnContentHash() {
+    }
+
+    /**
+     * @return lowercase hex SHA-256 of the normalized XML
+     */
+    public static String of(String xml) {
+        return digest(normalize(xml));
+    }
+
+    /**
+     * @return lowercase hex SHA-256 of XML already passed through {@link #normalize(String)}
+     */
+    public static String digest(String normalizedXml) {
+        return HexFormat.of().formatHex(sha256().digest(normalizedXml.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    /**
+     * @return the XML without diagram interchange elements and with {@code \n} line endings
+     */
+    public static String normalize(String xml) {
+        StringBuilder model = new StringBuilder(xml.length());
+        int position = 0;
+        int diStart;
+        while ((diStart = xml.indexOf(DI_OPEN, position)) >= 0) {
+            appendWithUnixLineEndings(model, xml, position, diStart);
+            position = endOfElement(xml, diStart);
+        }
+        appendWithUnixLineEndings(model, xml, position, xml.length());
+        return model.toString();
+    }
+
+    /**
+     * @return index just past the element opened at {@code start}, or the end of
+     *         the input if it is not closed
+     */
+    private static int endOfElement(String xml, int start) {
+        int nameEnd = start + 1;
+        while (nameEnd < xml.length() && !isNameTerminator(xml.charAt(nameEnd))) {
+            nameEnd++;
+        }
+        int tagEnd = xml.indexOf('>', nameEnd);
+        if (tagEnd < 0) {
+            return xml.length();
+        }
+        if (xml.charAt(tagEnd - 1) == '/') {
+            return tagEnd + 1;
+        }
+        String closing = "</" + xml.substring(start + 1, nameEnd) + ">";
+        int close = xml.indexOf(closing, tagEnd);
+        return close < 0 ? xml.length() : close + closing.length();
+    }
+
+    private static boolean isNameTerminator(char c) {
+        return c == '>' || c == '/' || Character.isWhitespace(c);
+    }
+
+    private static void appendWithUnixLineEndings(StringBuilder out, String xml, int from, int to) {
+        for (int i = from; i < to; i++) {
+            char c = xml.charAt(i);
+            if (c == '\r') {
+                out.append('\n');
+                if (i + 1 < to && xml.charAt(i + 1) == '\n') {
+                    i++;
+                }
+            } else {
+                out.append(c);
+            }
+        }
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+}
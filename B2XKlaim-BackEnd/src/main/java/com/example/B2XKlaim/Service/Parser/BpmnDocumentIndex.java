@@ -0,0 +1,285 @@
+/*
+ * Copyright 2023 Khalid BOURR
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.example.B2XKlaim.Service.Parser;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+import org.w3c.dom.Node;
+
+import com.example.B2XKlaim.Service.Parser.graph.ControlFlowGraph;
+import com.example.B2XKlaim.Service.bpmnElements.ParticipantOwnership;
+
+/**
+ * Lookup tables over a BPMN {@link Document}, built in a single traversal.
+ *
+ * The factory used to resolve every id and flow with a linear scan of the DOM,
+ * which made parsing quadratic in the size of the diagram. This index is built
+ * once per document and answers the same questions with hash lookups:
+ * element by id, sequence flow by id, incoming/outgoing flows of an element,
+ * flows by source/target and the enclosing process of an element.
+ *
+ * The index reflects the document at construction time; it must be rebuilt
+ * if the DOM is modified afterwards.
+ */
+public class BpmnDocumentIndex {
+
+    private static final List<String> NO_FLOWS = Collections.emptyList();
+
+    private final Map<String, Element> elementsById = new HashMap<>();
+    private final Map<String, Integer> documentOrder = new HashMap<>();
+    private final Map<String, Element> sequenceFlowsById = new HashMap<>();
+    private final Map<String, List<String>> incomingByElement = new HashMap<>();
+    private final Map<String, List<String>> outgoingByElement = new HashMap<>();
+    private final Set<String> flowNodeIds = new LinkedHashSet<>();
+    private final Map<String, List<String>> flowsBySourceRef = new HashMap<>();
+    private final Map<String, List<String>> flowsByTargetRef = new HashMap<>();
+    private final Map<String, String> processIdByElement = new HashMap<>();
+    private final Map<String, Element> processesById = new HashMap<>();
+    private final Map<String, Element> participantsById = new HashMap<>();
+    private final Map<String, String> participantIdByProcessRef = new HashMap<>();
+    private final Map<String, String> participantNameById = new HashMap<>();
+    private final Map<String, String> signalThrowersBySignalRef = new HashMap<>();
+    private ParticipantOwnership participantOwnership;
+    private ControlFlowGraph controlFlowGraph;
+
+    public BpmnDocumentIndex(Document document) {
+        if (document != null && document.getDocumentElement() != null) {
+            index(document.getDocumentElement(), null);
+        }
+    }
+
+    /**
+     * Depth-first walk in document order so that "first match wins" lookups
+     * behave exactly like the former {@code getElementsByTagName("*")} scans.
+     */
+    private void index(Element root, String rootProcessId) {
+        List<Element> stack = new ArrayList<>();
+        List<String> processStack = new ArrayList<>();
+        stack.add(root);
+        processStack.add(rootProcessId);
+
+        while (!stack.isEmpty()) {
+            int last = stack.size() - 1;
+            Element element = stack.remove(last);
+            String enclosingProcessId = processStack.remove(last);
+
+            String tagName = element.getTagName();
+            String id = element.getAttribute("id");
+            String childProcessId = enclosingProcessId;
+
+            if (!id.isEmpty()) {
+                if (elementsById.putIfAbsent(id, element) == null) {
+                    documentOrder.put(id, documentOrder.size());
+                    if (enclosingProcessId != null) {
+                        processIdByElement.put(id, enclosingProcessId);
+                    }
+                }
+            }
+
+            switch (tagName) {
+                case "bpmn:process":
+                    processesById.putIfAbsent(id, element);
+                    childProcessId = id;
+                    break;
+                case "bpmn:participant":
+                    if (participantsById.putIfAbsent(id, element) == null) {
+                        participantIdByProcessRef.putIfAbsent(element.getAttribute("processRef"), id);
+                        participantNameById.put(id, element.getAttribute("name"));
+                    }
+                    break;
+                case "bpmn:sequenceFlow":
+                    if (sequenceFlowsById.putIfAbsent(id, element) == null) {
+                        append(flowsBySourceRef, element.getAttribute("sourceRef"), id);
+                        append(flowsByTargetRef, element.getAttribute("targetRef"), id);
+                    }
+                    break;
+                case "bpmn:incoming":
+                case "bpmn:outgoing":
+                    Node parent = element.getParentNode();
+                    if (parent != null && parent.getNodeType() == Node.ELEMENT_NODE) {
+                        String ownerId = ((Element) parent).getAttribute("id");
+                        flowNodeIds.add(ownerId);
+                        append("bpmn:incoming".equals(tagName) ? incomingByElement : outgoingByElement,
+                                ownerId, element.getTextContent());
+                    }
+                    break;
+                case "bpmn:signalEventDefinition":
+                    Node owner = element.getParentNode();
+                    if (owner != null && owner.getNodeType() == Node.ELEMENT_NODE) {
+                        String ownerTag = ((Element) owner).getTagName();
+                        if ("bpmn:intermediateThrowEvent".equals(ownerTag) || "bpmn:endEvent".equals(ownerTag)) {
+                            signalThrowersBySignalRef.putIfAbsent(element.getAttribute("signalRef"),
+                                    ((Element) owner).getAttribute("id"));
+                        }
+                    }
+                    break;
+                default:
+                    break;
+            }
+
+            // push children in reverse so they are popped in document order
+            for (Node child = element.getLastChild(); child != null; child = child.getPreviousSibling()) {
+                if (child.getNodeType() == Node.ELEMENT_NODE) {
+                    stack.add((Element) child);
+                    processStack.add(childProcessId);
+                }
+            }
+        }
+    }
+
+    private static void append(Map<String, List<String>> map, String key, String value) {
+        map.computeIfAbsent(key, k -> new ArrayList<>()).add(value);
+    }
+
+    /**
+     * @return the first element in document order carrying this id, or null
+     */
+    public Element getElementById(String id) {
+        return id == null ? null : elementsById.get(id);
+    }
+
+    /**
+     * @return the {@code bpmn:sequenceFlow} element with this id, or null
+     */
+    public Element getSequenceFlow(String flowId) {
+        return flowId == null ? null : sequenceFlowsById.get(flowId);
+    }
+
+    /**
+     * @return the target element of a sequence flow, or null if either is unknown
+     */
+    public Element getFlowTarget(String flowId) {
+        Element flow = getSequenceFlow(flowId);
+        return flow == null ? null : getElementById(flow.getAttribute("targetRef"));
+    }
+
+    /**
+     * @return the flow ids listed in the element's {@code bpmn:incoming} children
+     */
+    public List<String> getIncomingFlowIds(String elementId) {
+        return Collections.unmodifiableList(incomingByElement.getOrDefault(elementId, NO_FLOWS));
+    }
+
+    /**
+     * @return the flow ids listed in the element's {@code bpmn:outgoing} children
+     */
+    public List<String> getOutgoingFlowIds(String elementId) {
+        return Collections.unmodifiableList(outgoingByElement.getOrDefault(elementId, NO_FLOWS));
+    }
+
+    /**
+     * @return ids of the sequence flows whose {@code sourceRef} is this element
+     */
+    public List<String> getFlowsFrom(String elementId) {
+        return Collections.unmodifiableList(flowsBySourceRef.getOrDefault(elementId, NO_FLOWS));
+    }
+
+    /**
+     * @return ids of the sequence flows whose {@code targetRef} is this element
+     */
+    public List<String> getFlowsTo(String elementId) {
+        return Collections.unmodifiableList(flowsByTargetRef.getOrDefault(elementId, NO_FLOWS));
+    }
+
+    /**
+     * @return the id of the closest enclosing {@code bpmn:process}, or null
+     */
+    public String getProcessIdOf(String elementId) {
+        return elementId == null ? null : processIdByElement.get(elementId);
+    }
+
+    /**
+     * @return the {@code bpmn:process} element with this id, or null
+     */
+    public Element getProcess(String processId) {
+        return processId == null ? null : processesById.get(processId);
+    }
+
+    /**
+     * @return the name attribute of the process, or null if there is no such process
+     */
+    public String getProcessName(String processId) {
+        Element process = getProcess(processId);
+        return process == null ? null : process.getAttribute("name");
+    }
+
+    /**
+     * @return the {@code bpmn:participant} element with this id, or null
+     */
+    public Element getParticipant(String participantId) {
+        return participantId == null ? null : participantsById.get(participantId);
+    }
+
+    /**
+     * Sequence-flow graph over every element that lists incoming or outgoing
+     * flows, in document order. Built on first use and then shared.
+     */
+    public ControlFlowGraph getControlFlowGraph() {
+        if (controlFlowGraph == null) {
+            ControlFlowGraph.Builder builder = ControlFlowGraph.builder();
+            for (String nodeId : flowNodeIds) {
+                builder.addNode(nodeId);
+                for (String flowId : getOutgoingFlowIds(nodeId)) {
+                    Element flow = getSequenceFlow(flowId);
+                    if (flow != null) {
+                        builder.addEdge(nodeId, flow.getAttribute("targetRef"));
+                    }
+                }
+            }
+            controlFlowGraph = builder.build();
+        }
+        return controlFlowGraph;
+    }
+
+    /**
+     * @return the element → process → participant view of this document
+     */
+    public ParticipantOwnership getParticipantOwnership() {
+        if (participantOwnership == null) {
+            participantOwnership = new ParticipantOwnership(
+                    processIdByElement, participantIdByProcessRef, participantNameById);
+        }
+        return participantOwnership;
+    }
+
+    /**
+     * @return id of the first throw/end event in document order that emits this signal, or null
+     */
+    public String getSignalThrowerId(String signalRef) {
+        return signalRef == null ? null : signalThrowersBySignalRef.get(signalRef);
+    }
+
+    /**
+     * Position of the element in document order, used to keep results
+     * deterministic when several candidates match.
+     */
+    public int getDocumentOrder(String elementId) {
+        return documentOrder.getOrDefault(elementId, Integer.MAX_VALUE);
+    }
+
+    public int size() {
+        return elementsById.size();
+    }
+}
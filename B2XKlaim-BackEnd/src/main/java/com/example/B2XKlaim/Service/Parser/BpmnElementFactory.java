@@ -20,7 +20,6 @@
 package com.example.B2XKlaim.Service.Parser;
 
 import java.util.ArrayList;
-import java.util.Arrays;
 import java.util.Comparator;
 import java.util.HashMap;
 import java.util.HashSet;
@@ -28,11 +27,8 @@ import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
-
-import javax.xml.xpath.XPath;
-import javax.xml.xpath.XPathConstants;
-import javax.xml.xpath.XPathExpressionException;
-import javax.xml.xpath.XPathFactory;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
 
 import org.w3c.dom.Document;
 import org.w3c.dom.Element;
@@ -41,7 +37,9 @@ import org.w3c.dom.NodeList;
 
 import lombok.extern.slf4j.Slf4j;
 
+import com.example.B2XKlaim.Service.Parser.graph.ControlFlowGraph;
 import com.example.B2XKlaim.Service.bpmnElements.BpmnElement;
+import com.example.B2XKlaim.Service.bpmnElements.ParticipantOwnership;
 import com.example.B2XKlaim.Service.bpmnElements.activities.CLA;
 import com.example.B2XKlaim.Service.bpmnElements.activities.ESP;
 import com.example.B2XKlaim.Service.bpmnElements.activities.ST;
@@ -69,13 +67,49 @@ import com.example.B2XKlaim.Service.bpmnElements.objects.pool.PL;
 @Slf4j
 public class BpmnElementFactory {
     private final Document document;
+    private final BpmnDocumentIndex index;
+    private final ParticipantOwnership participantOwnership;
+    private final ControlFlowGraph graph;
     private List<MessageFLow> messageFlows;
 
+    private final boolean memoizeGateways;
+    private final Map<String, XOR> xorGateways = new HashMap<>();
+    private final Map<String, AND> andGateways = new HashMap<>();
+    private final Map<String, LP> loops = new HashMap<>();
+    private final Map<String, EB> eventBasedGateways = new HashMap<>();
+    private int gatewayAnalyses;
+
 
     public BpmnElementFactory(Document document) {
+        this(document, new BpmnDocumentIndex(document));
+    }
+
+    public BpmnElementFactory(Document document, BpmnDocumentIndex index) {
+        this(document, index, true);
+    }
+
+    public BpmnElementFactory(Document document, BpmnDocumentIndex index, boolean memoizeGateways) {
         this.document = document;
+        this.index = index;
+        this.participantOwnership = index.getParticipantOwnership();
+        this.graph = index.getControlFlowGraph();
         this.messageFlows = new ArrayList<>();
+        this.memoizeGateways = memoizeGateways;
+    }
 
+    public BpmnDocumentIndex getIndex() {
+        return index;
+    }
+
+    public ParticipantOwnership getParticipantOwnership() {
+        return participantOwnership;
+    }
+
+    /**
+     * @return number of XOR/AND/loop/event-based gateway analyses actually run
+     */
+    public int getGatewayAnalysisCount() {
+        return gatewayAnalyses;
     }
 
     public BpmnElement createBpmnElement(Element element) {
@@ -123,17 +157,7 @@ public class BpmnElementFactory {
                 String participantName = element.getAttribute("name");
                 String participantId = element.getAttribute("id");
                 String processIdn = element.getAttribute("processRef");
-
-                NodeList processNodes = document.getElementsByTagName("bpmn:process");
-                String processNamen = null;
-
-                for (int j = 0; j < processNodes.getLength(); j++) {
-                    Element processElement = (Element) processNodes.item(j);
-                    if (processIdn.equals(processElement.getAttribute("id"))) {
-                        processNamen = processElement.getAttribute("name");
-                        break;
-                    }
-                }
+                String processNamen = index.getProcessName(processIdn);
 
                 return new PL(participantName, participantId, processIdn, processNamen);
 
@@ -431,11 +455,10 @@ public class BpmnElementFactory {
 
             case "bpmn:parallelGateway":
                 String andSplitId = element.getAttribute("id");
-                NodeList andIncomings = element.getElementsByTagName("bpmn:incoming");
-                NodeList andOutgoings = element.getElementsByTagName("bpmn:outgoing");
-                Integer counter = 0;
+                List<String> andIncomings = incomingsOf(element);
+                List<String> andOutgoings = outgoingsOf(element);
                 // Check if the AND split has an incoming flow
-                if (andIncomings.getLength() == 1) {
+                if (andIncomings.size() == 1) {
                     AND and = processANDGateway(andOutgoings, andSplitId);
                     return and;
                 }
@@ -445,10 +468,10 @@ public class BpmnElementFactory {
 
             case "bpmn:exclusiveGateway":
                 String xorid = element.getAttribute("id");
-                NodeList incomings = element.getElementsByTagName("bpmn:incoming");
-                NodeList outgoings = element.getElementsByTagName("bpmn:outgoing");
+                List<String> incomings = incomingsOf(element);
+                List<String> outgoings = outgoingsOf(element);
 
-                 String firstIncomingFlow = incomings.item(0).getTextContent();
+                 String firstIncomingFlow = incomings.get(0);
                  Element ElementFromFirstIncomingFlow= getElementByFlowId(firstIncomingFlow);
                  Element sourceElement = getElementById(ElementFromFirstIncomingFlow.getAttribute("sourceRef"));
 
@@ -480,34 +503,23 @@ public class BpmnElementFactory {
 
 
     private Element getElementByFlowId(String flowId) {
-        // Get all the sequenceFlow elements in the document
-        NodeList sequenceFlows = document.getElementsByTagName("bpmn:sequenceFlow");
-
-        // Loop through the sequenceFlow elements to find the one with the matching id
-        Element matchingFlow = null;
-        for (int i = 0; i < sequenceFlows.getLength(); i++) {
-            Element flow = (Element) sequenceFlows.item(i);
-            if (flow.getAttribute("id").equals(flowId)) {
-                matchingFlow = flow;
-                break;
-            }
-        }
-
-        return matchingFlow;
+        return index.getSequenceFlow(flowId);
     }
 
     private Element getElementById(String id) {
-        NodeList allElements = document.getElementsByTagName("*");
-
-        for (int i = 0; i < allElements.getLength(); i++) {
-            Element element = (Element) allElements.item(i);
-            if (element.getAttribute("id").equals(id)) {
-                return element;
-            }
+        Element element = index.getElementById(id);
+        if (element == null) {
+            log.debug("Element with id {} not found.", id);
         }
+        return element;
+    }
 
-        System.out.println("Element with id " + id + " not found.");
-        return null;
+    private List<String> incomingsOf(Element element) {
+        return index.getIncomingFlowIds(element.getAttribute("id"));
+    }
+
+    private List<String> outgoingsOf(Element element) {
+        return index.getOutgoingFlowIds(element.getAttribute("id"));
     }
 
     private Element getNextElementByFlowId(String flowId) {
@@ -535,11 +547,9 @@ public class BpmnElementFactory {
     }
 
     private Element getNextElement(Element currentElement) {
-        NodeList outgoings = currentElement.getElementsByTagName("bpmn:outgoing");
-        if (outgoings.getLength() > 0) {
-            String nextFlowId = outgoings.item(0).getTextContent();
-            Element nextFlow = getElementByFlowId(nextFlowId);
-            return getElementById(nextFlow.getAttribute("targetRef"));
+        List<String> outgoings = outgoingsOf(currentElement);
+        if (!outgoings.isEmpty()) {
+            return getNextElementByFlowId(outgoings.get(0));
         }
         return null;
     }
@@ -548,83 +558,25 @@ public class BpmnElementFactory {
         String participantName = participantElement.getAttribute("name");
         String participantId = participantElement.getAttribute("id");
         String processId = participantElement.getAttribute("processRef");
-
-        NodeList processNodes = document.getElementsByTagName("bpmn:process");
-        String processName = null;
-
-        for (int j = 0; j < processNodes.getLength(); j++) {
-            Element processElement = (Element) processNodes.item(j);
-            if (processId.equals(processElement.getAttribute("id"))) {
-                processName = processElement.getAttribute("name");
-                break;  // Break out of the loop once the process is found
-            }
-        }
+        String processName = index.getProcessName(processId);
 
         return new PL(participantName, participantId, processId, processName);
     }
 
     private String getEnclosingParticipantId(String elementId) {
-        if (elementId == null || document == null) {
-            return null;
-        }
-    
-        XPath xpath = XPathFactory.newInstance().newXPath();
-        String enclosingProcessId = null;
-    
-        try {
-            // 1. Find the element with the specific ID anywhere in the document
-            String expression = "//*[@id='" + elementId + "']";
-            Node elementNode = (Node) xpath.evaluate(expression, document, XPathConstants.NODE);
-    
-            if (elementNode == null) {
-                log.debug("Element not found for XPath expression: {}", expression);
-                return null;
-            }
-
-            // Traverse upwards to find the parent <bpmn:process>
-            Node parent = elementNode.getParentNode();
-            while (parent != null) {
-                if (parent.getNodeType() == Node.ELEMENT_NODE && "bpmn:process".equals(parent.getNodeName())) {
-                    enclosingProcessId = ((Element) parent).getAttribute("id");
-                    break;
-                }
-                parent = parent.getParentNode();
-            }
-
-            if (enclosingProcessId == null) {
-                log.debug("No enclosing process found for element: {}", elementId);
-                return null;
-            }
-
-        } catch (XPathExpressionException e) {
-            log.debug("XPath error looking up element {}: {}", elementId, e.getMessage());
+        if (elementId == null) {
             return null;
         }
 
-        // Find the participant associated with this process ID
-        if (enclosingProcessId != null) {
-            NodeList participantNodes = document.getElementsByTagName("bpmn:participant");
-            for (int i = 0; i < participantNodes.getLength(); i++) {
-                Element participantElement = (Element) participantNodes.item(i);
-                if (enclosingProcessId.equals(participantElement.getAttribute("processRef"))) {
-                    return participantElement.getAttribute("id");
-                }
-            }
-            log.debug("No participant found for process: {}", enclosingProcessId);
+        String participantId = participantOwnership.getParticipantId(elementId);
+        if (participantId == null) {
+            log.debug("No enclosing participant found for element: {}", elementId);
         }
-    
-        return null; // Participant not found for the process
+        return participantId;
     }
 
     private String getParticipantNameById(String participantId) {
-        NodeList participantNodes = document.getElementsByTagName("bpmn:participant");
-        for (int i = 0; i < participantNodes.getLength(); i++) {
-            Element participantElement = (Element) participantNodes.item(i);
-            if (participantId != null && participantId.equals(participantElement.getAttribute("id"))) {
-                return participantElement.getAttribute("name");
-            }
-        }
-        return null;
+        return participantOwnership.getParticipantName(participantId);
     }
 
 
@@ -639,43 +591,15 @@ public class BpmnElementFactory {
 
 
     private String findThrowingSignalEventBySignalId(String signalId) {
-        if (signalId == null || document == null) {
+        if (signalId == null) {
             return null;
         }
-    
-        // Define BPMN tag names that represent throwing events
-        List<String> throwingEventTags = Arrays.asList(
-                "bpmn:intermediateThrowEvent",
-                "bpmn:endEvent"
-        );
-    
-        NodeList signalEventDefinitions = document.getElementsByTagName("bpmn:signalEventDefinition");
-        for (int i = 0; i < signalEventDefinitions.getLength(); i++) {
-            Node node = signalEventDefinitions.item(i);
-            if (node.getNodeType() == Node.ELEMENT_NODE) {
-                Element signalEventDefElement = (Element) node;
-    
-                // Check if the signalRef matches
-                if (signalId.equals(signalEventDefElement.getAttribute("signalRef"))) {
-                    Node parentNode = signalEventDefElement.getParentNode();
-    
-                    // Check if the parent is an element and if its tag name is a throwing type
-                    if (parentNode != null && parentNode.getNodeType() == Node.ELEMENT_NODE) {
-                        Element parentElement = (Element) parentNode;
-                        String parentTagName = parentElement.getTagName(); // e.g., "bpmn:intermediateCatchEvent", "bpmn:endEvent"
-    
-                        if (throwingEventTags.contains(parentTagName)) {
-                            // Found a match inside a throwing event type! Return its ID.
-                            return parentElement.getAttribute("id");
-                        }
-                        // If parentTagName is not in throwingEventTags (e.g., it's a catch event), continue searching
-                    }
-                }
-            }
+
+        String throwingEventId = index.getSignalThrowerId(signalId);
+        if (throwingEventId == null) {
+            log.debug("No throwing signal event found for signalId: {}", signalId);
         }
-    
-        log.debug("No throwing signal event found for signalId: {}", signalId);
-        return null;
+        return throwingEventId;
     }
 
 
@@ -683,9 +607,8 @@ public class BpmnElementFactory {
     private Map<String, Element> findLoopOutgoingFlows(Element xorSplit) {
         Map<String, Element> flows = new HashMap<>();
 
-        NodeList splitOutgoings = xorSplit.getElementsByTagName("bpmn:outgoing");
-        for (int j = 0; j < splitOutgoings.getLength(); j++) {
-            Element outgoingFlow = getElementByFlowId(splitOutgoings.item(j).getTextContent());
+        for (String flowId : outgoingsOf(xorSplit)) {
+            Element outgoingFlow = getElementByFlowId(flowId);
             NodeList conditionExpressions = outgoingFlow.getElementsByTagName("bpmn:conditionExpression");
 
             // Check for condition expression
@@ -702,33 +625,33 @@ public class BpmnElementFactory {
     }
 
 
-    private boolean isLoopGateway(Element gatewayElement) {
-        NodeList incomings = gatewayElement.getElementsByTagName("bpmn:incoming");
-        NodeList outgoings = gatewayElement.getElementsByTagName("bpmn:outgoing");
-
-        // Collect all target references of incoming flows
-        Set<String> incomingTargets = new HashSet<>();
-        for (int i = 0; i < incomings.getLength(); i++) {
-            String incomingFlowId = incomings.item(i).getTextContent();
-            Element incomingFlowElement = getElementByFlowId(incomingFlowId);
-            String targetRef = incomingFlowElement.getAttribute("targetRef");
-            incomingTargets.add(targetRef);
+    /**
+     * Gateway analyses are memoized by gateway id for the lifetime of the factory:
+     * a gateway nested k levels deep is reached once from the parse loop and once
+     * from every enclosing gateway, and would otherwise be re-analysed each time.
+     * Every analysis depends only on the document, so the cached result is the
+     * one a fresh analysis would build.
+     */
+    private <T> T memoized(Map<String, T> cache, String gatewayId, Supplier<T> analysis) {
+        if (!memoizeGateways) {
+            gatewayAnalyses++;
+            return analysis.get();
         }
-
-        // Check if any source reference of outgoing flows is in incoming targets
-        for (int j = 0; j < outgoings.getLength(); j++) {
-            String outgoingFlowId = outgoings.item(j).getTextContent();
-            Element outgoingFlowElement = getElementByFlowId(outgoingFlowId);
-            String sourceRef = outgoingFlowElement.getAttribute("sourceRef");
-            if (incomingTargets.contains(sourceRef)) {
-                return true; // Loop detected
-            }
+        // not computeIfAbsent: analyses recurse into the same cache
+        if (cache.containsKey(gatewayId)) {
+            return cache.get(gatewayId);
         }
-        return false;
+        gatewayAnalyses++;
+        T result = analysis.get();
+        cache.put(gatewayId, result);
+        return result;
     }
 
+    private XOR processXORGateway(List<String> outgoings, String xorId) {
+        return memoized(xorGateways, xorId, () -> buildXORGateway(outgoings, xorId));
+    }
 
-    private XOR processXORGateway(NodeList outgoings, String xorId) {
+    private XOR buildXORGateway(List<String> outgoings, String xorId) {
         Map<String, List<String>> conditionElementMap = new HashMap<>();
         String outgoing = null;
         String caOutgoing = null;
@@ -737,9 +660,8 @@ public class BpmnElementFactory {
         boolean allBranchesConverge = true;
 
         List<Element> outgoingFlows = new ArrayList<>();
-        for (int j = 0; j < outgoings.getLength(); j++) {
-            Element outgoingFlow = getElementByFlowId(outgoings.item(j).getTextContent());
-            outgoingFlows.add(outgoingFlow);
+        for (String flowId : outgoings) {
+            outgoingFlows.add(getElementByFlowId(flowId));
         }
 
         outgoingFlows.sort(Comparator.comparing(o -> o.getAttribute("targetRef")));
@@ -774,7 +696,7 @@ public class BpmnElementFactory {
                     break;
                 } else if (isXORSplit(nextElement)) {
                     elementList.add(nextElement.getAttribute("id"));
-                    NodeList nestedOutgoings = nextElement.getElementsByTagName("bpmn:outgoing");
+                    List<String> nestedOutgoings = outgoingsOf(nextElement);
                     XOR nestedXOR = processXORGateway(nestedOutgoings, nextElement.getAttribute("id"));
                     if (nestedXOR.getOutgoingEdge() == null) {
                         break; // nested XOR doesn't converge, branch ends here
@@ -787,7 +709,7 @@ public class BpmnElementFactory {
                     nextElement = getElementById(nextElementId);
                 } else if (isANDSplit(nextElement)) {
                     elementList.add(nextElement.getAttribute("id"));
-                    NodeList nestedOutgoings = nextElement.getElementsByTagName("bpmn:outgoing");
+                    List<String> nestedOutgoings = outgoingsOf(nextElement);
                     AND nestedAND = processANDGateway(nestedOutgoings, nextElement.getAttribute("id"));
                     if (nestedAND == null || nestedAND.getOutgoingEdge() == null) {
                         break;
@@ -801,12 +723,12 @@ public class BpmnElementFactory {
                 }
                 else {
                     elementList.add(nextElementId);
-                    NodeList nextElementOutgoings = nextElement.getElementsByTagName("bpmn:outgoing");
-                    if (nextElementOutgoings.getLength() == 0) {
+                    List<String> nextElementOutgoings = outgoingsOf(nextElement);
+                    if (nextElementOutgoings.isEmpty()) {
                         break;
                     }
 
-                    Element outgoingFlow2 = getElementByFlowId(nextElementOutgoings.item(0).getTextContent());
+                    Element outgoingFlow2 = getElementByFlowId(nextElementOutgoings.get(0));
                     nextElementId = outgoingFlow2.getAttribute("targetRef");
                     nextElement = getElementById(nextElementId);
                 }
@@ -831,14 +753,19 @@ public class BpmnElementFactory {
                 List<String> existingElements = conditionElementMap.getOrDefault(condition, new ArrayList<>());
                 existingElements.addAll(elementList);
                 conditionElementMap.put(condition, existingElements);
-            if (outgoings.getLength() == 1) {
+            if (outgoings.size() == 1) {
                 caOutgoing = outgoing;
             }
         }
 
-        // Only set outgoing edge if all branches converge to the same merge
-        if (allBranchesConverge && commonMerge != null) {
-            caOutgoing = commonMerge.getElementsByTagName("bpmn:outgoing").item(0).getTextContent();
+        // The merge is the split's immediate post-dominator; when that is not an XOR
+        // merge, only set the outgoing edge if all walked branches converge on one
+        Element merge = findMergeForSplit(xorId, this::isXORMerge);
+        if (merge == null && allBranchesConverge) {
+            merge = commonMerge;
+        }
+        if (merge != null) {
+            caOutgoing = outgoingsOf(merge).get(0);
         }
 
         return new XOR(xorId, conditionElementMap, caOutgoing);
@@ -862,10 +789,10 @@ public class BpmnElementFactory {
         }
 
         // A split XOR gateway typically has one incoming flow and multiple outgoing flows
-        NodeList incomings = element.getElementsByTagName("bpmn:incoming");
-        NodeList outgoings = element.getElementsByTagName("bpmn:outgoing");
+        List<String> incomings = incomingsOf(element);
+        List<String> outgoings = outgoingsOf(element);
 
-        return incomings.getLength() == 1 && outgoings.getLength() > 1;
+        return incomings.size() == 1 && outgoings.size() > 1;
     }
 
     private boolean isXORMerge(Element element) {
@@ -875,10 +802,10 @@ public class BpmnElementFactory {
         }
 
         // A merge XOR gateway typically has multiple incoming flows and one outgoing flow
-        NodeList incomings = element.getElementsByTagName("bpmn:incoming");
-        NodeList outgoings = element.getElementsByTagName("bpmn:outgoing");
+        List<String> incomings = incomingsOf(element);
+        List<String> outgoings = outgoingsOf(element);
 
-        return incomings.getLength() > 1 && outgoings.getLength() <= 1;
+        return incomings.size() > 1 && outgoings.size() <= 1;
     }
 
     private boolean isANDGateway(Element element) {
@@ -893,10 +820,10 @@ public class BpmnElementFactory {
         }
 
         // An AND split gateway typically has one incoming flow and multiple outgoing flows
-        NodeList incomings = element.getElementsByTagName("bpmn:incoming");
-        NodeList outgoings = element.getElementsByTagName("bpmn:outgoing");
+        List<String> incomings = incomingsOf(element);
+        List<String> outgoings = outgoingsOf(element);
 
-        return incomings.getLength() == 1 && outgoings.getLength() > 1;
+        return incomings.size() == 1 && outgoings.size() > 1;
     }
 
     private boolean isANDMerge(Element element) {
@@ -906,22 +833,26 @@ public class BpmnElementFactory {
         }
 
         // An AND merge gateway typically has multiple incoming flows and one outgoing flow
-        NodeList incomings = element.getElementsByTagName("bpmn:incoming");
-        NodeList outgoings = element.getElementsByTagName("bpmn:outgoing");
+        List<String> incomings = incomingsOf(element);
+        List<String> outgoings = outgoingsOf(element);
+
+        return incomings.size() > 1 && outgoings.size() <= 1;
+    }
 
-        return incomings.getLength() > 1 && outgoings.getLength() <= 1;
+    private AND processANDGateway(List<String> outgoings, String andId) {
+        return memoized(andGateways, andId, () -> buildANDGateway(outgoings, andId));
     }
 
-    private AND processANDGateway(NodeList outgoings, String andId) {
+    private AND buildANDGateway(List<String> outgoings, String andId) {
         Map<Integer, List<String>> flowElementMap = new HashMap<>();
         String outgoing = null;
         String caOutgoing = null;
         Integer counter = 0;
+        Element lastMerge = null;
 
         List<Element> outgoingFlows = new ArrayList<>();
-        for (int j = 0; j < outgoings.getLength(); j++) {
-            Element outgoingFlow = getElementByFlowId(outgoings.item(j).getTextContent());
-            outgoingFlows.add(outgoingFlow);
+        for (String flowId : outgoings) {
+            outgoingFlows.add(getElementByFlowId(flowId));
         }
 
         outgoingFlows.sort(Comparator.comparing(o -> o.getAttribute("targetRef")));
@@ -941,7 +872,7 @@ public class BpmnElementFactory {
                     break;
                 } else if (isANDSplit(nextElement)) {
                     elementList.add(nextElement.getAttribute("id"));
-                    NodeList nestedOutgoings = nextElement.getElementsByTagName("bpmn:outgoing");
+                    List<String> nestedOutgoings = outgoingsOf(nextElement);
                     AND nestedAND = processANDGateway(nestedOutgoings, nextElement.getAttribute("id"));
                     if (nestedAND == null || nestedAND.getOutgoingEdge() == null) break;
                     Element mergeGateway = getElementById(nestedAND.getOutgoingEdge());
@@ -950,7 +881,7 @@ public class BpmnElementFactory {
                     nextElement = getElementById(nextElementId);
                 } else if (isXORSplit(nextElement)) {
                     elementList.add(nextElement.getAttribute("id"));
-                    NodeList nestedOutgoings = nextElement.getElementsByTagName("bpmn:outgoing");
+                    List<String> nestedOutgoings = outgoingsOf(nextElement);
                     XOR nestedXOR = processXORGateway(nestedOutgoings, nextElement.getAttribute("id"));
                     if (nestedXOR.getOutgoingEdge() == null) break;
                     Element mergeGateway = getElementById(nestedXOR.getOutgoingEdge());
@@ -972,44 +903,58 @@ public class BpmnElementFactory {
                         }
                     } else {
                         elementList.add(nextElementId);
-                        NodeList nextElementOutgoings = nextElement.getElementsByTagName("bpmn:outgoing");
-                        if (nextElementOutgoings.getLength() == 0) break;
-                        Element outgoingFlow2 = getElementByFlowId(nextElementOutgoings.item(0).getTextContent());
+                        List<String> nextElementOutgoings = outgoingsOf(nextElement);
+                        if (nextElementOutgoings.isEmpty()) break;
+                        Element outgoingFlow2 = getElementByFlowId(nextElementOutgoings.get(0));
                         nextElementId = outgoingFlow2.getAttribute("targetRef");
                         nextElement = getElementById(nextElementId);
                     }
                 } else {
                     elementList.add(nextElementId);
-                    NodeList nextElementOutgoings = nextElement.getElementsByTagName("bpmn:outgoing");
-                    if (nextElementOutgoings.getLength() == 0) {
+                    List<String> nextElementOutgoings = outgoingsOf(nextElement);
+                    if (nextElementOutgoings.isEmpty()) {
                         break;
                     }
 
-                    Element outgoingFlow2 = getElementByFlowId(nextElementOutgoings.item(0).getTextContent());
+                    Element outgoingFlow2 = getElementByFlowId(nextElementOutgoings.get(0));
                     nextElementId = outgoingFlow2.getAttribute("targetRef");
                     nextElement = getElementById(nextElementId);
                 }
             }
 
             if (mergeExclusiveGateway != null) {
-                caOutgoing = mergeExclusiveGateway.getElementsByTagName("bpmn:outgoing").item(0).getTextContent();
+                lastMerge = mergeExclusiveGateway;
             }
 
             // Store the list of elements associated with the outgoing flow in the flow element map
             flowElementMap.put(counter, elementList);
             counter = counter + 1;
 
-            if (outgoings.getLength() == 1) {
+            if (outgoings.size() == 1) {
                 caOutgoing = outgoing;
             }
         }
 
+        // The merge is the split's immediate post-dominator; when that is not an AND
+        // merge, fall back to the last merge a walked branch reached
+        Element merge = findMergeForSplit(andId, this::isANDMerge);
+        if (merge == null) {
+            merge = lastMerge;
+        }
+        if (merge != null) {
+            caOutgoing = outgoingsOf(merge).get(0);
+        }
+
         return new AND(andId, flowElementMap, caOutgoing);
     }
 
-    private LP processLoop(NodeList outgoings, String loopID) {
+    private LP processLoop(List<String> outgoings, String loopID) {
+        return memoized(loops, loopID, () -> buildLoop(outgoings, loopID));
+    }
+
+    private LP buildLoop(List<String> outgoings, String loopID) {
         Element xorMerge = getElementById(loopID);
-        String outgoingMerge = xorMerge.getElementsByTagName("bpmn:outgoing").item(0).getTextContent();
+        String outgoingMerge = outgoingsOf(xorMerge).get(0);
 
         // Find the loop's XOR split by searching for an XOR split with a back-edge to loopID
         Element xorSplit = findLoopSplit(loopID);
@@ -1041,73 +986,28 @@ public class BpmnElementFactory {
     }
 
     /**
-     * Search all XOR splits in the document for one with a direct back-edge to loopMergeId.
-     * The split must also be reachable from the merge (downstream) to confirm it's a genuine
-     * loop back-edge and not a forward edge from an outer gateway.
+     * Find the XOR split that closes the loop headed by loopMergeId: a split with a
+     * direct edge back to the merge that lies on a cycle with it (so it is downstream
+     * of the merge, not an outer gateway with a forward edge). When several qualify,
+     * the first in document order wins.
      */
     private Element findLoopSplit(String loopMergeId) {
-        NodeList allGateways = document.getElementsByTagName("bpmn:exclusiveGateway");
-        for (int i = 0; i < allGateways.getLength(); i++) {
-            Element gw = (Element) allGateways.item(i);
-            if (isXORSplit(gw) && hasDirectBackEdgeTo(gw, loopMergeId)
-                    && isReachableForward(loopMergeId, gw.getAttribute("id"))) {
-                return gw;
-            }
-        }
-        return null;
-    }
-
-    /**
-     * Check if targetId is reachable from sourceId by walking forward through outgoing flows.
-     * Used to verify a loop split is downstream of its merge (not an upstream forward edge).
-     */
-    private boolean isReachableForward(String sourceId, String targetId) {
-        Set<String> visited = new HashSet<>();
-        java.util.LinkedList<String> queue = new java.util.LinkedList<>();
-
-        Element source = getElementById(sourceId);
-        if (source == null) return false;
-
-        NodeList outgoings = source.getElementsByTagName("bpmn:outgoing");
-        for (int i = 0; i < outgoings.getLength(); i++) {
-            Element flow = getElementByFlowId(outgoings.item(i).getTextContent());
-            if (flow != null) {
-                String ref = flow.getAttribute("targetRef");
-                if (ref.equals(targetId)) return true;
-                queue.add(ref);
+        Element loopSplit = null;
+        for (String candidateId : graph.predecessors(loopMergeId)) {
+            Element gw = getElementById(candidateId);
+            if (gw == null || !isXORSplit(gw) || !graph.inSameCycle(loopMergeId, candidateId)) {
+                continue;
             }
-        }
-
-        while (!queue.isEmpty()) {
-            String currentId = queue.poll();
-            if (currentId.equals(targetId)) return true;
-            if (visited.contains(currentId) || currentId.equals(sourceId)) continue;
-            visited.add(currentId);
-
-            Element current = getElementById(currentId);
-            if (current == null) continue;
-
-            NodeList currentOutgoings = current.getElementsByTagName("bpmn:outgoing");
-            for (int i = 0; i < currentOutgoings.getLength(); i++) {
-                Element flow = getElementByFlowId(currentOutgoings.item(i).getTextContent());
-                if (flow != null) {
-                    queue.add(flow.getAttribute("targetRef"));
-                }
+            if (loopSplit == null
+                    || index.getDocumentOrder(candidateId) < index.getDocumentOrder(loopSplit.getAttribute("id"))) {
+                loopSplit = gw;
             }
         }
-
-        return false;
+        return loopSplit;
     }
 
     private boolean hasDirectBackEdgeTo(Element xorSplit, String targetId) {
-        NodeList splitOutgoings = xorSplit.getElementsByTagName("bpmn:outgoing");
-        for (int i = 0; i < splitOutgoings.getLength(); i++) {
-            Element outFlow = getElementByFlowId(splitOutgoings.item(i).getTextContent());
-            if (outFlow != null && outFlow.getAttribute("targetRef").equals(targetId)) {
-                return true;
-            }
-        }
-        return false;
+        return graph.hasEdge(xorSplit.getAttribute("id"), targetId);
     }
 
     /**
@@ -1137,13 +1037,13 @@ public class BpmnElementFactory {
                 if (ebMerge == null) break;
                 current = getNextElement(ebMerge);
             } else if (isANDSplit(current)) {
-                NodeList nestedOutgoings = current.getElementsByTagName("bpmn:outgoing");
+                List<String> nestedOutgoings = outgoingsOf(current);
                 AND nestedAND = processANDGateway(nestedOutgoings, id);
                 if (nestedAND == null || nestedAND.getOutgoingEdge() == null) break;
                 current = getNextElementByFlowId(nestedAND.getOutgoingEdge());
             } else if (isXORSplit(current)) {
                 // Nested if-else inside the loop body
-                NodeList nestedOutgoings = current.getElementsByTagName("bpmn:outgoing");
+                List<String> nestedOutgoings = outgoingsOf(current);
                 XOR nestedXOR = processXORGateway(nestedOutgoings, id);
                 if (nestedXOR == null || nestedXOR.getOutgoingEdge() == null) break;
                 current = getNextElementByFlowId(nestedXOR.getOutgoingEdge());
@@ -1155,14 +1055,29 @@ public class BpmnElementFactory {
     }
 
     /**
-     * Follow one path from an event-based gateway to find the XOR merge
-     * where its branches converge.
+     * Find the merge where the branches of a split converge: its immediate
+     * post-dominator, if that is a merge of the expected kind, otherwise null.
+     */
+    private Element findMergeForSplit(String splitId, Predicate<Element> isMerge) {
+        Element postDominator = getElementById(graph.immediatePostDominator(splitId));
+        return postDominator != null && isMerge.test(postDominator) ? postDominator : null;
+    }
+
+    /**
+     * Find the XOR merge where the branches of an event-based gateway converge:
+     * its immediate post-dominator. Falls back to following the first path when
+     * the branches do not share a merge (e.g. one of them ends the process).
      */
     private Element findMergeForEventBasedGateway(Element ebGateway) {
-        NodeList ebOutgoings = ebGateway.getElementsByTagName("bpmn:outgoing");
-        if (ebOutgoings.getLength() == 0) return null;
+        Element postDominator = findMergeForSplit(ebGateway.getAttribute("id"), this::isXORMerge);
+        if (postDominator != null) {
+            return postDominator;
+        }
 
-        Element current = getNextElementByFlowId(ebOutgoings.item(0).getTextContent());
+        List<String> ebOutgoings = outgoingsOf(ebGateway);
+        if (ebOutgoings.isEmpty()) return null;
+
+        Element current = getNextElementByFlowId(ebOutgoings.get(0));
         Set<String> visited = new HashSet<>();
         while (current != null) {
             String id = current.getAttribute("id");
@@ -1174,33 +1089,15 @@ public class BpmnElementFactory {
         return null;
     }
 
-    private boolean isPartOfLoop(Element gateway, Set<String> visited) {
-        String gatewayId = gateway.getAttribute("id");
-        if (visited.contains(gatewayId)) {
-            return true;
-        }
-
-        visited.add(gatewayId);
-
-        NodeList outgoings = gateway.getElementsByTagName("bpmn:outgoing");
-        for (int i = 0; i < outgoings.getLength(); i++) {
-            Node outgoing = outgoings.item(i);
-            if (outgoing != null) {
-                Element targetElement = getElementByFlowId(outgoing.getTextContent());
-                if (targetElement != null && isPartOfLoop(targetElement, visited)) {
-                    return true;
-                }
-            }
-        }
-
-        return false;
-    }
-
     /*
     * Method to process an event-based gateway.
     */
     private EB processEventBasedGateway(Element element, String gatewayId) {
-        NodeList outgoings = element.getElementsByTagName("bpmn:outgoing");
+        return memoized(eventBasedGateways, gatewayId, () -> buildEventBasedGateway(element, gatewayId));
+    }
+
+    private EB buildEventBasedGateway(Element element, String gatewayId) {
+        List<String> outgoings = outgoingsOf(element);
         Map<String, List<String>> eventPathMap = new HashMap<>();
         String gatewayOutgoing = null;
         Element mergeGateway = null;
@@ -1211,8 +1108,7 @@ public class BpmnElementFactory {
         List<Element> pathEndElements = new ArrayList<>();
     
         // For each outgoing edge
-        for (int i = 0; i < outgoings.getLength(); i++) {
-            String outgoingId = outgoings.item(i).getTextContent();
+        for (String outgoingId : outgoings) {
             Element outgoingFlow = getElementByFlowId(outgoingId);
             if (outgoingFlow == null) {
                 System.out.println("Warning: Could not find flow with ID: " + outgoingId);
@@ -1239,14 +1135,14 @@ public class BpmnElementFactory {
             
             while (currentElement != null) {
                 // Get outgoing flow from the current element
-                NodeList currentOutgoings = currentElement.getElementsByTagName("bpmn:outgoing");
-                if (currentOutgoings.getLength() == 0) {
+                List<String> currentOutgoings = outgoingsOf(currentElement);
+                if (currentOutgoings.isEmpty()) {
                     System.out.println("Path ends at element: " + currentElement.getAttribute("id"));
                     pathEndElements.add(currentElement);
                     break;
                 }
 
-                Element currentOutgoingFlow = getElementByFlowId(currentOutgoings.item(0).getTextContent());
+                Element currentOutgoingFlow = getElementByFlowId(currentOutgoings.get(0));
                 if (currentOutgoingFlow == null) {
                     System.out.println("Could not find flow from element: " + currentElement.getAttribute("id"));
                     break;
@@ -1280,9 +1176,9 @@ public class BpmnElementFactory {
                     pathEndElements.add(nextElement);
                     if (mergeGateway == null) {
                         mergeGateway = nextElement;
-                        NodeList mergeOutgoings = mergeGateway.getElementsByTagName("bpmn:outgoing");
-                        if (mergeOutgoings.getLength() > 0) {
-                            gatewayOutgoing = mergeOutgoings.item(0).getTextContent();
+                        List<String> mergeOutgoings = outgoingsOf(mergeGateway);
+                        if (!mergeOutgoings.isEmpty()) {
+                            gatewayOutgoing = mergeOutgoings.get(0);
                             System.out.println("Set merge gateway outgoing edge: " + gatewayOutgoing);
                         }
                     }
@@ -1292,7 +1188,7 @@ public class BpmnElementFactory {
                 // Jump over nested XOR split/merge
                 if (isXORSplit(nextElement)) {
                     pathElements.add(nextElementId);
-                    NodeList nestedOut = nextElement.getElementsByTagName("bpmn:outgoing");
+                    List<String> nestedOut = outgoingsOf(nextElement);
                     XOR nestedXOR = processXORGateway(nestedOut, nextElementId);
                     if (nestedXOR == null || nestedXOR.getOutgoingEdge() == null) break;
                     // Resolve: outgoingEdge is a flow id → sourceRef is the merge gateway
@@ -1306,7 +1202,7 @@ public class BpmnElementFactory {
                 // Jump over nested AND split/merge
                 if (isANDSplit(nextElement)) {
                     pathElements.add(nextElementId);
-                    NodeList nestedOut = nextElement.getElementsByTagName("bpmn:outgoing");
+                    List<String> nestedOut = outgoingsOf(nextElement);
                     AND nestedAND = processANDGateway(nestedOut, nextElementId);
                     if (nestedAND == null || nestedAND.getOutgoingEdge() == null) break;
                     // Resolve: outgoingEdge is a flow id → sourceRef is the merge gateway
@@ -1361,9 +1257,9 @@ public class BpmnElementFactory {
                     mergeGateway = commonMerge;
                     
                     // Get the outgoing edge of the merge gateway
-                    NodeList mergeOutgoings = mergeGateway.getElementsByTagName("bpmn:outgoing");
-                    if (mergeOutgoings.getLength() > 0) {
-                        gatewayOutgoing = mergeOutgoings.item(0).getTextContent();
+                    List<String> mergeOutgoings = outgoingsOf(mergeGateway);
+                    if (!mergeOutgoings.isEmpty()) {
+                        gatewayOutgoing = mergeOutgoings.get(0);
                         System.out.println("Confirmed common XOR merge: " + mostCommonId + " with outgoing: " + gatewayOutgoing);
                     }
                 }
@@ -31,28 +31,53 @@ import org.w3c.dom.NodeList;
 import org.xml.sax.InputSource;
 
 import javax.xml.parsers.DocumentBuilder;
-import javax.xml.parsers.DocumentBuilderFactory;
+import java.io.FileInputStream;
+import java.io.InputStream;
 import java.io.StringReader;
 
 public class BpmnParser {
 
+    /**
+     * How the XML is turned into the document handed to {@link BpmnElementFactory}.
+     * STREAMING skips the diagram interchange while reading; DOM loads the full
+     * tree and removes the diagram afterwards, and is kept for comparison.
+     */
+    public enum ReaderMode {
+        STREAMING,
+        DOM
+    }
+
     private Document document;
+    private final ReaderMode readerMode;
 
     public BpmnParser(Document document) {
         this.document = document;
+        this.readerMode = ReaderMode.DOM;
     }
     public BpmnParser() {
+        this(ReaderMode.STREAMING);
+    }
+    public BpmnParser(ReaderMode readerMode) {
+        this.readerMode = readerMode;
+    }
+
+    public ReaderMode getReaderMode() {
+        return readerMode;
     }
+
     public BpmnElements parse(String xmlContent) throws Exception {
-        DocumentBuilderFactory factory = DocumentBuilderFactory.newInstance();
-        DocumentBuilder builder = factory.newDocumentBuilder();
+        if (readerMode == ReaderMode.STREAMING) {
+            this.document = new BpmnStreamReader().read(xmlContent);
+        } else {
+            DocumentBuilder builder = XmlParsers.documentBuilder();
 
-        // Convert string to InputSource
-        InputSource is = new InputSource(new StringReader(xmlContent));
+            // Convert string to InputSource
+            InputSource is = new InputSource(new StringReader(xmlContent));
 
-        // Parse the XML content directly
-        this.document = builder.parse(is);
-        this.document = removeBpmnDiagram(document); // If needed
+            // Parse the XML content directly
+            this.document = builder.parse(is);
+            this.document = removeBpmnDiagram(document); // If needed
+        }
 
         BpmnElements bpmnElements = new BpmnElements();
         BpmnElementFactory bpmnElementFactory = new BpmnElementFactory(document);
@@ -66,6 +91,7 @@ public class BpmnParser {
                 bpmnElements.addElement(bpmnElement);
             }
         }
+        bpmnElements.setParticipantOwnership(bpmnElementFactory.getParticipantOwnership());
 
         // 3. Check for <bpmn:collaboration>
         NodeList collaborationNodes = document.getElementsByTagName("bpmn:collaboration");
@@ -98,14 +124,16 @@ public class BpmnParser {
     }
 
     public BpmnElements parseWithPath(String filePath) throws Exception {
-        // Create a new document builder factory
-        DocumentBuilderFactory factory = DocumentBuilderFactory.newInstance();
-        DocumentBuilder builder = factory.newDocumentBuilder();
-        // Parse the XML file and get the root element
-        this.document = builder.parse(filePath);
-        this.document = removeBpmnDiagram(document); // Add this line
-        Element root = this.document.getDocumentElement();
-        Element process = (Element) document.getElementsByTagName("bpmn:process").item(0);
+        if (readerMode == ReaderMode.STREAMING) {
+            try (InputStream in = new FileInputStream(filePath)) {
+                this.document = new BpmnStreamReader().read(in);
+            }
+        } else {
+            DocumentBuilder builder = XmlParsers.documentBuilder();
+            // Parse the XML file and get the root element
+            this.document = builder.parse(filePath);
+            this.document = removeBpmnDiagram(document); // Add this line
+        }
         BpmnElements bpmnElements = new BpmnElements();
         BpmnElementFactory bpmnElementFactory = new BpmnElementFactory(document);
         NodeList elementNodes = document.getElementsByTagName("*");
@@ -116,6 +144,7 @@ public class BpmnParser {
                 bpmnElements.addElement(bpmnElement);
             }
         }
+        bpmnElements.setParticipantOwnership(bpmnElementFactory.getParticipantOwnership());
 
         return bpmnElements;
     }
@@ -0,0 +1,157 @@
+/*
+ * Copyright 2023 Khalid BOURR
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.example.B2XKlaim.Service.Parser;
+
+import java.io.InputStream;
+import java.io.Reader;
+import java.io.StringReader;
+import java.util.ArrayDeque;
+import java.util.Deque;
+
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+import org.w3c.dom.Node;
+
+/**
+ * Pull-parser front end for BPMN files.
+ *
+ * Reads the XML with StAX and builds a pruned DOM containing only the model:
+ * every {@code bpmndi:*} subtree (shapes, edges, bounds, waypoints) is skipped
+ * while reading, and whitespace-only text between elements is dropped. For
+ * Camunda Modeler exports the diagram interchange is usually the bulk of the
+ * file, so the resulting document is a fraction of the full DOM.
+ *
+ * The reader is not namespace aware: element and attribute names (including
+ * xmlns declarations) are kept as qualified names ("bpmn:task"), the same shape
+ * the default {@code DocumentBuilder} produces, so the result can be handed to
+ * {@link BpmnElementFactory} unchanged.
+ *
+ * DTDs and external entities are rejected.
+ */
+public class BpmnStreamReader {
+
+    private static final String DI_PREFIX = "bpmndi:";
+
+    public Document read(String xmlContent) throws XMLStreamException {
+        return read(new StringReader(xmlContent));
+    }
+
+    public Document read(Reader reader) throws XMLStreamException {
+        XMLStreamReader xml = XmlParsers.streamReader(reader);
+        try {
+            return buildDocument(xml);
+        } finally {
+            xml.close();
+        }
+    }
+
+    public Document read(InputStream inputStream) throws XMLStreamException {
+        XMLStreamReader xml = XmlParsers.streamReader(inputStream);
+        try {
+            return buildDocument(xml);
+        } finally {
+            xml.close();
+        }
+    }
+
+    private Document buildDocument(XMLStreamReader xml) throws XMLStreamException {
+        Document document = XmlParsers.newDocument();
+        Deque<Node> open = new ArrayDeque<>();
+        open.push(document);
+
+        // text seen since the last tag of the current element, flushed lazily so
+        // indentation between elements never becomes a DOM node
+        StringBuilder text = new StringBuilder();
+        boolean currentHasChildElements = false;
+        Deque<Boolean> hasChildElements = new ArrayDeque<>();
+
+        while (xml.hasNext()) {
+            switch (xml.next()) {
+                case XMLStreamConstants.START_ELEMENT:
+                    String tagName = qualifiedName(xml.getPrefix(), xml.getLocalName());
+                    if (tagName.startsWith(DI_PREFIX)) {
+                        skipSubtree(xml);
+                        break;
+                    }
+                    flushText(open.peek(), text, false);
+                    Element element = document.createElement(tagName);
+                    for (int i = 0; i < xml.getAttributeCount(); i++) {
+                        element.setAttribute(qualifiedName(xml.getAttributePrefix(i), xml.getAttributeLocalName(i)),
+                                xml.getAttributeValue(i));
+                    }
+                    open.peek().appendChild(element);
+                    open.push(element);
+                    // the parent now has an element child; the new element has none yet
+                    hasChildElements.push(true);
+                    currentHasChildElements = false;
+                    break;
+
+                case XMLStreamConstants.END_ELEMENT:
+                    flushText(open.peek(), text, !currentHasChildElements);
+                    open.pop();
+                    currentHasChildElements = hasChildElements.pop();
+                    break;
+
+                case XMLStreamConstants.CHARACTERS:
+                case XMLStreamConstants.CDATA:
+                case XMLStreamConstants.SPACE:
+                    if (open.size() > 1) {
+                        text.append(xml.getText());
+                    }
+                    break;
+
+                default:
+                    break;
+            }
+        }
+        return document;
+    }
+
+    /**
+     * Appends the buffered text to the node. Whitespace-only text is kept only
+     * for leaf elements, where it is the element's actual content.
+     */
+    private static void flushText(Node parent, StringBuilder text, boolean leaf) {
+        if (text.length() == 0) {
+            return;
+        }
+        if (leaf || !text.toString().isBlank()) {
+            parent.appendChild(parent.getOwnerDocument().createTextNode(text.toString()));
+        }
+        text.setLength(0);
+    }
+
+    private static void skipSubtree(XMLStreamReader xml) throws XMLStreamException {
+        int depth = 1;
+        while (depth > 0 && xml.hasNext()) {
+            int event = xml.next();
+            if (event == XMLStreamConstants.START_ELEMENT) {
+                depth++;
+            } else if (event == XMLStreamConstants.END_ELEMENT) {
+                depth--;
+            }
+        }
+    }
+
+    private static String qualifiedName(String prefix, String localName) {
+        return prefix == null || prefix.isEmpty() ? localName : prefix + ":" + localName;
+    }
+}
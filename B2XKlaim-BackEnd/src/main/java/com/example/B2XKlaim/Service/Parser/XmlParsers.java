@@ -0,0 +1,117 @@
+/*
+ * Copyright 2023 Khalid BOURR
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.example.B2XKlaim.Service.Parser;
+
+import java.io.InputStream;
+import java.io.Reader;
+
+import javax.xml.XMLConstants;
+import javax.xml.parsers.DocumentBuilder;
+import javax.xml.parsers.DocumentBuilderFactory;
+import javax.xml.parsers.ParserConfigurationException;
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+
+import org.w3c.dom.Document;
+
+/**
+ * Shared, preconfigured XML parsers for the BPMN front ends.
+ *
+ * Looking up a JAXP factory goes through the service loader and is expensive
+ * under load, so the factories are created and hardened once. Factories are
+ * not thread-safe to configure but are only read here; {@link DocumentBuilder}s
+ * are not thread-safe at all, so each thread keeps its own and resets it before
+ * every use.
+ *
+ * All parsers reject DTDs and external entities. The DOM builder is namespace
+ * aware; element and attribute names keep their prefixes ("bpmn:task"), so
+ * qualified-name lookups behave as with the default builder. The StAX factory
+ * stays namespace unaware, see {@link BpmnStreamReader}.
+ */
+public final class XmlParsers {
+
+    private static final DocumentBuilderFactory DOCUMENT_BUILDER_FACTORY = createDocumentBuilderFactory();
+    private static final XMLInputFactory INPUT_FACTORY = createInputFactory();
+
+    private static final ThreadLocal<DocumentBuilder> DOCUMENT_BUILDERS =
+            ThreadLocal.withInitial(XmlParsers::createDocumentBuilder);
+
+    private XmlParsers() {
+    }
+
+    private static DocumentBuilderFactory createDocumentBuilderFactory() {
+        DocumentBuilderFactory factory = DocumentBuilderFactory.newInstance();
+        factory.setNamespaceAware(true);
+        factory.setXIncludeAware(false);
+        factory.setExpandEntityReferences(false);
+        try {
+            factory.setFeature(XMLConstants.FEATURE_SECURE_PROCESSING, true);
+            factory.setFeature("http://apache.org/xml/features/disallow-doctype-decl", true);
+            factory.setFeature("http://xml.org/sax/features/external-general-entities", false);
+            factory.setFeature("http://xml.org/sax/features/external-parameter-entities", false);
+            factory.setFeature("http://apache.org/xml/features/nonvalidating/load-external-dtd", false);
+        } catch (ParserConfigurationException e) {
+            throw new IllegalStateException("XML parser does not support the required hardening", e);
+        }
+        factory.setAttribute(XMLConstants.ACCESS_EXTERNAL_DTD, "");
+        factory.setAttribute(XMLConstants.ACCESS_EXTERNAL_SCHEMA, "");
+        return factory;
+    }
+
+    private static DocumentBuilder createDocumentBuilder() {
+        try {
+            return DOCUMENT_BUILDER_FACTORY.newDocumentBuilder();
+        } catch (ParserConfigurationException e) {
+            throw new IllegalStateException("Could not create a document builder", e);
+        }
+    }
+
+    private static XMLInputFactory createInputFactory() {
+        XMLInputFactory factory = XMLInputFactory.newFactory();
+        factory.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+        factory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+        factory.setProperty(XMLInputFactory.IS_NAMESPACE_AWARE, false);
+        factory.setProperty(XMLInputFactory.IS_COALESCING, true);
+        return factory;
+    }
+
+    /**
+     * @return this thread's document builder, reset to its initial state; do not
+     *         hand it to another thread or keep it across calls
+     */
+    public static DocumentBuilder documentBuilder() {
+        DocumentBuilder builder = DOCUMENT_BUILDERS.get();
+        builder.reset();
+        return builder;
+    }
+
+    /**
+     * @return a new, empty document
+     */
+    public static Document newDocument() {
+        return documentBuilder().newDocument();
+    }
+
+    public static XMLStreamReader streamReader(Reader reader) throws XMLStreamException {
+        return INPUT_FACTORY.createXMLStreamReader(reader);
+    }
+
+    public static XMLStreamReader streamReader(InputStream inputStream) throws XMLStreamException {
+        return INPUT_FACTORY.createXMLStreamReader(inputStream);
+    }
+}
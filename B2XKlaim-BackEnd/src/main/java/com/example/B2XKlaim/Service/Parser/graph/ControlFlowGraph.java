@@ -0,0 +1,223 @@
+/*
+ * Copyright 2023 Khalid BOURR
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.example.B2XKlaim.Service.Parser.graph;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Sequence-flow graph of a BPMN model with its structural analyses.
+ *
+ * Nodes are flow node ids (events, tasks, gateways), edges are sequence flows.
+ * Strongly connected components and immediate post-dominators are computed
+ * once when the graph is built. Gateway analysis then answers "is this merge
+ * the head of a loop" and "where do the branches of this split converge" with
+ * array lookups instead of re-walking the model for every gateway.
+ *
+ * Each process is a separate weakly connected part of the graph, so a single
+ * graph per document yields the same results as one graph per process.
+ */
+public final class ControlFlowGraph {
+
+    private final List<String> nodeIds;
+    private final Map<String, Integer> indexOf;
+    private final int[][] successors;
+    private final int[][] predecessors;
+
+    private final int[] component;
+    private final boolean[] cyclic;
+    private final int[] immediatePostDominator;
+
+    private ControlFlowGraph(List<String> nodeIds, Map<String, Integer> indexOf,
+                             int[][] successors, int[][] predecessors) {
+        this.nodeIds = Collections.unmodifiableList(nodeIds);
+        this.indexOf = indexOf;
+        this.successors = successors;
+        this.predecessors = predecessors;
+
+        this.component = StronglyConnectedComponents.compute(successors);
+        this.cyclic = markCyclic(component, successors);
+        this.immediatePostDominator = PostDominators.compute(successors, predecessors);
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * Collects nodes and edges; node order (first mention) is the order used
+     * to break ties, so feeding the builder in document order keeps every
+     * analysis deterministic.
+     */
+    public static final class Builder {
+        private final Map<String, Integer> indexOf = new LinkedHashMap<>();
+        private final List<List<Integer>> edges = new ArrayList<>();
+
+        private Builder() {
+        }
+
+        public Builder addNode(String id) {
+            node(id);
+            return this;
+        }
+
+        public Builder addEdge(String from, String to) {
+            int source = node(from);
+            int target = node(to);
+            if (!edges.get(source).contains(target)) {
+                edges.get(source).add(target);
+            }
+            return this;
+        }
+
+        private int node(String id) {
+            Integer existing = indexOf.get(id);
+            if (existing != null) {
+                return existing;
+            }
+            int index = indexOf.size();
+            indexOf.put(id, index);
+            edges.add(new ArrayList<>());
+            return index;
+        }
+
+        public ControlFlowGraph build() {
+            int n = indexOf.size();
+            int[][] successors = new int[n][];
+            int[] inDegree = new int[n];
+            for (int i = 0; i < n; i++) {
+                successors[i] = edges.get(i).stream().mapToInt(Integer::intValue).toArray();
+                for (int target : successors[i]) {
+                    inDegree[target]++;
+                }
+            }
+            int[][] predecessors = new int[n][];
+            int[] fill = new int[n];
+            for (int i = 0; i < n; i++) {
+                predecessors[i] = new int[inDegree[i]];
+            }
+            for (int i = 0; i < n; i++) {
+                for (int target : successors[i]) {
+                    predecessors[target][fill[target]++] = i;
+                }
+            }
+            return new ControlFlowGraph(new ArrayList<>(indexOf.keySet()), new HashMap<>(indexOf),
+                    successors, predecessors);
+        }
+    }
+
+    private static boolean[] markCyclic(int[] component, int[][] successors) {
+        int n = component.length;
+        int[] size = new int[n];
+        for (int c : component) {
+            size[c]++;
+        }
+        boolean[] cyclic = new boolean[n];
+        for (int v = 0; v < n; v++) {
+            if (size[component[v]] > 1) {
+                cyclic[v] = true;
+            }
+            for (int w : successors[v]) {
+                if (w == v) {
+                    cyclic[v] = true;
+                }
+            }
+        }
+        return cyclic;
+    }
+
+    // --- Queries ---
+
+    public boolean contains(String id) {
+        return id != null && indexOf.containsKey(id);
+    }
+
+    public List<String> getNodeIds() {
+        return nodeIds;
+    }
+
+    public List<String> successors(String id) {
+        return names(successors, id);
+    }
+
+    public List<String> predecessors(String id) {
+        return names(predecessors, id);
+    }
+
+    private List<String> names(int[][] adjacency, String id) {
+        Integer v = indexOf.get(id);
+        if (v == null) {
+            return Collections.emptyList();
+        }
+        List<String> result = new ArrayList<>(adjacency[v].length);
+        for (int w : adjacency[v]) {
+            result.add(nodeIds.get(w));
+        }
+        return result;
+    }
+
+    public boolean hasEdge(String from, String to) {
+        Integer v = indexOf.get(from);
+        Integer w = indexOf.get(to);
+        if (v == null || w == null) {
+            return false;
+        }
+        for (int s : successors[v]) {
+            if (s == w) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * @return true if both nodes lie on a common cycle (same strongly connected component)
+     */
+    public boolean inSameCycle(String a, String b) {
+        Integer v = indexOf.get(a);
+        Integer w = indexOf.get(b);
+        return v != null && w != null && component[v] == component[w] && cyclic[v];
+    }
+
+    /**
+     * @return the closest node every path from {@code id} to an end passes through,
+     *         or null for end nodes and nodes that cannot reach an end
+     */
+    public String immediatePostDominator(String id) {
+        Integer v = indexOf.get(id);
+        if (v == null) {
+            return null;
+        }
+        int ipdom = immediatePostDominator[v];
+        return ipdom < 0 ? null : nodeIds.get(ipdom);
+    }
+
+    public int size() {
+        return nodeIds.size();
+    }
+
+    @Override
+    public String toString() {
+        return "ControlFlowGraph{nodes=" + nodeIds.size()
+                + ", edges=" + Arrays.stream(successors).mapToInt(s -> s.length).sum() + "}";
+    }
+}
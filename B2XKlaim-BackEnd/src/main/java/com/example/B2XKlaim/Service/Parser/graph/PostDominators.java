@@ -0,0 +1,134 @@
+/*
+ * Copyright 2023 Khalid BOURR
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.example.B2XKlaim.Service.Parser.graph;
+
+import java.util.Arrays;
+import java.util.stream.IntStream;
+
+/**
+ * Immediate post-dominators using the Cooper–Harvey–Kennedy iterative
+ * algorithm on the reversed graph.
+ *
+ * A virtual exit is connected to every node without successors (end events),
+ * so processes with several end events still have a single root. Nodes that
+ * cannot reach any end have no post-dominator.
+ */
+final class PostDominators {
+
+    private static final int UNDEFINED = -1;
+
+    private PostDominators() {
+    }
+
+    /**
+     * @return the immediate post-dominator of every node, or -1 when it is the
+     *         virtual exit or undefined
+     */
+    static int[] compute(int[][] successors, int[][] predecessors) {
+        int n = successors.length;
+        int exit = n;
+
+        // post-order of the reversed graph, rooted at the virtual exit
+        int[] postOrder = new int[n + 1];
+        int[] order = new int[n + 1];
+        Arrays.fill(postOrder, UNDEFINED);
+        int visited = reversePostOrder(successors, predecessors, exit, postOrder, order);
+
+        int[] idom = new int[n + 1];
+        Arrays.fill(idom, UNDEFINED);
+        idom[exit] = exit;
+
+        boolean changed = true;
+        while (changed) {
+            changed = false;
+            // order[] holds nodes by decreasing post-order number, exit first
+            for (int i = 1; i < visited; i++) {
+                int b = order[i];
+                int newIdom = UNDEFINED;
+                if (successors[b].length == 0) {
+                    newIdom = exit;
+                }
+                for (int p : successors[b]) {
+                    if (idom[p] == UNDEFINED) {
+                        continue;
+                    }
+                    newIdom = newIdom == UNDEFINED ? p : intersect(p, newIdom, idom, postOrder);
+                }
+                if (newIdom != UNDEFINED && idom[b] != newIdom) {
+                    idom[b] = newIdom;
+                    changed = true;
+                }
+            }
+        }
+
+        int[] result = new int[n];
+        for (int v = 0; v < n; v++) {
+            result[v] = idom[v] == exit ? UNDEFINED : idom[v];
+        }
+        return result;
+    }
+
+    private static int intersect(int a, int b, int[] idom, int[] postOrder) {
+        while (a != b) {
+            while (postOrder[a] < postOrder[b]) {
+                a = idom[a];
+            }
+            while (postOrder[b] < postOrder[a]) {
+                b = idom[b];
+            }
+        }
+        return a;
+    }
+
+    /**
+     * Iterative DFS over the reversed edges. Fills postOrder[node] and returns
+     * the number of reached nodes, with order[] sorted by decreasing post-order.
+     */
+    private static int reversePostOrder(int[][] successors, int[][] predecessors, int exit,
+                                        int[] postOrder, int[] order) {
+        int n = successors.length;
+        int[] sinks = IntStream.range(0, n).filter(v -> successors[v].length == 0).toArray();
+        boolean[] seen = new boolean[n + 1];
+        int[] callStack = new int[n + 1];
+        int[] nextEdge = new int[n + 1];
+        int depth = 0;
+        int counter = 0;
+
+        callStack[depth++] = exit;
+        seen[exit] = true;
+        while (depth > 0) {
+            int v = callStack[depth - 1];
+            int[] reversed = v == exit ? sinks : predecessors[v];
+            if (nextEdge[v] < reversed.length) {
+                int w = reversed[nextEdge[v]++];
+                if (!seen[w]) {
+                    seen[w] = true;
+                    callStack[depth++] = w;
+                }
+            } else {
+                postOrder[v] = counter++;
+                depth--;
+            }
+        }
+        for (int v = 0; v <= n; v++) {
+            if (postOrder[v] != UNDEFINED) {
+                order[counter - 1 - postOrder[v]] = v;
+            }
+        }
+        return counter;
+    }
+}
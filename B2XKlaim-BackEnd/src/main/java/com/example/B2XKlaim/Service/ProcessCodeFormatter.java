@@ -0,0 +1,337 @@
+package com.example.B2XKlaim.Service;
+
+/**
+ * Formats one XKlaim proc in a single pass over its characters. Line endings,
+ * blank lines and surrounding whitespace are normalized while the lines are
+ * read, each line is re-spaced and indented by brace depth as it is written,
+ * and only the result is built.
+ * <p>
+ * The output is byte for byte what the former replaceAll chains of
+ * {@link CodeFormattingService} produced:
+ * <ul>
+ * <li>consecutive lines holding only blanks become one empty line, and the
+ * code is trimmed;</li>
+ * <li>inside a line only the blanks between two characters change, chosen by
+ * the characters around them: one space in {@code if (}, {@code else {},
+ * {@code } else} and after {@code new} or a comma, none in {@code eval(} or
+ * around the {@code @} of {@code )@}, and a run of two or more blanks becomes
+ * one space. Comment lines only get the control structure spacing;</li>
+ * <li>a line is indented one level per unclosed brace; {@code }} and
+ * {@code } else} lines close a level first, and an empty line follows the
+ * proc header and each {@code }} that is not followed by another {@code }} or
+ * an {@code else}.</li>
+ * </ul>
+ */
+final class ProcessCodeFormatter {
+
+    private final String code;
+    private final int end;
+    private final String indent;
+    private final StringBuilder out;
+    private int level;
+
+    /** Start of the next unread line, or -1 after the last line. */
+    private int next;
+    private int lineStart;
+    private int lineEnd;
+    private boolean lineBlank;
+
+    private ProcessCodeFormatter(String code, int begin, int end, String indent) {
+        this.code = code;
+        this.end = end;
+        this.indent = indent;
+        this.out = new StringBuilder(end - begin + (end - begin) / 4);
+        this.next = begin;
+    }
+
+    /**
+     * @param rawCode the proc as generated, non-empty
+     * @param indent  the string written once per indentation level
+     * @return the formatted proc, ending with one line break
+     */
+    static String format(String rawCode, String indent) {
+        String code = withoutBlanksBeforeFinalSeparator(rawCode);
+        int begin = 0;
+        int end = code.length();
+        while (begin < end && code.charAt(begin) <= ' ') {
+            begin++;
+        }
+        while (end > begin && code.charAt(end - 1) <= ' ') {
+            end--;
+        }
+        if (begin == end) {
+            return "\n";
+        }
+        return new ProcessCodeFormatter(code, begin, end, indent).format();
+    }
+
+    private String format() {
+        readLine();
+        int currentStart = lineStart;
+        int currentEnd = lineEnd;
+        boolean more = readLine();
+        while (true) {
+            writeLine(currentStart, currentEnd, more);
+            if (!more) {
+                break;
+            }
+            currentStart = lineStart;
+            currentEnd = lineEnd;
+            more = readLine();
+        }
+        return out.append('\n').toString();
+    }
+
+    /**
+     * Writes one trimmed line; {@code lineStart}/{@code lineEnd} already hold
+     * the line after it when {@code more} is set.
+     */
+    private void writeLine(int start, int stop, boolean more) {
+        if (start == stop) {
+            out.append('\n');
+            return;
+        }
+        if (equalsText(start, stop, "}") || code.startsWith("} else", start) && stop - start >= 6) {
+            if (level > 0) {
+                level--;
+            }
+        }
+        for (int i = 0; i < level; i++) {
+            out.append(indent);
+        }
+
+        boolean comment = code.startsWith("/*", start) && stop - start >= 2
+                || code.startsWith("//", start) && stop - start >= 2;
+        int formatted = out.length();
+        boolean hasOpeningBrace = appendSpaced(start, stop, comment);
+        char last = out.charAt(out.length() - 1);
+
+        if (more) {
+            if (isProcHeader(formatted)) {
+                out.append("\n\n");
+            } else if (lineStart < lineEnd && code.startsWith("else", lineStart) && lineEnd - lineStart >= 4
+                    || equalsText(lineStart, lineEnd, "}")) {
+                out.append('\n');
+            } else if (out.length() - formatted == 1 && last == '}') {
+                out.append("\n\n");
+            } else {
+                out.append('\n');
+            }
+        }
+
+        if (last == '{' && !comment) {
+            level++;
+        }
+        if (hasOpeningBrace && last == '}' && !comment && level > 0) {
+            level--;
+        }
+    }
+
+    /**
+     * Appends the line with its blanks re-spaced; the line starts and ends
+     * with a non-blank character.
+     *
+     * @return whether the line contains an opening brace
+     */
+    private boolean appendSpaced(int start, int stop, boolean comment) {
+        boolean hasOpeningBrace = false;
+        int i = start;
+        while (i < stop) {
+            int gap = i;
+            while (i < stop && isBlank(code.charAt(i))) {
+                i++;
+            }
+            char c = code.charAt(i);
+            if (i > start) {
+                appendGap(start, gap, i, stop, comment);
+            }
+            out.append(c);
+            hasOpeningBrace |= c == '{';
+            i++;
+        }
+        return hasOpeningBrace;
+    }
+
+    /**
+     * Appends what the blanks in [gap, after) become, from the characters
+     * before and after them.
+     */
+    private void appendGap(int start, int gap, int after, int stop, boolean comment) {
+        char previous = code.charAt(gap - 1);
+        char following = code.charAt(after);
+        boolean empty = gap == after;
+        if (following == '(' && endsWith(start, gap, "if")
+                || following == '{' && endsWith(start, gap, "else")
+                || previous == '}' && startsElseBlock(after, stop)) {
+            out.append(' ');
+        } else if (comment) {
+            out.append(code, gap, after);
+        } else if (previous == ',') {
+            if (empty) {
+                out.append(' ');
+            } else {
+                appendCollapsed(gap, after);
+            }
+        } else if (previous == ')' && following == '@'
+                || previous == '@' && followsClosingParenthesis(start, gap - 1)
+                || following == '(' && endsWith(start, gap, "eval")) {
+            // no blanks
+        } else if (previous == 'w' && endsWith(start, gap, "new")) {
+            if (!empty) {
+                out.append(' ');
+            }
+        } else {
+            appendCollapsed(gap, after);
+        }
+    }
+
+    private void appendCollapsed(int gap, int after) {
+        if (after - gap >= 2) {
+            out.append(' ');
+        } else {
+            out.append(code, gap, after);
+        }
+    }
+
+    /**
+     * Moves to the next line, trimmed; runs of lines holding only blanks are
+     * read as one empty line.
+     *
+     * @return false after the last line
+     */
+    private boolean readLine() {
+        if (next < 0) {
+            return false;
+        }
+        boolean first = true;
+        do {
+            int start = next;
+            int stop = start;
+            boolean blank = true;
+            while (stop < end && code.charAt(stop) != '\n' && code.charAt(stop) != '\r') {
+                blank &= isBlank(code.charAt(stop));
+                stop++;
+            }
+            if (!first && !blank) {
+                return true;
+            }
+            if (stop == end) {
+                next = -1;
+            } else {
+                next = stop + (code.charAt(stop) == '\r' && code.charAt(stop + 1) == '\n' ? 2 : 1);
+            }
+            if (first) {
+                while (start < stop && code.charAt(start) <= ' ') {
+                    start++;
+                }
+                while (stop > start && code.charAt(stop - 1) <= ' ') {
+                    stop--;
+                }
+                lineStart = start;
+                lineEnd = stop;
+                lineBlank = blank;
+                first = false;
+            }
+        } while (lineBlank && next >= 0);
+        return true;
+    }
+
+    /**
+     * Whether the proc header rule applies to the formatted line starting at
+     * {@code from}: {@code proc}, blanks, a word character, anything without a
+     * line separator, and a final {@code {}.
+     */
+    private boolean isProcHeader(int from) {
+        int length = out.length();
+        if (length - from < 7 || out.charAt(length - 1) != '{' || !startsWith(out, from, "proc")) {
+            return false;
+        }
+        int i = from + 4;
+        if (!isBlank(out.charAt(i))) {
+            return false;
+        }
+        while (i < length && isBlank(out.charAt(i))) {
+            i++;
+        }
+        if (i >= length - 1 || !isWordCharacter(out.charAt(i))) {
+            return false;
+        }
+        for (; i < length; i++) {
+            if (isLineSeparator(out.charAt(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private boolean startsElseBlock(int from, int stop) {
+        if (stop - from < 5 || !code.startsWith("else", from)) {
+            return false;
+        }
+        int i = from + 4;
+        while (i < stop && isBlank(code.charAt(i))) {
+            i++;
+        }
+        return i < stop && code.charAt(i) == '{';
+    }
+
+    private boolean followsClosingParenthesis(int start, int at) {
+        int i = at - 1;
+        while (i >= start && isBlank(code.charAt(i))) {
+            i--;
+        }
+        return i >= start && code.charAt(i) == ')';
+    }
+
+    private boolean endsWith(int start, int at, String text) {
+        return at - start >= text.length() && code.startsWith(text, at - text.length());
+    }
+
+    private boolean equalsText(int start, int stop, String text) {
+        return stop - start == text.length() && code.startsWith(text, start);
+    }
+
+    private static boolean startsWith(CharSequence text, int from, String prefix) {
+        for (int i = 0; i < prefix.length(); i++) {
+            if (text.charAt(from + i) != prefix.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * The former whole-text {@code \s+$} also matched before a final line
+     * separator that is not a blank, so those blanks go as well.
+     */
+    private static String withoutBlanksBeforeFinalSeparator(String code) {
+        int last = code.length() - 1;
+        if (last < 1 || !isLineSeparator(code.charAt(last)) || !isWhitespace(code.charAt(last - 1))) {
+            return code;
+        }
+        int stop = last - 1;
+        while (stop > 0 && isWhitespace(code.charAt(stop - 1))) {
+            stop--;
+        }
+        return code.substring(0, stop) + code.charAt(last);
+    }
+
+    /** The characters of {@code \s} that can occur inside a line. */
+    private static boolean isBlank(char c) {
+        return c == ' ' || c == '\t' || c == '\u000B' || c == '\f';
+    }
+
+    /** The characters of {@code \s}. */
+    private static boolean isWhitespace(char c) {
+        return isBlank(c) || c == '\n' || c == '\r';
+    }
+
+    /** Line terminators other than {@code \n} and {@code \r}, which {@code .} does not match. */
+    private static boolean isLineSeparator(char c) {
+        return c == '\u0085' || c == '\u2028' || c == '\u2029';
+    }
+
+    private static boolean isWordCharacter(char c) {
+        return c >= 'a' && c <= 'z' || c >= 'A' && c <= 'Z' || c >= '0' && c <= '9' || c == '_';
+    }
+}
@@ -11,6 +11,7 @@ import org.springframework.stereotype.Service;
 import com.example.B2XKlaim.Service.CodeGenerationService.GenerationResult;
 import com.example.B2XKlaim.Service.CodeGenerationService.ProcessCode;
 import com.example.B2XKlaim.Service.builder.ResponseBuilder;
+import com.example.B2XKlaim.Service.dto.TranslationResponse;
 
 import lombok.extern.slf4j.Slf4j;
 
@@ -33,16 +34,30 @@ public class ResponseBuilderService {
      * @return Structured response map ready for API return
      */
     public Map<String, Object> buildResponse(GenerationResult generationResult, String fullGeneratedCode) {
+        return buildTranslationResponse(generationResult, fullGeneratedCode).toMap();
+    }
+
+    /**
+     * Builds the typed API response from generation results using Builder Pattern.
+     * 
+     * @param generationResult The code generation results
+     * @param fullGeneratedCode The complete generated code string (for extraction) - can be null
+     * @return The response, complete by construction
+     */
+    public TranslationResponse buildTranslationResponse(GenerationResult generationResult, String fullGeneratedCode) {
         log.debug("Building API response from generation results using ResponseBuilder");
 
         // Handle collaboration code
         String collaborationCode = generationResult.getCollaborationCode();
+        boolean recorded = hasRecordedBlocks(generationResult, fullGeneratedCode);
         if (fullGeneratedCode != null && !fullGeneratedCode.isEmpty()) {
-            collaborationCode = codeFormattingService.extractCollaborationBlock(fullGeneratedCode);
+            collaborationCode = recorded
+                    ? codeFormattingService.collaborationBlock(fullGeneratedCode, generationResult.getCodeBlocks())
+                    : codeFormattingService.extractCollaborationBlock(fullGeneratedCode);
         }
 
         // Handle processes
-        List<Map<String, String>> processList = buildProcessList(generationResult, fullGeneratedCode);
+        List<Map<String, String>> processList = buildProcessList(generationResult, fullGeneratedCode, recorded);
 
         // Format call activity code with proper indentation
         Map<String, List<String>> formattedCallActivities = formatCallActivities(generationResult.getCallActivities());
@@ -51,7 +66,7 @@ public class ResponseBuilderService {
         Map<String, List<String>> formattedAndBranchProcs = formatCallActivities(generationResult.getAndBranchProcs());
 
         // Build response using ResponseBuilder
-        Map<String, Object> response = ResponseBuilder.create()
+        TranslationResponse response = ResponseBuilder.create()
                 .withCollaboration(collaborationCode)
                 .withProcessList(processList)
                 .withCallActivities(formattedCallActivities)
@@ -59,7 +74,7 @@ public class ResponseBuilderService {
                 .withEventSubProcesses(generationResult.getEventSubProcesses())
                 .withAndBranchProcs(formattedAndBranchProcs)
                 .withParticipants(generationResult.getParticipants())
-                .build();
+                .buildTranslationResponse();
 
         log.debug("Built API response with {} processes and {} participants", 
                  processList.size(), generationResult.getParticipants().size());
@@ -81,17 +96,29 @@ public class ResponseBuilderService {
                 .build();
     }
 
+    /**
+     * Whether the generator recorded where the net and procs are in {@code fullGeneratedCode},
+     * so they can be cut out instead of searched for.
+     */
+    private boolean hasRecordedBlocks(GenerationResult generationResult, String fullGeneratedCode) {
+        return !generationResult.getCodeBlocks().isEmpty() && fullGeneratedCode != null
+                && fullGeneratedCode.equals(generationResult.getFullGeneratedCode());
+    }
+
     /**
      * Builds process list from generation results, handling both collaboration and standalone cases.
      */
-    private List<Map<String, String>> buildProcessList(GenerationResult generationResult, String fullGeneratedCode) {
+    private List<Map<String, String>> buildProcessList(GenerationResult generationResult, String fullGeneratedCode,
+                                                       boolean recorded) {
         List<Map<String, String>> processList = new ArrayList<>();
 
         if (fullGeneratedCode != null && !fullGeneratedCode.isEmpty() && 
             !generationResult.getCollaborationCode().contains("No collaboration defined")) {
             
-            // Extract processes from collaboration code
-            List<Map<String, String>> rawProcesses = codeFormattingService.extractProcessBlocks(fullGeneratedCode);
+            // Take the processes from the collaboration code
+            List<Map<String, String>> rawProcesses = recorded
+                    ? codeFormattingService.processBlocks(fullGeneratedCode, generationResult.getCodeBlocks())
+                    : codeFormattingService.extractProcessBlocks(fullGeneratedCode);
             processList = codeFormattingService.formatProcessList(rawProcesses, "  ");
             
             log.debug("Extracted and formatted {} processes from collaboration", processList.size());
@@ -142,7 +169,8 @@ public class ResponseBuilderService {
     }
 
     /**
-     * Validates that a response contains all required fields.
+     * Validates that a response map contains all required fields. Typed
+     * {@link TranslationResponse}s always do.
      * 
      * @param response The response to validate
      * @return true if valid, false otherwise
@@ -0,0 +1,212 @@
+package com.example.B2XKlaim.Service;
+
+import java.time.Instant;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import com.example.B2XKlaim.Service.dto.TranslationJob;
+import com.example.B2XKlaim.Service.dto.TranslationJob.Status;
+import com.example.B2XKlaim.Service.dto.TranslationResponse;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Runs translations as jobs, so a client is not held on a servlet thread for a
+ * large model. Jobs run on a fixed pool of workers with a bounded queue: a
+ * burst beyond the queue limit is rejected at once instead of piling up work
+ * nobody waits for any more. Finished jobs are kept for polling until
+ * {@code retainedJobs} newer ones have finished.
+ */
+@Service
+@Slf4j
+public class TranslationJobService {
+
+    /**
+     * A translation already parses and generates on the shared parsing and
+     * stage pools, so a few workers keep the machine busy.
+     */
+    static final int DEFAULT_WORKERS = Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+    static final int DEFAULT_QUEUE_LIMIT = 64;
+    static final int DEFAULT_RETAINED_JOBS = 256;
+
+    private final TranslationService translationService;
+    private final ThreadPoolExecutor jobExecutor;
+    private final int retainedJobs;
+
+    private final Map<String, Job> jobs = new ConcurrentHashMap<>();
+    /** Ids of finished jobs, oldest first. */
+    private final Deque<String> finished = new ArrayDeque<>();
+
+    @Autowired
+    public TranslationJobService(TranslationService translationService) {
+        this(translationService, DEFAULT_WORKERS, DEFAULT_QUEUE_LIMIT, DEFAULT_RETAINED_JOBS);
+    }
+
+    /**
+     * @param workers number of jobs translated at the same time
+     * @param queueLimit maximum number of jobs waiting for a worker
+     * @param retainedJobs number of finished jobs kept for polling
+     */
+    public TranslationJobService(TranslationService translationService, int workers, int queueLimit,
+                                 int retainedJobs) {
+        this.translationService = translationService;
+        this.jobExecutor = new ThreadPoolExecutor(Math.max(1, workers), Math.max(1, workers), 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(Math.max(1, queueLimit)), jobThreads());
+        this.retainedJobs = Math.max(1, retainedJobs);
+    }
+
+    private static ThreadFactory jobThreads() {
+        AtomicInteger counter = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, "translation-job-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        jobExecutor.shutdownNow();
+    }
+
+    /**
+     * Queues the translation of a process set.
+     *
+     * @param processes Map of process ID to XML content
+     * @return The queued job
+     * @throws RejectedExecutionException if the queue is full
+     */
+    public TranslationJob submit(Map<String, String> processes) {
+        Job job = new Job(UUID.randomUUID().toString());
+        jobs.put(job.id, job);
+        try {
+            job.future = jobExecutor.submit(() -> run(job, processes));
+        } catch (RejectedExecutionException e) {
+            jobs.remove(job.id);
+            log.warn("Translation queue full ({} jobs waiting), rejecting job", jobExecutor.getQueue().size());
+            throw e;
+        }
+        log.info("Queued translation job {} ({} jobs waiting)", job.id, jobExecutor.getQueue().size());
+        return job.snapshot();
+    }
+
+    /**
+     * @return the job's current state, or null for an unknown or expired id
+     */
+    public TranslationJob get(String id) {
+        Job job = jobs.get(id);
+        return job != null ? job.snapshot() : null;
+    }
+
+    /**
+     * Cancels a queued or running job; a running translation is interrupted.
+     * Finished jobs are left as they are.
+     *
+     * @return the job's state after cancelling, or null for an unknown or expired id
+     */
+    public TranslationJob cancel(String id) {
+        Job job = jobs.get(id);
+        if (job == null) {
+            return null;
+        }
+        if (job.finish(Status.CANCELLED, null, null)) {
+            job.future.cancel(true);
+            jobExecutor.purge();
+            retire(job);
+            log.info("Cancelled translation job {}", id);
+        }
+        return job.snapshot();
+    }
+
+    private void run(Job job, Map<String, String> processes) {
+        if (!job.start()) {
+            return;
+        }
+        log.info("Running translation job {}", job.id);
+        try {
+            TranslationResponse result = translationService.translate(processes);
+            if (job.finish(Status.SUCCEEDED, null, result)) {
+                log.info("Translation job {} succeeded", job.id);
+                retire(job);
+            }
+        } catch (Exception e) {
+            if (job.finish(Status.FAILED, e.getMessage(), null)) {
+                log.error("Translation job {} failed: {}", job.id, e.getMessage(), e);
+                retire(job);
+            }
+        }
+    }
+
+    /**
+     * Records a finished job and forgets the oldest ones beyond the retention limit.
+     */
+    private void retire(Job job) {
+        synchronized (finished) {
+            finished.addLast(job.id);
+            while (finished.size() > retainedJobs) {
+                jobs.remove(finished.removeFirst());
+            }
+        }
+    }
+
+    /**
+     * A job's mutable state; every transition happens under the job's lock,
+     * so a worker finishing a cancelled job cannot overwrite its status.
+     */
+    private static final class Job {
+
+        private final String id;
+        private final Instant submittedAt = Instant.now();
+        private volatile Future<?> future;
+        private Status status = Status.QUEUED;
+        private Instant startedAt;
+        private Instant finishedAt;
+        private String error;
+        private TranslationResponse result;
+
+        Job(String id) {
+            this.id = id;
+        }
+
+        synchronized boolean start() {
+            if (status != Status.QUEUED) {
+                return false;
+            }
+            status = Status.RUNNING;
+            startedAt = Instant.now();
+            return true;
+        }
+
+        /**
+         * @return false if the job had already finished
+         */
+        synchronized boolean finish(Status outcome, String error, TranslationResponse result) {
+            if (status.isFinished()) {
+                return false;
+            }
+            this.status = outcome;
+            this.finishedAt = Instant.now();
+            this.error = error;
+            this.result = result;
+            return true;
+        }
+
+        synchronized TranslationJob snapshot() {
+            return new TranslationJob(id, status, submittedAt, startedAt, finishedAt, error, result);
+        }
+    }
+}
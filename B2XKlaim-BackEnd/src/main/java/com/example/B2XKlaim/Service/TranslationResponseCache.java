@@ -0,0 +1,133 @@
+package com.example.B2XKlaim.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Collections;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.TreeMap;
+
+import org.springframework.stereotype.Service;
+
+import com.example.B2XKlaim.Service.Parser.BpmnContentHash;
+import com.example.B2XKlaim.Service.cache.BoundedCache;
+import com.example.B2XKlaim.Service.cache.CacheStats;
+import com.example.B2XKlaim.Service.dto.TranslationResponse;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Cache of complete /generate-code responses keyed by a digest of the request's
+ * process set. The front end autosaves by resending identical payloads, and the
+ * whole pipeline (parse, generate, optimize, format) is deterministic in the
+ * model XML, so a repeat request is answered from here; the digest doubles as
+ * the response ETag.
+ */
+@Service
+@Slf4j
+public class TranslationResponseCache {
+
+    static final int DEFAULT_ENTRIES = 128;
+    static final long DEFAULT_WEIGHT = 32L * 1024 * 1024;
+
+    private final BoundedCache<String, TranslationResponse> responses;
+
+    public TranslationResponseCache() {
+        this(DEFAULT_ENTRIES, DEFAULT_WEIGHT);
+    }
+
+    /**
+     * @param maxEntries maximum number of cached responses; 0 disables the cache
+     * @param maxWeight maximum total length, in chars, of the cached generated code
+     */
+    public TranslationResponseCache(int maxEntries, long maxWeight) {
+        this.responses = new BoundedCache<>(maxEntries, maxWeight);
+    }
+
+    /**
+     * Digest of a process set: process ids in sorted order, each with the
+     * {@link BpmnContentHash} of its XML, so diagram-only edits keep the digest.
+     *
+     * @param processes Map of process ID to XML content
+     * @return lowercase hex SHA-256 of the process set
+     */
+    public String digest(Map<String, ?> processes) {
+        return key(processes).digest();
+    }
+
+    /**
+     * The digest of a process set together with the content hash of each
+     * process, so the parse cache can look processes up without hashing their
+     * XML again.
+     *
+     * @param processes Map of process ID to XML content
+     * @return the key of the process set
+     * @throws IllegalArgumentException if a process has no XML
+     */
+    public Key key(Map<String, ?> processes) {
+        Map<String, String> contentHashes = new TreeMap<>();
+        processes.forEach((processId, xml) -> {
+            if (xml == null) {
+                throw new IllegalArgumentException("Missing XML for process '" + processId + "'");
+            }
+            contentHashes.put(processId, BpmnContentHash.of(xml.toString()));
+        });
+
+        MessageDigest digest = sha256();
+        contentHashes.forEach((processId, contentHash) -> {
+            digest.update(processId.getBytes(StandardCharsets.UTF_8));
+            digest.update((byte) 0);
+            digest.update(contentHash.getBytes(StandardCharsets.UTF_8));
+            digest.update((byte) '\n');
+        });
+        return new Key(HexFormat.of().formatHex(digest.digest()), Collections.unmodifiableMap(contentHashes));
+    }
+
+    /**
+     * @param digest {@link #digest} of the process set, also its ETag
+     * @param contentHashes {@link BpmnContentHash} of each process's XML, by process ID
+     */
+    public record Key(String digest, Map<String, String> contentHashes) {
+    }
+
+    /**
+     * @return the response previously built for the digest, or null
+     */
+    public TranslationResponse get(String digest) {
+        TranslationResponse response = responses.get(digest);
+        if (response != null) {
+            log.debug("Translation cache hit for {}", digest);
+        }
+        return response;
+    }
+
+    /**
+     * Stores a successful response; responses are immutable, so it is shared
+     * between requests as is.
+     *
+     * @param digest Digest of the request's process set
+     * @param response The built response
+     * @param generatedCodeLength Length of the generated code, used as the entry's weight
+     * @return the stored response
+     */
+    public TranslationResponse put(String digest, TranslationResponse response, long generatedCodeLength) {
+        responses.put(digest, response, generatedCodeLength);
+        return response;
+    }
+
+    /**
+     * @return hit/miss/eviction counters of the response cache
+     */
+    public CacheStats getStats() {
+        return responses.stats();
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+}
@@ -0,0 +1,129 @@
+package com.example.B2XKlaim.Service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import com.example.B2XKlaim.Service.CodeGenerationService.GenerationResult;
+import com.example.B2XKlaim.Service.bpmnElements.BpmnElements;
+import com.example.B2XKlaim.Service.dto.TranslationResponse;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * The whole translation of a process set: parse, generate, format, with
+ * successful responses kept in the {@link TranslationResponseCache}. Used by
+ * /generate-code on the request thread, by translation jobs on their workers
+ * and by batches on the batch pool.
+ */
+@Service
+@Slf4j
+public class TranslationService {
+
+    @Autowired
+    private BpmnParsingService bpmnParsingService;
+
+    @Autowired
+    private CodeGenerationService codeGenerationService;
+
+    @Autowired
+    private ResponseBuilderService responseBuilderService;
+
+    @Autowired
+    private TranslationResponseCache translationResponseCache;
+
+    /**
+     * Runs the items of {@link #translateBatch}, one whole translation per
+     * thread; parsing and generation within an item use their own stage pools,
+     * which never wait on this one.
+     */
+    private final ExecutorService batchExecutor = Executors.newFixedThreadPool(
+            Math.max(1, Runtime.getRuntime().availableProcessors()), batchThreads());
+
+    private static ThreadFactory batchThreads() {
+        AtomicInteger counter = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, "translation-batch-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        batchExecutor.shutdownNow();
+    }
+
+    /**
+     * Translates a process set, or answers it from the response cache.
+     *
+     * @param processes Map of process ID to XML content
+     * @return The response for the process set
+     */
+    public TranslationResponse translate(Map<String, String> processes) {
+        TranslationResponseCache.Key key = translationResponseCache.key(processes);
+        TranslationResponse cached = translationResponseCache.get(key.digest());
+        if (cached != null) {
+            log.info("Code generation served from cache");
+            return cached;
+        }
+        return translate(key, processes);
+    }
+
+    /**
+     * Translates a process set that is not in the response cache and caches the response.
+     *
+     * @param key {@link TranslationResponseCache#key} of the process set
+     * @param processes Map of process ID to XML content
+     * @return The response for the process set
+     */
+    public TranslationResponse translate(TranslationResponseCache.Key key, Map<String, String> processes) {
+        // Parse BPMN processes
+        Map<String, BpmnElements> parsedProcesses =
+            bpmnParsingService.parseMultipleProcesses(processes, key.contentHashes());
+
+        // Generate code
+        GenerationResult generationResult = codeGenerationService.generateCode(parsedProcesses);
+        return respond(key.digest(), generationResult);
+    }
+
+    /**
+     * Builds the response for a generation result and caches it under the digest.
+     */
+    private TranslationResponse respond(String digest, GenerationResult generationResult) {
+        // Build response using the full generated code from the result
+        TranslationResponse response = responseBuilderService.buildTranslationResponse(
+            generationResult, generationResult.getFullGeneratedCode());
+        String fullCode = generationResult.getFullGeneratedCode();
+        return translationResponseCache.put(digest, response, fullCode != null ? fullCode.length() : 0);
+    }
+
+    /**
+     * Translates independent process sets in parallel, each as
+     * {@link #translate(Map)} does on its own batch thread (cache lookup,
+     * parse, generate, respond), sharing the parse and response caches.
+     * Returns at once; results complete as their translation finishes, a
+     * failed item completes exceptionally without affecting the others, and
+     * cancelling an item that has not started skips it.
+     *
+     * @param batch Process sets, each a map of process ID to XML content
+     * @return One future per process set, in the order of {@code batch}
+     */
+    public List<CompletableFuture<TranslationResponse>> translateBatch(List<Map<String, String>> batch) {
+        log.info("Starting batch translation of {} process sets", batch.size());
+        List<CompletableFuture<TranslationResponse>> results = new ArrayList<>(batch.size());
+        for (Map<String, String> processes : batch) {
+            results.add(CompletableFuture.supplyAsync(() -> translate(processes), batchExecutor));
+        }
+        return results;
+    }
+}
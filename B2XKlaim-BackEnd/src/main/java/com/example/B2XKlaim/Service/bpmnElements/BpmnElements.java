@@ -33,6 +33,10 @@ import com.example.B2XKlaim.Service.bpmnElements.events.SIC;
 import com.example.B2XKlaim.Service.bpmnElements.events.TSE;
 import com.example.B2XKlaim.Service.bpmnElements.flows.MessageFLow;
  import com.example.B2XKlaim.Service.bpmnElements.flows.SQ;
+import com.example.B2XKlaim.Service.bpmnElements.gateways.AND;
+import com.example.B2XKlaim.Service.bpmnElements.gateways.EB;
+import com.example.B2XKlaim.Service.bpmnElements.gateways.LP;
+import com.example.B2XKlaim.Service.bpmnElements.gateways.XOR;
  import com.example.B2XKlaim.Service.bpmnElements.objects.pool.PL;
  
  /**
@@ -40,7 +44,6 @@ import com.example.B2XKlaim.Service.bpmnElements.flows.MessageFLow;
   * Includes logic to analyze inter-participant interactions for XKlaim generation.
   */
  @Data 
- @Builder
  @Slf4j 
  public class BpmnElements {
  
@@ -60,7 +63,6 @@ import com.example.B2XKlaim.Service.bpmnElements.flows.MessageFLow;
          
      }
  
-     @Builder.Default // Initialize map if using builder
      private Map<String, BpmnElement> elementsById = new HashMap<>();
  
      /**
@@ -70,8 +72,34 @@ import com.example.B2XKlaim.Service.bpmnElements.flows.MessageFLow;
       * Populated by analyzeInteractions(). Marked transient for builder/serialization if needed.
       */
      @Getter // Lombok getter
-     @Builder.Default
      private transient Map<String, Set<String>> requiredParticipantRefs = new HashMap<>();
+
+     /**
+      * Element → process → participant ownership resolved from the source document.
+      * Set by BpmnParser; empty for containers assembled by hand.
+      */
+     private transient ParticipantOwnership participantOwnership = ParticipantOwnership.empty();
+
+     /**
+      * Type, process and start-event indexes over elementsById. Built on first
+      * query and dropped by addElement()/setElementsById(); snapshots made by
+      * toSnapshot() build it up front and share it between threads.
+      */
+     @Getter(AccessLevel.NONE)
+     @Setter(AccessLevel.NONE)
+     @EqualsAndHashCode.Exclude
+     @ToString.Exclude
+     private transient volatile ElementIndex index;
+
+     /**
+      * Array-backed sequence-flow adjacency; only set on snapshots made by
+      * toSnapshot(), whose elements can no longer change.
+      */
+     @Getter(AccessLevel.NONE)
+     @Setter(AccessLevel.NONE)
+     @EqualsAndHashCode.Exclude
+     @ToString.Exclude
+     private transient volatile ElementGraph graph;
  
   
      /**
@@ -80,6 +108,7 @@ import com.example.B2XKlaim.Service.bpmnElements.flows.MessageFLow;
      public BpmnElements() {
          this.elementsById = new HashMap<>();
          this.requiredParticipantRefs = new HashMap<>();
+         this.participantOwnership = ParticipantOwnership.empty();
      }
  
 
@@ -93,6 +122,7 @@ import com.example.B2XKlaim.Service.bpmnElements.flows.MessageFLow;
          this.elementsById = (elementsById != null) ? elementsById : new HashMap<>();
          // requiredParticipantRefs will be populated by analyzeInteractions() after construction
          this.requiredParticipantRefs = new HashMap<>();
+         this.participantOwnership = ParticipantOwnership.empty();
      }
  
     /**
@@ -101,8 +131,20 @@ import com.example.B2XKlaim.Service.bpmnElements.flows.MessageFLow;
      * @param connections Map of participant references.
      */
     public BpmnElements(Map<String, BpmnElement> elementsById, Map<String, Set<String>> connections) {
+        this(elementsById, connections, null);
+    }
+
+    /**
+     * Constructor that also carries the document's participant ownership.
+     * @param elementsById Map of elements parsed.
+     * @param connections Map of participant references.
+     * @param participantOwnership Element to participant ownership, or null if unknown.
+     */
+    public BpmnElements(Map<String, BpmnElement> elementsById, Map<String, Set<String>> connections,
+                        ParticipantOwnership participantOwnership) {
         this.elementsById = (elementsById != null) ? elementsById : new HashMap<>();
         this.requiredParticipantRefs = (connections != null) ? connections : new HashMap<>();
+        this.participantOwnership = (participantOwnership != null) ? participantOwnership : ParticipantOwnership.empty();
     }
 
      // --- Core Methods ---
@@ -112,13 +154,118 @@ import com.example.B2XKlaim.Service.bpmnElements.flows.MessageFLow;
       * @param element The BpmnElement to add.
       */
      public void addElement(BpmnElement element) {
+         checkNotFrozen();
          if (element != null && element.getId() != null) {
              elementsById.put(element.getId(), element);
+             index = null;
          } else {
              log.warn("Attempted to add a null element or element with null ID.");
          }
      }
- 
+
+    /**
+     * Replaces the element map and drops the indexes built over the old one.
+     * @param elementsById Map of element ID to element.
+     */
+    public void setElementsById(Map<String, BpmnElement> elementsById) {
+        checkNotFrozen();
+        this.elementsById = elementsById;
+        this.index = null;
+    }
+
+    public void setRequiredParticipantRefs(Map<String, Set<String>> requiredParticipantRefs) {
+        checkNotFrozen();
+        this.requiredParticipantRefs = requiredParticipantRefs;
+    }
+
+    public void setParticipantOwnership(ParticipantOwnership participantOwnership) {
+        checkNotFrozen();
+        this.participantOwnership = participantOwnership;
+    }
+
+    /**
+     * @return true for snapshots returned by toSnapshot()
+     */
+    public boolean isFrozen() {
+        return graph != null;
+    }
+
+    private void checkNotFrozen() {
+        if (isFrozen()) {
+            throw new UnsupportedOperationException("BpmnElements snapshot is frozen");
+        }
+    }
+
+    private ElementIndex index() {
+        ElementIndex current = index;
+        if (current == null) {
+            current = new ElementIndex(elementsById.values());
+            index = current;
+        }
+        return current;
+    }
+
+    /**
+     * Hands this container's content over to a read-only snapshot for sharing
+     * between requests (e.g. from the parse cache). This is a one-way move,
+     * not a copy: the elements are not cloned, their id, name and process
+     * strings are deduplicated in place (the DOM hands out a new String per
+     * attribute read), and this container is left empty. Callers must drop
+     * their reference to it and to its elements; BpmnParsingService calls this
+     * once parsing and analysis are complete.
+     *
+     * The snapshot iterates in the same order as this container, and its
+     * type/process indexes, start events and sequence-flow adjacency are built
+     * up front, so concurrent readers never write to it. addElement(),
+     * analyzeInteractions() and the setters throw UnsupportedOperationException.
+     * @return A frozen BpmnElements owning the elements of this container.
+     */
+    public BpmnElements toSnapshot() {
+        if (isFrozen()) {
+            return this;
+        }
+        Map<String, String> strings = new HashMap<>();
+        Map<String, BpmnElement> elements = new LinkedHashMap<>(elementsById.size() * 4 / 3 + 1);
+        elementsById.forEach((id, element) -> elements.put(canonical(strings, id), canonicalize(strings, element)));
+
+        Map<String, Set<String>> refs = new LinkedHashMap<>();
+        requiredParticipantRefs.forEach((participant, targets) -> {
+            Set<String> canonicalTargets = new LinkedHashSet<>();
+            targets.forEach(target -> canonicalTargets.add(canonical(strings, target)));
+            refs.put(canonical(strings, participant), Collections.unmodifiableSet(canonicalTargets));
+        });
+
+        BpmnElements snapshot = new BpmnElements(
+                Collections.unmodifiableMap(elements),
+                Collections.unmodifiableMap(refs),
+                participantOwnership);
+        snapshot.index = new ElementIndex(elements.values());
+        snapshot.graph = new ElementGraph(elements);
+
+        // the elements now belong to the snapshot
+        this.elementsById = Collections.emptyMap();
+        this.requiredParticipantRefs = Collections.emptyMap();
+        this.index = null;
+        return snapshot;
+    }
+
+    private static BpmnElement canonicalize(Map<String, String> strings, BpmnElement element) {
+        element.setId(canonical(strings, element.getId()));
+        element.setName(canonical(strings, element.getName()));
+        element.setOutgoingEdge(canonical(strings, element.getOutgoingEdge()));
+        element.setProcessId(canonical(strings, element.getProcessId()));
+        element.setProcessName(canonical(strings, element.getProcessName()));
+        if (element instanceof SQ sq) {
+            sq.setSource(canonical(strings, sq.getSource()));
+            sq.setTarget(canonical(strings, sq.getTarget()));
+        }
+        return element;
+    }
+
+    private static String canonical(Map<String, String> strings, String value) {
+        return value == null ? null : strings.computeIfAbsent(value, v -> v);
+    }
+
      /**
       * Retrieves a BPMN element by its ID.
       * @param id The ID of the element.
@@ -153,6 +300,14 @@ import com.example.B2XKlaim.Service.bpmnElements.flows.MessageFLow;
       * @return The target BpmnElement, or null if not found.
       */
      public BpmnElement getElementAfterSequenceFlow(String sequenceFlowId) {
+         ElementGraph frozenGraph = graph;
+         if (frozenGraph != null) {
+             int flow = frozenGraph.ordinal(sequenceFlowId);
+             int target = flow == ElementGraph.NONE ? ElementGraph.UNRESOLVED : frozenGraph.flowTarget(flow);
+             if (target >= 0) {
+                 return frozenGraph.element(target);
+             }
+         }
          String targetId = getTargetIdForSequenceFlow(sequenceFlowId);
          return targetId != null ? getElementById(targetId) : null;
      }
@@ -161,28 +316,30 @@ import com.example.B2XKlaim.Service.bpmnElements.flows.MessageFLow;
       * Retrieves all elements of a specific type using Class object.
       * @param elementType The Class of the desired element type.
       * @param <T> The type of the element.
-      * @return A List of elements of the specified type.
+      * @return An unmodifiable List of elements of the specified type.
       */
      public <T extends BpmnElement> List<T> getElementsByType(Class<T> elementType) {
-         return elementsById.values().stream()
-                 .filter(Objects::nonNull) // Add null check for safety
-                 .filter(elementType::isInstance)
-                 .map(elementType::cast)
-                 .collect(Collectors.toList());
+         return index().ofType(elementType);
      }
  
      /**
       * Retrieves all elements matching a specific ElementType enum constant.
       * Compares enum name against the element's class simple name.
       * @param elementType The ElementType enum constant.
-      * @return A List of matching BpmnElement objects.
+      * @return An unmodifiable List of matching BpmnElement objects.
       */
      public List<BpmnElement> getElementsByElementType(ElementType elementType) {
          if (elementType == null) return Collections.emptyList();
-         return elementsById.values().stream()
-                 .filter(Objects::nonNull)
-                 .filter(element -> elementType.name().equals(element.getClass().getSimpleName()))
-                 .collect(Collectors.toList());
+         return index().ofSimpleName(elementType.name());
+     }
+
+     /**
+      * Retrieves all elements whose processId is the given process.
+      * @param processId The ID of the process (<bpmn:process id="...">).
+      * @return An unmodifiable List of the process's elements.
+      */
+     public List<BpmnElement> getElementsByProcessId(String processId) {
+         return index().ofProcess(processId);
      }
  
      /**
@@ -202,6 +359,7 @@ import com.example.B2XKlaim.Service.bpmnElements.flows.MessageFLow;
       * and added via addElement().
       */
      public void analyzeInteractions() {
+         checkNotFrozen();
          // Ensure requiredParticipantRefs is initialized
          if (this.requiredParticipantRefs == null) {
               this.requiredParticipantRefs = new HashMap<>();
@@ -333,42 +491,19 @@ import com.example.B2XKlaim.Service.bpmnElements.flows.MessageFLow;
              log.warn("getParticipantIdForElement: Element not found for ID: {}", elementId);
              return null;
          }
- 
-         // --- Logic to get processId from the element via Reflection ---
-         String processId = null;
-         try {
-             // Attempt to find and invoke a public getProcessId() method
-             java.lang.reflect.Method method = element.getClass().getMethod("getProcessId");
-             Object result = method.invoke(element);
-             if (result instanceof String) {
-                 processId = (String) result;
-                 log.trace("Retrieved processId '{}' via reflection for element {}", processId, elementId);
-             } else {
-                  log.warn("getParticipantIdForElement: getProcessId() for element {} ({}) did not return a String.", elementId, element.getClass().getSimpleName());
-             }
-         } catch (NoSuchMethodException e) {
-             // This is the most likely error if the method isn't defined
-             log.warn("getParticipantIdForElement: Element {} ({}) does not have a public getProcessId() method. Cannot link to participant.", elementId, element.getClass().getSimpleName());
-             return null; // Cannot determine without process ID method
-         } catch (IllegalAccessException e) {
-              log.error("getParticipantIdForElement: Cannot access getProcessId method for element {} ({}): {}", elementId, element.getClass().getSimpleName(), e.getMessage());
-              return null; // Access denied
-         } catch (java.lang.reflect.InvocationTargetException e) {
-              log.error("getParticipantIdForElement: Exception thrown by getProcessId method for element {} ({}): {}", elementId, element.getClass().getSimpleName(), e.getTargetException());
-              return null; // Method threw an exception
-         } catch (Exception e) {
-             // Catch any other unexpected exceptions during reflection
-             log.error("getParticipantIdForElement: Unexpected error invoking getProcessId for element {} ({}): {}", elementId, element.getClass().getSimpleName(), e.getMessage(), e);
-             return null;
-         }
-         // --- End Logic to get processId ---
- 
- 
-         // Check if processId was successfully retrieved
+
+         String processId = element.getProcessId();
+
          if (processId == null) {
-             // Specific warning already logged within the catch blocks if applicable
+             log.debug("getParticipantIdForElement: Element {} ({}) has no processId. Cannot link to participant.", elementId, element.getClass().getSimpleName());
              return null;
          }
+
+         // The document's ownership answers without scanning the participants
+         String ownerId = (participantOwnership != null) ? participantOwnership.getParticipantId(elementId) : null;
+         if (ownerId != null && participantsMap.containsKey(ownerId)) {
+             return ownerId;
+         }
  
          // Find the participant whose processRef matches the element's processId
          for (PL participant : participantsMap.values()) {
@@ -384,10 +519,9 @@ import com.example.B2XKlaim.Service.bpmnElements.flows.MessageFLow;
  
      /**
       * Finds all start events associated with a specific process ID.
-      * Relies on start event elements having a working getProcessId() method.
       *
       * @param processId The ID of the process (<bpmn:process id="...">) to find start events for.
-      * @return A List of BpmnElement objects representing the start events found for that process,
+      * @return An unmodifiable List of the start events found for that process,
       * or an empty list if none are found or the processId is null.
       */
      public List<BpmnElement> findStartEventsForProcess(String processId) {
@@ -396,44 +530,8 @@ import com.example.B2XKlaim.Service.bpmnElements.flows.MessageFLow;
              return Collections.emptyList(); // Return empty list if no processId provided
          }
  
-         List<BpmnElement> startEvents = new ArrayList<>();
- 
-         // Iterate through all elements to find potential start events
-         for (BpmnElement element : elementsById.values()) {
-             if (element == null) continue; // Safety check
- 
-             // Check if the element is one of the known start event types
-             boolean isStartEvent = element instanceof com.example.B2XKlaim.Service.bpmnElements.events.NSE ||
-                                    element instanceof com.example.B2XKlaim.Service.bpmnElements.events.MSE ||
-                                    element instanceof com.example.B2XKlaim.Service.bpmnElements.events.SSE ||
-                                    element instanceof com.example.B2XKlaim.Service.bpmnElements.events.TSE;
-                                    // Add other start types if applicable
- 
-             if (isStartEvent) {
-                 // --- Logic to get processId from the element ---
-                 String elementProcessId = null;
-                 try {
-                     java.lang.reflect.Method method = element.getClass().getMethod("getProcessId");
-                     Object result = method.invoke(element);
-                     if (result instanceof String) {
-                         elementProcessId = (String) result;
-                     }
-                 } catch (NoSuchMethodException e) {
-                     log.trace("findStartEventsForProcess: Start event element {} ({}) does not have getProcessId(). Skipping.", element.getId(), element.getClass().getSimpleName());
-                     continue; // Skip if method doesn't exist
-                 } catch (Exception e) {
-                     log.error("findStartEventsForProcess: Error invoking getProcessId for start event element {} ({}): {}", element.getId(), element.getClass().getSimpleName(), e.getMessage());
-                     continue; // Skip on error
-                 }
-                 // --- End Logic to get processId ---
- 
-                 // Check if the element's processId matches the requested one
-                 if (processId.equals(elementProcessId)) {
-                     startEvents.add(element);
-                     log.debug("Found start event {} for process {}", element.getId(), processId);
-                 }
-             }
-         }
+         List<BpmnElement> startEvents = index().startEventsOf(processId);
+         log.debug("Found {} start events for process {}", startEvents.size(), processId);
  
          if (startEvents.isEmpty()) {
              log.warn("No start events found for process ID: {}", processId);
@@ -444,18 +542,18 @@ import com.example.B2XKlaim.Service.bpmnElements.flows.MessageFLow;
      /**
       * Provides access to the map of all participants (ID -> PL object).
       * Useful for the BPMNTranslator. Filters out nulls.
-      * @return A map containing all parsed PL elements with non-null IDs.
+      * @return An unmodifiable map containing all parsed PL elements with non-null IDs.
       */
      public Map<String, PL> getParticipantsMap() {
-         return getElementsByType(PL.class).stream()
-                 .filter(Objects::nonNull)
-                 .filter(p -> p.getId() != null) // Ensure ID is not null for map key
-                 .collect(Collectors.toMap(PL::getId, p -> p, (p1, p2) -> {
-                      log.warn("Duplicate participant ID found: {}. Keeping first encountered.", p1.getId());
-                      return p1; // Handle duplicates
-                  }));
+         return index().participantsById();
      }
 
+    /**
+     * Returns the element reached by following the outgoing sequence flow of
+     * the element with the given ID.
+     * @param elementId The ID of the current element.
+     * @return The next element, or null if the element is unknown or has no outgoing flow.
+     */
     public BpmnElement getNextElementById(String elementId) {
         if (elementId == null) {
             return null;
@@ -465,68 +563,91 @@ import com.example.B2XKlaim.Service.bpmnElements.flows.MessageFLow;
             log.warn("getNextElementById: Element not found for ID: {}", elementId);
             return null;
         }
+        return getNextElement(currentElement);
+    }
 
-        // --- Logic to get the single outgoing sequence flow ID ---
-        // This requires element classes to have a method like getOutgoingEdge()
-        String outgoingSequenceFlowId = null;
-        try {
-            // Try common method names used in your event/task/gateway classes
-            java.lang.reflect.Method method = null;
-            try {
-                 method = currentElement.getClass().getMethod("getOutgoingEdge");
-            } catch (NoSuchMethodException nsme) {
-                try {
-                     // Maybe it's called getOutgoing()? Check your classes.
-                     method = currentElement.getClass().getMethod("getOutgoing");
-                 } catch (NoSuchMethodException nsme2) {
-                      log.warn("getNextElementById: Element {} ({}) does not have a recognized method (e.g., getOutgoingEdge) to find its outgoing sequence flow.", elementId, currentElement.getClass().getSimpleName());
-                      return null; // Cannot proceed without outgoing edge
-                 }
-            }
-
-            Object result = method.invoke(currentElement);
-            if (result instanceof String) {
-                outgoingSequenceFlowId = (String) result;
-            } else if (result instanceof List && !((List<?>) result).isEmpty() && ((List<?>) result).get(0) instanceof String) {
-                 // Handle cases where it might return a List<String> of outgoing edges (e.g., gateways)
-                 // For this simple method, assume we take the first one if it's a list.
-                 // Complex gateway logic should likely be handled differently in the Generator/Translator.
-                 outgoingSequenceFlowId = (String) ((List<?>) result).get(0);
-                 if (((List<?>) result).size() > 1) {
-                    log.warn("getNextElementById: Element {} has multiple outgoing edges. Following the first one: {}", elementId, outgoingSequenceFlowId);
-                 }
-            } else {
-                log.warn("getNextElementById: Could not determine outgoing sequence flow ID for element {} ({}). Method result was: {}", elementId, currentElement.getClass().getSimpleName(), result);
-                return null;
+    /**
+     * Returns the element reached by following the element's outgoing sequence
+     * flow: one lookup for the flow, one for its target. For split gateways the
+     * outgoing edge is the one leaving the matching merge, so this skips the
+     * whole gateway block.
+     * @param element The current element.
+     * @return The next element, or null if there is no outgoing flow.
+     */
+    public BpmnElement getNextElement(BpmnElement element) {
+        ElementGraph frozenGraph = graph;
+        if (frozenGraph != null) {
+            int ordinal = frozenGraph.ordinal(element.getId());
+            if (ordinal != ElementGraph.NONE && frozenGraph.element(ordinal) == element) {
+                int next = frozenGraph.next(ordinal);
+                if (next == ElementGraph.NONE) {
+                    return null;
+                }
+                if (next >= 0) {
+                    return frozenGraph.element(next);
+                }
             }
-        } catch (Exception e) {
-            log.error("getNextElementById: Error invoking outgoing edge method for element {} ({}): {}", elementId, currentElement.getClass().getSimpleName(), e.getMessage());
+        }
+        String outgoingSequenceFlowId = element.getOutgoingEdge();
+        if (outgoingSequenceFlowId == null || outgoingSequenceFlowId.isEmpty()) {
+            log.trace("getNextElement: Element {} ({}) has no outgoing sequence flow ID defined.", element.getId(), element.getClass().getSimpleName());
             return null;
         }
-        // --- End Logic ---
+        return getElementAfterSequenceFlow(outgoingSequenceFlowId);
+    }
 
+    /**
+     * Returns the first element of each branch of a split gateway, in the
+     * gateway's branch order: XOR conditions, AND branches, event-based gateway
+     * paths, or the body of a loop. For any other element this is the next
+     * element, if there is one.
+     * @param element The gateway (or other element) to branch from.
+     * @return The branch entry elements; never null.
+     */
+    public List<BpmnElement> getGatewaySuccessors(BpmnElement element) {
+        Collection<List<String>> branches;
+        if (element instanceof XOR xor) {
+            branches = xor.getConditionElementMap().values();
+        } else if (element instanceof AND and) {
+            branches = and.getFlowElementMap().values();
+        } else if (element instanceof EB eb) {
+            branches = eb.getEventPathMap().values();
+        } else if (element instanceof LP lp) {
+            branches = List.of(lp.getFlowElementMap());
+        } else {
+            BpmnElement next = getNextElement(element);
+            return next != null ? List.of(next) : List.of();
+        }
 
-        if (outgoingSequenceFlowId == null || outgoingSequenceFlowId.isEmpty()) {
-            log.trace("getNextElementById: Element {} ({}) has no outgoing sequence flow ID defined.", elementId, currentElement.getClass().getSimpleName());
-            return null; // Element might be an end event or improperly defined
+        List<BpmnElement> successors = new ArrayList<>(branches.size());
+        for (List<String> branch : branches) {
+            if (branch == null || branch.isEmpty()) continue;
+            BpmnElement first = getElementById(branch.get(0));
+            if (first != null) {
+                successors.add(first);
+            }
         }
+        return successors;
+    }
 
-        // Use the existing helper to get the element after the sequence flow
-        return getElementAfterSequenceFlow(outgoingSequenceFlowId);
+    /**
+     * Returns the participant (pool) that owns the element with the given ID,
+     * through the element's processId.
+     * @param elementId The ID of the element.
+     * @return The owning participant, or null if it cannot be determined.
+     */
+    public PL getOwningParticipant(String elementId) {
+        Map<String, PL> participantsMap = getParticipantsMap();
+        String participantId = getParticipantIdForElement(elementId, participantsMap);
+        return participantId != null ? participantsMap.get(participantId) : null;
     }
 
     /**
      * Retrieves all elements that are considered start events (NSE, MSE, SSE, TSE).
-     * @return A List of BpmnElement objects representing the start events.
+     * @return An unmodifiable List of the start events, grouped by type in that order.
      */
     public List<BpmnElement> getAllStartEvents() {
-        List<BpmnElement> startEvents = new ArrayList<>();
-        // Use 'this' to call getElementsByType from within the same class
-        startEvents.addAll(this.getElementsByType(NSE.class));
-        startEvents.addAll(this.getElementsByType(MSE.class));
-        startEvents.addAll(this.getElementsByType(SSE.class));
-        startEvents.addAll(this.getElementsByType(TSE.class));
-        // Ensure imports for NSE, MSE, SSE, TSE are present at the top of BpmnElements.java
+        List<BpmnElement> startEvents = index().startEvents();
         log.debug("Found {} total start events.", startEvents.size());
         return startEvents;
     }
@@ -542,10 +663,13 @@ import com.example.B2XKlaim.Service.bpmnElements.flows.MessageFLow;
         if (parentProcessId == null || parentProcessId.isEmpty()) {
             return Collections.emptyList();
         }
-        return this.getElementsByType(ESP.class) // Use existing generic method
-                .stream()
-                .filter(esp -> parentProcessId.equals(esp.getProcessId())) // Assumes ESP has getProcessId()
-                .collect(Collectors.toList());
+        List<ESP> eventSubProcesses = new ArrayList<>();
+        for (BpmnElement element : getElementsByProcessId(parentProcessId)) {
+            if (element instanceof ESP esp) {
+                eventSubProcesses.add(esp);
+            }
+        }
+        return eventSubProcesses;
     }
  
  } // End of BpmnElements class
@@ -0,0 +1,104 @@
+/*
+ * Copyright 2023 Khalid BOURR
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.example.B2XKlaim.Service.bpmnElements;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import com.example.B2XKlaim.Service.bpmnElements.flows.SQ;
+
+/**
+ * Sequence-flow adjacency of a frozen {@link BpmnElements}, resolved once into
+ * arrays indexed by element ordinal. Following a flow then costs one id lookup
+ * and an array read instead of two map lookups and a type check.
+ *
+ * Only cases that resolve cleanly are stored; anything else (unknown ids,
+ * outgoing edges that are not sequence flows) is reported as {@link #UNRESOLVED}
+ * so the caller falls back to the map-based path and its logging.
+ */
+final class ElementGraph {
+
+    static final int NONE = -1;
+    static final int UNRESOLVED = -2;
+
+    private final BpmnElement[] elements;
+    private final Map<String, Integer> ordinalById;
+    /** For a sequence flow, the ordinal of its target; UNRESOLVED for anything else. */
+    private final int[] flowTarget;
+    /** The ordinal of the element after this element's outgoing flow. */
+    private final int[] next;
+
+    ElementGraph(Map<String, BpmnElement> elementsById) {
+        int size = elementsById.size();
+        this.elements = new BpmnElement[size];
+        this.ordinalById = new HashMap<>(Math.max(16, size * 4 / 3 + 1));
+        int i = 0;
+        for (Map.Entry<String, BpmnElement> entry : elementsById.entrySet()) {
+            elements[i] = entry.getValue();
+            ordinalById.put(entry.getKey(), i);
+            i++;
+        }
+
+        this.flowTarget = new int[size];
+        for (int ordinal = 0; ordinal < size; ordinal++) {
+            flowTarget[ordinal] = elements[ordinal] instanceof SQ sq ? ordinalOrUnresolved(sq.getTarget()) : UNRESOLVED;
+        }
+
+        this.next = new int[size];
+        for (int ordinal = 0; ordinal < size; ordinal++) {
+            String outgoing = elements[ordinal].getOutgoingEdge();
+            if (outgoing == null || outgoing.isEmpty()) {
+                next[ordinal] = NONE;
+            } else {
+                int flow = ordinal(outgoing);
+                next[ordinal] = flow == NONE ? UNRESOLVED : flowTarget[flow];
+            }
+        }
+    }
+
+    /**
+     * @return the ordinal of the element with this id, or NONE
+     */
+    int ordinal(String id) {
+        Integer ordinal = id == null ? null : ordinalById.get(id);
+        return ordinal == null ? NONE : ordinal;
+    }
+
+    BpmnElement element(int ordinal) {
+        return elements[ordinal];
+    }
+
+    /**
+     * @return the target ordinal of the sequence flow, or UNRESOLVED
+     */
+    int flowTarget(int ordinal) {
+        return flowTarget[ordinal];
+    }
+
+    /**
+     * @return the ordinal after the element's outgoing flow, NONE if it has no
+     *         outgoing flow, or UNRESOLVED
+     */
+    int next(int ordinal) {
+        return next[ordinal];
+    }
+
+    private int ordinalOrUnresolved(String id) {
+        int ordinal = ordinal(id);
+        return ordinal == NONE ? UNRESOLVED : ordinal;
+    }
+}
@@ -0,0 +1,167 @@
+/*
+ * Copyright 2023 Khalid BOURR
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.example.B2XKlaim.Service.bpmnElements;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import com.example.B2XKlaim.Service.bpmnElements.events.MSE;
+import com.example.B2XKlaim.Service.bpmnElements.events.NSE;
+import com.example.B2XKlaim.Service.bpmnElements.events.SSE;
+import com.example.B2XKlaim.Service.bpmnElements.events.TSE;
+import com.example.B2XKlaim.Service.bpmnElements.objects.pool.PL;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Secondary indexes over the elements of a {@link BpmnElements}, built in one
+ * pass: by concrete class, by class simple name (for {@link BpmnElements.ElementType})
+ * and by processId, plus the start events (overall and per process) and the
+ * participant map.
+ *
+ * Every list keeps the iteration order of the container's element map, which
+ * the generated code depends on, and is unmodifiable. Lookups by a supertype
+ * (e.g. BpmnElement itself) are computed once and cached, so the index can be
+ * read from several threads.
+ */
+@Slf4j
+final class ElementIndex {
+
+    private final List<BpmnElement> elements;
+    private final Map<Class<?>, List<BpmnElement>> byClass;
+    private final Map<String, List<BpmnElement>> bySimpleName;
+    private final Map<String, List<BpmnElement>> byProcessId;
+    private final List<BpmnElement> startEvents;
+    private final Map<String, List<BpmnElement>> startEventsByProcess;
+    private final Map<String, PL> participantsById;
+    private final ConcurrentMap<Class<?>, List<?>> bySupertype = new ConcurrentHashMap<>();
+
+    ElementIndex(Collection<BpmnElement> source) {
+        List<BpmnElement> all = new ArrayList<>(source.size());
+        Map<Class<?>, List<BpmnElement>> classes = new HashMap<>();
+        Map<String, List<BpmnElement>> processes = new HashMap<>();
+        Map<String, List<BpmnElement>> processStarts = new HashMap<>();
+        Map<String, PL> participants = new HashMap<>();
+
+        for (BpmnElement element : source) {
+            if (element == null) continue;
+            all.add(element);
+            classes.computeIfAbsent(element.getClass(), k -> new ArrayList<>()).add(element);
+            String processId = element.getProcessId();
+            if (processId != null) {
+                processes.computeIfAbsent(processId, k -> new ArrayList<>()).add(element);
+                if (isStartEvent(element)) {
+                    processStarts.computeIfAbsent(processId, k -> new ArrayList<>()).add(element);
+                }
+            }
+            if (element instanceof PL participant && participant.getId() != null
+                    && participants.putIfAbsent(participant.getId(), participant) != null) {
+                log.warn("Duplicate participant ID found: {}. Keeping first encountered.", participant.getId());
+            }
+        }
+
+        this.elements = Collections.unmodifiableList(all);
+        this.byClass = freezeLists(classes);
+        this.byProcessId = freezeLists(processes);
+        this.startEventsByProcess = freezeLists(processStarts);
+        this.participantsById = Collections.unmodifiableMap(participants);
+
+        Map<String, List<BpmnElement>> names = new HashMap<>();
+        byClass.forEach((type, list) -> names.put(type.getSimpleName(), list));
+        this.bySimpleName = Collections.unmodifiableMap(names);
+
+        List<BpmnElement> starts = new ArrayList<>();
+        starts.addAll(ofClass(NSE.class));
+        starts.addAll(ofClass(MSE.class));
+        starts.addAll(ofClass(SSE.class));
+        starts.addAll(ofClass(TSE.class));
+        this.startEvents = Collections.unmodifiableList(starts);
+    }
+
+    /**
+     * @return every element that is an instance of the type, in container order
+     */
+    @SuppressWarnings("unchecked")
+    <T> List<T> ofType(Class<T> type) {
+        if (!hasIndexedSubtype(type)) {
+            return (List<T>) ofClass(type);
+        }
+        return (List<T>) bySupertype.computeIfAbsent(type, k -> elements.stream()
+                .filter(k::isInstance)
+                .toList());
+    }
+
+    /**
+     * @return elements whose class simple name equals the given name
+     */
+    List<BpmnElement> ofSimpleName(String simpleName) {
+        return bySimpleName.getOrDefault(simpleName, List.of());
+    }
+
+    /**
+     * @return elements whose getProcessId() is the given id
+     */
+    List<BpmnElement> ofProcess(String processId) {
+        return processId == null ? List.of() : byProcessId.getOrDefault(processId, List.of());
+    }
+
+    /**
+     * @return NSE, MSE, SSE and TSE elements, grouped in that order
+     */
+    List<BpmnElement> startEvents() {
+        return startEvents;
+    }
+
+    /**
+     * @return start events whose getProcessId() is the given id, in container order
+     */
+    List<BpmnElement> startEventsOf(String processId) {
+        return processId == null ? List.of() : startEventsByProcess.getOrDefault(processId, List.of());
+    }
+
+    Map<String, PL> participantsById() {
+        return participantsById;
+    }
+
+    private List<BpmnElement> ofClass(Class<?> type) {
+        return byClass.getOrDefault(type, List.of());
+    }
+
+    private static boolean isStartEvent(BpmnElement element) {
+        return element instanceof NSE || element instanceof MSE || element instanceof SSE || element instanceof TSE;
+    }
+
+    private boolean hasIndexedSubtype(Class<?> type) {
+        for (Class<?> indexed : byClass.keySet()) {
+            if (indexed != type && type.isAssignableFrom(indexed)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static <K> Map<K, List<BpmnElement>> freezeLists(Map<K, List<BpmnElement>> lists) {
+        lists.replaceAll((key, list) -> Collections.unmodifiableList(list));
+        return Collections.unmodifiableMap(lists);
+    }
+}
@@ -0,0 +1,78 @@
+/*
+ * Copyright 2023 Khalid BOURR
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.example.B2XKlaim.Service.bpmnElements;
+
+import java.util.Collections;
+import java.util.Map;
+
+/**
+ * Which participant owns which element, resolved once from the BPMN document.
+ *
+ * element id → enclosing process id → participant (pool) id → participant name.
+ * Elements nested in sub-processes resolve to the top-level process around them.
+ * When several participants reference the same process, the first one in
+ * document order wins.
+ */
+public final class ParticipantOwnership {
+
+    private static final ParticipantOwnership EMPTY =
+            new ParticipantOwnership(Collections.emptyMap(), Collections.emptyMap(), Collections.emptyMap());
+
+    private final Map<String, String> processIdByElement;
+    private final Map<String, String> participantIdByProcess;
+    private final Map<String, String> participantNameById;
+
+    public ParticipantOwnership(Map<String, String> processIdByElement,
+                                Map<String, String> participantIdByProcess,
+                                Map<String, String> participantNameById) {
+        this.processIdByElement = Collections.unmodifiableMap(processIdByElement);
+        this.participantIdByProcess = Collections.unmodifiableMap(participantIdByProcess);
+        this.participantNameById = Collections.unmodifiableMap(participantNameById);
+    }
+
+    public static ParticipantOwnership empty() {
+        return EMPTY;
+    }
+
+    /**
+     * @return id of the process enclosing the element, or null
+     */
+    public String getProcessId(String elementId) {
+        return elementId == null ? null : processIdByElement.get(elementId);
+    }
+
+    /**
+     * @return id of the participant whose process encloses the element, or null
+     */
+    public String getParticipantId(String elementId) {
+        return getParticipantIdForProcess(getProcessId(elementId));
+    }
+
+    /**
+     * @return id of the participant referencing the process, or null
+     */
+    public String getParticipantIdForProcess(String processId) {
+        return processId == null ? null : participantIdByProcess.get(processId);
+    }
+
+    /**
+     * @return name of the participant, or null if the id is unknown
+     */
+    public String getParticipantName(String participantId) {
+        return participantId == null ? null : participantNameById.get(participantId);
+    }
+}
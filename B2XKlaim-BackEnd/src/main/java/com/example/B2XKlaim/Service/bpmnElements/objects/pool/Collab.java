@@ -41,6 +41,6 @@ public class Collab extends BpmnElement implements Visitable {
 
     @Override
     public String accept(Visitor v) throws FileNotFoundException, UnsupportedEncodingException {
-        return null;
+        return v.visit(this);
     }
 }
\ No newline at end of file
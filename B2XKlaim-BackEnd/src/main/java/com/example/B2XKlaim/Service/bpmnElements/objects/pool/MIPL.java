@@ -22,7 +22,7 @@ public class MIPL extends BpmnElement implements Visitable {
 
     @Override
     public String accept(Visitor v) throws FileNotFoundException, UnsupportedEncodingException {
-        return null;
+        return v.visit(this);
     }
 
 
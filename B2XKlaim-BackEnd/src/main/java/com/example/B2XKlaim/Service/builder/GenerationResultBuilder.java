@@ -1,14 +1,17 @@
 package com.example.B2XKlaim.Service.builder;
 
+import java.time.Duration;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
 
 import com.example.B2XKlaim.Service.CodeGenerationService.GenerationResult;
 import com.example.B2XKlaim.Service.CodeGenerationService.ProcessCode;
+import com.example.B2XKlaim.Service.codeGenerator.CodeBlock;
 
 import lombok.extern.slf4j.Slf4j;
 
@@ -27,6 +30,9 @@ public class GenerationResultBuilder {
     private Map<String, List<String>> eventSubProcesses;
     private Map<String, List<String>> andBranchProcs;
     private Set<String> participants;
+    private Map<String, Duration> stageTimings;
+    private long eliminatedTupleOperations;
+    private List<CodeBlock> codeBlocks;
 
     private GenerationResultBuilder() {
         this.processes = new ArrayList<>();
@@ -35,6 +41,8 @@ public class GenerationResultBuilder {
         this.eventSubProcesses = new HashMap<>();
         this.andBranchProcs = new HashMap<>();
         this.participants = new HashSet<>();
+        this.stageTimings = new LinkedHashMap<>();
+        this.codeBlocks = List.of();
     }
 
     public static GenerationResultBuilder create() {
@@ -136,6 +144,24 @@ public class GenerationResultBuilder {
         return this;
     }
 
+    public GenerationResultBuilder withStageTimings(Map<String, Duration> stageTimings) {
+        log.trace("Setting stage timings for {} stages", stageTimings.size());
+        this.stageTimings = new LinkedHashMap<>(stageTimings);
+        return this;
+    }
+
+    public GenerationResultBuilder withEliminatedTupleOperations(long eliminatedTupleOperations) {
+        log.trace("Setting eliminated tuple operations: {}", eliminatedTupleOperations);
+        this.eliminatedTupleOperations = eliminatedTupleOperations;
+        return this;
+    }
+
+    public GenerationResultBuilder withCodeBlocks(List<CodeBlock> codeBlocks) {
+        log.trace("Setting {} code blocks", codeBlocks.size());
+        this.codeBlocks = List.copyOf(codeBlocks);
+        return this;
+    }
+
     public boolean isValid() {
         boolean valid = collaborationCode != null && fullGeneratedCode != null &&
                        processes != null && callActivities != null &&
@@ -157,8 +183,19 @@ public class GenerationResultBuilder {
         log.debug("Building GenerationResult with {} processes, {} participants",
                  processes.size(), participants.size());
 
-        return new GenerationResult(collaborationCode, fullGeneratedCode, processes,
-                                  callActivities, scriptTasks, eventSubProcesses, andBranchProcs, participants);
+        return GenerationResult.builder()
+                .collaborationCode(collaborationCode)
+                .fullGeneratedCode(fullGeneratedCode)
+                .processes(processes)
+                .callActivities(callActivities)
+                .scriptTasks(scriptTasks)
+                .eventSubProcesses(eventSubProcesses)
+                .andBranchProcs(andBranchProcs)
+                .participants(participants)
+                .stageTimings(stageTimings)
+                .eliminatedTupleOperations(eliminatedTupleOperations)
+                .codeBlocks(codeBlocks)
+                .build();
     }
 
     public GenerationResult buildWithDefaults() {
@@ -170,13 +207,24 @@ public class GenerationResultBuilder {
         Map<String, List<String>> safeEventSubProcesses = eventSubProcesses != null ? eventSubProcesses : new HashMap<>();
         Map<String, List<String>> safeAndBranchProcs = andBranchProcs != null ? andBranchProcs : new HashMap<>();
         Set<String> safeParticipants = participants != null ? participants : new HashSet<>();
+        Map<String, Duration> safeStageTimings = stageTimings != null ? stageTimings : new LinkedHashMap<>();
 
         log.debug("Building GenerationResult with defaults - {} processes, {} participants",
                  safeProcesses.size(), safeParticipants.size());
 
-        return new GenerationResult(safeCollaborationCode, safeFullGeneratedCode, safeProcesses,
-                                  safeCallActivities, safeScriptTasks, safeEventSubProcesses,
-                                  safeAndBranchProcs, safeParticipants);
+        return GenerationResult.builder()
+                .collaborationCode(safeCollaborationCode)
+                .fullGeneratedCode(safeFullGeneratedCode)
+                .processes(safeProcesses)
+                .callActivities(safeCallActivities)
+                .scriptTasks(safeScriptTasks)
+                .eventSubProcesses(safeEventSubProcesses)
+                .andBranchProcs(safeAndBranchProcs)
+                .participants(safeParticipants)
+                .stageTimings(safeStageTimings)
+                .eliminatedTupleOperations(eliminatedTupleOperations)
+                .codeBlocks(codeBlocks)
+                .build();
     }
 
     public GenerationResultBuilder reset() {
@@ -189,6 +237,9 @@ public class GenerationResultBuilder {
         this.eventSubProcesses = new HashMap<>();
         this.andBranchProcs = new HashMap<>();
         this.participants = new HashSet<>();
+        this.stageTimings = new LinkedHashMap<>();
+        this.eliminatedTupleOperations = 0;
+        this.codeBlocks = List.of();
         return this;
     }
 }
\ No newline at end of file
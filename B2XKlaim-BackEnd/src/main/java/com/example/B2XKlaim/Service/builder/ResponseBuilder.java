@@ -7,6 +7,8 @@ import java.util.Map;
 import java.util.Set;
 
 import com.example.B2XKlaim.Service.CodeGenerationService.ProcessCode;
+import com.example.B2XKlaim.Service.dto.ProcessEntry;
+import com.example.B2XKlaim.Service.dto.TranslationResponse;
 
 import lombok.extern.slf4j.Slf4j;
 
@@ -206,6 +208,27 @@ public class ResponseBuilder {
         return response;
     }
 
+    /**
+     * Builds the typed response; use {@link #build()} for error responses.
+     * 
+     * @return The constructed response
+     * @throws IllegalStateException if an error was set
+     */
+    public TranslationResponse buildTranslationResponse() {
+        if (error != null) {
+            throw new IllegalStateException("An error response has no typed translation response");
+        }
+        log.debug("Building typed response with {} processes, {} participants",
+                 processes.size(), participants.size());
+
+        List<ProcessEntry> processEntries = new ArrayList<>(processes.size());
+        for (Map<String, String> process : processes) {
+            processEntries.add(new ProcessEntry(process.get("name"), process.get("code")));
+        }
+        return new TranslationResponse(collaboration, processEntries, callActivities, scriptTaskProcs,
+                eventSubProcesses, andBranchProcs, participants);
+    }
+
     /**
      * Builds a minimal response with only essential fields.
      * 
@@ -0,0 +1,94 @@
+package com.example.B2XKlaim.Service.cache;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+
+/**
+ * Thread-safe least-recently-used cache bounded by entry count and by total weight.
+ * Callers supply each entry's weight when storing it (e.g. the size of the input
+ * it was built from); the least recently used entries are evicted until both
+ * bounds hold again. Entries heavier than the whole budget are never stored.
+ *
+ * @param <K> key type
+ * @param <V> value type; values are shared between callers and must not be mutated
+ */
+public class BoundedCache<K, V> {
+
+    private final int maxEntries;
+    private final long maxWeight;
+    private final LinkedHashMap<K, Entry<V>> entries = new LinkedHashMap<>(16, 0.75f, true);
+
+    private long weight;
+    private long hits;
+    private long misses;
+    private long evictions;
+
+    private static final class Entry<V> {
+        private final V value;
+        private final long weight;
+
+        private Entry(V value, long weight) {
+            this.value = value;
+            this.weight = weight;
+        }
+    }
+
+    /**
+     * @param maxEntries maximum number of entries; 0 disables caching
+     * @param maxWeight maximum total weight of all entries
+     */
+    public BoundedCache(int maxEntries, long maxWeight) {
+        if (maxEntries < 0 || maxWeight < 0) {
+            throw new IllegalArgumentException("Cache bounds must not be negative");
+        }
+        this.maxEntries = maxEntries;
+        this.maxWeight = maxWeight;
+    }
+
+    /**
+     * @return the cached value, or null on a miss; counts towards the hit/miss statistics
+     */
+    public synchronized V get(K key) {
+        Entry<V> entry = entries.get(key);
+        if (entry == null) {
+            misses++;
+            return null;
+        }
+        hits++;
+        return entry.value;
+    }
+
+    public synchronized void put(K key, V value, long entryWeight) {
+        if (maxEntries == 0 || entryWeight > maxWeight) {
+            return;
+        }
+        Entry<V> previous = entries.put(key, new Entry<>(value, entryWeight));
+        if (previous != null) {
+            weight -= previous.weight;
+        }
+        weight += entryWeight;
+        evictWhileOverBudget();
+    }
+
+    private void evictWhileOverBudget() {
+        Iterator<Entry<V>> eldest = entries.values().iterator();
+        while ((entries.size() > maxEntries || weight > maxWeight) && eldest.hasNext()) {
+            weight -= eldest.next().weight;
+            eldest.remove();
+            evictions++;
+        }
+    }
+
+    public synchronized void clear() {
+        entries.clear();
+        weight = 0;
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    public synchronized CacheStats stats() {
+        return new CacheStats(hits, misses, evictions, entries.size(), weight);
+    }
+}
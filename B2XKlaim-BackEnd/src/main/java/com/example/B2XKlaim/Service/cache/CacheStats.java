@@ -0,0 +1,41 @@
+package com.example.B2XKlaim.Service.cache;
+
+/**
+ * Point-in-time counters of a {@link BoundedCache}.
+ */
+public final class CacheStats {
+
+    private final long hits;
+    private final long misses;
+    private final long evictions;
+    private final int entries;
+    private final long weight;
+
+    public CacheStats(long hits, long misses, long evictions, int entries, long weight) {
+        this.hits = hits;
+        this.misses = misses;
+        this.evictions = evictions;
+        this.entries = entries;
+        this.weight = weight;
+    }
+
+    public long getHits() { return hits; }
+    public long getMisses() { return misses; }
+    public long getEvictions() { return evictions; }
+    public int getEntries() { return entries; }
+    public long getWeight() { return weight; }
+
+    /**
+     * @return fraction of lookups that were hits, or 0 before the first lookup
+     */
+    public double getHitRate() {
+        long lookups = hits + misses;
+        return lookups == 0 ? 0.0 : (double) hits / lookups;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("CacheStats{hits=%d, misses=%d, hitRate=%.2f, evictions=%d, entries=%d, weight=%d}",
+                hits, misses, getHitRate(), evictions, entries, weight);
+    }
+}
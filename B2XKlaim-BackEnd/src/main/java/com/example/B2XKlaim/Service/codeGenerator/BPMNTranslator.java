@@ -18,17 +18,21 @@
 
  import java.io.FileNotFoundException;
  import java.io.UnsupportedEncodingException;
- import java.lang.reflect.Method;
  import java.util.ArrayList;
  import java.util.Collections;
  import java.util.Comparator;
  import java.util.HashMap;
  import java.util.HashSet;
  import java.util.Iterator;
+ import java.util.LinkedHashMap;
  import java.util.List;
  import java.util.Map;
  import java.util.Objects;
  import java.util.Set;
+ import java.util.concurrent.ExecutionException;
+ import java.util.concurrent.ExecutorService;
+ import java.util.concurrent.Executors;
+ import java.util.concurrent.Future;
  import java.util.stream.Collectors;
 
  import com.example.B2XKlaim.Service.bpmnElements.BpmnElement;
@@ -60,6 +64,22 @@ import java.util.Arrays;
 import com.example.B2XKlaim.Service.bpmnElements.objects.pool.Collab;
 import com.example.B2XKlaim.Service.bpmnElements.objects.pool.MIPL;
 import com.example.B2XKlaim.Service.bpmnElements.objects.pool.PL;
+import com.example.B2XKlaim.Service.codeGenerator.ir.RendezvousPass;
+import com.example.B2XKlaim.Service.codeGenerator.ir.XklaimNode;
+import com.example.B2XKlaim.Service.codeGenerator.ir.XklaimNode.Branch;
+import com.example.B2XKlaim.Service.codeGenerator.ir.XklaimNode.Eval;
+import com.example.B2XKlaim.Service.codeGenerator.ir.XklaimNode.If;
+import com.example.B2XKlaim.Service.codeGenerator.ir.XklaimNode.In;
+import com.example.B2XKlaim.Service.codeGenerator.ir.XklaimNode.Indented;
+import com.example.B2XKlaim.Service.codeGenerator.ir.XklaimNode.Line;
+import com.example.B2XKlaim.Service.codeGenerator.ir.XklaimNode.Nested;
+import com.example.B2XKlaim.Service.codeGenerator.ir.XklaimNode.Net;
+import com.example.B2XKlaim.Service.codeGenerator.ir.XklaimNode.NodeDef;
+import com.example.B2XKlaim.Service.codeGenerator.ir.XklaimNode.Out;
+import com.example.B2XKlaim.Service.codeGenerator.ir.XklaimNode.Proc;
+import com.example.B2XKlaim.Service.codeGenerator.ir.XklaimNode.Read;
+import com.example.B2XKlaim.Service.codeGenerator.ir.XklaimNode.While;
+import com.example.B2XKlaim.Service.codeGenerator.ir.XklaimPrinter;
 
 import lombok.extern.slf4j.Slf4j;
 
@@ -71,6 +91,8 @@ import java.util.Map;
  
  /**
   * Translates BPMN elements into XKlaim code using the Visitor pattern.
+  * Each element is lowered to {@link XklaimNode}s; the visit methods return
+  * the printed IR.
   */
  @Slf4j // for logging
  public class BPMNTranslator implements Visitor {
@@ -79,6 +101,8 @@ import java.util.Map;
      private final BpmnElements bpmnElements; // Reference to the parsed model container
      private final Map<String, Set<String>> requiredParticipantRefs; // Analysis results
      private final Map<String, PL> participantsMap; // Quick lookup for participants by ID
+     // Whether visit(Collab) translates participants concurrently
+     private final boolean parallelParticipants;
  
      // State for the current process being translated
      private String currentParticipantId = null;
@@ -89,6 +113,8 @@ import java.util.Map;
      private List<String> auxiliaryProcs = new ArrayList<>();
      // Persistent map of all AND branch procs (survives per-participant reset)
      private Map<String, List<String>> allAndBranchProcs = new HashMap<>();
+     // Tuple operations removed from AND branch procs by RendezvousPass
+     private int eliminatedTupleOperations;
 
      public List<String> getAuxiliaryProcs() {
          return new ArrayList<>(auxiliaryProcs);
@@ -98,6 +124,13 @@ import java.util.Map;
          return new HashMap<>(allAndBranchProcs);
      }
 
+     /**
+      * @return the number of tuple operations optimized out of the AND branch procs so far
+      */
+     public int getEliminatedTupleOperations() {
+         return eliminatedTupleOperations;
+     }
+
      /**
       * Merges AND branch procs harvested from another translator
       */
@@ -109,12 +142,35 @@ import java.util.Map;
      // --- Constructor ---
  
      public BPMNTranslator(BpmnElements bpmnElements) {
+         this(bpmnElements, true);
+     }
+
+     /**
+      * @param parallelParticipants whether visit(Collab) translates each participant
+      *        on its own virtual thread; the output is the same either way
+      */
+     public BPMNTranslator(BpmnElements bpmnElements, boolean parallelParticipants) {
          Objects.requireNonNull(bpmnElements, "BpmnElements object cannot be null");
          this.bpmnElements = bpmnElements;
          this.requiredParticipantRefs = bpmnElements.getRequiredParticipantRefs();
          this.participantsMap = bpmnElements.getParticipantsMap();
+         this.parallelParticipants = parallelParticipants;
          log.info("BPMNTranslator initialized. Required Refs: {}", this.requiredParticipantRefs);
      }
+
+     /**
+      * Translator for one participant of a collaboration: shares the model and
+      * the interaction analysis with the parent, but has its own process state.
+      * AND branch procs are kept in generation order so merging them into the
+      * parent replays the sequential insertion order.
+      */
+     private BPMNTranslator(BPMNTranslator parent) {
+         this.bpmnElements = parent.bpmnElements;
+         this.requiredParticipantRefs = parent.requiredParticipantRefs;
+         this.participantsMap = parent.participantsMap;
+         this.parallelParticipants = false;
+         this.allAndBranchProcs = new LinkedHashMap<>();
+     }
  
      // --- Helper Methods ---
  
@@ -131,11 +187,11 @@ import java.util.Map;
      }
 
      public String translateProcessBody(List<BpmnElement> startEvents) throws FileNotFoundException, UnsupportedEncodingException {
-         StringBuilder bodyCode = new StringBuilder();
+         List<XklaimNode> body = new ArrayList<>();
          for (BpmnElement startEvent : startEvents) {
-             bodyCode.append(translateProcessBody(startEvent));
+             body.addAll(processBody(startEvent));
          }
-         return bodyCode.toString();
+         return XklaimPrinter.print(body);
      }
 
      private void resetProcessState() {
@@ -173,25 +229,6 @@ import java.util.Map;
       }
  
 
-     private Method getVisitMethod(Class<? extends BpmnElement> elementType) {
-          Class<?> currentClass = elementType;
-          while (currentClass != null && BpmnElement.class.isAssignableFrom(currentClass)) {
-               try {
-                   return this.getClass().getMethod("visit", currentClass);
-               } catch (NoSuchMethodException e) {
-                   currentClass = currentClass.getSuperclass();
-                   if (currentClass == Object.class || currentClass == null) break;
-               }
-          }
-          log.trace("No specific visit method found in BPMNTranslator for {} or its superclasses.", elementType.getName());
-           try {
-                 return this.getClass().getMethod("visit", BpmnElement.class); // Example fallback
-             } catch (NoSuchMethodException e) {
-                  log.warn("No visit method found for {} or its hierarchy.", elementType.getName());
-                  return null;
-             }
-     }
- 
     /**
      * Translates the body of a process starting from a given element,
      * traversing sequence flows recursively/iteratively. Delegates complex
@@ -202,8 +239,19 @@ import java.util.Map;
      */
     public String translateProcessBody(BpmnElement startElement)
     throws FileNotFoundException, UnsupportedEncodingException {
+        String bodyCode = XklaimPrinter.print(processBody(startElement));
+        log.debug("translateProcessBody result: [\n{}]", bodyCode);
+        return bodyCode;
+    }
 
-        StringBuilder bodyCode = new StringBuilder();
+    /**
+     * Like {@link #translateProcessBody(BpmnElement)}, but returns the IR of
+     * the process body instead of its printed code.
+     */
+    public List<XklaimNode> processBody(BpmnElement startElement)
+    throws FileNotFoundException, UnsupportedEncodingException {
+
+        List<XklaimNode> bodyCode = new ArrayList<>();
         Set<BpmnElement> visitedElements = new HashSet<>();
         BpmnElement currentElement = startElement;
 
@@ -212,69 +260,44 @@ import java.util.Map;
             log.trace(">>> [Translator Traversal] Visiting Element: {} ({})", 
                     currentElement.getId(), currentElement.getClass().getSimpleName());
 
-            Method visitMethod = getVisitMethod(currentElement.getClass());
-            String elementResult = null;
+            try {
+                // 1. Lower the current element
+                bodyCode.addAll(lower(currentElement));
 
-            if (visitMethod != null) {
-                try {
-                    // 1. Visit the current element
-                    elementResult = (String) visitMethod.invoke(this, currentElement);
+                // 2. Always attempt to follow outgoing edge unless explicitly handled by the visit method
+                String outgoingSequenceFlowId = currentElement.getOutgoingEdge();
+                log.trace(">>> [Translator Traversal] Outgoing Edge from {}: {}", 
+                        currentElement.getId(), outgoingSequenceFlowId);
 
-                    if (elementResult != null) {
-                        bodyCode.append(elementResult);
-                    } else {
-                        log.warn("Visit method for {} returned null.", currentElement.getId());
-                    }
+                if (outgoingSequenceFlowId != null && !outgoingSequenceFlowId.isEmpty()) {
+                    BpmnElement sequenceFlowElement = this.bpmnElements.getElementById(outgoingSequenceFlowId);
+                    log.trace(">>> [Translator Traversal] Sequence Flow Element Found: {} ({})", 
+                            (sequenceFlowElement != null ? sequenceFlowElement.getId() : "null"),
+                            (sequenceFlowElement != null ? sequenceFlowElement.getClass().getSimpleName() : "null"));
+
+                    if (sequenceFlowElement instanceof SQ sq) {
+                        // Lower SQ (sequence flow)
+                        bodyCode.addAll(ir(sq));
 
-                    // 2. Always attempt to follow outgoing edge unless explicitly handled by the visit method
-                    String outgoingSequenceFlowId = currentElement.getOutgoingEdge();
-                    log.trace(">>> [Translator Traversal] Outgoing Edge from {}: {}", 
-                            currentElement.getId(), outgoingSequenceFlowId);
-
-                    if (outgoingSequenceFlowId != null && !outgoingSequenceFlowId.isEmpty()) {
-                        BpmnElement sequenceFlowElement = this.bpmnElements.getElementById(outgoingSequenceFlowId);
-                        log.trace(">>> [Translator Traversal] Sequence Flow Element Found: {} ({})", 
-                                (sequenceFlowElement != null ? sequenceFlowElement.getId() : "null"),
-                                (sequenceFlowElement != null ? sequenceFlowElement.getClass().getSimpleName() : "null"));
-
-                        if (sequenceFlowElement instanceof SQ) {
-                            // Visit SQ (sequence flow)
-                            Method sqVisitMethod = getVisitMethod(SQ.class);
-                            String sqResult = null;
-                            if (sqVisitMethod != null) {
-                                sqResult = (String) sqVisitMethod.invoke(this, sequenceFlowElement);
-                            } else {
-                                log.warn("No visit method for SQ {}", outgoingSequenceFlowId);
-                            }
-
-                            if (sqResult != null) {
-                                bodyCode.append(sqResult);
-                            }
-
-                            // Move to the next element after the sequence flow
-                            currentElement = this.bpmnElements.getElementAfterSequenceFlow(outgoingSequenceFlowId);
-                        } else {
-                            log.warn("Element {} outgoing edge {} is not an SQ element or not found.",
-                                    currentElement.getId(), outgoingSequenceFlowId);
-                            currentElement = null; // Stop
-                        }
+                        // Move to the next element after the sequence flow
+                        currentElement = this.bpmnElements.getElementAfterSequenceFlow(outgoingSequenceFlowId);
                     } else {
-                        // No outgoing edge -> End of this path
-                        log.trace("Element {} has no outgoing edge. Ending traversal.",
-                                currentElement.getId());
+                        log.warn("Element {} outgoing edge {} is not an SQ element or not found.",
+                                currentElement.getId(), outgoingSequenceFlowId);
                         currentElement = null; // Stop
                     }
-
-                } catch (Exception e) {
-                    log.error("Error during translation processing for element {}: {}",
-                            (currentElement != null ? currentElement.getId() : "unknown"),
-                            e.getMessage(), e);
-                    currentElement = null; // Stop traversal on error
+                } else {
+                    // No outgoing edge -> End of this path
+                    log.trace("Element {} has no outgoing edge. Ending traversal.",
+                            currentElement.getId());
+                    currentElement = null; // Stop
                 }
-            } else {
-                log.warn("No visit method found for element {} (Class: {}). Skipping.",
-                        currentElement.getId(), currentElement.getClass().getSimpleName());
-                currentElement = null;
+
+            } catch (Exception e) {
+                log.error("Error during translation processing for element {}: {}",
+                        (currentElement != null ? currentElement.getId() : "unknown"),
+                        e.getMessage(), e);
+                currentElement = null; // Stop traversal on error
             }
         }
 
@@ -283,24 +306,69 @@ import java.util.Map;
                     currentElement.getId());
         }
 
-        log.debug("translateProcessBody result: [\n{}]", bodyCode.toString());
-        return bodyCode.toString();
+        return bodyCode;
+        }
+
+    /**
+     * Lowers one element to XKlaim IR. Elements without a lowering of their own
+     * keep the text of their visit method as verbatim lines.
+     */
+    public List<XklaimNode> lower(BpmnElement element) throws FileNotFoundException, UnsupportedEncodingException {
+        return switch (element) {
+            case NSE nse -> ir(nse);
+            case MSE mse -> ir(mse);
+            case SSE sse -> ir(sse);
+            case MIC mic -> ir(mic);
+            case SIC sic -> ir(sic);
+            case MIT mit -> ir(mit);
+            case SIT sit -> ir(sit);
+            case NEE nee -> ir(nee);
+            case MEE mee -> ir(mee);
+            case SEE see -> ir(see);
+            case TSE tse -> ir(tse);
+            case TCE tce -> ir(tce);
+            case TEE tee -> ir(tee);
+            case SQ sq -> ir(sq);
+            case CLA cla -> ir(cla);
+            case ST st -> ir(st);
+            case ESP esp -> ir(esp);
+            case AND and -> ir(and);
+            case XOR xor -> ir(xor);
+            case LP lp -> ir(lp);
+            case EB eb -> ir(eb);
+            case PL pl -> ir(pl);
+            case MIPL mipl -> ir(mipl);
+            case Collab collab -> ir(collab);
+            default -> verbatim(element);
+        };
+    }
+
+    private List<XklaimNode> verbatim(BpmnElement element) throws FileNotFoundException, UnsupportedEncodingException {
+        String code = element.accept(this);
+        if (code == null) {
+            log.warn("Visit method for {} returned null.", element.getId());
         }
-        
+        return XklaimNode.lines(code);
+    }
  
      // --- Visitor Methods ---
  
     /**
      * Entry point for translating a collaboration. Generates the network definition
-     * and then iterates through participants (sorted by name) to generate their
-     * process definitions, including calls to Event Sub-Processes.
+     * and then the process definitions of the participants (sorted by name),
+     * including calls to Event Sub-Processes. Participants are translated
+     * independently, concurrently unless disabled, and assembled in name order.
      */
     @Override
     public String visit(Collab collab) throws FileNotFoundException, UnsupportedEncodingException {
-        StringBuilder collabCode = new StringBuilder();
-        collabCode.append(String.format("net %s physical \"localhost:9999\" {\n\n", collab.getId()));
+        String collabCode = XklaimPrinter.print(ir(collab));
+
+        log.debug("visit(Collab) result:\n{}", collabCode);
+        return collabCode;
+    }
 
-        List<PL> participants = bpmnElements.getElementsByType(PL.class);
+    private List<XklaimNode> ir(Collab collab) throws FileNotFoundException, UnsupportedEncodingException {
+        List<PL> participants = new ArrayList<>(bpmnElements.getElementsByType(PL.class));
 
         // Sort participants by name for consistent output order
         if (participants != null) {
@@ -308,71 +376,129 @@ import java.util.Map;
              log.debug("Sorted participants by name: {}", participants.stream().map(PL::getName).collect(Collectors.toList()));
         }
 
+        // Each participant is translated by its own translator, possibly concurrently;
+        // the results come back in participant order.
+        List<ParticipantCode> translated = translateParticipants(participants);
+
         // Phase 1: Generate node definitions
         log.info("Generating node definitions (sorted)...");
-        for (PL participant : participants) {
-             if (participant == null) continue;
-            setupProcessState(participant);
-            collabCode.append(participant.accept(this)); // Calls visit(PL)
+        List<XklaimNode> nodes = new ArrayList<>();
+        for (ParticipantCode code : translated) {
+            nodes.addAll(code.node());
         }
-        resetProcessState();
-        collabCode.append("}\n"); // Close net block
+        List<XklaimNode> collabCode = new ArrayList<>();
+        collabCode.add(new Net(collab.getId(), "localhost:9999", nodes));
 
         // Phase 2: Generate process definitions
         log.info("Generating process definitions (sorted)...");
-        for (PL participant : participants) {
-             if (participant == null) continue;
-            setupProcessState(participant); // Sets up currentParamMap
-
-            // Generate proc signature
-            String procParamsString = "";
-            if (!currentParamMap.isEmpty()) {
-                procParamsString = currentParamMap.values().stream()
-                                .map(varName -> "Locality " + varName)
-                                .sorted()
-                                .collect(Collectors.joining(", "));
+        for (ParticipantCode code : translated) {
+            collabCode.addAll(code.proc());
+            allAndBranchProcs.putAll(code.andBranchProcs());
+            eliminatedTupleOperations += code.eliminatedTupleOperations();
+        }
+        return collabCode;
+    }
+
+ 
+    /** Node definition, proc definition and AND branch procs of one participant. */
+    private record ParticipantCode(List<XklaimNode> node, List<XklaimNode> proc, Map<String, List<String>> andBranchProcs,
+                                   int eliminatedTupleOperations) {}
+
+    private List<ParticipantCode> translateParticipants(List<PL> participants)
+            throws FileNotFoundException, UnsupportedEncodingException {
+        List<PL> present = participants.stream().filter(Objects::nonNull).collect(Collectors.toList());
+        List<ParticipantCode> translated = new ArrayList<>(present.size());
+        if (!parallelParticipants || present.size() < 2) {
+            for (PL participant : present) {
+                translated.add(new BPMNTranslator(this).translateParticipant(participant));
             }
-            collabCode.append(String.format("\nproc %s(%s) {\n",
-                    participant.getProcessName(),
-                    procParamsString));
-
-            log.debug("Looking for Event Sub-Processes in process {}", participant.getProcessId());
-            List<ESP> eventSubProcesses = bpmnElements.getEventSubProcessesForProcess(participant.getProcessId());
-            if (eventSubProcesses != null && !eventSubProcesses.isEmpty()) {
-                log.debug("Found {} ESPs for process {}. Generating eval calls.", eventSubProcesses.size(), participant.getProcessId());
-                for (ESP esp : eventSubProcesses) {
-                    // Instead of including full ESP code, just add an eval call
-                    String espName = esp.getName() != null && !esp.getName().isEmpty() ? esp.getName() : esp.getId();
-                    collabCode.append(String.format("  eval(new %s())@self\n\n", espName));
+            return translated;
+        }
+
+        log.debug("Translating {} participants concurrently", present.size());
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            List<Future<ParticipantCode>> pending = new ArrayList<>(present.size());
+            for (PL participant : present) {
+                pending.add(executor.submit(() -> new BPMNTranslator(this).translateParticipant(participant)));
+            }
+            for (int i = 0; i < pending.size(); i++) {
+                try {
+                    translated.add(pending.get(i).get());
+                } catch (ExecutionException e) {
+                    pending.forEach(future -> future.cancel(true));
+                    Throwable cause = e.getCause();
+                    if (cause instanceof FileNotFoundException notFound) throw notFound;
+                    if (cause instanceof UnsupportedEncodingException encoding) throw encoding;
+                    if (cause instanceof RuntimeException runtime) throw runtime;
+                    throw new RuntimeException("Failed to translate participant: " + present.get(i).getName(), cause);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    pending.forEach(future -> future.cancel(true));
+                    throw new RuntimeException("Interrupted while translating participant: " + present.get(i).getName(), e);
                 }
             }
+        }
+        return translated;
+    }
 
-            // Generate the main process body using the traversal helper method
-            List<BpmnElement> startEvents = bpmnElements.findStartEventsForProcess(participant.getProcessId());
+    /**
+     * Generates the node and proc definitions of one participant, including the
+     * eval calls for its Event Sub-Processes.
+     */
+    private ParticipantCode translateParticipant(PL participant)
+            throws FileNotFoundException, UnsupportedEncodingException {
+        setupProcessState(participant); // Sets up currentParamMap
+        List<XklaimNode> node = lower(participant); // Lowers like visit(PL)
+
+        List<XklaimNode> procBody = new ArrayList<>();
+        // Generate proc signature
+        String procParamsString = "";
+        if (!currentParamMap.isEmpty()) {
+            procParamsString = currentParamMap.values().stream()
+                            .map(varName -> "Locality " + varName)
+                            .sorted()
+                            .collect(Collectors.joining(", "));
+        }
 
-            if (startEvents == null || startEvents.isEmpty()) {
-                 log.warn("No main start event found for process '{}' (ID: {}). Process body will be empty (excluding ESPs).", participant.getProcessName(), participant.getProcessId());
-                 collabCode.append("\n\t// No main start event found for this process.\n");
-            } else {
-                log.debug("Found {} main start event(s) for process '{}'. Translating body...", startEvents.size(), participant.getProcessName());
-                for (BpmnElement startEvent : startEvents) {
-                    // Call the traversal method starting from the start event
-                    collabCode.append(this.translateProcessBody(startEvent)); // Append the generated body
-                }
+        log.debug("Looking for Event Sub-Processes in process {}", participant.getProcessId());
+        List<ESP> eventSubProcesses = bpmnElements.getEventSubProcessesForProcess(participant.getProcessId());
+        if (eventSubProcesses != null && !eventSubProcesses.isEmpty()) {
+            log.debug("Found {} ESPs for process {}. Generating eval calls.", eventSubProcesses.size(), participant.getProcessId());
+            for (ESP esp : eventSubProcesses) {
+                // Instead of including full ESP code, just add an eval call
+                String espName = esp.getName() != null && !esp.getName().isEmpty() ? esp.getName() : esp.getId();
+                procBody.add(new Nested("  ", List.of(new Eval(espName, "", "self"))));
+                procBody.add(Line.BLANK);
             }
+        }
 
-            collabCode.append("}\n"); // Close proc definition
+        // Generate the main process body using the traversal helper method
+        List<BpmnElement> startEvents = bpmnElements.findStartEventsForProcess(participant.getProcessId());
 
-            resetProcessState();
+        if (startEvents == null || startEvents.isEmpty()) {
+             log.warn("No main start event found for process '{}' (ID: {}). Process body will be empty (excluding ESPs).", participant.getProcessName(), participant.getProcessId());
+             procBody.add(Line.BLANK);
+             procBody.add(new Line("\t// No main start event found for this process."));
+        } else {
+            log.debug("Found {} main start event(s) for process '{}'. Translating body...", startEvents.size(), participant.getProcessName());
+            for (BpmnElement startEvent : startEvents) {
+                // Call the traversal method starting from the start event
+                procBody.addAll(this.processBody(startEvent)); // Append the generated body
+            }
         }
 
-        log.debug("visit(Collab) result:\n{}", collabCode.toString());
-        return collabCode.toString();
+        List<XklaimNode> proc = List.of(Line.BLANK, new Proc(participant.getProcessName(), procParamsString, procBody));
+
+        resetProcessState();
+        return new ParticipantCode(node, proc, allAndBranchProcs, eliminatedTupleOperations);
     }
 
- 
      @Override
      public String visit(PL pl) throws FileNotFoundException, UnsupportedEncodingException {
+         return XklaimPrinter.print(ir(pl));
+     }
+
+     private List<XklaimNode> ir(PL pl) {
          if (currentParticipant == null || !Objects.equals(currentParticipant.getId(), pl.getId())) {
               log.error("Visiting PL '{}' but translator state is not set up correctly! Expected state for {}.", pl.getName(), pl.getId());
               setupProcessState(pl);
@@ -405,35 +531,43 @@ import java.util.Map;
          if (participantName == null || processName == null) {
               log.error(">>> visit(PL) Error: Participant Name ('{}') or Process Name ('{}') is null for PL ID: {}",
                        participantName, processName, pl.getId());
-              return "/* ERROR: Participant Name or Process Name missing for "+pl.getId()+" */\n";
+              return List.of(new Line("/* ERROR: Participant Name or Process Name missing for "+pl.getId()+" */"));
          }
  
-         // Updated nodeTemplate always includes parentheses for eval
-         String nodeTemplate = "\tnode %s {\n" +
-                 "\t\teval(new %s(%s))@self\n" +
-                 "\t}\n";
-         // Format using the inner arguments string
-         String result = String.format(nodeTemplate, participantName, processName, argsString);
+         // The node always evals its process with parentheses
+         NodeDef node = new NodeDef(participantName, new Eval(processName, argsString, "self"));
  
-         log.info(">>> visit(PL) Returning: [\n{}]", result);
-         return result;
+         log.info(">>> visit(PL) Returning: [\n{}]", node);
+         return List.of(node);
      }
   
      @Override
      public String visit(NSE nse) {
+         return XklaimPrinter.print(ir(nse));
+     }
+
+     private List<XklaimNode> ir(NSE nse) {
          log.trace("Visiting NSE: {}", nse.getId());
-         return String.format("out('%s')@self\n", nse.getOutgoingEdge());
+         return List.of(Out.self(nse.getOutgoingEdge()));
      }
  
      @Override
      public String visit(MSE mse) {
+         return XklaimPrinter.print(ir(mse));
+     }
+
+     private List<XklaimNode> ir(MSE mse) {
          log.trace("Visiting MSE: {} (Msg: {})", mse.getId(), mse.getMessageId());
-         return String.format("in('%s' %s)@self\nout('%s')@self\n",
-                  mse.getMessageId(), "", mse.getOutgoingEdge());
+         // The blank after the message id is where the template left room for extra fields
+         return List.of(new In(XklaimNode.quote(mse.getMessageId()) + " ", "self"), Out.self(mse.getOutgoingEdge()));
      }
  
      @Override
      public String visit(SSE sse) {
+         return XklaimPrinter.print(ir(sse));
+     }
+
+     private List<XklaimNode> ir(SSE sse) {
           log.trace("Visiting SSE: {} (Sig: {})", sse.getId(), sse.getSignalId());
           String senderName = sse.getSignalSenderName();
           String targetLocation = "self";
@@ -445,19 +579,25 @@ import java.util.Map;
                targetLocation = senderName;
           } else { targetLocation = "self"; }
  
-          return String.format("read('%s' %s)@%s\nout('%s')@self\n",
-                  sse.getSignalId(), "", targetLocation, sse.getOutgoingEdge());
+          return List.of(new Read(XklaimNode.quote(sse.getSignalId()) + " ", targetLocation), Out.self(sse.getOutgoingEdge()));
      }
  
      @Override
      public String visit(MIC mic) {
+         return XklaimPrinter.print(ir(mic));
+     }
+
+     private List<XklaimNode> ir(MIC mic) {
          log.trace("Visiting MIC: {} (Msg: {})", mic.getId(), mic.getMessageId());
-         return String.format("in('%s' %s)@self\nout('%s')@self\n",
-                 mic.getMessageId(), "", mic.getOutgoingEdge());
+         return List.of(new In(XklaimNode.quote(mic.getMessageId()) + " ", "self"), Out.self(mic.getOutgoingEdge()));
      }
  
      @Override
      public String visit(SIC sic) {
+         return XklaimPrinter.print(ir(sic));
+     }
+
+     private List<XklaimNode> ir(SIC sic) {
           log.trace("Visiting SIC: {} (Sig: {})", sic.getId(), sic.getSignalId());
           String senderName = sic.getSignalSenderName();
           String targetLocation = "self";
@@ -469,12 +609,15 @@ import java.util.Map;
                targetLocation = senderName;
           } else { targetLocation = "self"; }
  
-         return String.format("read('%s' %s)@%s\nout('%s')@self\n",
-                  sic.getSignalId(), "", targetLocation, sic.getOutgoingEdge());
+         return List.of(new Read(XklaimNode.quote(sic.getSignalId()) + " ", targetLocation), Out.self(sic.getOutgoingEdge()));
      }
  
      @Override
      public String visit(MIT mit) {
+         return XklaimPrinter.print(ir(mit));
+     }
+
+     private List<XklaimNode> ir(MIT mit) {
          log.trace("Visiting MIT: {} (Msg: {})", mit.getId(), mit.getMessageId());
          MessageFLow flow = mit.getMessageFlow();
          String receiverName = (flow != null) ? flow.getReceiverName() : null;
@@ -487,25 +630,40 @@ import java.util.Map;
               targetLocation = receiverName;
          } else { log.warn("MIT {}: Cannot determine receiver. Target set to 'null'.", mit.getId()); targetLocation = "null"; }
  
-         return String.format("out('%s')@%s\nout('%s')@self\n",
-                 mit.getMessageId(), targetLocation, mit.getOutgoingEdge());
+         return List.of(new Out(XklaimNode.quote(mit.getMessageId()), targetLocation), Out.self(mit.getOutgoingEdge()));
      }
  
      @Override
      public String visit(SIT sit) {
+         return XklaimPrinter.print(ir(sit));
+     }
+
+     private List<XklaimNode> ir(SIT sit) {
          log.trace("Visiting SIT: {} (Sig: {})", sit.getId(), sit.getSignalId());
-         return String.format("out('%s')@self\nval SIGNAL_DURATION = 1000 // Adjust the signal duration as needed\nThread.sleep(SIGNAL_DURATION)\nin('%s')@self\nout('%s')@self\n",
-                 sit.getSignalId(), sit.getSignalId(), sit.getOutgoingEdge());
+         return List.of(Out.self(sit.getSignalId()), SIGNAL_DURATION, SIGNAL_SLEEP,
+                 In.self(sit.getSignalId()), Out.self(sit.getOutgoingEdge()));
      }
+
+     // A signal stays in the tuple space for SIGNAL_DURATION before it is withdrawn
+     private static final Line SIGNAL_DURATION = new Line("val SIGNAL_DURATION = 1000 // Adjust the signal duration as needed");
+     private static final Line SIGNAL_SLEEP = new Line("Thread.sleep(SIGNAL_DURATION)");
  
      @Override
      public String visit(NEE nee) {
+         return XklaimPrinter.print(ir(nee));
+     }
+
+     private List<XklaimNode> ir(NEE nee) {
          log.trace("Visiting NEE: {}", nee.getId());
-         return "\n";
+         return List.of(Line.BLANK);
      }
  
      @Override
      public String visit(MEE mee) {
+         return XklaimPrinter.print(ir(mee));
+     }
+
+     private List<XklaimNode> ir(MEE mee) {
           log.trace("Visiting MEE: {} (Msg: {})", mee.getId(), mee.getMessageId());
           MessageFLow flow = mee.getMessageFlow();
           String receiverName = (flow != null) ? flow.getReceiverName() : null;
@@ -518,71 +676,97 @@ import java.util.Map;
               targetLocation = receiverName;
           } else { log.warn("MEE {}: Cannot determine receiver. Target set to 'null'.", mee.getId()); targetLocation = "null"; }
  
-          return String.format("out('%s')@%s\n\n", mee.getMessageId(), targetLocation);
+          return List.of(new Out(XklaimNode.quote(mee.getMessageId()), targetLocation), Line.BLANK);
      }
  
       @Override
       public String visit(SEE see) {
+          return XklaimPrinter.print(ir(see));
+      }
+
+      private List<XklaimNode> ir(SEE see) {
           log.trace("Visiting SEE: {} (Sig: {})", see.getId(), see.getSignalId());
-          return String.format("out('%s')@self\nval SIGNAL_DURATION = 1000 // Adjust the signal duration as needed\nThread.sleep(SIGNAL_DURATION)\nin('%s')@self\n\n",
-                  see.getSignalId(), see.getSignalId());
+          return List.of(Out.self(see.getSignalId()), SIGNAL_DURATION, SIGNAL_SLEEP,
+                  In.self(see.getSignalId()), Line.BLANK);
       }
  
       @Override
       public String visit(TSE tse) throws FileNotFoundException, UnsupportedEncodingException {
+         return XklaimPrinter.print(ir(tse));
+      }
+
+      private List<XklaimNode> ir(TSE tse) {
          log.trace("Visiting TSE: {} (Duration: {})", tse.getId(), tse.getDuration());
-         return String.format("Thread.sleep(%d)\nout('%s')@self\n", tse.getDuration(), tse.getOutgoingEdge());
+         return List.of(new Line("Thread.sleep(" + tse.getDuration() + ")"), Out.self(tse.getOutgoingEdge()));
       }
  
       @Override
       public String visit(TCE tce) throws FileNotFoundException, UnsupportedEncodingException {
+         return XklaimPrinter.print(ir(tce));
+      }
+
+      private List<XklaimNode> ir(TCE tce) {
          log.trace("Visiting TCE: {} (Duration: {})", tce.getId(), tce.getDuration());
-          return String.format("Thread.sleep(%d)\nout('%s')@self\n", tce.getDuration(), tce.getOutgoingEdge());
+          return List.of(new Line("Thread.sleep(" + tce.getDuration() + ")"), Out.self(tce.getOutgoingEdge()));
       }
  
      @Override
      public String visit(TEE tee) throws FileNotFoundException, UnsupportedEncodingException {
+         return XklaimPrinter.print(ir(tee));
+     }
+
+     private List<XklaimNode> ir(TEE tee) {
          log.trace("Visiting TEE (Terminate End Event): {}", tee.getId());
-         return "// Terminate Event\nexit @ self\n";
+         return List.of(new Line("// Terminate Event"), new Line("exit @ self"));
      }
  
      // --- Sequence Flow ---
      @Override
      public String visit(SQ sq) {
+         return XklaimPrinter.print(ir(sq));
+     }
+
+     private List<XklaimNode> ir(SQ sq) {
          log.trace("Visiting SQ: {}", sq.getId());
          // This generates the "in" for the completed sequence flow token
-         return String.format("in('%s')@self\n\n", sq.getId());
+         return List.of(In.self(sq.getId()), Line.BLANK);
      }
  
  
      @Override
      public String visit(CLA cla) throws FileNotFoundException, UnsupportedEncodingException {
+          return XklaimPrinter.print(ir(cla));
+     }
+
+     private List<XklaimNode> ir(CLA cla) {
           log.trace("Visiting CLA: {} (Calls: {})", cla.getId(), cla.getCalledProcess());
           String calledProcess = cla.getCalledProcess();
           String outgoingEdge = cla.getOutgoingEdge(); // Get the outgoing edge ID
  
          if (calledProcess == null || calledProcess.isEmpty()) {
               log.error("Call Activity {} is missing the 'calledElement' attribute.", cla.getId());
-              return "// ERROR: Call Activity missing calledElement\n";
+              return List.of(new Line("// ERROR: Call Activity missing calledElement"));
          }
          if (outgoingEdge == null || outgoingEdge.isEmpty()) {
              log.error("Call Activity {} ({}) has no outgoing edge defined. Cannot generate proper eval.", cla.getId(), calledProcess);
               // Return only eval without out, but this breaks flow
-              return String.format("eval(new %s(/* ERROR: Missing outgoing edge */))@self\n", calledProcess);
+              return List.of(new Eval(calledProcess, MISSING_EDGE_ARGS, "self"));
          }
  
-          return String.format("eval(new %s('%s'/* TODO: Pass other necessary args */))@self\n",
-                               calledProcess,
-                               outgoingEdge);
+          return List.of(new Eval(calledProcess, XklaimNode.quote(outgoingEdge) + TODO_ARGS, "self"));
      }
+
+     private static final String MISSING_EDGE_ARGS = "/* ERROR: Missing outgoing edge */";
+     private static final String TODO_ARGS = "/* TODO: Pass other necessary args */";
  
      @Override
      public String visit(ESP esp) throws FileNotFoundException, UnsupportedEncodingException {
-         StringBuilder sb = new StringBuilder();
-         
+         return XklaimPrinter.print(ir(esp));
+     }
+
+     private List<XklaimNode> ir(ESP esp) throws FileNotFoundException, UnsupportedEncodingException {
          // Create a proc with the ESP ID or name
          String espName = esp.getName() != null && !esp.getName().isEmpty() ? esp.getName() : esp.getId();
-         sb.append(String.format("proc %s() {\n", espName));
          
          // Find the start event among internal elements
          BpmnElement startEvent = null;
@@ -596,28 +780,25 @@ import java.util.Map;
              }
          }
          
+         List<XklaimNode> body = new ArrayList<>();
          if (startEvent != null) {
-             // Generate process body starting from the start event, following sequence flows
-             String processBody = translateProcessBody(startEvent);
-             
-             // Add indentation to each line
-             String[] lines = processBody.split("\\r?\\n");
-             for (String line : lines) {
-                 if (!line.trim().isEmpty()) {
-                     sb.append("  ").append(line).append("\n");
-                 }
-             }
+             // Generate process body starting from the start event, following sequence flows,
+             // with every non-blank line indented
+             body.add(new Indented("  ", processBody(startEvent)));
          } else {
              log.warn("No start event found for Event Sub-Process {}", espName);
          }
          
-         sb.append("}\n");
-         return sb.toString();
+         return List.of(new Proc(espName, "", body));
      }
      
      @Override
      public String visit(AND and) throws FileNotFoundException, UnsupportedEncodingException {
-        StringBuilder s = new StringBuilder();
+        return XklaimPrinter.print(ir(and));
+     }
+
+     private List<XklaimNode> ir(AND and) throws FileNotFoundException, UnsupportedEncodingException {
+        List<XklaimNode> s = new ArrayList<>();
 
         List<String> branchProcNames = new ArrayList<>();
         List<String> branchLastEdges = new ArrayList<>();
@@ -629,7 +810,7 @@ import java.util.Map;
             branchProcNames.add(branchProcName);
 
             // Build the branch proc body
-            StringBuilder branchBody = new StringBuilder();
+            List<XklaimNode> branchBody = new ArrayList<>();
             String lastEdge = null;
             for (int i = 0; i < branchElements.size(); i++) {
                 String elementId = branchElements.get(i);
@@ -638,12 +819,12 @@ import java.util.Map;
                     log.warn("AND gateway: element '{}' not found, skipping", elementId);
                     continue;
                 }
-                branchBody.append("  ").append(element.accept(this));
+                branchBody.add(new Nested("  ", lower(element)));
 
                 if (i < branchElements.size() - 1) {
                     BpmnElement sequence = bpmnElements.getElementById(element.getOutgoingEdge());
                     if (sequence != null) {
-                        branchBody.append("  ").append(sequence.accept(this));
+                        branchBody.add(new Nested("  ", lower(sequence)));
                     }
                 }
                 if (i == branchElements.size() - 1) {
@@ -655,14 +836,13 @@ import java.util.Map;
             branchLastEdges.add(lastEdge);
 
             // Optimize the branch body (remove redundant out/in pairs, etc.)
-            List<String> bodyLines = Arrays.asList(branchBody.toString().split("\\r?\\n"));
-            List<String> optimizedLines = Optimizer.optimize(bodyLines);
-            String optimizedBody = String.join("\n", optimizedLines);
+            LineJoiner optimizedBody = new LineJoiner();
+            eliminatedTupleOperations += RendezvousPass.optimize(branchBody, optimizedBody);
 
             // Generate the auxiliary proc definition
             StringBuilder procDef = new StringBuilder();
             procDef.append(String.format("proc %s() {\n", branchProcName));
-            procDef.append(optimizedBody).append("\n");
+            procDef.append(optimizedBody.toString()).append("\n");
             procDef.append("}\n");
             auxiliaryProcs.add(procDef.toString());
             allAndBranchProcs.put(branchProcName, Collections.singletonList(procDef.toString()));
@@ -672,25 +852,29 @@ import java.util.Map;
 
         // Generate eval calls to launch branches in parallel
         for (String procName : branchProcNames) {
-            s.append(String.format("eval(new %s())@self\n", procName));
+            s.add(new Eval(procName, "", "self"));
         }
 
         // Generate in() calls to wait for each branch to complete
         for (String edge : branchLastEdges) {
             if (edge != null) {
-                s.append(String.format("in('%s')@self\n", edge));
+                s.add(In.self(edge));
             }
         }
 
         // Signal AND merge completion
-        s.append(String.format("out('%s')@self\n", and.getOutgoingEdge()));
+        s.add(Out.self(and.getOutgoingEdge()));
 
-        return s.toString();
+        return s;
     }
 
     @Override
     public String visit(XOR xor) throws FileNotFoundException, UnsupportedEncodingException {
-        StringBuilder s = new StringBuilder();
+        return XklaimPrinter.print(ir(xor));
+    }
+
+    private List<XklaimNode> ir(XOR xor) throws FileNotFoundException, UnsupportedEncodingException {
+        List<XklaimNode> s = new ArrayList<>();
 
         Iterator<Map.Entry<String, List<String>>> iterator = xor.getConditionElementMap().entrySet().iterator();
 
@@ -709,51 +893,47 @@ import java.util.Map;
         // Generate if block — use condition if present, otherwise default to "true"
         String condition = (trueBranch.getKey() != null && !trueBranch.getKey().trim().isEmpty())
                 ? trueBranch.getKey() : "true";
-        s.append(String.format("if(%s){\n", condition));
-
-        for (String elementId : trueBranch.getValue()) {
-            BpmnElement element = bpmnElements.getElementById(elementId);
-            if (element == null) { log.warn("XOR: element '{}' not found", elementId); continue; }
-            s.append("  ").append(element.accept(this));
-            BpmnElement sequence = bpmnElements.getElementById(element.getOutgoingEdge());
-            if (sequence != null) { s.append("  ").append(sequence.accept(this)); }
-        }
+        List<XklaimNode> thenBody = branchBody(trueBranch.getValue());
 
         // Generate else block if there's a second branch
-        if (falseBranch != null) {
-            s.append("} else {\n");
-            for (String elementId : falseBranch.getValue()) {
-                BpmnElement element = bpmnElements.getElementById(elementId);
-                if (element == null) { log.warn("XOR: element '{}' not found", elementId); continue; }
-                s.append("  ").append(element.accept(this));
-                BpmnElement sequence = bpmnElements.getElementById(element.getOutgoingEdge());
-                if (sequence != null) { s.append("  ").append(sequence.accept(this)); }
-            }
-        }
+        List<XklaimNode> elseBody = falseBranch != null ? branchBody(falseBranch.getValue()) : null;
 
-        s.append("}\n");
+        s.add(new If("", List.of(new Branch(new Line(condition), thenBody)), elseBody));
         if (xor.getOutgoingEdge() != null) {
-            s.append(String.format("out('%s')@self\n", xor.getOutgoingEdge()));
+            s.add(Out.self(xor.getOutgoingEdge()));
         }
 
-        return s.toString();
+        return s;
+    }
+
+    private List<XklaimNode> branchBody(List<String> elementIds) throws FileNotFoundException, UnsupportedEncodingException {
+        List<XklaimNode> body = new ArrayList<>();
+        for (String elementId : elementIds) {
+            BpmnElement element = bpmnElements.getElementById(elementId);
+            if (element == null) { log.warn("XOR: element '{}' not found", elementId); continue; }
+            body.add(new Nested("  ", lower(element)));
+            BpmnElement sequence = bpmnElements.getElementById(element.getOutgoingEdge());
+            if (sequence != null) { body.add(new Nested("  ", lower(sequence))); }
+        }
+        return body;
     }
  
  
      @Override
      public String visit(LP lp) throws FileNotFoundException, UnsupportedEncodingException {
-         StringBuilder sb = new StringBuilder();
-         sb.append("while(").append(lp.getCondition()).append("){\n");
+         return XklaimPrinter.print(ir(lp));
+     }
+
+     private List<XklaimNode> ir(LP lp) throws FileNotFoundException, UnsupportedEncodingException {
+         List<XklaimNode> body = new ArrayList<>();
          for (String elementId : lp.getFlowElementMap()) {
              BpmnElement element = bpmnElements.getElementById(elementId);
              if (element == null) { log.warn("LP: element '{}' not found", elementId); continue; }
-             sb.append(element.accept(this));
+             body.addAll(lower(element));
              BpmnElement sequence = bpmnElements.getElementById(element.getOutgoingEdge());
-             if (sequence != null) { sb.append(sequence.accept(this)); }
+             if (sequence != null) { body.addAll(lower(sequence)); }
          }
-         sb.append("}\n");
-         sb.append("out('").append(lp.getOutgoingEdge()).append("')@self\n");
-         return sb.toString();
+         return List.of(new While("", lp.getCondition(), body), Out.self(lp.getOutgoingEdge()));
      }
  
 
@@ -766,7 +946,11 @@ import java.util.Map;
      */
     @Override
     public String visit(EB eb) throws FileNotFoundException, UnsupportedEncodingException {
-        StringBuilder s = new StringBuilder();
+        return XklaimPrinter.print(ir(eb));
+    }
+
+    private List<XklaimNode> ir(EB eb) throws FileNotFoundException, UnsupportedEncodingException {
+        List<XklaimNode> s = new ArrayList<>();
 
         // Separate receive paths (message/signal) from the timer path
         List<Map.Entry<String, List<String>>> receivePaths = new ArrayList<>();
@@ -790,83 +974,92 @@ import java.util.Map;
         if (hasTimer && singleReceive) {
             // Pattern 2: single message + timer → if/else with timer duration as within
             Map.Entry<String, List<String>> msgEntry = receivePaths.get(0);
-            s.append(String.format("if(%s){\n", buildReceiveCondition(msgEntry.getValue(), timerDuration)));
-            appendPathBody(s, msgEntry.getValue());
-            s.append("} else {\n");
-            appendPathBody(s, timerPath.getValue());
-            s.append("}\n");
+            Branch received = new Branch(buildReceiveCondition(msgEntry.getValue(), timerDuration), pathBody(msgEntry.getValue()));
+            s.add(new If("", List.of(received), pathBody(timerPath.getValue())));
         } else {
             // Pattern 1 (no timer) or Pattern 3 (multi messages + timer)
-            s.append("var boolean eventOccured = false\n");
+            s.add(new Line("var boolean eventOccured = false"));
             if (hasTimer) {
-                s.append("var long startTime = System.currentTimeMillis()\n");
+                s.add(new Line("var long startTime = System.currentTimeMillis()"));
             }
-            s.append("while(!eventOccured){\n");
 
-            boolean first = true;
+            List<Branch> branches = new ArrayList<>();
             for (Map.Entry<String, List<String>> entry : receivePaths) {
-                String condition = buildReceiveCondition(entry.getValue(), 1000);
-                if (first) {
-                    s.append(String.format("  if(%s){\n", condition));
-                    first = false;
-                } else {
-                    s.append(String.format("  } else if(%s){\n", condition));
-                }
-                s.append("    eventOccured = true\n");
-                appendPathBody(s, entry.getValue());
+                branches.add(new Branch(buildReceiveCondition(entry.getValue(), 1000), eventBody(entry.getValue())));
             }
 
-            if (hasTimer) {
-                s.append(String.format("  } else if(System.currentTimeMillis() - startTime >= %d){\n", timerDuration));
-                s.append("    eventOccured = true\n");
-                appendPathBody(s, timerPath.getValue());
+            Line elapsed = new Line(String.format("System.currentTimeMillis() - startTime >= %d", timerDuration));
+            List<XklaimNode> loop = new ArrayList<>();
+            if (hasTimer && !branches.isEmpty()) {
+                branches.add(new Branch(elapsed, eventBody(timerPath.getValue())));
             }
-
-            s.append("  }\n");
-            s.append("}\n");
+            if (!branches.isEmpty()) {
+                loop.add(new If("  ", branches, null));
+            } else {
+                // Without receive paths there is no if to chain the timer to; kept as generated so far
+                if (hasTimer) {
+                    loop.add(new Line("  } else if(" + elapsed.text() + "){"));
+                    loop.addAll(eventBody(timerPath.getValue()));
+                }
+                loop.add(new Line("  }"));
+            }
+            s.add(new While("", "!eventOccured", loop));
         }
 
         if (eb.getOutgoingEdge() != null) {
-            s.append("out('").append(eb.getOutgoingEdge()).append("')@self\n");
+            s.add(Out.self(eb.getOutgoingEdge()));
         }
 
-        return s.toString();
+        return s;
     }
 
-    private String buildReceiveCondition(List<String> path, long timeout) {
+    private XklaimNode buildReceiveCondition(List<String> path, long timeout) {
         BpmnElement event = bpmnElements.getElementById(path.get(0));
         if (event instanceof MIC) {
-            return String.format("in('%s')@self within %d", ((MIC) event).getMessageId(), timeout);
+            return new In(XklaimNode.quote(((MIC) event).getMessageId()), "self", timeout);
         } else if (event instanceof SIC) {
             SIC sic = (SIC) event;
             String location = sic.getSignalSenderName();
             if (currentParamMap != null && currentParamMap.containsKey(location)) {
                 location = currentParamMap.get(location);
             }
-            return String.format("read('%s')@%s within %d", sic.getSignalId(), location, timeout);
+            return new Read(XklaimNode.quote(sic.getSignalId()), location, timeout);
         }
-        return String.format("in('%s')@self within %d", path.get(0), timeout);
+        return new In(XklaimNode.quote(path.get(0)), "self", timeout);
     }
 
-    private void appendPathBody(StringBuilder s, List<String> path) throws FileNotFoundException, UnsupportedEncodingException {
+    private List<XklaimNode> eventBody(List<String> path) throws FileNotFoundException, UnsupportedEncodingException {
+        List<XklaimNode> body = new ArrayList<>();
+        body.add(new Line("    eventOccured = true"));
+        body.addAll(pathBody(path));
+        return body;
+    }
+
+    private List<XklaimNode> pathBody(List<String> path) throws FileNotFoundException, UnsupportedEncodingException {
+        List<XklaimNode> body = new ArrayList<>();
         for (int i = 1; i < path.size(); i++) {
             BpmnElement element = bpmnElements.getElementById(path.get(i));
             if (element == null) continue;
-            s.append("  ").append(element.accept(this));
+            body.add(new Nested("  ", lower(element)));
             String outEdge = element.getOutgoingEdge();
             if (outEdge != null && !outEdge.isEmpty()) {
                 BpmnElement sequence = bpmnElements.getElementById(outEdge);
                 if (sequence != null) {
-                    s.append("  ").append(sequence.accept(this));
+                    body.add(new Nested("  ", lower(sequence)));
                 }
             }
         }
+        return body;
     }
 
 
 
      @Override
      public String visit(ST st) {
+         return XklaimPrinter.print(ir(st));
+     }
+
+     private List<XklaimNode> ir(ST st) {
          log.trace("Visiting ST (as Eval): {} ({})", st.getName(), st.getId());
  
          String processToEval = st.getName(); // Use the Script Task's name as the proc name
@@ -875,29 +1068,30 @@ import java.util.Map;
          if (processToEval == null || processToEval.isEmpty()) {
              log.warn("Script Task {} has no name. Cannot generate eval call.", st.getId());
              if (outgoingEdge != null && !outgoingEdge.isEmpty()) {
-                 return String.format("// Script Task with ID {} has no name defined.\nout('%s')@self\n",
-                                      st.getId(), outgoingEdge);
+                 // The out has always carried the task id (the template's first placeholder is a literal {})
+                 return List.of(new Line("// Script Task with ID {} has no name defined."), Out.self(st.getId()));
              } else {
-                  return String.format("// Script Task with ID {} has no name and no outgoing edge.\n", st.getId());
+                  return List.of(new Line("// Script Task with ID {} has no name and no outgoing edge."));
              }
          }
  
          if (outgoingEdge == null || outgoingEdge.isEmpty()) {
               log.error("Script Task {} ({}) has no outgoing edge defined. Cannot generate proper eval.", st.getId(), processToEval);
-               return String.format("eval(new %s(/* ERROR: Missing outgoing edge */))@self\n",
-                               processToEval);
+               return List.of(new Eval(processToEval, MISSING_EDGE_ARGS, "self"));
          }
 
-         return String.format("eval(new %s('%s'/* TODO: Pass other necessary args */))@self\n",
-                              processToEval,
-                              outgoingEdge);
+         return List.of(new Eval(processToEval, XklaimNode.quote(outgoingEdge) + TODO_ARGS, "self"));
      }
  
  
      @Override
      public String visit(MIPL mipl) throws FileNotFoundException, UnsupportedEncodingException {
+         return XklaimPrinter.print(ir(mipl));
+     }
+
+     private List<XklaimNode> ir(MIPL mipl) {
          log.warn("Visiting Multi-Instance Pool (MIPL) - Translation not implemented: {}", mipl.getId());
-         return String.format("// Multi-Instance Pool %s translation not implemented\n", mipl.getId());
+         return List.of(new Line("// Multi-Instance Pool " + mipl.getId() + " translation not implemented"));
      }
  
      @Override
@@ -907,9 +1101,3 @@ import java.util.Map;
      }
  
  } 
-
-
-
-
-
-
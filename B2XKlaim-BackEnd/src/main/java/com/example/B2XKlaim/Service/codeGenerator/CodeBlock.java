@@ -0,0 +1,36 @@
+/*
+ * Copyright 2023 Khalid BOURR
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.example.B2XKlaim.Service.codeGenerator;
+
+/**
+ * A top-level block of generated code, the {@code net} or a {@code proc}, and
+ * where it lies in the text: [start, end) in the lines joined with "\n", from
+ * the first character of its header to its closing brace.
+ *
+ * @param name   the net id or the proc name
+ * @param params the proc parameters, as written between the parentheses; empty for the net
+ */
+public record CodeBlock(Kind kind, String name, String params, int start, int end) {
+
+    public enum Kind { NET, PROC }
+
+    /**
+     * @return the block's code, cut from the text it was generated into
+     */
+    public String code(String text) {
+        return text.substring(start, end);
+    }
+}
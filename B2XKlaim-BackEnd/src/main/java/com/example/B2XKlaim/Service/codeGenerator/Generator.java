@@ -28,6 +28,7 @@ import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
+import java.util.concurrent.atomic.LongAdder;
 
 import com.example.B2XKlaim.Service.bpmnElements.BpmnElement;
 import com.example.B2XKlaim.Service.bpmnElements.BpmnElements;
@@ -35,11 +36,18 @@ import com.example.B2XKlaim.Service.bpmnElements.activities.CLA;
 import com.example.B2XKlaim.Service.bpmnElements.activities.ESP;
 import com.example.B2XKlaim.Service.bpmnElements.activities.ST;
 import com.example.B2XKlaim.Service.bpmnElements.objects.pool.Collab;
+import com.example.B2XKlaim.Service.codeGenerator.ir.RendezvousPass;
+import com.example.B2XKlaim.Service.codeGenerator.ir.XklaimNode;
 
 import lombok.extern.slf4j.Slf4j;
 
 /**
  * Orchestrates high-level translation tasks, using BPMNTranslator for element-specific logic.
+ *
+ * The collaboration/strategy translation, translateCallActivity, translateST and
+ * translateEventSubProcesses only read the parsed model and each use their own
+ * translators, so they can run concurrently on one Generator. translateAndBranchProcs
+ * merges the AND branch procs they produced and must be called after them.
  */
 @Slf4j
 public class Generator {
@@ -47,6 +55,12 @@ public class Generator {
     private final BpmnElements processDiagram;
     private final BPMNTranslator visitor;
     private final Map<String, BpmnElements> allProcesses;
+    // AND branch procs produced by translateCallActivity / translateEventSubProcesses
+    private volatile Map<String, List<String>> callActivityAndBranchProcs = Map.of();
+    private volatile Map<String, List<String>> eventSubProcessAndBranchProcs = Map.of();
+    // Tuple operations removed by RendezvousPass outside the main translator
+    private final LongAdder eliminatedTupleOperations = new LongAdder();
+    private volatile List<CodeBlock> collaborationBlocks = List.of();
 
     /**
      * Constructor for Generator.
@@ -93,6 +107,56 @@ public class Generator {
         }
     }
 
+    /**
+     * Translates the collaboration and streams the lines, with the out/in pairs
+     * removed by {@link RendezvousPass}, into {@code sink}: the same lines as
+     * optimizing the lines of {@link #translateBpmnCollaboration()}. Where the
+     * net and each proc went is kept for {@link #getCollaborationBlocks()}.
+     */
+    public void translateOptimizedCollaboration(LineSink sink) throws FileNotFoundException, UnsupportedEncodingException {
+        List<CodeBlock> blocks = new ArrayList<>();
+        recordEliminatedTupleOperations(RendezvousPass.optimize(lowerCollaboration(), sink, blocks));
+        collaborationBlocks = List.copyOf(blocks);
+    }
+
+    /**
+     * @return the net and procs of the last optimized collaboration, in order,
+     *         with their ranges in its lines joined with "\n"; empty before
+     *         {@link #translateOptimizedCollaboration(LineSink)}
+     */
+    public List<CodeBlock> getCollaborationBlocks() {
+        return collaborationBlocks;
+    }
+
+    /**
+     * Adds tuple operations a caller optimized out of code it generated with
+     * {@link #getVisitor()}.
+     */
+    public void recordEliminatedTupleOperations(int count) {
+        eliminatedTupleOperations.add(count);
+    }
+
+    /**
+     * @return the tuple operations (outs and ins) removed from all code optimized
+     *         so far: collaboration, processes, call activities, event
+     *         sub-processes and AND branch procs
+     */
+    public long getEliminatedTupleOperations() {
+        return eliminatedTupleOperations.sum() + visitor.getEliminatedTupleOperations();
+    }
+
+    private List<XklaimNode> lowerCollaboration() throws FileNotFoundException, UnsupportedEncodingException {
+        List<BpmnElement> collaborationElements = getCollaboration(processDiagram);
+        if (collaborationElements.isEmpty()) {
+            log.warn("No Collaboration element found in the BPMN diagram.");
+            return List.of();
+        } else if (collaborationElements.get(0) instanceof Collab collab) {
+            return visitor.lower(collab);
+        }
+        log.error("Top-level element is not a Collab object: {}", collaborationElements.get(0).getClass().getName());
+        return List.of();
+    }
+
     /**
      * Generates placeholder/stub proc definitions for each uniquely named Script Task.
      * Called by the controller to provide stubs for the frontend.
@@ -163,6 +227,7 @@ public class Generator {
         public Map<String, List<String>> translateEventSubProcesses() throws FileNotFoundException, UnsupportedEncodingException {
             Map<String, List<String>> result = new HashMap<>();
             Set<String> processedESPNames = new HashSet<>();
+            BPMNTranslator espVisitor = new BPMNTranslator(processDiagram);
             
             // Process ESPs from main diagram
             List<BpmnElement> eventSubProcesses = getAllEventSubProcesses(processDiagram);
@@ -178,13 +243,11 @@ public class Generator {
                 if (processedESPNames.contains(espName)) continue;
                 processedESPNames.add(espName);
                 
-                // Generate the raw ESP process definition
-                String rawEspCode = visitor.visit(esp);
+                // Generate the ESP process definition
+                List<XklaimNode> espCode = espVisitor.lower(esp);
                 
                 log.info("Applying optimizer to event sub-process '{}'...", espName);
-                List<String> espCodeLines = Arrays.asList(rawEspCode.split("\\r?\\n"));
-                List<String> optimizedEspLines = Optimizer.optimize(espCodeLines);
-                String optimizedEspCode = String.join("\n", optimizedEspLines);
+                String optimizedEspCode = optimize(espCode);
                 
                 // Add the optimized code to the result map
                 //result.computeIfAbsent(espName, k -> new ArrayList<>()).add(optimizedEspCode);
@@ -212,12 +275,11 @@ public class Generator {
                             
                             // Create a visitor for this specific process
                             BPMNTranslator processVisitor = new BPMNTranslator(process);
-                            String rawEspCode = processVisitor.visit(esp);
+                            List<XklaimNode> espCode = processVisitor.lower(esp);
                             
                             log.info("Applying optimizer to event sub-process '{}' from process '{}'...", espName, entry.getKey());
-                            List<String> espCodeLines = Arrays.asList(rawEspCode.split("\\r?\\n"));
-                            List<String> optimizedEspLines = Optimizer.optimize(espCodeLines);
-                            String optimizedEspCode = String.join("\n", optimizedEspLines);
+                            String optimizedEspCode = optimize(espCode);
+                            recordEliminatedTupleOperations(processVisitor.getEliminatedTupleOperations());
                             
                             result.put(espName, Collections.singletonList(optimizedEspCode));
                             
@@ -227,6 +289,8 @@ public class Generator {
                 }
             }
             
+            eventSubProcessAndBranchProcs = espVisitor.getAllAndBranchProcs();
+            recordEliminatedTupleOperations(espVisitor.getEliminatedTupleOperations());
             return result;
         }
 
@@ -237,7 +301,7 @@ public class Generator {
      */
     public Map<String, List<String>> translateCallActivity() throws FileNotFoundException, UnsupportedEncodingException, InvocationTargetException, IllegalAccessException {
         Map<String, List<String>> result = new HashMap<>();
-        Map<String, List<String>> subActivities = new HashMap<>();
+        Map<String, List<String>> andBranchProcs = new HashMap<>();
         Set<String> processedCallActivities = new HashSet<>();
 
         for (BpmnElement callActivity : getAllCallActivity(processDiagram)) {
@@ -253,19 +317,17 @@ public class Generator {
                 BPMNTranslator translator = new BPMNTranslator(calledProcess);
 
                 List<BpmnElement> startEvents = calledProcess.getAllStartEvents();
-                StringBuilder processBody = new StringBuilder();
+                List<XklaimNode> processBody = new ArrayList<>();
                 for (BpmnElement startEvent : startEvents) {
-                    String body = translator.translateProcessBody(startEvent);
-                    processBody.append(body);
+                    processBody.addAll(translator.processBody(startEvent));
                 }
 
-                // Merge AND-gateway branch generated into the main visitor
-                visitor.mergeAndBranchProcs(translator.getAllAndBranchProcs());
+                // Collect AND-gateway branches for translateAndBranchProcs()
+                andBranchProcs.putAll(translator.getAllAndBranchProcs());
+                recordEliminatedTupleOperations(translator.getEliminatedTupleOperations());
 
                 // Apply optimizer to the generated body
-                List<String> bodyLines = Arrays.asList(processBody.toString().split("\\r?\\n"));
-                List<String> optimizedBodyLines = Optimizer.optimize(bodyLines);
-                String optimizedBody = String.join("\n", optimizedBodyLines);
+                String optimizedBody = optimize(processBody);
 
                 String codeString = "import klava.Locality\n\n" +
                         "proc " + calledProcessId + "(String edge) {\n\n" +
@@ -294,13 +356,28 @@ public class Generator {
             }
         }
 
+        callActivityAndBranchProcs = andBranchProcs;
+
         // Only return call activities, not their sub-elements
         return result;
     }
     
 
+    /**
+     * AND branch procs generated so far by the collaboration/process translation,
+     * translateCallActivity() and translateEventSubProcesses(), in that order.
+     */
     public Map<String, List<String>> translateAndBranchProcs() {
-        return visitor.getAllAndBranchProcs();
+        Map<String, List<String>> result = visitor.getAllAndBranchProcs();
+        result.putAll(callActivityAndBranchProcs);
+        result.putAll(eventSubProcessAndBranchProcs);
+        return result;
+    }
+
+    private String optimize(List<XklaimNode> code) {
+        LineJoiner optimized = new LineJoiner();
+        recordEliminatedTupleOperations(RendezvousPass.optimize(code, optimized));
+        return optimized.toString();
     }
 
     private static List<BpmnElement> getCollaboration(BpmnElements bpmnElements) {
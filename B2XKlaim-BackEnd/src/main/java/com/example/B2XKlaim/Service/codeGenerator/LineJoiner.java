@@ -0,0 +1,49 @@
+/*
+ * Copyright 2023 Khalid BOURR
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.example.B2XKlaim.Service.codeGenerator;
+
+/**
+ * Joins the lines it receives with {@code "\n"} into a single buffer, like
+ * {@code String.join("\n", lines)}.
+ */
+public class LineJoiner implements LineSink {
+
+    private final StringBuilder code;
+    private boolean first = true;
+
+    public LineJoiner() {
+        this(new StringBuilder());
+    }
+
+    public LineJoiner(StringBuilder code) {
+        this.code = code;
+    }
+
+    @Override
+    public void line(String line) {
+        if (!first) {
+            code.append('\n');
+        }
+        code.append(line);
+        first = false;
+    }
+
+    @Override
+    public String toString() {
+        return code.toString();
+    }
+}
@@ -0,0 +1,35 @@
+/*
+ * Copyright 2023 Khalid BOURR
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.example.B2XKlaim.Service.codeGenerator;
+
+/**
+ * Receives generated XKlaim code one line at a time, without line terminators.
+ * {@link com.example.B2XKlaim.Service.codeGenerator.ir.RendezvousPass} prints
+ * optimized code into a sink, so code flows from the translator to its
+ * destination without intermediate line lists.
+ */
+@FunctionalInterface
+public interface LineSink {
+
+    void line(String line);
+
+    /**
+     * Called once after the last line; stages flush anything they hold back.
+     */
+    default void finish() {
+    }
+}
@@ -20,55 +20,111 @@ package com.example.B2XKlaim.Service.codeGenerator;
 
 import java.util.ArrayList;
 import java.util.List;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
+
+import com.example.B2XKlaim.Service.codeGenerator.XklaimLexer.Action;
+import com.example.B2XKlaim.Service.codeGenerator.XklaimLexer.Token;
+import com.example.B2XKlaim.Service.codeGenerator.XklaimLexer.TokenSink;
+
 import lombok.extern.slf4j.Slf4j;
 
+/**
+ * Removes each out(x) line directly followed by an in(x) line. Lines are
+ * classified by {@link XklaimLexer}, once each.
+ */
 @Slf4j
 public class Optimizer {
 
-    // Regex to capture argument (group 1) from out(...)@... or in(...)@...
-    // Allows for quotes around argument, captures content within quotes.
-    private static final Pattern OUT_PATTERN = Pattern.compile("^\\s*out\\((['\"].*?['\"]|[^()]+)\\)@.*");
-    private static final Pattern IN_PATTERN = Pattern.compile("^\\s*in\\((['\"].*?['\"]|[^()]+)\\)@.*");
-
     public static List<String> optimize(List<String> code) {
         if (code == null || code.size() < 2) {
             return new ArrayList<>(code); // Return copy if no optimization possible
         }
 
-        List<String> optimizedCode = new ArrayList<>();
-        int i = 0;
-        while (i < code.size()) {
-            String currentLine = code.get(i);
-            String nextLine = (i + 1 < code.size()) ? code.get(i+1) : null;
-
-            String outArg = null;
-            String inArg = null;
-            boolean matchFound = false;
-
-            if (nextLine != null) {
-                Matcher outMatcher = OUT_PATTERN.matcher(currentLine);
-                Matcher inMatcher = IN_PATTERN.matcher(nextLine);
-
-                if (outMatcher.matches() && inMatcher.matches()) {
-                    outArg = outMatcher.group(1);
-                    inArg = inMatcher.group(1);
-
-                    // Check if arguments are non-null and equal
-                    if (outArg != null && outArg.equals(inArg)) {
-                        log.debug("Optimizer removing lines:\n  {}\n  {}", currentLine, nextLine);
-                        i += 2; // Skip both current and next line
-                        matchFound = true;
-                    }
-                }
+        List<String> optimizedCode = new ArrayList<>(code.size());
+        LineSink optimizer = streaming(optimizedCode::add);
+        for (String line : code) {
+            optimizer.line(line);
+        }
+        optimizer.finish();
+        return optimizedCode;
+    }
+
+    /**
+     * @return a sink that removes each out(x) line directly followed by an
+     *         in(x) line and passes every other line on to {@code downstream}
+     */
+    private static LineSink streaming(LineSink downstream) {
+        return XklaimLexer.lexing(streamingTokens(XklaimLexer.lines(downstream)));
+    }
+
+    /**
+     * The same stage on lexed lines: the tokens it receives are the ones it
+     * hands on, so passes before and after it share one scan of each line.
+     */
+    public static TokenSink streamingTokens(TokenSink downstream) {
+        return new OptimizingSink(downstream);
+    }
+
+    /**
+     * Holds back one line: a pending line is only emitted once the next line
+     * shows it does not start an out/in pair, matching the left-to-right scan
+     * optimize(List) has always done.
+     */
+    private static final class OptimizingSink implements TokenSink {
+
+        private final TokenSink downstream;
+        private String pending;
+        private Token pendingToken;
+        private boolean hasPending;
+
+        OptimizingSink(TokenSink downstream) {
+            this.downstream = downstream;
+        }
+
+        @Override
+        public void line(String line, Token token) {
+            if (hasPending && pendingToken != null && pendingToken.cancels(token)) {
+                log.debug("Optimizer removing lines:\n  {}\n  {}", pending, line);
+                pending = null;
+                pendingToken = null;
+                hasPending = false;
+                return;
             }
+            if (hasPending) {
+                downstream.line(pending, pendingToken);
+            }
+            pending = line;
+            pendingToken = token;
+            hasPending = true;
+        }
 
-            if (!matchFound) {
-                optimizedCode.add(currentLine); // Add current line if no match found
-                i++; // Move to the next line
+        @Override
+        public void finish() {
+            if (hasPending) {
+                downstream.line(pending, pendingToken);
+                pending = null;
+                pendingToken = null;
+                hasPending = false;
             }
+            downstream.finish();
         }
-        return optimizedCode;
+    }
+
+    /**
+     * @return the argument of an {@code out(...)@...} line, or null if the line is no out
+     */
+    public static String outArgument(String line) {
+        return argument(Action.OUT, line);
+    }
+
+    /**
+     * @return the argument of an {@code in(...)@...} line, or null if the line is no in
+     */
+    public static String inArgument(String line) {
+        return argument(Action.IN, line);
+    }
+
+    private static String argument(Action action, String line) {
+        Token token = XklaimLexer.scan(line);
+        return token != null && token.is(action) ? token.argument() : null;
     }
 }
@@ -0,0 +1,270 @@
+/*
+ * Copyright 2023 Khalid BOURR
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.example.B2XKlaim.Service.codeGenerator;
+
+/**
+ * Classifies generated XKlaim lines as tuple actions in a single left-to-right
+ * scan. A line such as {@code out('t')@self} becomes a {@link Token} holding
+ * the action, and the offsets of its argument and target locality; every other
+ * line has no token. Tokens only keep offsets into the line, so classifying a
+ * line allocates nothing unless it is an action and nothing is copied unless a
+ * pass asks for the argument text.
+ * <p>
+ * For out, in and read the argument is read exactly as the former
+ * {@code ^\s*out\((['"].*?['"]|[^()]+)\)@.*} patterns of {@link Optimizer}
+ * read it: a quoted argument ends at the first quote followed by {@code )@},
+ * any other argument at the first parenthesis, and nothing after the
+ * {@code @} may be a line terminator. The argument of eval is its balanced
+ * parenthesised expression.
+ * <p>
+ * Passes that run one after the other can hand tokens on through a
+ * {@link TokenSink} instead of scanning each line again.
+ */
+public final class XklaimLexer {
+
+    public enum Action {
+        OUT("out("), IN("in("), READ("read("), EVAL("eval(");
+
+        private final String opening;
+
+        Action(String opening) {
+            this.opening = opening;
+        }
+    }
+
+    private XklaimLexer() {
+    }
+
+    /**
+     * A tuple action found on a line.
+     */
+    public static final class Token {
+
+        private final Action action;
+        private final String line;
+        private final int argumentStart;
+        private final int argumentEnd;
+        private final int localityEnd;
+
+        private Token(Action action, String line, int argumentStart, int argumentEnd, int localityEnd) {
+            this.action = action;
+            this.line = line;
+            this.argumentStart = argumentStart;
+            this.argumentEnd = argumentEnd;
+            this.localityEnd = localityEnd;
+        }
+
+        public Action action() {
+            return action;
+        }
+
+        public String line() {
+            return line;
+        }
+
+        /**
+         * @return the text between the action's parentheses, e.g. {@code 't'}
+         */
+        public String argument() {
+            return line.substring(argumentStart, argumentEnd);
+        }
+
+        /**
+         * @return the target after the {@code @}, up to the first blank, e.g. {@code self}
+         */
+        public String locality() {
+            return line.substring(argumentEnd + 2, localityEnd);
+        }
+
+        public boolean is(Action action) {
+            return this.action == action;
+        }
+
+        public boolean hasArgument(String argument) {
+            int length = argumentEnd - argumentStart;
+            return argument.length() == length && line.regionMatches(argumentStart, argument, 0, length);
+        }
+
+        /**
+         * @return whether this is an out and {@code next} an in of the same argument,
+         *         the pair {@link Optimizer} removes
+         */
+        public boolean cancels(Token next) {
+            if (action != Action.OUT || next == null || next.action != Action.IN) {
+                return false;
+            }
+            int length = argumentEnd - argumentStart;
+            return next.argumentEnd - next.argumentStart == length
+                    && line.regionMatches(argumentStart, next.line, next.argumentStart, length);
+        }
+
+        @Override
+        public String toString() {
+            return action + "[" + argument() + "]@" + locality();
+        }
+    }
+
+    /**
+     * Receives each line with its token, or null for a line that is no action.
+     */
+    public interface TokenSink {
+
+        void line(String line, Token token);
+
+        /**
+         * Called once after the last line.
+         */
+        default void finish() {
+        }
+    }
+
+    /**
+     * @return the action on the line, or null if the line is none
+     */
+    public static Token scan(String line) {
+        int length = line.length();
+        int start = 0;
+        while (start < length && isBlank(line.charAt(start))) {
+            start++;
+        }
+        if (start == length) {
+            return null;
+        }
+        Action action = switch (line.charAt(start)) {
+            case 'o' -> Action.OUT;
+            case 'i' -> Action.IN;
+            case 'r' -> Action.READ;
+            case 'e' -> Action.EVAL;
+            default -> null;
+        };
+        if (action == null || !line.startsWith(action.opening, start)) {
+            return null;
+        }
+        int argumentStart = start + action.opening.length();
+        int argumentEnd = action == Action.EVAL
+                ? balancedEnd(line, argumentStart)
+                : argumentEnd(line, argumentStart);
+        if (argumentEnd < 0) {
+            return null;
+        }
+        int localityEnd = argumentEnd + 2;
+        while (localityEnd < length && !isBlank(line.charAt(localityEnd))) {
+            localityEnd++;
+        }
+        return new Token(action, line, argumentStart, argumentEnd, localityEnd);
+    }
+
+    /**
+     * @return a sink that scans each line once and hands it on with its token
+     */
+    public static LineSink lexing(TokenSink downstream) {
+        return new LineSink() {
+            @Override
+            public void line(String line) {
+                downstream.line(line, scan(line));
+            }
+
+            @Override
+            public void finish() {
+                downstream.finish();
+            }
+        };
+    }
+
+    /**
+     * @return a token sink that passes the lines on and drops their tokens
+     */
+    public static TokenSink lines(LineSink downstream) {
+        return new TokenSink() {
+            @Override
+            public void line(String line, Token token) {
+                downstream.line(line);
+            }
+
+            @Override
+            public void finish() {
+                downstream.finish();
+            }
+        };
+    }
+
+    /**
+     * End of an out/in/read argument starting at {@code from}, or -1: first a
+     * quoted argument closed by a quote directly followed by {@code )@}, then
+     * an unquoted one running to the first parenthesis.
+     */
+    private static int argumentEnd(String line, int from) {
+        int length = line.length();
+        if (from < length && isQuote(line.charAt(from))) {
+            for (int i = from + 1; i < length && !isLineTerminator(line.charAt(i)); i++) {
+                if (isQuote(line.charAt(i)) && closesAt(line, i + 1)) {
+                    return i + 1;
+                }
+            }
+        }
+        int end = from;
+        while (end < length && line.charAt(end) != '(' && line.charAt(end) != ')') {
+            end++;
+        }
+        return end > from && closesAt(line, end) ? end : -1;
+    }
+
+    /**
+     * End of the parenthesised expression starting at {@code from}, if it is
+     * directly followed by {@code )@} and a locality, or -1.
+     */
+    private static int balancedEnd(String line, int from) {
+        int depth = 0;
+        for (int i = from; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (c == '(') {
+                depth++;
+            } else if (c == ')' && depth-- == 0) {
+                return closesAt(line, i) ? i : -1;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Whether {@code )@} starts at {@code index} and the rest of the line holds no line terminator.
+     */
+    private static boolean closesAt(String line, int index) {
+        if (index + 1 >= line.length() || line.charAt(index) != ')' || line.charAt(index + 1) != '@') {
+            return false;
+        }
+        for (int i = index + 2; i < line.length(); i++) {
+            if (isLineTerminator(line.charAt(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean isQuote(char c) {
+        return c == '\'' || c == '"';
+    }
+
+    /** The characters of {@code \s}. */
+    private static boolean isBlank(char c) {
+        return c == ' ' || c == '\t' || c == '\n' || c == '\u000B' || c == '\f' || c == '\r';
+    }
+
+    /** The characters {@code .} does not match. */
+    private static boolean isLineTerminator(char c) {
+        return c == '\n' || c == '\r' || c == '\u0085' || c == '\u2028' || c == '\u2029';
+    }
+}
@@ -0,0 +1,28 @@
+/*
+ * Copyright 2023 Khalid BOURR
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.example.B2XKlaim.Service.codeGenerator.ir;
+
+/**
+ * One printed line (without its line break) and the node that produced it:
+ * the statement itself, or the block (If, While, Proc, ...) for its header
+ * and closing lines.
+ */
+public record CodeLine(String text, XklaimNode origin) {
+
+    public boolean isEmpty() {
+        return text.isEmpty();
+    }
+}
@@ -0,0 +1,416 @@
+/*
+ * Copyright 2023 Khalid BOURR
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.example.B2XKlaim.Service.codeGenerator.ir;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import com.example.B2XKlaim.Service.codeGenerator.ir.XklaimNode.Branch;
+import com.example.B2XKlaim.Service.codeGenerator.ir.XklaimNode.Eval;
+import com.example.B2XKlaim.Service.codeGenerator.ir.XklaimNode.If;
+import com.example.B2XKlaim.Service.codeGenerator.ir.XklaimNode.In;
+import com.example.B2XKlaim.Service.codeGenerator.ir.XklaimNode.Indented;
+import com.example.B2XKlaim.Service.codeGenerator.ir.XklaimNode.Line;
+import com.example.B2XKlaim.Service.codeGenerator.ir.XklaimNode.Nested;
+import com.example.B2XKlaim.Service.codeGenerator.ir.XklaimNode.Net;
+import com.example.B2XKlaim.Service.codeGenerator.ir.XklaimNode.NodeDef;
+import com.example.B2XKlaim.Service.codeGenerator.ir.XklaimNode.Out;
+import com.example.B2XKlaim.Service.codeGenerator.ir.XklaimNode.Proc;
+import com.example.B2XKlaim.Service.codeGenerator.ir.XklaimNode.Read;
+import com.example.B2XKlaim.Service.codeGenerator.ir.XklaimNode.While;
+
+/**
+ * Forward dataflow analysis of the tuples a proc puts into its own tuple space
+ * ({@code out('t')@self}) and takes out again ({@code in('t')@self}), across
+ * statements, if/else branches and while loops.
+ *
+ * The state at each point maps a tuple to the outs that may still be pending
+ * there, and whether some path reaches the point with none pending. An in
+ * whose tuple is pending on every path is matched with those outs. Outs and
+ * ins that are matched with each other form a group, and a group is redundant
+ * when every in in it is always matched and none of its outs can be seen by
+ * anything else: they are then removed together without changing what the
+ * proc's tuple space holds whenever anyone else can look at it.
+ *
+ * An out is kept (escapes) when its tuple may still be pending at the end of
+ * the proc, at an eval (the new process could read it), at a read, a timed
+ * in or an op on the same tuple at another locality, at a verbatim line or
+ * condition mentioning it, or when a second out of the tuple may be pending
+ * at the same time. Only single quoted literals that no other proc, eval
+ * argument or node mentions are tracked; anything else is left alone. Like
+ * the adjacent-pair rule, this assumes the tuples a proc keeps at self are
+ * only shared through the code being analysed.
+ */
+final class RendezvousAnalysis {
+
+    private static final String SELF = "self";
+
+    /** Tuples mentioned outside a single proc, or by an eval or verbatim text elsewhere. */
+    private final Set<String> shared = new HashSet<>();
+    private final Set<XklaimNode> escaped = identitySet();
+    private final Map<In, Boolean> alwaysMatched = new IdentityHashMap<>();
+    private final Map<XklaimNode, XklaimNode> parent = new IdentityHashMap<>();
+
+    private RendezvousAnalysis() {
+    }
+
+    /**
+     * @return the Out and In nodes of provably redundant rendezvous, by identity
+     */
+    static Set<XklaimNode> redundant(List<? extends XklaimNode> code) {
+        RendezvousAnalysis analysis = new RendezvousAnalysis();
+        analysis.findShared(code);
+        analysis.unit(code);
+        return analysis.removable();
+    }
+
+    // --- Tuples used by more than one unit (the top level and each proc) ---
+
+    private void findShared(List<? extends XklaimNode> code) {
+        Map<String, Object> owner = new HashMap<>();
+        Object top = new Object();
+        mentions(code, top, owner);
+    }
+
+    private void mentions(List<? extends XklaimNode> nodes, Object unit, Map<String, Object> owner) {
+        for (XklaimNode node : nodes) {
+            switch (node) {
+                case Out o -> mention(o.tuple(), unit, owner);
+                case In i -> mention(i.tuple(), unit, owner);
+                case Read r -> mention(r.tuple(), unit, owner);
+                case Eval e -> shared.addAll(literals(e.args()));
+                case Line l -> mention(l.text(), unit, owner);
+                case If block -> {
+                    for (Branch branch : block.branches()) {
+                        mentions(List.of(branch.condition()), unit, owner);
+                        mentions(branch.body(), unit, owner);
+                    }
+                    if (block.otherwise() != null) {
+                        mentions(block.otherwise(), unit, owner);
+                    }
+                }
+                case While loop -> {
+                    mention(loop.condition(), unit, owner);
+                    mentions(loop.body(), unit, owner);
+                }
+                case Proc proc -> mentions(proc.body(), proc, owner);
+                case Net net -> {
+                    for (XklaimNode def : net.nodes()) {
+                        if (def instanceof NodeDef nodeDef) {
+                            shared.addAll(literals(nodeDef.eval().args()));
+                        } else {
+                            mentions(List.of(def), net, owner);
+                        }
+                    }
+                }
+                case NodeDef def -> shared.addAll(literals(def.eval().args()));
+                case Nested nested -> mentions(nested.body(), unit, owner);
+                case Indented indented -> mentions(indented.body(), unit, owner);
+            }
+        }
+    }
+
+    private void mention(String text, Object unit, Map<String, Object> owner) {
+        for (String literal : literals(text)) {
+            Object previous = owner.putIfAbsent(literal, unit);
+            if (previous != null && previous != unit) {
+                shared.add(literal);
+            }
+        }
+    }
+
+    // --- Dataflow ---
+
+    /** Tuple → outs that may be pending, and whether some path has none pending. */
+    private static final class Pending {
+        final Set<Out> outs = identitySet();
+        boolean partial;
+
+        Pending copy() {
+            Pending copy = new Pending();
+            copy.outs.addAll(outs);
+            copy.partial = partial;
+            return copy;
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            return other instanceof Pending pending && pending.partial == partial && pending.outs.equals(outs);
+        }
+
+        @Override
+        public int hashCode() {
+            return outs.size() * 31 + (partial ? 1 : 0);
+        }
+    }
+
+    private void unit(List<? extends XklaimNode> nodes) {
+        Map<String, Pending> end = block(nodes, new HashMap<>());
+        escapeAll(end);
+    }
+
+    private Map<String, Pending> block(List<? extends XklaimNode> nodes, Map<String, Pending> state) {
+        for (XklaimNode node : nodes) {
+            state = statement(node, state);
+        }
+        return state;
+    }
+
+    private Map<String, Pending> statement(XklaimNode node, Map<String, Pending> state) {
+        switch (node) {
+            case Out o -> out(o, state);
+            case In i -> in(i, state);
+            case Read r -> touchAll(r.tuple(), state);
+            case Eval e -> escapeAll(state);
+            case Line l -> touch(l.text(), state);
+            case If block -> {
+                return ifBlock(block, state);
+            }
+            case While loop -> {
+                return whileLoop(loop, state);
+            }
+            case Proc proc -> unit(proc.body());
+            case Net net -> {
+                escapeAll(state);
+                for (XklaimNode def : net.nodes()) {
+                    if (!(def instanceof NodeDef)) {
+                        unit(List.of(def));
+                    }
+                }
+            }
+            case NodeDef def -> escapeAll(state);
+            case Nested nested -> {
+                return block(nested.body(), state);
+            }
+            case Indented indented -> {
+                return block(indented.body(), state);
+            }
+        }
+        return state;
+    }
+
+    private void out(Out out, Map<String, Pending> state) {
+        String tuple = out.tuple();
+        if (!tracked(tuple)) {
+            touchAll(tuple, state);
+            return;
+        }
+        if (!SELF.equals(out.locality())) {
+            escape(state.remove(tuple));
+            return;
+        }
+        Pending previous = state.get(tuple);
+        Pending pending = new Pending();
+        pending.outs.add(out);
+        if (previous != null) {
+            // Two copies of the tuple may be around at once: leave both alone
+            escape(previous);
+            escaped.add(out);
+        }
+        state.put(tuple, pending);
+    }
+
+    private void in(In in, Map<String, Pending> state) {
+        String tuple = in.tuple();
+        if (!tracked(tuple)) {
+            touchAll(tuple, state);
+            return;
+        }
+        if (in.within() != null || !SELF.equals(in.locality())) {
+            escape(state.remove(tuple));
+            return;
+        }
+        Pending pending = state.remove(tuple);
+        boolean matched = pending != null && !pending.partial;
+        alwaysMatched.merge(in, matched, Boolean::logicalAnd);
+        if (pending == null) {
+            return;
+        }
+        if (!matched) {
+            escape(pending);
+            return;
+        }
+        for (Out out : pending.outs) {
+            union(out, in);
+        }
+    }
+
+    private Map<String, Pending> ifBlock(If block, Map<String, Pending> state) {
+        for (Branch branch : block.branches()) {
+            conditionOf(branch.condition(), state);
+        }
+        List<Map<String, Pending>> exits = new ArrayList<>();
+        for (Branch branch : block.branches()) {
+            exits.add(block(branch.body(), copy(state)));
+        }
+        exits.add(block.otherwise() != null ? block(block.otherwise(), copy(state)) : state);
+        return merge(exits);
+    }
+
+    private void conditionOf(XklaimNode condition, Map<String, Pending> state) {
+        switch (condition) {
+            case In i -> touch(i.tuple(), state);
+            case Read r -> touch(r.tuple(), state);
+            case Line l -> touch(l.text(), state);
+            default -> statement(condition, state);
+        }
+    }
+
+    private Map<String, Pending> whileLoop(While loop, Map<String, Pending> entry) {
+        touch(loop.condition(), entry);
+        Map<String, Pending> head = copy(entry);
+        while (true) {
+            Map<String, Pending> end = block(loop.body(), copy(head));
+            touch(loop.condition(), end);
+            Map<String, Pending> next = merge(List.of(entry, end));
+            if (next.equals(head)) {
+                return next;
+            }
+            head = next;
+        }
+    }
+
+    private static Map<String, Pending> merge(List<Map<String, Pending>> paths) {
+        Map<String, Pending> merged = new HashMap<>();
+        for (Map<String, Pending> path : paths) {
+            path.forEach((tuple, pending) -> merged.merge(tuple, pending.copy(), (left, right) -> {
+                left.outs.addAll(right.outs);
+                left.partial |= right.partial;
+                return left;
+            }));
+        }
+        merged.forEach((tuple, pending) -> {
+            for (Map<String, Pending> path : paths) {
+                if (!path.containsKey(tuple)) {
+                    pending.partial = true;
+                }
+            }
+        });
+        return merged;
+    }
+
+    private static Map<String, Pending> copy(Map<String, Pending> state) {
+        Map<String, Pending> copy = new HashMap<>();
+        state.forEach((tuple, pending) -> copy.put(tuple, pending.copy()));
+        return copy;
+    }
+
+    /** Text that may look at the tuples it mentions: those outs are kept. */
+    private void touch(String text, Map<String, Pending> state) {
+        for (String literal : literals(text)) {
+            escape(state.remove(literal));
+        }
+    }
+
+    /** An op on a tuple that is not a plain literal could be any tuple. */
+    private void touchAll(String tuple, Map<String, Pending> state) {
+        if (literals(tuple).size() == 1 && tuple.trim().startsWith("'")) {
+            touch(tuple, state);
+        } else {
+            escapeAll(state);
+        }
+    }
+
+    private void escapeAll(Map<String, Pending> state) {
+        state.values().forEach(this::escape);
+        state.clear();
+    }
+
+    private void escape(Pending pending) {
+        if (pending != null) {
+            escaped.addAll(pending.outs);
+        }
+    }
+
+    private boolean tracked(String tuple) {
+        return isLiteral(tuple) && !shared.contains(tuple);
+    }
+
+    // --- Groups of matched outs and ins ---
+
+    private XklaimNode find(XklaimNode node) {
+        XklaimNode root = node;
+        for (XklaimNode up = parent.get(root); up != null; up = parent.get(root)) {
+            root = up;
+        }
+        parent.putIfAbsent(node, null);
+        return root;
+    }
+
+    private void union(XklaimNode left, XklaimNode right) {
+        XklaimNode leftRoot = find(left);
+        XklaimNode rightRoot = find(right);
+        if (leftRoot != rightRoot) {
+            parent.put(leftRoot, rightRoot);
+        }
+    }
+
+    private Set<XklaimNode> removable() {
+        Map<XklaimNode, List<XklaimNode>> groups = new IdentityHashMap<>();
+        for (XklaimNode node : parent.keySet()) {
+            groups.computeIfAbsent(find(node), k -> new ArrayList<>()).add(node);
+        }
+        Set<XklaimNode> removable = identitySet();
+        for (List<XklaimNode> group : groups.values()) {
+            boolean redundant = true;
+            for (XklaimNode node : group) {
+                if (node instanceof In in ? !alwaysMatched.getOrDefault(in, false) : escaped.contains(node)) {
+                    redundant = false;
+                    break;
+                }
+            }
+            if (redundant) {
+                removable.addAll(group);
+            }
+        }
+        return removable;
+    }
+
+    // --- Literals ---
+
+    private static boolean isLiteral(String tuple) {
+        return tuple.length() >= 2 && tuple.charAt(0) == '\'' && tuple.indexOf('\'', 1) == tuple.length() - 1
+                && tuple.indexOf('\n') < 0;
+    }
+
+    /** The single quoted literals in a piece of code, quotes included. */
+    private static List<String> literals(String text) {
+        if (text == null || text.indexOf('\'') < 0) {
+            return List.of();
+        }
+        List<String> literals = new ArrayList<>();
+        int open = text.indexOf('\'');
+        while (open >= 0) {
+            int close = text.indexOf('\'', open + 1);
+            if (close < 0) {
+                break;
+            }
+            literals.add(text.substring(open, close + 1));
+            open = text.indexOf('\'', close + 1);
+        }
+        return literals;
+    }
+
+    private static <T> Set<T> identitySet() {
+        return Collections.newSetFromMap(new IdentityHashMap<>());
+    }
+}
@@ -0,0 +1,192 @@
+/*
+ * Copyright 2023 Khalid BOURR
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.example.B2XKlaim.Service.codeGenerator.ir;
+
+import java.util.List;
+import java.util.Set;
+
+import com.example.B2XKlaim.Service.codeGenerator.CodeBlock;
+import com.example.B2XKlaim.Service.codeGenerator.LineJoiner;
+import com.example.B2XKlaim.Service.codeGenerator.LineSink;
+import com.example.B2XKlaim.Service.codeGenerator.Optimizer;
+import com.example.B2XKlaim.Service.codeGenerator.XklaimLexer;
+import com.example.B2XKlaim.Service.codeGenerator.XklaimLexer.Token;
+import com.example.B2XKlaim.Service.codeGenerator.ir.XklaimNode.Line;
+import com.example.B2XKlaim.Service.codeGenerator.ir.XklaimNode.Net;
+import com.example.B2XKlaim.Service.codeGenerator.ir.XklaimNode.Proc;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Removes redundant tuple rendezvous from generated code, in two steps:
+ * <ol>
+ * <li>{@link RendezvousAnalysis} finds {@code out('t')@self} / {@code in('t')@self}
+ * groups that are redundant across statements, if/else and while bodies, and
+ * their lines are left out when printing;</li>
+ * <li>the out/in pair elimination of {@link Optimizer} runs on the printed
+ * lines: an {@code out(x)} line directly followed by an {@code in(x)} line is
+ * dropped, as the text optimizer has always done.</li>
+ * </ol>
+ * In the second step each printed line is scanned once by {@link XklaimLexer}
+ * and pairs are found on the tokens. Trailing empty lines are dropped before
+ * pairing, as when splitting text. Since every line still carries the node it
+ * was printed from, the pass can also report where each top-level net and proc
+ * ends up in the optimized text.
+ */
+@Slf4j
+public final class RendezvousPass {
+
+    private RendezvousPass() {
+    }
+
+    /**
+     * @return the optimized code of the nodes, lines joined with "\n"
+     */
+    public static String optimize(List<? extends XklaimNode> nodes) {
+        LineJoiner optimized = new LineJoiner();
+        optimize(nodes, optimized);
+        return optimized.toString();
+    }
+
+    /**
+     * Streams the optimized lines of the nodes into {@code sink} and finishes it.
+     *
+     * @return the number of tuple operations (outs and ins) eliminated
+     */
+    public static int optimize(List<? extends XklaimNode> nodes, LineSink sink) {
+        return optimize(nodes, sink, null);
+    }
+
+    /**
+     * Streams the optimized lines of the nodes into {@code sink}, finishes it
+     * and adds a {@link CodeBlock} to {@code blocks} for every {@link Net} and
+     * {@link Proc} in {@code nodes}, in order, with offsets into the lines the
+     * sink received joined with "\n".
+     *
+     * @return the number of tuple operations (outs and ins) eliminated
+     */
+    public static int optimize(List<? extends XklaimNode> nodes, LineSink sink, List<CodeBlock> blocks) {
+        Set<XklaimNode> redundant = RendezvousAnalysis.redundant(nodes);
+        Filter filter = new Filter(sink, blocks);
+        XklaimPrinter.emit(nodes, line -> {
+            if (!redundant.contains(line.origin())) {
+                filter.line(line);
+            }
+        });
+        filter.finish();
+        int eliminated = redundant.size() + 2 * filter.removedPairs();
+        if (eliminated > 0) {
+            log.debug("Eliminated {} tuple operations ({} by dataflow, {} adjacent out/in pairs)",
+                    eliminated, redundant.size(), filter.removedPairs());
+        }
+        return eliminated;
+    }
+
+    /**
+     * Holds back empty lines until a non-empty line follows (trailing ones are
+     * dropped), and one pending line until the next shows it is not the out of
+     * an out/in pair. Lines going downstream are measured to place the blocks.
+     */
+    private static final class Filter {
+
+        private final LineSink downstream;
+        private final List<CodeBlock> blocks;
+        private int heldEmptyLines;
+        private CodeLine pending;
+        private Token pendingToken;
+        private int removedPairs;
+
+        // Length of the text sent downstream, and the block its last line belongs to
+        private int length = -1;
+        private XklaimNode block;
+        private int blockStart;
+        private int blockEnd;
+
+        Filter(LineSink downstream, List<CodeBlock> blocks) {
+            this.downstream = downstream;
+            this.blocks = blocks;
+        }
+
+        void line(CodeLine line) {
+            if (line.isEmpty()) {
+                heldEmptyLines++;
+                return;
+            }
+            for (; heldEmptyLines > 0; heldEmptyLines--) {
+                pair(new CodeLine("", Line.BLANK));
+            }
+            pair(line);
+        }
+
+        void finish() {
+            if (pending != null) {
+                emit(pending);
+                pending = null;
+            }
+            heldEmptyLines = 0;
+            closeBlock();
+            downstream.finish();
+        }
+
+        int removedPairs() {
+            return removedPairs;
+        }
+
+        private void pair(CodeLine line) {
+            Token token = XklaimLexer.scan(line.text());
+            if (pending != null) {
+                if (pendingToken != null && pendingToken.cancels(token)) {
+                    log.debug("Optimizer removing lines:\n  {}\n  {}", pending.text(), line.text());
+                    pending = null;
+                    removedPairs++;
+                    return;
+                }
+                emit(pending);
+            }
+            pending = line;
+            pendingToken = token;
+        }
+
+        private void emit(CodeLine line) {
+            int start = length + 1;
+            length = start + line.text().length();
+            downstream.line(line.text());
+            if (blocks == null) {
+                return;
+            }
+            XklaimNode origin = line.origin();
+            if (origin instanceof Net || origin instanceof Proc) {
+                if (origin != block) {
+                    closeBlock();
+                    block = origin;
+                    blockStart = start;
+                }
+                blockEnd = length;
+            }
+        }
+
+        private void closeBlock() {
+            switch (block) {
+                case Net net -> blocks.add(new CodeBlock(CodeBlock.Kind.NET, net.id(), "", blockStart, blockEnd));
+                case Proc proc -> blocks.add(new CodeBlock(CodeBlock.Kind.PROC, proc.name(), proc.params(),
+                        blockStart, blockEnd));
+                case null, default -> {
+                }
+            }
+            block = null;
+        }
+    }
+}
@@ -0,0 +1,137 @@
+/*
+ * Copyright 2023 Khalid BOURR
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.example.B2XKlaim.Service.codeGenerator.ir;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Typed intermediate representation of generated XKlaim code. BPMNTranslator
+ * builds these nodes and {@link XklaimPrinter} renders them once; passes such
+ * as {@link RendezvousPass} work on the nodes instead of re-parsing text.
+ *
+ * Tuples, localities and conditions are kept as the source text the templates
+ * used to produce, so printing is byte-identical to the former String.format
+ * output. Every statement renders as one or more complete lines.
+ */
+public sealed interface XklaimNode {
+
+    /** {@code out(tuple)@locality} */
+    record Out(String tuple, String locality) implements XklaimNode {
+        public static Out self(String name) {
+            return new Out(quote(name), "self");
+        }
+    }
+
+    /** {@code in(tuple)@locality}, optionally {@code within} a timeout (as a condition). */
+    record In(String tuple, String locality, Long within) implements XklaimNode {
+        public In(String tuple, String locality) {
+            this(tuple, locality, null);
+        }
+
+        public static In self(String name) {
+            return new In(quote(name), "self");
+        }
+    }
+
+    /** {@code read(tuple)@locality}, optionally {@code within} a timeout (as a condition). */
+    record Read(String tuple, String locality, Long within) implements XklaimNode {
+        public Read(String tuple, String locality) {
+            this(tuple, locality, null);
+        }
+    }
+
+    /** {@code eval(new proc(args))@locality} */
+    record Eval(String proc, String args, String locality) implements XklaimNode {
+    }
+
+    /**
+     * {@code if(c1){ ... } else if(c2){ ... } else { ... }}. The condition of each
+     * branch is a single-line node (an In/Read with a timeout, or a Line holding
+     * an expression). {@code indent} prefixes the if/else/closing lines only.
+     */
+    record If(String indent, List<Branch> branches, List<XklaimNode> otherwise) implements XklaimNode {
+        public If {
+            if (branches.isEmpty()) {
+                throw new IllegalArgumentException("if needs at least one branch");
+            }
+        }
+    }
+
+    record Branch(XklaimNode condition, List<XklaimNode> body) {
+    }
+
+    /** {@code while(condition){ ... }}; {@code indent} prefixes the while and closing lines. */
+    record While(String indent, String condition, List<XklaimNode> body) implements XklaimNode {
+    }
+
+    /** {@code proc name(params) { ... }} */
+    record Proc(String name, String params, List<XklaimNode> body) implements XklaimNode {
+    }
+
+    /** {@code net id physical "address" { nodes }} */
+    record Net(String id, String address, List<XklaimNode> nodes) implements XklaimNode {
+    }
+
+    /** A node of the net, started by a single eval. */
+    record NodeDef(String name, Eval eval) implements XklaimNode {
+    }
+
+    /** A verbatim line without its line break (comments, sleeps, declarations, blank lines). */
+    record Line(String text) implements XklaimNode {
+        public static final Line BLANK = new Line("");
+    }
+
+    /**
+     * Nested code whose first line is prefixed with {@code prefix}, the way the
+     * gateway translations have always indented an embedded element.
+     */
+    record Nested(String prefix, List<XklaimNode> body) implements XklaimNode {
+    }
+
+    /** Code with every non-blank line indented and blank lines dropped. */
+    record Indented(String indent, List<XklaimNode> body) implements XklaimNode {
+    }
+
+    static String quote(String name) {
+        return "'" + name + "'";
+    }
+
+    /**
+     * Wraps already generated text as verbatim lines, for code that has no
+     * node type of its own.
+     */
+    static List<XklaimNode> lines(String text) {
+        List<XklaimNode> lines = new ArrayList<>();
+        if (text == null || text.isEmpty()) {
+            return lines;
+        }
+        int start = 0;
+        for (int i = 0; i < text.length(); i++) {
+            if (text.charAt(i) == '\n') {
+                int end = i > start && text.charAt(i - 1) == '\r' ? i - 1 : i;
+                lines.add(new Line(text.substring(start, end)));
+                start = i + 1;
+            }
+        }
+        if (start < text.length()) {
+            // Unterminated last line: rendered with a line break like every node
+            lines.add(new Line(text.substring(start)));
+        }
+        return lines;
+    }
+}
@@ -0,0 +1,172 @@
+/*
+ * Copyright 2023 Khalid BOURR
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.example.B2XKlaim.Service.codeGenerator.ir;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+import com.example.B2XKlaim.Service.codeGenerator.ir.XklaimNode.Branch;
+import com.example.B2XKlaim.Service.codeGenerator.ir.XklaimNode.Eval;
+import com.example.B2XKlaim.Service.codeGenerator.ir.XklaimNode.If;
+import com.example.B2XKlaim.Service.codeGenerator.ir.XklaimNode.In;
+import com.example.B2XKlaim.Service.codeGenerator.ir.XklaimNode.Indented;
+import com.example.B2XKlaim.Service.codeGenerator.ir.XklaimNode.Line;
+import com.example.B2XKlaim.Service.codeGenerator.ir.XklaimNode.Nested;
+import com.example.B2XKlaim.Service.codeGenerator.ir.XklaimNode.Net;
+import com.example.B2XKlaim.Service.codeGenerator.ir.XklaimNode.NodeDef;
+import com.example.B2XKlaim.Service.codeGenerator.ir.XklaimNode.Out;
+import com.example.B2XKlaim.Service.codeGenerator.ir.XklaimNode.Proc;
+import com.example.B2XKlaim.Service.codeGenerator.ir.XklaimNode.Read;
+import com.example.B2XKlaim.Service.codeGenerator.ir.XklaimNode.While;
+
+/**
+ * Renders {@link XklaimNode}s as XKlaim source, one line at a time. The layout
+ * is the one the string templates of BPMNTranslator produced, so printing the
+ * IR of an element gives exactly the text its visit method used to return.
+ */
+public final class XklaimPrinter {
+
+    private final Consumer<CodeLine> out;
+    // Prefix of a Nested node, waiting for the first line of its body
+    private String pendingPrefix = "";
+
+    private XklaimPrinter(Consumer<CodeLine> out) {
+        this.out = out;
+    }
+
+    /**
+     * @return the code of the nodes, every line terminated by "\n"
+     */
+    public static String print(List<? extends XklaimNode> nodes) {
+        StringBuilder code = new StringBuilder();
+        emit(nodes, line -> code.append(line.text()).append('\n'));
+        return code.toString();
+    }
+
+    public static String print(XklaimNode node) {
+        return print(List.of(node));
+    }
+
+    public static List<CodeLine> lines(List<? extends XklaimNode> nodes) {
+        List<CodeLine> lines = new ArrayList<>();
+        emit(nodes, lines::add);
+        return lines;
+    }
+
+    /**
+     * Hands the printed lines of the nodes to {@code out} in order.
+     */
+    public static void emit(List<? extends XklaimNode> nodes, Consumer<CodeLine> out) {
+        XklaimPrinter printer = new XklaimPrinter(out);
+        printer.nodes(nodes);
+        if (!printer.pendingPrefix.isEmpty()) {
+            // A Nested node without lines at the very end: keep its prefix
+            printer.line("", new Line(""));
+        }
+    }
+
+    /**
+     * @return the single-line text of a statement or condition node
+     * @throws IllegalArgumentException for block nodes
+     */
+    public static String inline(XklaimNode node) {
+        return switch (node) {
+            case Out o -> "out(" + o.tuple() + ")@" + o.locality();
+            case In i -> "in(" + i.tuple() + ")@" + i.locality() + within(i.within());
+            case Read r -> "read(" + r.tuple() + ")@" + r.locality() + within(r.within());
+            case Eval e -> "eval(new " + e.proc() + "(" + e.args() + "))@" + e.locality();
+            case Line l -> l.text();
+            default -> throw new IllegalArgumentException("Not a single-line node: " + node.getClass().getSimpleName());
+        };
+    }
+
+    private static String within(Long timeout) {
+        return timeout == null ? "" : " within " + timeout;
+    }
+
+    private void nodes(List<? extends XklaimNode> nodes) {
+        for (XklaimNode node : nodes) {
+            node(node);
+        }
+    }
+
+    private void node(XklaimNode node) {
+        switch (node) {
+            case Out o -> line(inline(o), o);
+            case In i -> line(inline(i), i);
+            case Read r -> line(inline(r), r);
+            case Eval e -> line(inline(e), e);
+            case Line l -> line(l.text(), l);
+            case If branches -> ifBlock(branches);
+            case While loop -> {
+                line(loop.indent() + "while(" + loop.condition() + "){", loop);
+                nodes(loop.body());
+                line(loop.indent() + "}", loop);
+            }
+            case Proc proc -> {
+                line("proc " + proc.name() + "(" + proc.params() + ") {", proc);
+                nodes(proc.body());
+                line("}", proc);
+            }
+            case Net net -> {
+                line("net " + net.id() + " physical \"" + net.address() + "\" {", net);
+                line("", net);
+                nodes(net.nodes());
+                line("}", net);
+            }
+            case NodeDef def -> {
+                line("\tnode " + def.name() + " {", def);
+                line("\t\t" + inline(def.eval()), def.eval());
+                line("\t}", def);
+            }
+            case Nested nested -> {
+                pendingPrefix = pendingPrefix + nested.prefix();
+                nodes(nested.body());
+            }
+            case Indented indented -> {
+                for (CodeLine line : lines(indented.body())) {
+                    if (!line.text().trim().isEmpty()) {
+                        line(indented.indent() + line.text(), line.origin());
+                    }
+                }
+            }
+        }
+    }
+
+    private void ifBlock(If block) {
+        List<Branch> branches = block.branches();
+        for (int i = 0; i < branches.size(); i++) {
+            Branch branch = branches.get(i);
+            String keyword = i == 0 ? "if(" : "} else if(";
+            line(block.indent() + keyword + inline(branch.condition()) + "){", block);
+            nodes(branch.body());
+        }
+        if (block.otherwise() != null) {
+            line(block.indent() + "} else {", block);
+            nodes(block.otherwise());
+        }
+        line(block.indent() + "}", block);
+    }
+
+    private void line(String text, XklaimNode origin) {
+        if (!pendingPrefix.isEmpty()) {
+            text = pendingPrefix + text;
+            pendingPrefix = "";
+        }
+        out.accept(new CodeLine(text, origin));
+    }
+}
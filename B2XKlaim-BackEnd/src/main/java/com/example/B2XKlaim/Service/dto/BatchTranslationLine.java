@@ -0,0 +1,16 @@
+package com.example.B2XKlaim.Service.dto;
+
+/**
+ * One line of a /generate-code/batch response: the outcome of the process set
+ * at {@code index} in the request. Exactly one of result and error is set.
+ */
+public record BatchTranslationLine(int index, TranslationResponse result, String error) {
+
+    public static BatchTranslationLine success(int index, TranslationResponse result) {
+        return new BatchTranslationLine(index, result, null);
+    }
+
+    public static BatchTranslationLine failure(int index, String error) {
+        return new BatchTranslationLine(index, null, error);
+    }
+}
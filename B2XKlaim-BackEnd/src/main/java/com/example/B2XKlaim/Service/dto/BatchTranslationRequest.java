@@ -0,0 +1,10 @@
+package com.example.B2XKlaim.Service.dto;
+
+import java.util.List;
+
+/**
+ * Body of a /generate-code/batch request: independent process sets, each
+ * translated as a /generate-code request would be.
+ */
+public record BatchTranslationRequest(List<TranslationRequest> requests) {
+}
@@ -0,0 +1,7 @@
+package com.example.B2XKlaim.Service.dto;
+
+/**
+ * A formatted proc of a translation response.
+ */
+public record ProcessEntry(String name, String code) {
+}
@@ -0,0 +1,26 @@
+package com.example.B2XKlaim.Service.dto;
+
+import java.time.Instant;
+
+/**
+ * State of an asynchronous translation at one point in time.
+ *
+ * @param id          job id, as in /translations/{id}
+ * @param status      where the job is
+ * @param submittedAt when the job was accepted
+ * @param startedAt   when a worker took it; null while queued
+ * @param finishedAt  when it succeeded, failed or was cancelled; null before
+ * @param error       the failure message of a failed job, null otherwise
+ * @param result      the response of a succeeded job, null otherwise
+ */
+public record TranslationJob(String id, Status status, Instant submittedAt, Instant startedAt, Instant finishedAt,
+                             String error, TranslationResponse result) {
+
+    public enum Status {
+        QUEUED, RUNNING, SUCCEEDED, FAILED, CANCELLED;
+
+        public boolean isFinished() {
+            return this == SUCCEEDED || this == FAILED || this == CANCELLED;
+        }
+    }
+}
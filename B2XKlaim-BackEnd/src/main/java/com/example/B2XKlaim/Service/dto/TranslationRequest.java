@@ -0,0 +1,11 @@
+package com.example.B2XKlaim.Service.dto;
+
+import java.util.Map;
+
+/**
+ * Body of a /generate-code request.
+ *
+ * @param processes Map of process ID to BPMN XML; the collaboration is under "main"
+ */
+public record TranslationRequest(Map<String, String> processes) {
+}
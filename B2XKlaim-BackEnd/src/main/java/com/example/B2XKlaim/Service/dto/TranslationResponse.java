@@ -0,0 +1,62 @@
+package com.example.B2XKlaim.Service.dto;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Body of a successful /generate-code response. Every field is set and every
+ * collection is unmodifiable, so a response can be cached and shared between
+ * requests and needs no validation before it is written.
+ */
+public record TranslationResponse(
+        String collaboration,
+        List<ProcessEntry> processes,
+        Map<String, List<String>> callActivities,
+        Map<String, List<String>> scriptTaskProcs,
+        Map<String, List<String>> eventSubProcesses,
+        Map<String, List<String>> andBranchProcs,
+        List<String> participants) {
+
+    public TranslationResponse {
+        collaboration = collaboration != null ? collaboration : "";
+        processes = List.copyOf(processes);
+        callActivities = copyOf(callActivities);
+        scriptTaskProcs = copyOf(scriptTaskProcs);
+        eventSubProcesses = copyOf(eventSubProcesses);
+        andBranchProcs = copyOf(andBranchProcs);
+        participants = List.copyOf(participants);
+    }
+
+    /**
+     * @return the response as the map {@link com.example.B2XKlaim.Service.builder.ResponseBuilder#build()}
+     *         builds, for callers of the map-based API
+     */
+    public Map<String, Object> toMap() {
+        List<Map<String, String>> processList = new ArrayList<>();
+        for (ProcessEntry process : processes) {
+            Map<String, String> processEntry = new HashMap<>();
+            processEntry.put("name", process.name());
+            processEntry.put("code", process.code());
+            processList.add(processEntry);
+        }
+
+        Map<String, Object> response = new HashMap<>();
+        response.put("collaboration", collaboration);
+        response.put("processes", processList);
+        response.put("callActivities", new HashMap<>(callActivities));
+        response.put("scriptTaskProcs", new HashMap<>(scriptTaskProcs));
+        response.put("eventSubProcesses", new HashMap<>(eventSubProcesses));
+        response.put("andBranchProcs", new HashMap<>(andBranchProcs));
+        response.put("participants", new ArrayList<>(participants));
+        return response;
+    }
+
+    /** An unmodifiable copy that keeps the iteration order of the source. */
+    private static Map<String, List<String>> copyOf(Map<String, List<String>> codes) {
+        return Collections.unmodifiableMap(new LinkedHashMap<>(codes));
+    }
+}
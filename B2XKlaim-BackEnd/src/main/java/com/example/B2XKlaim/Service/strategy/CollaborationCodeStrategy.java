@@ -12,7 +12,7 @@ import com.example.B2XKlaim.Service.bpmnElements.BpmnElements;
 import com.example.B2XKlaim.Service.bpmnElements.objects.pool.Collab;
 import com.example.B2XKlaim.Service.bpmnElements.objects.pool.PL;
 import com.example.B2XKlaim.Service.codeGenerator.Generator;
-import com.example.B2XKlaim.Service.codeGenerator.Optimizer;
+import com.example.B2XKlaim.Service.codeGenerator.LineJoiner;
 
 import lombok.extern.slf4j.Slf4j;
 
@@ -28,13 +28,12 @@ public class CollaborationCodeStrategy implements CodeGenerationStrategy {
     public String generateCollaborationCode(Generator codeGenerator, BpmnElements mainBpmnElements) throws Exception {
         log.debug("Generating collaboration code using CollaborationCodeStrategy");
         
-        List<String> fullXklaimCodeLines = codeGenerator.translateBpmnCollaboration();
-        
-        // Apply optimizer
+        // The translator's IR is optimized and printed straight into one buffer
         log.debug("Applying optimizer to collaboration output");
-        List<String> optimizedLines = Optimizer.optimize(fullXklaimCodeLines);
+        LineJoiner optimized = new LineJoiner();
+        codeGenerator.translateOptimizedCollaboration(optimized);
         
-        String collaborationCode = String.join("\n", optimizedLines);
+        String collaborationCode = optimized.toString();
         log.debug("Generated collaboration code ({} characters)", collaborationCode.length());
         
         return collaborationCode;
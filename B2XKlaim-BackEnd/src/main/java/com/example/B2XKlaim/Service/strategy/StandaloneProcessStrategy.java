@@ -15,7 +15,9 @@ import com.example.B2XKlaim.Service.bpmnElements.BpmnElements;
 import com.example.B2XKlaim.Service.bpmnElements.objects.pool.Collab;
 import com.example.B2XKlaim.Service.codeGenerator.BPMNTranslator;
 import com.example.B2XKlaim.Service.codeGenerator.Generator;
-import com.example.B2XKlaim.Service.codeGenerator.Optimizer;
+import com.example.B2XKlaim.Service.codeGenerator.LineJoiner;
+import com.example.B2XKlaim.Service.codeGenerator.ir.RendezvousPass;
+import com.example.B2XKlaim.Service.codeGenerator.ir.XklaimNode;
 
 import lombok.extern.slf4j.Slf4j;
 
@@ -69,22 +71,19 @@ public class StandaloneProcessStrategy implements CodeGenerationStrategy {
 
                 log.debug("Generating code for process: {} (ID: {})", processName, processId);
 
-                StringBuilder processBodyCode = new StringBuilder();
+                // The body IR is optimized and printed straight into the proc text
+                StringBuilder procCode = new StringBuilder("proc ").append(processName).append("() {\n");
+                List<XklaimNode> body = new ArrayList<>();
                 for (BpmnElement startEvent : startEventsForProcess) {
-                    String bodyPart = translator.translateProcessBody(startEvent);
-                    processBodyCode.append(bodyPart);
+                    body.addAll(translator.processBody(startEvent));
                     log.trace("Added body part for start event in process: {}", processName);
                 }
+                codeGenerator.recordEliminatedTupleOperations(RendezvousPass.optimize(body, new LineJoiner(procCode)));
 
-                // Apply optimizer
-                List<String> bodyLines = List.of(processBodyCode.toString().split("\\r?\\n"));
-                List<String> optimizedBodyLines = Optimizer.optimize(bodyLines);
-                String optimizedBodyString = String.join("\n", optimizedBodyLines);
-
-                String fullProcCode = String.format("proc %s() {\n%s\n}", processName, optimizedBodyString);
+                String fullProcCode = procCode.append("\n}").toString();
                 processes.add(new ProcessCode(processName, fullProcCode));
                 
-                log.debug("Generated code for process: {} ({} lines)", processName, optimizedBodyLines.size());
+                log.debug("Generated code for process: {} ({} characters)", processName, fullProcCode.length());
             }
         }
 
@@ -0,0 +1,150 @@
+package com.example.B2XKlaim.Controller;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.mock.web.MockAsyncContext;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import com.example.B2XKlaim.Service.ResponseBuilderService;
+import com.example.B2XKlaim.Service.TranslationService;
+import com.example.B2XKlaim.Service.dto.TranslationResponse;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Tests for the NDJSON stream of /generate-code/batch: one line per process
+ * set, in completion order, with failures confined to their own line, and a
+ * timeout of its own.
+ */
+@ExtendWith(MockitoExtension.class)
+class BatchTranslationControllerTest {
+
+    private static final String REQUEST = "{\"requests\":[" +
+            "{\"processes\":{\"main\":\"<a/>\"}}," +
+            "{\"processes\":{\"main\":\"<b/>\"}}," +
+            "{\"processes\":{\"main\":\"<c/>\"}}]}";
+
+    @Mock
+    private TranslationService translationService;
+
+    @Spy
+    private ResponseBuilderService responseBuilderService = new ResponseBuilderService();
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @InjectMocks
+    private BatchTranslationController batchTranslationController;
+
+    private MockMvc mockMvc;
+
+    @BeforeEach
+    void setUp() {
+        mockMvc = MockMvcBuilders.standaloneSetup(batchTranslationController)
+                .setMessageConverters(new BatchTranslationLineConverter(objectMapper),
+                        new MappingJackson2HttpMessageConverter(objectMapper))
+                .build();
+    }
+
+    private static TranslationResponse response(String collaboration) {
+        return new TranslationResponse(collaboration, List.of(), Map.of(), Map.of(), Map.of(), Map.of(), List.of());
+    }
+
+    @Test
+    void streamsOneLinePerProcessSetInCompletionOrder() throws Exception {
+        CompletableFuture<TranslationResponse> first = new CompletableFuture<>();
+        CompletableFuture<TranslationResponse> second = new CompletableFuture<>();
+        CompletableFuture<TranslationResponse> third = new CompletableFuture<>();
+        when(translationService.translateBatch(List.of(Map.of("main", "<a/>"), Map.of("main", "<b/>"),
+                Map.of("main", "<c/>")))).thenReturn(new ArrayList<>(List.of(first, second, third)));
+        third.complete(response("net C"));
+
+        MvcResult started = startBatch(REQUEST);
+        first.completeExceptionally(new RuntimeException("Failed to parse process: main"));
+        second.complete(response("net B"));
+        MvcResult result = mockMvc.perform(asyncDispatch(started)).andReturn();
+
+        assertEquals(200, result.getResponse().getStatus());
+        assertEquals(BatchTranslationController.APPLICATION_NDJSON.toString(), result.getResponse().getContentType());
+        String body = result.getResponse().getContentAsString();
+
+        String[] lines = body.split("\n");
+        assertEquals(3, lines.length);
+        JsonNode c = objectMapper.readTree(lines[0]);
+        JsonNode a = objectMapper.readTree(lines[1]);
+        JsonNode b = objectMapper.readTree(lines[2]);
+        assertEquals(2, c.get("index").asInt());
+        assertEquals("net C", c.get("result").get("collaboration").asText());
+        assertEquals(0, a.get("index").asInt());
+        assertEquals("Translation failed: Failed to parse process: main", a.get("error").asText());
+        assertFalse(a.has("result"));
+        assertEquals(1, b.get("index").asInt());
+        assertEquals(objectMapper.valueToTree(response("net B").toMap()), b.get("result"));
+    }
+
+    private MvcResult startBatch(String content) throws Exception {
+        return mockMvc.perform(post("/generate-code/batch")
+                        .contentType(MediaType.APPLICATION_JSON).content(content))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+    }
+
+    private MvcResult postBatch(String content) throws Exception {
+        return mockMvc.perform(asyncDispatch(startBatch(content))).andReturn();
+    }
+
+    @Test
+    void batchHasItsOwnTimeoutAndCancelsPendingTranslationsOnIt() throws Exception {
+        CompletableFuture<TranslationResponse> done = CompletableFuture.completedFuture(response("net A"));
+        CompletableFuture<TranslationResponse> pending = new CompletableFuture<>();
+        when(translationService.translateBatch(anyList())).thenReturn(new ArrayList<>(List.of(done, pending)));
+
+        MvcResult started = startBatch("{\"requests\":[{\"processes\":{\"main\":\"<a/>\"}}," +
+                "{\"processes\":{\"main\":\"<b/>\"}}]}");
+
+        MockAsyncContext asyncContext = (MockAsyncContext) started.getRequest().getAsyncContext();
+        assertEquals(BatchTranslationController.BATCH_TIMEOUT_MILLIS, asyncContext.getTimeout());
+        asyncContext.getListeners().forEach(listener -> {
+            try {
+                listener.onTimeout(null);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+        assertTrue(pending.isCancelled());
+    }
+
+    @Test
+    void emptyOrIncompleteBatchIsBadRequest() throws Exception {
+        assertEquals(400, postBatch("{}").getResponse().getStatus());
+        MvcResult incomplete = postBatch("{\"requests\":[{\"processes\":{\"main\":\"<a/>\"}},{}]}");
+
+        assertEquals(400, incomplete.getResponse().getStatus());
+        assertEquals("Translation failed: Missing 'processes' in request 1",
+                objectMapper.readTree(incomplete.getResponse().getContentAsString()).get("error").asText());
+
+        verifyNoInteractions(translationService);
+    }
+}
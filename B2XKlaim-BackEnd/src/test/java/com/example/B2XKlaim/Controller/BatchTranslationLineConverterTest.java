@@ -0,0 +1,63 @@
+package com.example.B2XKlaim.Controller;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.MediaType;
+import org.springframework.mock.http.MockHttpOutputMessage;
+
+import com.example.B2XKlaim.Service.dto.BatchTranslationLine;
+import com.example.B2XKlaim.Service.dto.ProcessEntry;
+import com.example.B2XKlaim.Service.dto.TranslationResponse;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Tests for the writer of /generate-code/batch lines: one JSON object per
+ * line, carrying either the result or the error of its process set.
+ */
+class BatchTranslationLineConverterTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final BatchTranslationLineConverter converter = new BatchTranslationLineConverter(objectMapper);
+
+    @Test
+    void writesOneLineWithTheResult() throws Exception {
+        TranslationResponse response = new TranslationResponse("net C {\n}",
+                List.of(new ProcessEntry("Robot", "proc Robot() {\n}\n")),
+                Map.of(), Map.of(), Map.of(), Map.of(), List.of("Robot"));
+
+        MockHttpOutputMessage output = new MockHttpOutputMessage();
+        converter.write(BatchTranslationLine.success(3, response), BatchTranslationController.APPLICATION_NDJSON, output);
+
+        String body = output.getBodyAsString(StandardCharsets.UTF_8);
+        assertTrue(body.endsWith("}\n"));
+        assertEquals(1, body.split("\n").length);
+        JsonNode line = objectMapper.readTree(body);
+        assertEquals(3, line.get("index").asInt());
+        assertEquals(objectMapper.valueToTree(response.toMap()), line.get("result"));
+        assertFalse(line.has("error"));
+    }
+
+    @Test
+    void writesOneLineWithTheError() throws Exception {
+        MockHttpOutputMessage output = new MockHttpOutputMessage();
+        converter.write(BatchTranslationLine.failure(0, "Translation failed: boom"),
+                BatchTranslationController.APPLICATION_NDJSON, output);
+
+        assertEquals("{\"index\":0,\"error\":\"Translation failed: boom\"}\n",
+                output.getBodyAsString(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void onlyWritesBatchLines() {
+        assertTrue(converter.canWrite(BatchTranslationLine.class, BatchTranslationController.APPLICATION_NDJSON));
+        assertFalse(converter.canWrite(TranslationResponse.class, BatchTranslationController.APPLICATION_NDJSON));
+        assertFalse(converter.canWrite(BatchTranslationLine.class, MediaType.APPLICATION_JSON));
+        assertFalse(converter.canRead(BatchTranslationLine.class, BatchTranslationController.APPLICATION_NDJSON));
+    }
+}
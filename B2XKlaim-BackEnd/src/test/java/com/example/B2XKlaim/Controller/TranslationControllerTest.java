@@ -0,0 +1,217 @@
+package com.example.B2XKlaim.Controller;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+import java.util.*;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.example.B2XKlaim.Service.BpmnParsingService;
+import com.example.B2XKlaim.Service.CodeGenerationService;
+import com.example.B2XKlaim.Service.CodeGenerationService.GenerationResult;
+import com.example.B2XKlaim.Service.ResponseBuilderService;
+import com.example.B2XKlaim.Service.TranslationResponseCache;
+import com.example.B2XKlaim.Service.TranslationService;
+import com.example.B2XKlaim.Service.dto.TranslationResponse;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Tests for the response cache and ETag handling of /generate-code.
+ */
+@ExtendWith(MockitoExtension.class)
+class TranslationControllerTest {
+
+    private static final String DIAGRAM =
+            "<bpmn:definitions xmlns:bpmn=\\\"http://www.omg.org/spec/BPMN/20100524/MODEL\\\">" +
+            "<bpmn:process id=\\\"P\\\" name=\\\"p\\\"/>";
+
+    @Mock
+    private BpmnParsingService bpmnParsingService;
+
+    @Mock
+    private CodeGenerationService codeGenerationService;
+
+    @Mock
+    private ResponseBuilderService responseBuilderService;
+
+    @Spy
+    private TranslationResponseCache translationResponseCache = new TranslationResponseCache();
+
+    @InjectMocks
+    private TranslationService translationService;
+
+    @InjectMocks
+    private TranslationController translationController;
+
+    private MockMvc mockMvc;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(translationController, "translationService", translationService);
+        ObjectMapper objectMapper = new ObjectMapper();
+        mockMvc = MockMvcBuilders.standaloneSetup(translationController)
+                .setMessageConverters(new TranslationResponseConverter(objectMapper),
+                        new MappingJackson2HttpMessageConverter(objectMapper))
+                .build();
+    }
+
+    private void stubPipeline() {
+        GenerationResult result = GenerationResult.builder()
+                .collaborationCode("collab")
+                .fullGeneratedCode("full code")
+                .processes(new ArrayList<>())
+                .callActivities(new HashMap<>())
+                .scriptTasks(new HashMap<>())
+                .eventSubProcesses(new HashMap<>())
+                .andBranchProcs(new HashMap<>())
+                .participants(new HashSet<>())
+                .build();
+        when(bpmnParsingService.parseMultipleProcesses(anyMap(), anyMap())).thenReturn(new HashMap<>());
+        when(codeGenerationService.generateCode(anyMap())).thenReturn(result);
+        TranslationResponse response = new TranslationResponse("collab", List.of(), Map.of(), Map.of(), Map.of(),
+                Map.of(), List.of());
+        when(responseBuilderService.buildTranslationResponse(any(), any())).thenReturn(response);
+    }
+
+    private static String request(String diagram) {
+        return "{\"processes\":{\"main\":\"" + diagram + "</bpmn:definitions>\"}}";
+    }
+
+    @Test
+    void repeatedRequestIsServedFromCacheWithSameETag() throws Exception {
+        stubPipeline();
+
+        MvcResult first = mockMvc.perform(post("/generate-code")
+                        .contentType(MediaType.APPLICATION_JSON).content(request(DIAGRAM)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.collaboration").value("collab"))
+                .andReturn();
+        String eTag = first.getResponse().getHeader("ETag");
+        assertNotNull(eTag);
+
+        mockMvc.perform(post("/generate-code")
+                        .contentType(MediaType.APPLICATION_JSON).content(request(DIAGRAM)))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", eTag))
+                .andExpect(jsonPath("$.collaboration").value("collab"));
+
+        verify(bpmnParsingService, times(1)).parseMultipleProcesses(anyMap(), anyMap());
+        verify(codeGenerationService, times(1)).generateCode(anyMap());
+        assertEquals(1, translationResponseCache.getStats().getHits());
+    }
+
+    @Test
+    void matchingIfNoneMatchGetsNotModified() throws Exception {
+        stubPipeline();
+
+        String eTag = mockMvc.perform(post("/generate-code")
+                        .contentType(MediaType.APPLICATION_JSON).content(request(DIAGRAM)))
+                .andReturn().getResponse().getHeader("ETag");
+
+        MvcResult notModified = mockMvc.perform(post("/generate-code")
+                        .header("If-None-Match", "W/\"other\", " + eTag)
+                        .contentType(MediaType.APPLICATION_JSON).content(request(DIAGRAM)))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string("ETag", eTag))
+                .andReturn();
+
+        assertEquals("", notModified.getResponse().getContentAsString());
+        verify(codeGenerationService, times(1)).generateCode(anyMap());
+    }
+
+    @Test
+    void wildcardIfNoneMatchIsNotTreatedAsAMatch() throws Exception {
+        stubPipeline();
+
+        String eTag = mockMvc.perform(post("/generate-code")
+                        .contentType(MediaType.APPLICATION_JSON).content(request(DIAGRAM)))
+                .andReturn().getResponse().getHeader("ETag");
+
+        mockMvc.perform(post("/generate-code")
+                        .header("If-None-Match", "*")
+                        .contentType(MediaType.APPLICATION_JSON).content(request(DIAGRAM)))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", eTag))
+                .andExpect(jsonPath("$.collaboration").value("collab"));
+    }
+
+    @Test
+    void changedModelGetsNewETag() throws Exception {
+        stubPipeline();
+
+        String eTag = mockMvc.perform(post("/generate-code")
+                        .contentType(MediaType.APPLICATION_JSON).content(request(DIAGRAM)))
+                .andReturn().getResponse().getHeader("ETag");
+
+        String changed = DIAGRAM.replace("name=\\\"p\\\"", "name=\\\"q\\\"");
+        MvcResult second = mockMvc.perform(post("/generate-code")
+                        .header("If-None-Match", eTag)
+                        .contentType(MediaType.APPLICATION_JSON).content(request(changed)))
+                .andExpect(status().isOk())
+                .andReturn();
+
+        assertNotEquals(eTag, second.getResponse().getHeader("ETag"));
+        verify(codeGenerationService, times(2)).generateCode(anyMap());
+    }
+
+    @Test
+    void failuresAreNotCached() throws Exception {
+        when(bpmnParsingService.parseMultipleProcesses(anyMap(), anyMap()))
+                .thenThrow(new RuntimeException("Failed to parse process: main"));
+        when(responseBuilderService.buildErrorResponse(anyString()))
+                .thenReturn(Map.of("error", "Translation failed"));
+
+        for (int i = 0; i < 2; i++) {
+            mockMvc.perform(post("/generate-code")
+                            .contentType(MediaType.APPLICATION_JSON).content(request(DIAGRAM)))
+                    .andExpect(status().isInternalServerError())
+                    .andExpect(header().doesNotExist("ETag"));
+        }
+
+        verify(bpmnParsingService, times(2)).parseMultipleProcesses(anyMap(), anyMap());
+    }
+
+    @Test
+    void missingProcessesIsAnError() throws Exception {
+        when(responseBuilderService.buildErrorResponse(anyString()))
+                .thenReturn(Map.of("error", "Translation failed: Missing 'processes' in request"));
+
+        mockMvc.perform(post("/generate-code")
+                        .contentType(MediaType.APPLICATION_JSON).content("{}"))
+                .andExpect(status().isInternalServerError())
+                .andExpect(jsonPath("$.error").value("Translation failed: Missing 'processes' in request"));
+
+        verifyNoInteractions(bpmnParsingService);
+    }
+
+    @Test
+    void missingProcessXmlIsAnErrorWithoutETag() throws Exception {
+        when(responseBuilderService.buildErrorResponse(anyString()))
+                .thenReturn(Map.of("error", "Translation failed: Missing XML for process 'main'"));
+
+        mockMvc.perform(post("/generate-code")
+                        .contentType(MediaType.APPLICATION_JSON).content("{\"processes\":{\"main\":null}}"))
+                .andExpect(status().isInternalServerError())
+                .andExpect(header().doesNotExist("ETag"))
+                .andExpect(jsonPath("$.error").value("Translation failed: Missing XML for process 'main'"));
+
+        verify(responseBuilderService).buildErrorResponse("Missing XML for process 'main'");
+        verifyNoInteractions(bpmnParsingService);
+    }
+}
@@ -0,0 +1,121 @@
+package com.example.B2XKlaim.Controller;
+
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.RejectedExecutionException;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import com.example.B2XKlaim.Service.ResponseBuilderService;
+import com.example.B2XKlaim.Service.TranslationJobService;
+import com.example.B2XKlaim.Service.dto.TranslationJob;
+import com.example.B2XKlaim.Service.dto.TranslationJob.Status;
+import com.example.B2XKlaim.Service.dto.TranslationResponse;
+
+/**
+ * Tests for the status codes and bodies of the /translations job API.
+ */
+@ExtendWith(MockitoExtension.class)
+class TranslationJobControllerTest {
+
+    private static final String REQUEST = "{\"processes\":{\"main\":\"<definitions/>\"}}";
+    private static final Instant SUBMITTED = Instant.parse("2024-01-01T00:00:00Z");
+
+    @Mock
+    private TranslationJobService translationJobService;
+
+    @Mock
+    private ResponseBuilderService responseBuilderService;
+
+    @InjectMocks
+    private TranslationJobController translationJobController;
+
+    private MockMvc mockMvc;
+
+    @BeforeEach
+    void setUp() {
+        mockMvc = MockMvcBuilders.standaloneSetup(translationJobController)
+                .setMessageConverters(new MappingJackson2HttpMessageConverter(Jackson2ObjectMapperBuilder.json().build()))
+                .build();
+        lenient().when(responseBuilderService.buildErrorResponse(anyString()))
+                .thenAnswer(invocation -> Map.of("error", "Translation failed: " + invocation.getArgument(0)));
+    }
+
+    @Test
+    void submitReturnsTheQueuedJob() throws Exception {
+        when(translationJobService.submit(Map.of("main", "<definitions/>")))
+                .thenReturn(new TranslationJob("42", Status.QUEUED, SUBMITTED, null, null, null, null));
+
+        mockMvc.perform(post("/translations").contentType(MediaType.APPLICATION_JSON).content(REQUEST))
+                .andExpect(status().isAccepted())
+                .andExpect(header().string("Location", "/translations/42"))
+                .andExpect(jsonPath("$.id").value("42"))
+                .andExpect(jsonPath("$.status").value("QUEUED"));
+    }
+
+    @Test
+    void fullQueueIsServiceUnavailable() throws Exception {
+        when(translationJobService.submit(anyMap())).thenThrow(new RejectedExecutionException("full"));
+
+        mockMvc.perform(post("/translations").contentType(MediaType.APPLICATION_JSON).content(REQUEST))
+                .andExpect(status().isServiceUnavailable())
+                .andExpect(header().string("Retry-After", TranslationJobController.RETRY_AFTER_SECONDS))
+                .andExpect(jsonPath("$.error").exists());
+    }
+
+    @Test
+    void missingProcessesIsBadRequest() throws Exception {
+        mockMvc.perform(post("/translations").contentType(MediaType.APPLICATION_JSON).content("{}"))
+                .andExpect(status().isBadRequest());
+
+        verifyNoInteractions(translationJobService);
+    }
+
+    @Test
+    void finishedJobCarriesTheResult() throws Exception {
+        TranslationResponse result = new TranslationResponse("net", List.of(), Map.of(), Map.of(), Map.of(),
+                Map.of(), List.of("Robot"));
+        when(translationJobService.get("42"))
+                .thenReturn(new TranslationJob("42", Status.SUCCEEDED, SUBMITTED, SUBMITTED, SUBMITTED, null, result));
+
+        mockMvc.perform(get("/translations/42"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.status").value("SUCCEEDED"))
+                .andExpect(jsonPath("$.result.collaboration").value("net"))
+                .andExpect(jsonPath("$.result.participants[0]").value("Robot"));
+    }
+
+    @Test
+    void unknownJobIsNotFound() throws Exception {
+        mockMvc.perform(get("/translations/missing")).andExpect(status().isNotFound());
+        mockMvc.perform(delete("/translations/missing")).andExpect(status().isNotFound());
+    }
+
+    @Test
+    void cancelReturnsTheCancelledJob() throws Exception {
+        when(translationJobService.cancel("42"))
+                .thenReturn(new TranslationJob("42", Status.CANCELLED, SUBMITTED, null, SUBMITTED, null, null));
+
+        mockMvc.perform(delete("/translations/42"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.status").value("CANCELLED"));
+    }
+}
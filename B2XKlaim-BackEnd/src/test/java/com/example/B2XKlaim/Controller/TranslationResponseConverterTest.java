@@ -0,0 +1,50 @@
+package com.example.B2XKlaim.Controller;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.MediaType;
+import org.springframework.mock.http.MockHttpOutputMessage;
+
+import com.example.B2XKlaim.Service.dto.ProcessEntry;
+import com.example.B2XKlaim.Service.dto.TranslationResponse;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Tests for the streaming writer of /generate-code responses: it must write
+ * the JSON Jackson writes for the response map.
+ */
+class TranslationResponseConverterTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final TranslationResponseConverter converter = new TranslationResponseConverter(objectMapper);
+
+    @Test
+    void writesTheJsonOfTheResponseMap() throws Exception {
+        TranslationResponse response = new TranslationResponse(
+                "net Collab physical \"localhost:9999\" {\n\tnode R {\n\t}\n}",
+                List.of(new ProcessEntry("Robot", "proc Robot() {\n  out('a\\b')@self\n}\n"),
+                        new ProcessEntry("Other", "proc Other(String x) {\n  println(\"é \")\n}\n")),
+                Map.of("CallActivity_1", List.of("proc Call() {\n}\n")),
+                Map.of("Script", List.of("proc S() {\n}\n", "proc T() {\n}\n")),
+                Map.of(),
+                Map.of("AndBranch", List.of("proc B() {\n}\n")),
+                List.of("Robot", "Other"));
+
+        MockHttpOutputMessage output = new MockHttpOutputMessage();
+        converter.write(response, MediaType.APPLICATION_JSON, output);
+
+        assertEquals(MediaType.APPLICATION_JSON, output.getHeaders().getContentType());
+        assertEquals(objectMapper.valueToTree(response.toMap()), objectMapper.readTree(output.getBodyAsBytes()));
+    }
+
+    @Test
+    void onlyWritesTranslationResponses() {
+        assertTrue(converter.canWrite(TranslationResponse.class, MediaType.APPLICATION_JSON));
+        assertFalse(converter.canWrite(Map.class, MediaType.APPLICATION_JSON));
+        assertFalse(converter.canRead(TranslationResponse.class, MediaType.APPLICATION_JSON));
+    }
+}
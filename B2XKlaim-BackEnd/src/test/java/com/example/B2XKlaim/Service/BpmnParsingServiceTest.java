@@ -0,0 +1,170 @@
+package com.example.B2XKlaim.Service;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import com.example.B2XKlaim.Service.Parser.BpmnContentHash;
+import com.example.B2XKlaim.Service.Parser.BpmnParser;
+import com.example.B2XKlaim.Service.bpmnElements.BpmnElement;
+import com.example.B2XKlaim.Service.bpmnElements.BpmnElements;
+import com.example.B2XKlaim.Service.bpmnElements.flows.SQ;
+import com.example.B2XKlaim.Service.cache.CacheStats;
+
+/**
+ * Tests for concurrent multi-process parsing and the parse cache in BpmnParsingService.
+ */
+class BpmnParsingServiceTest {
+
+    private static final String[] DIAGRAMS = {
+            "gateway_combinations/XOR_Simple.bpmn",
+            "gateway_combinations/AND_Simple.bpmn",
+            "gateway_combinations/LP_Simple.bpmn",
+            "gateway_combinations/XOR_AND_LP_Complex.bpmn",
+            "eb_gateway_patterns/EB_L4_Msg_Timer_XOR_AND_LP.bpmn",
+            "ComplexCollaboration.bpmn"
+    };
+
+    private final BpmnParsingService parsingService = new BpmnParsingService(4);
+
+    @AfterEach
+    void tearDown() {
+        parsingService.shutdown();
+    }
+
+    @Test
+    void parseMultipleProcesses_matchesSequentialParse() throws Exception {
+        Map<String, Object> processes = new LinkedHashMap<>();
+        Map<String, BpmnElements> sequential = new HashMap<>();
+        for (int i = 0; i < 30; i++) {
+            String processId = i == 0 ? "main" : "Sub_" + i;
+            String xml = loadResource(DIAGRAMS[i % DIAGRAMS.length]);
+            processes.put(processId, xml);
+
+            BpmnElements elements = new BpmnParser().parse(xml);
+            elements.analyzeInteractions();
+            sequential.put(processId, elements);
+        }
+
+        Map<String, BpmnElements> parsed = parsingService.parseMultipleProcesses(processes);
+
+        assertEquals(new ArrayList<>(sequential.keySet()), new ArrayList<>(parsed.keySet()),
+                "Merged results must iterate in the same order as a sequential parse");
+        for (String processId : sequential.keySet()) {
+            BpmnElements expected = sequential.get(processId);
+            BpmnElements actual = parsed.get(processId);
+            assertEquals(describe(expected), describe(actual), processId);
+            assertEquals(expected.getRequiredParticipantRefs(), actual.getRequiredParticipantRefs(), processId);
+        }
+    }
+
+    @Test
+    void parseMultipleProcesses_reportsFirstFailingProcessInOrder() throws Exception {
+        Map<String, Object> processes = new LinkedHashMap<>();
+        processes.put("main", loadResource(DIAGRAMS[0]));
+        processes.put("Broken_1", "<bpmn:definitions><unclosed>");
+        processes.put("Sub_1", loadResource(DIAGRAMS[1]));
+        processes.put("Broken_2", "not xml at all");
+
+        RuntimeException e = assertThrows(RuntimeException.class,
+                () -> parsingService.parseMultipleProcesses(processes));
+
+        assertEquals("Failed to parse process: Broken_1", e.getMessage());
+        assertNotNull(e.getCause());
+        assertEquals(1, e.getSuppressed().length);
+        assertEquals("Failed to parse process: Broken_2", e.getSuppressed()[0].getMessage());
+    }
+
+    @Test
+    void parseMultipleProcesses_handlesEmptyInput() {
+        assertTrue(parsingService.parseMultipleProcesses(Collections.emptyMap()).isEmpty());
+    }
+
+    @Test
+    void parseCache_reusesParsesOfUnchangedModels() throws Exception {
+        String xml = loadResource(DIAGRAMS[3]);
+        Map<String, Object> processes = new LinkedHashMap<>();
+        processes.put("main", xml);
+        processes.put("Sub_1", loadResource(DIAGRAMS[0]));
+
+        Map<String, BpmnElements> first = parsingService.parseMultipleProcesses(processes);
+        Map<String, BpmnElements> second = parsingService.parseMultipleProcesses(processes);
+
+        assertSame(first.get("main"), second.get("main"));
+        assertSame(first.get("Sub_1"), second.get("Sub_1"));
+        CacheStats stats = parsingService.getParseCacheStats();
+        assertEquals(2, stats.getMisses());
+        assertEquals(2, stats.getHits());
+        assertEquals(2, stats.getEntries());
+    }
+
+    @Test
+    void parseCache_takesPrecomputedContentHashesAsKeys() throws Exception {
+        String xml = loadResource(DIAGRAMS[0]);
+        Map<String, String> contentHashes = new TranslationResponseCache().key(Map.of("main", xml)).contentHashes();
+        assertEquals(Map.of("main", BpmnContentHash.of(xml)), contentHashes);
+
+        BpmnElements first = parsingService.parseMultipleProcesses(Map.of("main", xml), contentHashes).get("main");
+        BpmnElements second = parsingService.parseMultipleProcesses(Map.of("main", xml)).get("main");
+        assertSame(first, second);
+
+        // a supplied hash is used as is, not recomputed from the XML
+        BpmnElements aliased = parsingService.parseMultipleProcesses(Map.of("other", loadResource(DIAGRAMS[1])),
+                Map.of("other", contentHashes.get("main"))).get("other");
+        assertSame(first, aliased);
+    }
+
+    @Test
+    void parseCache_ignoresDiagramLayoutButNotModelChanges() throws Exception {
+        String xml = loadResource(DIAGRAMS[0]);
+        String moved = xml.replaceAll("x=\"(\\d+)\"", "x=\"$15\"").replace("\n", "\r\n");
+        assertNotEquals(xml, moved);
+        String renamed = xml.replaceFirst("name=\"", "name=\"renamed ");
+
+        BpmnElements original = parsingService.parseSingleProcess(xml);
+        assertSame(original, parsingService.parseSingleProcess(moved));
+        assertNotSame(original, parsingService.parseSingleProcess(renamed));
+        assertEquals(BpmnContentHash.of(xml), BpmnContentHash.of(moved));
+        assertNotEquals(BpmnContentHash.of(xml), BpmnContentHash.of(renamed));
+    }
+
+    @Test
+    void parseCache_returnsFrozenElements() throws Exception {
+        BpmnElements elements = parsingService.parseSingleProcess(loadResource(DIAGRAMS[0]));
+
+        assertThrows(UnsupportedOperationException.class, () -> elements.addElement(new SQ("F", "a", "b")));
+        assertThrows(UnsupportedOperationException.class, elements::analyzeInteractions);
+    }
+
+    @Test
+    void parseCache_canBeDisabled() throws Exception {
+        BpmnParsingService uncached = new BpmnParsingService(1, 0, 0);
+        try {
+            String xml = loadResource(DIAGRAMS[0]);
+            assertNotSame(uncached.parseSingleProcess(xml), uncached.parseSingleProcess(xml));
+            assertEquals(0, uncached.getParseCacheStats().getEntries());
+        } finally {
+            uncached.shutdown();
+        }
+    }
+
+    private static Map<String, String> describe(BpmnElements elements) {
+        Map<String, String> description = new TreeMap<>();
+        for (Map.Entry<String, BpmnElement> entry : elements.getElementsById().entrySet()) {
+            description.put(entry.getKey(), entry.getValue().toString());
+        }
+        return description;
+    }
+
+    private String loadResource(String path) throws Exception {
+        try (InputStream is = getClass().getClassLoader().getResourceAsStream(path)) {
+            assertNotNull(is, "Resource not found: " + path);
+            return new String(is.readAllBytes(), StandardCharsets.UTF_8);
+        }
+    }
+}
@@ -0,0 +1,158 @@
+package com.example.B2XKlaim.Service;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.DynamicTest;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestFactory;
+
+/**
+ * Equivalence tests for the single-pass proc formatter. The golden files in
+ * {@code formatter/} were written by the regex-based formatter it replaces:
+ * proc, call activity and AND branch code from the test diagrams, and one
+ * hand-written proc exercising every spacing rule. The random inputs are
+ * checked against a copy of that formatter.
+ */
+class CodeFormattingGoldenTest {
+
+    private static final String GOLDEN_DIR = "formatter/";
+
+    private final CodeFormattingService codeFormattingService = new CodeFormattingService();
+
+    @TestFactory
+    Stream<DynamicTest> testFormatterMatchesGoldenFiles() throws Exception {
+        Path base = Paths.get(getClass().getClassLoader().getResource(GOLDEN_DIR).toURI());
+        List<DynamicTest> tests = new ArrayList<>();
+        try (Stream<Path> files = Files.list(base)) {
+            for (Path raw : files.filter(p -> p.toString().endsWith(".raw.xklaim")).sorted().toList()) {
+                String name = raw.getFileName().toString().replace(".raw.xklaim", "");
+                Path expected = base.resolve(name + ".expected.xklaim");
+                tests.add(DynamicTest.dynamicTest(name, () ->
+                    assertEquals(read(expected), codeFormattingService.formatProcessCode(read(raw), "  "),
+                        name + ": formatted code differs from the golden file")));
+            }
+        }
+        assertFalse(tests.isEmpty(), "No golden files found in " + GOLDEN_DIR);
+        return tests.stream();
+    }
+
+    @Test
+    void testFormatterMatchesRegexFormatterOnRandomInput() {
+        String[] pieces = {
+            "proc ", "proc P(Locality a)", "if", "else", "eval", "new", "while", "in", "out", "('t')", "@", "self",
+            "(", ")", "{", "}", "} else {", ",", "/*", "*/", "//", "x", "_1", "==",
+            " ", " ", "  ", "\t", "\u000B", "\f", "\n", "\n", "\r\n", "\r", "\n \n", "\u0001", "\u2028", "\u0085"
+        };
+        Random random = new Random(21);
+        for (int i = 0; i < 20_000; i++) {
+            StringBuilder code = new StringBuilder();
+            for (int length = random.nextInt(30); length > 0; length--) {
+                code.append(pieces[random.nextInt(pieces.length)]);
+            }
+            String input = code.toString();
+            String indent = random.nextInt(4) == 0 ? "\t" : "  ";
+            assertEquals(RegexFormatter.formatProcessCode(input, indent),
+                codeFormattingService.formatProcessCode(input, indent),
+                () -> "for " + input.replace("\n", "\\n").replace("\r", "\\r"));
+        }
+    }
+
+    private static String read(Path path) throws IOException {
+        return Files.readString(path);
+    }
+
+    /**
+     * The formatter as it was before {@link ProcessCodeFormatter}.
+     */
+    private static final class RegexFormatter {
+
+        static String formatProcessCode(String rawCode, String indentString) {
+            if (rawCode == null || rawCode.isEmpty()) {
+                return "";
+            }
+            String cleanedCode = rawCode
+                .replaceAll("\\r\\n", "\n")
+                .replaceAll("\\r", "\n")
+                .replaceAll("\\n\\s*\\n\\s*\\n+", "\n\n")
+                .replaceAll("\\s+$", "")
+                .trim();
+
+            StringBuilder indentedCode = new StringBuilder();
+            int currentIndentLevel = 0;
+            String[] lines = cleanedCode.trim().split("\\r?\\n");
+
+            for (int i = 0; i < lines.length; i++) {
+                String trimmedLine = lines[i].trim();
+                if (trimmedLine.isEmpty()) {
+                    indentedCode.append("\n");
+                    continue;
+                }
+                if (trimmedLine.equals("}") || trimmedLine.startsWith("} else")) {
+                    if (currentIndentLevel > 0) {
+                        currentIndentLevel--;
+                    }
+                }
+                boolean isProcStart = i == 0 && trimmedLine.startsWith("proc ");
+                if (!isProcStart) {
+                    indentedCode.append(indentString.repeat(currentIndentLevel));
+                }
+                String formattedLine = formatLineContent(trimmedLine);
+                indentedCode.append(formattedLine);
+                indentedCode.append(shouldAddExtraLineBreak(formattedLine, i, lines) ? "\n\n" : "\n");
+                if (formattedLine.endsWith("{") && !formattedLine.startsWith("/*") && !formattedLine.startsWith("//")) {
+                    currentIndentLevel++;
+                }
+                if (formattedLine.contains("{") && formattedLine.endsWith("}")
+                        && !formattedLine.startsWith("/*") && !formattedLine.startsWith("//")) {
+                    if (currentIndentLevel > 0) {
+                        currentIndentLevel--;
+                    }
+                }
+            }
+            return indentedCode.toString().trim() + "\n";
+        }
+
+        private static String formatLineContent(String line) {
+            String formatted = line;
+            formatted = formatted.replaceAll("if\\s*\\(", "if (");
+            formatted = formatted.replaceAll("else\\s*\\{", "else {");
+            formatted = formatted.replaceAll("\\}\\s*else\\s*\\{", "} else {");
+            if (!formatted.trim().startsWith("/*") && !formatted.trim().startsWith("//")) {
+                formatted = formatted.replaceAll(",(?!\\s)", ", ");
+                formatted = formatted.replaceAll("\\)\\s*@\\s*", ")@");
+                formatted = formatted.replaceAll("eval\\s*\\(", "eval(");
+                formatted = formatted.replaceAll("new\\s+", "new ");
+                formatted = formatted.replaceAll("\\s{2,}", " ").trim();
+            }
+            return formatted;
+        }
+
+        private static boolean shouldAddExtraLineBreak(String currentLine, int currentIndex, String[] allLines) {
+            if (currentLine.matches("proc\\s+\\w+.*\\{")) {
+                return true;
+            }
+            if (currentIndex < allLines.length - 1) {
+                String nextLine = allLines[currentIndex + 1].trim();
+                if (nextLine.startsWith("else") || nextLine.equals("}")) {
+                    return false;
+                }
+            }
+            if (currentLine.equals("}") && currentIndex < allLines.length - 1) {
+                String nextLine = allLines[currentIndex + 1].trim();
+                if (!nextLine.equals("}") && !nextLine.startsWith("else")) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+}
@@ -3,7 +3,10 @@ package com.example.B2XKlaim.Service;
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
 
+import java.time.Duration;
 import java.util.*;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -15,6 +18,8 @@ import org.mockito.junit.jupiter.MockitoExtension;
 import com.example.B2XKlaim.Service.CodeGenerationService.GenerationResult;
 import com.example.B2XKlaim.Service.CodeGenerationService.ProcessCode;
 import com.example.B2XKlaim.Service.bpmnElements.BpmnElements;
+import com.example.B2XKlaim.Service.bpmnElements.activities.ST;
+import com.example.B2XKlaim.Service.codeGenerator.Generator;
 import com.example.B2XKlaim.Service.strategy.CollaborationCodeStrategy;
 import com.example.B2XKlaim.Service.strategy.StandaloneProcessStrategy;
 
@@ -155,4 +160,77 @@ class CodeGenerationServiceTest {
         assertEquals("fallback code", result.getCollaborationCode());
         verify(standaloneProcessStrategy, times(1)).canHandle(mainBpmnElements); // Only called once in selectStrategy
     }
-}
\ No newline at end of file
+
+    @Test
+    void testAuxiliaryStagesRunWhileStrategyRuns() throws Exception {
+        // Given - the strategy only finishes once the script task stage has started
+        CountDownLatch scriptTasksStarted = new CountDownLatch(1);
+        lenient().when(mainBpmnElements.getElementsByType(any())).thenReturn(List.of());
+        when(mainBpmnElements.getElementsByType(ST.class)).thenAnswer(invocation -> {
+            scriptTasksStarted.countDown();
+            return List.of();
+        });
+        when(collaborationCodeStrategy.canHandle(mainBpmnElements)).thenReturn(true);
+        when(collaborationCodeStrategy.getStrategyName()).thenReturn("CollaborationCodeStrategy");
+        when(collaborationCodeStrategy.generateCollaborationCode(any(), eq(mainBpmnElements))).thenAnswer(invocation ->
+            scriptTasksStarted.await(5, TimeUnit.SECONDS) ? "collaboration" : "timed out");
+        when(collaborationCodeStrategy.generateProcesses(any(), eq(mainBpmnElements), anyString()))
+            .thenReturn(new ArrayList<>());
+        when(collaborationCodeStrategy.extractParticipants(mainBpmnElements))
+            .thenReturn(new HashSet<>());
+
+        // When
+        GenerationResult result = codeGenerationService.generateCode(testProcesses);
+
+        // Then - every stage is timed, in execution order
+        assertEquals("collaboration", result.getCollaborationCode());
+        assertEquals(List.of("strategy", "callActivities", "scriptTasks", "eventSubProcesses", "andBranchProcs"),
+            new ArrayList<>(result.getStageTimings().keySet()));
+        assertTrue(result.getStageTimings().values().stream().noneMatch(Duration::isNegative));
+    }
+
+    @Test
+    void testEliminatedTupleOperationsAreReported() throws Exception {
+        // Given - the strategy's optimizer removes one rendezvous pair
+        when(collaborationCodeStrategy.canHandle(mainBpmnElements)).thenReturn(true);
+        when(collaborationCodeStrategy.getStrategyName()).thenReturn("CollaborationCodeStrategy");
+        when(collaborationCodeStrategy.generateCollaborationCode(any(), eq(mainBpmnElements))).thenAnswer(invocation -> {
+            invocation.<Generator>getArgument(0).recordEliminatedTupleOperations(2);
+            return "collaboration";
+        });
+        when(collaborationCodeStrategy.generateProcesses(any(), eq(mainBpmnElements), anyString()))
+            .thenReturn(new ArrayList<>());
+        when(collaborationCodeStrategy.extractParticipants(mainBpmnElements))
+            .thenReturn(new HashSet<>());
+
+        // When
+        GenerationResult result = codeGenerationService.generateCode(testProcesses);
+
+        // Then
+        assertEquals(2, result.getEliminatedTupleOperations());
+    }
+
+    @Test
+    void testAuxiliaryStageFailureIsReported() throws Exception {
+        // Given - the script task stage fails
+        lenient().when(mainBpmnElements.getElementsByType(any())).thenReturn(List.of());
+        when(mainBpmnElements.getElementsByType(ST.class)).thenThrow(new IllegalStateException("Stage error"));
+        when(collaborationCodeStrategy.canHandle(mainBpmnElements)).thenReturn(true);
+        when(collaborationCodeStrategy.getStrategyName()).thenReturn("CollaborationCodeStrategy");
+        when(collaborationCodeStrategy.generateCollaborationCode(any(), eq(mainBpmnElements)))
+            .thenReturn("collaboration");
+        when(collaborationCodeStrategy.generateProcesses(any(), eq(mainBpmnElements), anyString()))
+            .thenReturn(new ArrayList<>());
+        when(collaborationCodeStrategy.extractParticipants(mainBpmnElements))
+            .thenReturn(new HashSet<>());
+
+        // When & Then
+        RuntimeException exception = assertThrows(RuntimeException.class, () -> {
+            codeGenerationService.generateCode(testProcesses);
+        });
+
+        assertEquals("Code generation failed", exception.getMessage());
+        assertInstanceOf(IllegalStateException.class, exception.getCause());
+        assertEquals("Stage error", exception.getCause().getMessage());
+    }
+}
@@ -0,0 +1,145 @@
+package com.example.B2XKlaim.Service;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.example.B2XKlaim.Service.dto.TranslationJob;
+import com.example.B2XKlaim.Service.dto.TranslationJob.Status;
+import com.example.B2XKlaim.Service.dto.TranslationResponse;
+
+/**
+ * Tests for the translation job lifecycle: queueing, completion, failure,
+ * cancellation and the queue limit.
+ */
+class TranslationJobServiceTest {
+
+    private static final Map<String, String> PROCESSES = Map.of("main", "<definitions/>");
+    private static final TranslationResponse RESPONSE = new TranslationResponse("net", List.of(), Map.of(),
+            Map.of(), Map.of(), Map.of(), List.of());
+
+    private TranslationService translationService;
+    private TranslationJobService jobs;
+
+    /** Released to let a blocked translation finish. */
+    private final CountDownLatch release = new CountDownLatch(1);
+
+    @BeforeEach
+    void setUp() {
+        translationService = mock(TranslationService.class);
+        jobs = new TranslationJobService(translationService, 1, 1, 2);
+    }
+
+    @AfterEach
+    void tearDown() {
+        release.countDown();
+        jobs.shutdown();
+    }
+
+    private TranslationJob awaitFinished(String id) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        TranslationJob job = jobs.get(id);
+        while (!job.status().isFinished() && System.nanoTime() < deadline) {
+            Thread.sleep(5);
+            job = jobs.get(id);
+        }
+        return job;
+    }
+
+    /** Makes translations block until {@link #release} and reports when one has started. */
+    private CountDownLatch blockTranslations() {
+        CountDownLatch started = new CountDownLatch(1);
+        when(translationService.translate(anyMap())).thenAnswer(invocation -> {
+            started.countDown();
+            release.await();
+            return RESPONSE;
+        });
+        return started;
+    }
+
+    @Test
+    void succeededJobHoldsTheResponse() throws Exception {
+        when(translationService.translate(PROCESSES)).thenReturn(RESPONSE);
+
+        TranslationJob queued = jobs.submit(PROCESSES);
+        TranslationJob done = awaitFinished(queued.id());
+
+        assertEquals(Status.SUCCEEDED, done.status());
+        assertSame(RESPONSE, done.result());
+        assertNull(done.error());
+        assertNotNull(done.startedAt());
+        assertFalse(done.finishedAt().isBefore(done.startedAt()));
+    }
+
+    @Test
+    void failedJobHoldsTheError() throws Exception {
+        when(translationService.translate(PROCESSES)).thenThrow(new RuntimeException("Failed to parse process: main"));
+
+        TranslationJob done = awaitFinished(jobs.submit(PROCESSES).id());
+
+        assertEquals(Status.FAILED, done.status());
+        assertEquals("Failed to parse process: main", done.error());
+        assertNull(done.result());
+    }
+
+    @Test
+    void fullQueueRejectsJobs() throws Exception {
+        CountDownLatch started = blockTranslations();
+        TranslationJob running = jobs.submit(PROCESSES);
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        TranslationJob queued = jobs.submit(PROCESSES);
+
+        assertThrows(RejectedExecutionException.class, () -> jobs.submit(PROCESSES));
+
+        assertEquals(Status.RUNNING, jobs.get(running.id()).status());
+        assertEquals(Status.QUEUED, jobs.get(queued.id()).status());
+    }
+
+    @Test
+    void cancelledJobsNeverRunAndStayCancelled() throws Exception {
+        CountDownLatch started = blockTranslations();
+        TranslationJob running = jobs.submit(PROCESSES);
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        TranslationJob queued = jobs.submit(PROCESSES);
+
+        assertEquals(Status.CANCELLED, jobs.cancel(queued.id()).status());
+        assertEquals(Status.CANCELLED, jobs.cancel(running.id()).status());
+        // The cancelled job left the queue, so there is room again
+        TranslationJob next = jobs.submit(PROCESSES);
+        release.countDown();
+
+        assertEquals(Status.SUCCEEDED, awaitFinished(next.id()).status());
+        assertEquals(Status.CANCELLED, jobs.get(running.id()).status());
+        assertNull(jobs.get(running.id()).result());
+        verify(translationService, times(2)).translate(anyMap());
+    }
+
+    @Test
+    void oldFinishedJobsAreForgotten() throws Exception {
+        when(translationService.translate(PROCESSES)).thenReturn(RESPONSE);
+
+        String first = awaitFinished(jobs.submit(PROCESSES).id()).id();
+        String second = awaitFinished(jobs.submit(PROCESSES).id()).id();
+        String third = awaitFinished(jobs.submit(PROCESSES).id()).id();
+        // The worker retires a job just after finishing it
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (jobs.get(first) != null && System.nanoTime() < deadline) {
+            Thread.sleep(5);
+        }
+
+        assertNull(jobs.get(first));
+        assertNull(jobs.cancel(first));
+        assertNotNull(jobs.get(second));
+        assertNotNull(jobs.get(third));
+    }
+}
@@ -0,0 +1,113 @@
+package com.example.B2XKlaim.Service;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import com.example.B2XKlaim.Service.CodeGenerationService.GenerationResult;
+import com.example.B2XKlaim.Service.bpmnElements.BpmnElements;
+import com.example.B2XKlaim.Service.dto.TranslationResponse;
+
+/**
+ * Tests for batch translation: each item looked up, parsed and generated on
+ * the batch pool, results completing independently of slower items, failures
+ * confined to their item.
+ */
+@ExtendWith(MockitoExtension.class)
+class TranslationServiceTest {
+
+    private static final Map<String, String> CACHED = Map.of("main", "<cached/>");
+    private static final Map<String, String> BROKEN = Map.of("main", "<broken/>");
+    private static final Map<String, String> FRESH = Map.of("main", "<fresh/>");
+    private static final Map<String, String> SLOW = Map.of("main", "<slow/>");
+    private static final TranslationResponse RESPONSE = new TranslationResponse("net", List.of(), Map.of(),
+            Map.of(), Map.of(), Map.of(), List.of());
+
+    @Mock
+    private BpmnParsingService bpmnParsingService;
+
+    @Mock
+    private CodeGenerationService codeGenerationService;
+
+    @Mock
+    private ResponseBuilderService responseBuilderService;
+
+    @Spy
+    private TranslationResponseCache translationResponseCache = new TranslationResponseCache();
+
+    @InjectMocks
+    private TranslationService translationService;
+
+    @AfterEach
+    void tearDown() {
+        translationService.shutdown();
+    }
+
+    @Test
+    void translateBatchTranslatesEachItemOnItsOwn() {
+        TranslationResponse cached = new TranslationResponse("cached net", List.of(), Map.of(),
+                Map.of(), Map.of(), Map.of(), List.of());
+        translationResponseCache.put(translationResponseCache.digest(CACHED), cached, 10);
+
+        Map<String, BpmnElements> parsed = Map.of("main", new BpmnElements());
+        when(bpmnParsingService.parseMultipleProcesses(eq(BROKEN), anyMap()))
+                .thenThrow(new RuntimeException("Failed to parse process: main"));
+        when(bpmnParsingService.parseMultipleProcesses(eq(FRESH), anyMap())).thenReturn(parsed);
+        stubGeneration(parsed);
+
+        List<CompletableFuture<TranslationResponse>> results =
+                translationService.translateBatch(List.of(CACHED, BROKEN, FRESH));
+
+        assertEquals(3, results.size());
+        assertSame(cached, results.get(0).join());
+        CompletionException failure = assertThrows(CompletionException.class, () -> results.get(1).join());
+        assertEquals("Failed to parse process: main", failure.getCause().getMessage());
+        assertSame(RESPONSE, results.get(2).join());
+        assertSame(RESPONSE, translationResponseCache.get(translationResponseCache.digest(FRESH)));
+        verify(bpmnParsingService, never()).parseMultipleProcesses(eq(CACHED), anyMap());
+    }
+
+    @Test
+    void firstResultArrivesBeforeTheLastItemIsParsed() throws Exception {
+        Map<String, BpmnElements> parsed = Map.of("main", new BpmnElements());
+        CountDownLatch release = new CountDownLatch(1);
+        when(bpmnParsingService.parseMultipleProcesses(eq(FRESH), anyMap())).thenReturn(parsed);
+        when(bpmnParsingService.parseMultipleProcesses(eq(SLOW), anyMap())).thenAnswer(invocation -> {
+            release.await(5, TimeUnit.SECONDS);
+            return parsed;
+        });
+        stubGeneration(parsed);
+
+        // returns while the slow item is still waiting to be parsed
+        List<CompletableFuture<TranslationResponse>> results = translationService.translateBatch(List.of(FRESH, SLOW));
+        try {
+            assertSame(RESPONSE, results.get(0).get(5, TimeUnit.SECONDS));
+            assertFalse(results.get(1).isDone());
+        } finally {
+            release.countDown();
+        }
+        assertSame(RESPONSE, results.get(1).get(5, TimeUnit.SECONDS));
+    }
+
+    private void stubGeneration(Map<String, BpmnElements> parsed) {
+        GenerationResult generated = mock(GenerationResult.class);
+        when(generated.getFullGeneratedCode()).thenReturn("net");
+        when(codeGenerationService.generateCode(parsed)).thenReturn(generated);
+        when(responseBuilderService.buildTranslationResponse(generated, "net")).thenReturn(RESPONSE);
+    }
+}
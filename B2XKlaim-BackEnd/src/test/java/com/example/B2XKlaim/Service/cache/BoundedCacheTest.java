@@ -0,0 +1,70 @@
+package com.example.B2XKlaim.Service.cache;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.Test;
+
+class BoundedCacheTest {
+
+    @Test
+    void evictsLeastRecentlyUsedBeyondEntryLimit() {
+        BoundedCache<String, String> cache = new BoundedCache<>(2, 100);
+        cache.put("a", "A", 1);
+        cache.put("b", "B", 1);
+        assertEquals("A", cache.get("a"));   // b is now least recently used
+        cache.put("c", "C", 1);
+
+        assertNull(cache.get("b"));
+        assertEquals("A", cache.get("a"));
+        assertEquals("C", cache.get("c"));
+        assertEquals(1, cache.stats().getEvictions());
+    }
+
+    @Test
+    void evictsUntilWeightFitsBudget() {
+        BoundedCache<String, String> cache = new BoundedCache<>(10, 10);
+        cache.put("a", "A", 4);
+        cache.put("b", "B", 4);
+        cache.put("c", "C", 7);
+
+        assertNull(cache.get("a"));
+        assertNull(cache.get("b"));
+        assertEquals("C", cache.get("c"));
+        assertEquals(7, cache.stats().getWeight());
+    }
+
+    @Test
+    void neverStoresEntriesHeavierThanBudget() {
+        BoundedCache<String, String> cache = new BoundedCache<>(10, 10);
+        cache.put("a", "A", 4);
+        cache.put("huge", "H", 11);
+
+        assertNull(cache.get("huge"));
+        assertEquals("A", cache.get("a"));
+    }
+
+    @Test
+    void replacingAnEntryAdjustsWeight() {
+        BoundedCache<String, String> cache = new BoundedCache<>(10, 10);
+        cache.put("a", "A", 4);
+        cache.put("a", "A2", 7);
+
+        assertEquals("A2", cache.get("a"));
+        assertEquals(7, cache.stats().getWeight());
+        assertEquals(1, cache.size());
+    }
+
+    @Test
+    void countsHitsAndMisses() {
+        BoundedCache<String, String> cache = new BoundedCache<>(10, 10);
+        cache.get("a");
+        cache.put("a", "A", 1);
+        cache.get("a");
+        cache.get("a");
+
+        CacheStats stats = cache.stats();
+        assertEquals(2, stats.getHits());
+        assertEquals(1, stats.getMisses());
+        assertEquals(2.0 / 3, stats.getHitRate(), 1e-9);
+    }
+}
@@ -1,7 +1,354 @@
 package com.example.B2XKlaim.ServiceTest.Parser;
 
+import com.example.B2XKlaim.Service.Parser.BpmnDocumentIndex;
+import com.example.B2XKlaim.Service.Parser.BpmnElementFactory;
+import com.example.B2XKlaim.Service.Parser.BpmnParser;
+import com.example.B2XKlaim.Service.bpmnElements.BpmnElement;
+import com.example.B2XKlaim.Service.bpmnElements.BpmnElements;
+import com.example.B2XKlaim.Service.bpmnElements.ParticipantOwnership;
+import com.example.B2XKlaim.Service.bpmnElements.events.SIC;
+import com.example.B2XKlaim.Service.bpmnElements.flows.MessageFLow;
+import com.example.B2XKlaim.Service.bpmnElements.gateways.XOR;
+import com.example.B2XKlaim.Service.bpmnElements.objects.pool.PL;
+import org.junit.jupiter.api.Test;
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+import org.w3c.dom.NodeList;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+import static com.example.B2XKlaim.utile.XmlUtiles.convertStringToXMLDocument;
 import static org.junit.jupiter.api.Assertions.*;
 
 class BpmnElementFactoryTest {
 
-}
\ No newline at end of file
+    private static final String HEADER =
+            "<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n" +
+            "<bpmn:definitions xmlns:bpmn=\"http://www.omg.org/spec/BPMN/20100524/MODEL\" " +
+            "xmlns:bpmndi=\"http://www.omg.org/spec/BPMN/20100524/DI\" id=\"Definitions_1\">\n";
+
+    /**
+     * Builds a collaboration with one participant whose process is a chain of
+     * {@code diamonds} XOR split/merge pairs, each branch holding one script task.
+     */
+    static String diamondChain(int diamonds) {
+        StringBuilder xml = new StringBuilder(HEADER);
+        xml.append("  <bpmn:collaboration id=\"Collab_1\">\n")
+           .append("    <bpmn:participant id=\"Participant_1\" name=\"Robot\" processRef=\"Process_1\" />\n")
+           .append("  </bpmn:collaboration>\n")
+           .append("  <bpmn:process id=\"Process_1\" name=\"Mission\" isExecutable=\"false\">\n")
+           .append("    <bpmn:startEvent id=\"Start\" name=\"start\"><bpmn:outgoing>F_in_0</bpmn:outgoing></bpmn:startEvent>\n")
+           .append("    <bpmn:sequenceFlow id=\"F_in_0\" sourceRef=\"Start\" targetRef=\"Split_0\" />\n");
+        for (int i = 0; i < diamonds; i++) {
+            String next = i + 1 < diamonds ? "Split_" + (i + 1) : "End";
+            xml.append("    <bpmn:exclusiveGateway id=\"Split_").append(i).append("\">")
+               .append("<bpmn:incoming>F_in_").append(i).append("</bpmn:incoming>")
+               .append("<bpmn:outgoing>F_a_").append(i).append("</bpmn:outgoing>")
+               .append("<bpmn:outgoing>F_b_").append(i).append("</bpmn:outgoing></bpmn:exclusiveGateway>\n");
+            for (String branch : new String[]{"a", "b"}) {
+                xml.append("    <bpmn:scriptTask id=\"Task_").append(branch).append('_').append(i)
+                   .append("\" name=\"task").append(branch).append(i).append("\">")
+                   .append("<bpmn:incoming>F_").append(branch).append('_').append(i).append("</bpmn:incoming>")
+                   .append("<bpmn:outgoing>F_").append(branch).append("m_").append(i).append("</bpmn:outgoing></bpmn:scriptTask>\n")
+                   .append("    <bpmn:sequenceFlow id=\"F_").append(branch).append('_').append(i)
+                   .append("\" sourceRef=\"Split_").append(i).append("\" targetRef=\"Task_").append(branch).append('_').append(i).append("\">")
+                   .append("<bpmn:conditionExpression>x == ").append(branch).append("</bpmn:conditionExpression></bpmn:sequenceFlow>\n")
+                   .append("    <bpmn:sequenceFlow id=\"F_").append(branch).append("m_").append(i)
+                   .append("\" sourceRef=\"Task_").append(branch).append('_').append(i)
+                   .append("\" targetRef=\"Merge_").append(i).append("\" />\n");
+            }
+            xml.append("    <bpmn:exclusiveGateway id=\"Merge_").append(i).append("\">")
+               .append("<bpmn:incoming>F_am_").append(i).append("</bpmn:incoming>")
+               .append("<bpmn:incoming>F_bm_").append(i).append("</bpmn:incoming>")
+               .append("<bpmn:outgoing>F_in_").append(i + 1).append("</bpmn:outgoing></bpmn:exclusiveGateway>\n")
+               .append("    <bpmn:sequenceFlow id=\"F_in_").append(i + 1).append("\" sourceRef=\"Merge_").append(i)
+               .append("\" targetRef=\"").append(next).append("\" />\n");
+        }
+        xml.append("    <bpmn:endEvent id=\"End\" name=\"end\"><bpmn:incoming>F_in_").append(diamonds)
+           .append("</bpmn:incoming></bpmn:endEvent>\n")
+           .append("  </bpmn:process>\n")
+           .append("  <bpmndi:BPMNDiagram id=\"Diagram_1\"><bpmndi:BPMNPlane id=\"Plane_1\" bpmnElement=\"Collab_1\">");
+        for (int i = 0; i < diamonds; i++) {
+            xml.append("<bpmndi:BPMNShape id=\"Split_").append(i).append("_di\" bpmnElement=\"Split_").append(i).append("\" />");
+        }
+        xml.append("</bpmndi:BPMNPlane></bpmndi:BPMNDiagram>\n")
+           .append("</bpmn:definitions>\n");
+        return xml.toString();
+    }
+
+    /**
+     * Builds a process whose body is a complete binary tree of nested gateways,
+     * {@code depth} levels deep: XOR splits on even levels, AND splits on odd
+     * levels, each closed by its own merge, with a script task at every leaf.
+     */
+    static String nestedGatewayTree(int depth) {
+        StringBuilder nodes = new StringBuilder();
+        StringBuilder flows = new StringBuilder();
+        appendSubtree(nodes, flows, "", 0, depth);
+        String entry = entryOf("", 0, depth);
+        String exit = exitOf("", 0, depth);
+        return HEADER +
+                "  <bpmn:collaboration id=\"Collab_1\">\n" +
+                "    <bpmn:participant id=\"Participant_1\" name=\"Robot\" processRef=\"Process_1\" />\n" +
+                "  </bpmn:collaboration>\n" +
+                "  <bpmn:process id=\"Process_1\" name=\"Mission\" isExecutable=\"false\">\n" +
+                "    <bpmn:startEvent id=\"Start\" name=\"start\"><bpmn:outgoing>In_" + entry + "</bpmn:outgoing></bpmn:startEvent>\n" +
+                "    <bpmn:sequenceFlow id=\"In_" + entry + "\" sourceRef=\"Start\" targetRef=\"" + entry + "\" />\n" +
+                nodes + flows +
+                "    <bpmn:sequenceFlow id=\"Out_" + exit + "\" sourceRef=\"" + exit + "\" targetRef=\"End\" />\n" +
+                "    <bpmn:endEvent id=\"End\" name=\"end\"><bpmn:incoming>Out_" + exit + "</bpmn:incoming></bpmn:endEvent>\n" +
+                "  </bpmn:process>\n" +
+                "</bpmn:definitions>\n";
+    }
+
+    private static String entryOf(String path, int level, int depth) {
+        return (level == depth ? "Task_" : "Split_") + path;
+    }
+
+    private static String exitOf(String path, int level, int depth) {
+        return (level == depth ? "Task_" : "Merge_") + path;
+    }
+
+    // Every node has one flow "In_<id>" into it and one flow "Out_<id>" out of it,
+    // except splits (outgoing flows are their children's In_) and merges (incoming
+    // flows are their children's Out_).
+    private static void appendSubtree(StringBuilder nodes, StringBuilder flows, String path, int level, int depth) {
+        if (level == depth) {
+            nodes.append("    <bpmn:scriptTask id=\"Task_").append(path).append("\" name=\"t").append(path).append("\">")
+                 .append("<bpmn:incoming>In_Task_").append(path).append("</bpmn:incoming>")
+                 .append("<bpmn:outgoing>Out_Task_").append(path).append("</bpmn:outgoing></bpmn:scriptTask>\n");
+            return;
+        }
+        String tag = level % 2 == 0 ? "bpmn:exclusiveGateway" : "bpmn:parallelGateway";
+        String split = "Split_" + path;
+        String merge = "Merge_" + path;
+        String[] children = {path + "a", path + "b"};
+
+        nodes.append("    <").append(tag).append(" id=\"").append(split).append("\">")
+             .append("<bpmn:incoming>In_").append(split).append("</bpmn:incoming>");
+        for (String child : children) {
+            nodes.append("<bpmn:outgoing>In_").append(entryOf(child, level + 1, depth)).append("</bpmn:outgoing>");
+        }
+        nodes.append("</").append(tag).append(">\n");
+
+        for (String child : children) {
+            String entry = entryOf(child, level + 1, depth);
+            String exit = exitOf(child, level + 1, depth);
+            flows.append("    <bpmn:sequenceFlow id=\"In_").append(entry).append("\" sourceRef=\"").append(split)
+                 .append("\" targetRef=\"").append(entry).append("\">");
+            if (level % 2 == 0) {
+                flows.append("<bpmn:conditionExpression>x == ").append(child).append("</bpmn:conditionExpression>");
+            }
+            flows.append("</bpmn:sequenceFlow>\n")
+                 .append("    <bpmn:sequenceFlow id=\"Out_").append(exit).append("\" sourceRef=\"").append(exit)
+                 .append("\" targetRef=\"").append(merge).append("\" />\n");
+            appendSubtree(nodes, flows, child, level + 1, depth);
+        }
+
+        nodes.append("    <").append(tag).append(" id=\"").append(merge).append("\">");
+        for (String child : children) {
+            nodes.append("<bpmn:incoming>Out_").append(exitOf(child, level + 1, depth)).append("</bpmn:incoming>");
+        }
+        nodes.append("<bpmn:outgoing>Out_").append(merge).append("</bpmn:outgoing></").append(tag).append(">\n");
+    }
+
+    @Test
+    void index_resolvesElementsFlowsAndAdjacency() {
+        Document doc = convertStringToXMLDocument(diamondChain(2));
+        BpmnDocumentIndex index = new BpmnDocumentIndex(doc);
+
+        assertEquals("bpmn:exclusiveGateway", index.getElementById("Split_1").getTagName());
+        assertEquals("Task_a_0", index.getSequenceFlow("F_a_0").getAttribute("targetRef"));
+        assertEquals("Task_b_1", index.getFlowTarget("F_b_1").getAttribute("id"));
+        assertNull(index.getSequenceFlow("Split_0"), "Non-flow ids must not resolve as flows");
+
+        assertEquals(List.of("F_am_0", "F_bm_0"), index.getIncomingFlowIds("Merge_0"));
+        assertEquals(List.of("F_a_1", "F_b_1"), index.getOutgoingFlowIds("Split_1"));
+        assertEquals(List.of("F_am_1", "F_bm_1"), index.getFlowsTo("Merge_1"));
+        assertEquals(List.of("F_a_0", "F_b_0"), index.getFlowsFrom("Split_0"));
+        assertTrue(index.getOutgoingFlowIds("End").isEmpty());
+    }
+
+    @Test
+    void index_tracksEnclosingProcessAndParticipants() {
+        Document doc = convertStringToXMLDocument(diamondChain(1));
+        BpmnDocumentIndex index = new BpmnDocumentIndex(doc);
+
+        assertEquals("Process_1", index.getProcessIdOf("Task_a_0"));
+        assertEquals("Process_1", index.getProcessIdOf("F_in_0"));
+        assertNull(index.getProcessIdOf("Participant_1"));
+        assertEquals("Mission", index.getProcessName("Process_1"));
+        assertEquals("Robot", index.getParticipant("Participant_1").getAttribute("name"));
+        assertTrue(index.getDocumentOrder("Split_0") < index.getDocumentOrder("Merge_0"));
+    }
+
+    @Test
+    void index_keepsFirstElementForDuplicateIds() {
+        String xml = "<bpmn:definitions xmlns:bpmn=\"http://www.omg.org/spec/BPMN/20100524/MODEL\">" +
+                "<bpmn:process id=\"P\"><bpmn:scriptTask id=\"dup\" name=\"first\" /></bpmn:process>" +
+                "<bpmn:process id=\"Q\"><bpmn:scriptTask id=\"dup\" name=\"second\" /></bpmn:process>" +
+                "</bpmn:definitions>";
+        BpmnDocumentIndex index = new BpmnDocumentIndex(convertStringToXMLDocument(xml));
+
+        assertEquals("first", index.getElementById("dup").getAttribute("name"));
+        assertEquals("P", index.getProcessIdOf("dup"));
+    }
+
+    @Test
+    void factory_usesIndexForParticipantProcessName() {
+        Document doc = convertStringToXMLDocument(diamondChain(1));
+        BpmnElementFactory factory = new BpmnElementFactory(doc);
+
+        Element participant = factory.getIndex().getParticipant("Participant_1");
+        BpmnElement element = factory.createBpmnElement(participant);
+
+        assertInstanceOf(PL.class, element);
+        assertEquals("Mission", ((PL) element).getProcessName());
+    }
+
+    @Test
+    void factory_buildsXorFromIndexedFlows() {
+        Document doc = convertStringToXMLDocument(diamondChain(3));
+        BpmnElementFactory factory = new BpmnElementFactory(doc);
+
+        BpmnElement element = factory.createBpmnElement(factory.getIndex().getElementById("Split_1"));
+
+        assertInstanceOf(XOR.class, element);
+        XOR xor = (XOR) element;
+        assertEquals("F_in_2", xor.getOutgoingEdge());
+        assertEquals(List.of("Task_a_1"), xor.getConditionElementMap().get("x == a"));
+        assertEquals(List.of("Task_b_1"), xor.getConditionElementMap().get("x == b"));
+    }
+
+    @Test
+    void factory_analysesEachNestedGatewayOnce() {
+        Document doc = convertStringToXMLDocument(nestedGatewayTree(10));
+        BpmnDocumentIndex index = new BpmnDocumentIndex(doc);
+
+        BpmnElementFactory memoized = new BpmnElementFactory(doc, index, true);
+        BpmnElementFactory unmemoized = new BpmnElementFactory(doc, index, false);
+        Map<String, String> withCache = createAll(doc, memoized);
+        Map<String, String> withoutCache = createAll(doc, unmemoized);
+
+        assertEquals(withoutCache, withCache);
+        // 1023 splits and 1023 merges; each is analysed at most once
+        assertTrue(memoized.getGatewayAnalysisCount() <= 2046,
+                "Analyses with memo: " + memoized.getGatewayAnalysisCount());
+        // without the memo a gateway k levels deep is analysed k+1 times
+        assertTrue(unmemoized.getGatewayAnalysisCount() > 4 * memoized.getGatewayAnalysisCount(),
+                "Analyses without memo: " + unmemoized.getGatewayAnalysisCount());
+
+        XOR root = (XOR) memoized.createBpmnElement(index.getElementById("Split_"));
+        assertEquals("Out_Merge_", root.getOutgoingEdge());
+        assertEquals(List.of("Split_a"), root.getConditionElementMap().get("x == a"));
+    }
+
+    /**
+     * Runs the factory over every element in document order, as the parser does.
+     */
+    private static Map<String, String> createAll(Document doc, BpmnElementFactory factory) {
+        Map<String, String> created = new TreeMap<>();
+        NodeList nodes = doc.getElementsByTagName("*");
+        for (int i = 0; i < nodes.getLength(); i++) {
+            BpmnElement element = factory.createBpmnElement((Element) nodes.item(i));
+            if (element != null) {
+                created.put(((Element) nodes.item(i)).getAttribute("id"), element.toString());
+            }
+        }
+        return created;
+    }
+
+    private static final String TWO_POOLS = HEADER +
+            "  <bpmn:collaboration id=\"Collab_2\">\n" +
+            "    <bpmn:participant id=\"Pool_A\" name=\"Sender\" processRef=\"Process_A\" />\n" +
+            "    <bpmn:participant id=\"Pool_B\" name=\"Catcher\" processRef=\"Process_B\" />\n" +
+            "    <bpmn:messageFlow id=\"Msg_1\" sourceRef=\"Throw_A\" targetRef=\"Task_B\" />\n" +
+            "  </bpmn:collaboration>\n" +
+            "  <bpmn:process id=\"Process_A\" name=\"SendMission\">\n" +
+            "    <bpmn:startEvent id=\"Start_A\" name=\"sa\"><bpmn:outgoing>FA1</bpmn:outgoing></bpmn:startEvent>\n" +
+            "    <bpmn:intermediateThrowEvent id=\"Throw_A\" name=\"go\"><bpmn:incoming>FA1</bpmn:incoming>" +
+            "<bpmn:outgoing>FA2</bpmn:outgoing><bpmn:signalEventDefinition signalRef=\"Sig_1\" /></bpmn:intermediateThrowEvent>\n" +
+            "    <bpmn:endEvent id=\"End_A\" name=\"ea\"><bpmn:incoming>FA2</bpmn:incoming></bpmn:endEvent>\n" +
+            "    <bpmn:sequenceFlow id=\"FA1\" sourceRef=\"Start_A\" targetRef=\"Throw_A\" />\n" +
+            "    <bpmn:sequenceFlow id=\"FA2\" sourceRef=\"Throw_A\" targetRef=\"End_A\" />\n" +
+            "  </bpmn:process>\n" +
+            "  <bpmn:process id=\"Process_B\" name=\"CatchMission\">\n" +
+            "    <bpmn:startEvent id=\"Start_B\" name=\"sb\"><bpmn:outgoing>FB1</bpmn:outgoing></bpmn:startEvent>\n" +
+            "    <bpmn:intermediateCatchEvent id=\"Catch_B\" name=\"wait\"><bpmn:incoming>FB1</bpmn:incoming>" +
+            "<bpmn:outgoing>FB2</bpmn:outgoing><bpmn:signalEventDefinition signalRef=\"Sig_1\" /></bpmn:intermediateCatchEvent>\n" +
+            "    <bpmn:scriptTask id=\"Task_B\" name=\"work\"><bpmn:incoming>FB2</bpmn:incoming><bpmn:outgoing>FB3</bpmn:outgoing></bpmn:scriptTask>\n" +
+            "    <bpmn:endEvent id=\"End_B\" name=\"eb\"><bpmn:incoming>FB3</bpmn:incoming></bpmn:endEvent>\n" +
+            "    <bpmn:sequenceFlow id=\"FB1\" sourceRef=\"Start_B\" targetRef=\"Catch_B\" />\n" +
+            "    <bpmn:sequenceFlow id=\"FB2\" sourceRef=\"Catch_B\" targetRef=\"Task_B\" />\n" +
+            "    <bpmn:sequenceFlow id=\"FB3\" sourceRef=\"Task_B\" targetRef=\"End_B\" />\n" +
+            "  </bpmn:process>\n" +
+            "  <bpmn:signal id=\"Sig_1\" name=\"Sig_1\" />\n" +
+            "</bpmn:definitions>\n";
+
+    @Test
+    void ownership_mapsElementsToProcessAndParticipant() {
+        BpmnElementFactory factory = new BpmnElementFactory(convertStringToXMLDocument(TWO_POOLS));
+        ParticipantOwnership ownership = factory.getParticipantOwnership();
+
+        assertEquals("Process_B", ownership.getProcessId("Catch_B"));
+        assertEquals("Pool_B", ownership.getParticipantId("Catch_B"));
+        assertEquals("Pool_A", ownership.getParticipantId("FA2"));
+        assertEquals("Catcher", ownership.getParticipantName("Pool_B"));
+        assertNull(ownership.getParticipantId("Msg_1"), "Collaboration children belong to no pool");
+    }
+
+    @Test
+    void factory_resolvesMessageFlowEndpointsThroughOwnership() {
+        BpmnElementFactory factory = new BpmnElementFactory(convertStringToXMLDocument(TWO_POOLS));
+
+        MessageFLow flow = (MessageFLow) factory.createBpmnElement(factory.getIndex().getElementById("Msg_1"));
+
+        assertEquals("Pool_A", flow.getSenderId());
+        assertEquals("Sender", flow.getSenderName());
+        assertEquals("Pool_B", flow.getReceiverId());
+        assertEquals("Catcher", flow.getReceiverName());
+    }
+
+    @Test
+    void analyzeInteractions_skipsSignalCatcherWithoutProcessId() throws Exception {
+        BpmnElements elements = new BpmnParser().parse(TWO_POOLS);
+        elements.analyzeInteractions();
+
+        // the sender is resolved through ownership, but the catcher carries no
+        // processId and so, as before ownership existed, is not linked to a pool
+        assertEquals("Sender", ((SIC) elements.getElementById("Catch_B")).getSignalSenderName());
+        assertNull(elements.getRequiredParticipantRefs().get("Pool_B"));
+        assertEquals(Set.of("Pool_B"), elements.getRequiredParticipantRefs().get("Pool_A"));
+    }
+
+    @Test
+    void parse_doesLinearWorkInDiagramSize() throws Exception {
+        int small = 250;
+        int large = small * 8;
+
+        int smallAnalyses = gatewayAnalyses(small);
+        int largeAnalyses = gatewayAnalyses(large);
+
+        // one analysis per split and per merge, not one per enclosing gateway,
+        // so eight times the diamonds is exactly eight times the analyses
+        assertTrue(smallAnalyses <= 2 * small, "Analyses for " + small + " diamonds: " + smallAnalyses);
+        assertEquals(8 * smallAnalyses, largeAnalyses);
+
+        parseAndCheck(diamondChain(large), large);
+    }
+
+    private static int gatewayAnalyses(int diamonds) throws Exception {
+        Document doc = convertStringToXMLDocument(diamondChain(diamonds));
+        BpmnElementFactory factory = new BpmnElementFactory(doc);
+        createAll(doc, factory);
+        return factory.getGatewayAnalysisCount();
+    }
+
+    private static void parseAndCheck(String xml, int diamonds) throws Exception {
+        BpmnElements elements = new BpmnParser().parse(xml);
+        assertEquals(diamonds, elements.getElementsByType(XOR.class).size());
+    }
+}
@@ -0,0 +1,126 @@
+package com.example.B2XKlaim.ServiceTest.Parser;
+
+import com.example.B2XKlaim.Service.Parser.BpmnParser;
+import com.example.B2XKlaim.Service.Parser.BpmnParser.ReaderMode;
+import com.example.B2XKlaim.Service.Parser.BpmnStreamReader;
+import com.example.B2XKlaim.Service.bpmnElements.BpmnElement;
+import com.example.B2XKlaim.Service.bpmnElements.BpmnElements;
+import org.junit.jupiter.api.DynamicTest;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestFactory;
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Checks that the StAX front end yields the same model as the DOM path.
+ */
+public class BpmnStreamReaderTest {
+
+    private static final String[] DIAGRAMS = {
+            "ComplexCollaboration.bpmn",
+            "gateway_combinations/XOR_Simple.bpmn",
+            "gateway_combinations/AND_Simple.bpmn",
+            "gateway_combinations/LP_Simple.bpmn",
+            "gateway_combinations/XOR_in_AND.bpmn",
+            "gateway_combinations/AND_in_XOR.bpmn",
+            "gateway_combinations/LP_with_XOR.bpmn",
+            "gateway_combinations/LP_with_AND.bpmn",
+            "gateway_combinations/AND_in_LP.bpmn",
+            "gateway_combinations/XOR_in_LP.bpmn",
+            "gateway_combinations/XOR_AND_LP_Complex.bpmn",
+            "eb_gateway_patterns/EB_TwoMessages.bpmn",
+            "eb_gateway_patterns/EB_TwoMessages_Timer.bpmn",
+            "eb_gateway_patterns/EB_SingleMessage_Timer.bpmn",
+            "eb_gateway_patterns/EB_Message_Timer_WithXOR.bpmn",
+            "eb_gateway_patterns/EB_TwoMsg_Timer_WithAND.bpmn",
+            "eb_gateway_patterns/EB_L3_Message_Timer_XOR_AND.bpmn",
+            "eb_gateway_patterns/EB_L4_Msg_Timer_XOR_AND_LP.bpmn"
+    };
+
+    @TestFactory
+    Stream<DynamicTest> streamingAndDomParsesAreEquivalent() {
+        List<DynamicTest> tests = new ArrayList<>();
+        for (String diagram : DIAGRAMS) {
+            tests.add(DynamicTest.dynamicTest(diagram, () -> {
+                String xml = loadResource(diagram);
+                BpmnElements dom = new BpmnParser(ReaderMode.DOM).parse(xml);
+                BpmnElements streamed = new BpmnParser(ReaderMode.STREAMING).parse(xml);
+                assertEquals(describe(dom), describe(streamed));
+            }));
+        }
+        return tests.stream();
+    }
+
+    @Test
+    public void test_defaultParserStreams() {
+        assertEquals(ReaderMode.STREAMING, new BpmnParser().getReaderMode());
+    }
+
+    @Test
+    public void test_diagramInterchangeIsSkipped() throws Exception {
+        Document document = new BpmnStreamReader().read(loadResource("ComplexCollaboration.bpmn"));
+
+        assertEquals(0, document.getElementsByTagName("bpmndi:BPMNDiagram").getLength());
+        assertEquals(0, document.getElementsByTagName("bpmndi:BPMNShape").getLength());
+        assertEquals(0, document.getElementsByTagName("dc:Bounds").getLength());
+        assertTrue(document.getElementsByTagName("bpmn:process").getLength() > 0);
+    }
+
+    @Test
+    public void test_qualifiedNamesAndTextArePreserved() throws Exception {
+        String xml = "<bpmn:definitions xmlns:bpmn=\"http://www.omg.org/spec/BPMN/20100524/MODEL\">\n" +
+                "  <bpmn:sequenceFlow id=\"F1\" sourceRef=\"A\" targetRef=\"B\">\n" +
+                "    <bpmn:conditionExpression><![CDATA[x > 1]]></bpmn:conditionExpression>\n" +
+                "  </bpmn:sequenceFlow>\n" +
+                "  <bpmn:scriptTask id=\"T\" name=\"t\"><bpmn:documentation> </bpmn:documentation></bpmn:scriptTask>\n" +
+                "</bpmn:definitions>";
+        Document document = new BpmnStreamReader().read(xml);
+
+        Element root = document.getDocumentElement();
+        assertEquals("bpmn:definitions", root.getTagName());
+        assertEquals("http://www.omg.org/spec/BPMN/20100524/MODEL", root.getAttribute("xmlns:bpmn"));
+
+        Element flow = (Element) document.getElementsByTagName("bpmn:sequenceFlow").item(0);
+        assertEquals("A", flow.getAttribute("sourceRef"));
+        assertEquals(1, flow.getChildNodes().getLength(), "Indentation must not become DOM nodes");
+        assertEquals("x > 1", flow.getTextContent());
+
+        // whitespace that is the whole content of a leaf element is kept
+        assertEquals(" ", document.getElementsByTagName("bpmn:documentation").item(0).getTextContent());
+    }
+
+    @Test
+    public void test_externalEntitiesAreRejected() {
+        String xml = "<?xml version=\"1.0\"?>\n" +
+                "<!DOCTYPE foo [ <!ENTITY xxe SYSTEM \"file:///etc/passwd\"> ]>\n" +
+                "<bpmn:definitions xmlns:bpmn=\"http://www.omg.org/spec/BPMN/20100524/MODEL\">" +
+                "<bpmn:process id=\"P\" name=\"&xxe;\"/></bpmn:definitions>";
+
+        assertThrows(Exception.class, () -> new BpmnStreamReader().read(xml));
+    }
+
+    private static Map<String, String> describe(BpmnElements elements) {
+        Map<String, String> description = new TreeMap<>();
+        for (Map.Entry<String, BpmnElement> entry : elements.getElementsById().entrySet()) {
+            description.put(entry.getKey(), entry.getValue().toString());
+        }
+        return description;
+    }
+
+    private String loadResource(String path) throws Exception {
+        try (InputStream is = getClass().getClassLoader().getResourceAsStream(path)) {
+            assertNotNull(is, "Resource not found: " + path);
+            return new String(is.readAllBytes(), StandardCharsets.UTF_8);
+        }
+    }
+}
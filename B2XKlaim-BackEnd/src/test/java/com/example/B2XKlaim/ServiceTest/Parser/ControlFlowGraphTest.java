@@ -0,0 +1,145 @@
+package com.example.B2XKlaim.ServiceTest.Parser;
+
+import com.example.B2XKlaim.Service.Parser.BpmnDocumentIndex;
+import com.example.B2XKlaim.Service.Parser.graph.ControlFlowGraph;
+import org.junit.jupiter.api.Test;
+
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static com.example.B2XKlaim.utile.XmlUtiles.convertStringToXMLDocument;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ControlFlowGraphTest {
+
+    /**
+     * start → split ─┬→ a ─┐
+     *                └→ b ─┴→ merge → end
+     */
+    private static ControlFlowGraph diamond() {
+        return ControlFlowGraph.builder()
+                .addEdge("start", "split")
+                .addEdge("split", "a")
+                .addEdge("split", "b")
+                .addEdge("a", "merge")
+                .addEdge("b", "merge")
+                .addEdge("merge", "end")
+                .build();
+    }
+
+    /**
+     * start → head → body → check ─┬→ head   (loop back)
+     *                              └→ end
+     */
+    private static ControlFlowGraph loop() {
+        return ControlFlowGraph.builder()
+                .addEdge("start", "head")
+                .addEdge("head", "body")
+                .addEdge("body", "check")
+                .addEdge("check", "head")
+                .addEdge("check", "end")
+                .build();
+    }
+
+    @Test
+    public void test_postDominatorPairsSplitWithMerge() {
+        ControlFlowGraph graph = diamond();
+
+        assertEquals("merge", graph.immediatePostDominator("split"));
+        assertEquals("merge", graph.immediatePostDominator("a"));
+        assertEquals("end", graph.immediatePostDominator("merge"));
+        assertNull(graph.immediatePostDominator("end"));
+    }
+
+    @Test
+    public void test_nestedSplitsResolveToTheirOwnMerge() {
+        ControlFlowGraph graph = ControlFlowGraph.builder()
+                .addEdge("outer", "inner")
+                .addEdge("outer", "c")
+                .addEdge("inner", "a")
+                .addEdge("inner", "b")
+                .addEdge("a", "innerMerge")
+                .addEdge("b", "innerMerge")
+                .addEdge("innerMerge", "outerMerge")
+                .addEdge("c", "outerMerge")
+                .addEdge("outerMerge", "end")
+                .build();
+
+        assertEquals("innerMerge", graph.immediatePostDominator("inner"));
+        assertEquals("outerMerge", graph.immediatePostDominator("outer"));
+    }
+
+    @Test
+    public void test_branchesEndingSeparatelyHaveNoMerge() {
+        ControlFlowGraph graph = ControlFlowGraph.builder()
+                .addEdge("split", "end1")
+                .addEdge("split", "end2")
+                .build();
+
+        assertNull(graph.immediatePostDominator("split"));
+    }
+
+    @Test
+    public void test_loopIsOneComponent() {
+        ControlFlowGraph graph = loop();
+
+        assertTrue(graph.inSameCycle("head", "check"));
+        assertTrue(graph.inSameCycle("body", "head"));
+        assertFalse(graph.inSameCycle("start", "head"));
+        assertFalse(graph.inSameCycle("check", "end"));
+        assertEquals("end", graph.immediatePostDominator("check"));
+    }
+
+    @Test
+    public void test_diamondHasNoCycles() {
+        ControlFlowGraph graph = diamond();
+
+        for (String node : graph.getNodeIds()) {
+            assertFalse(graph.inSameCycle(node, node), node);
+        }
+        assertEquals(List.of("a", "b"), graph.predecessors("merge"));
+        assertTrue(graph.hasEdge("split", "b"));
+        assertFalse(graph.hasEdge("b", "split"));
+    }
+
+    @Test
+    public void test_selfLoopIsACycle() {
+        ControlFlowGraph graph = ControlFlowGraph.builder()
+                .addEdge("a", "a")
+                .addEdge("a", "b")
+                .build();
+
+        assertTrue(graph.inSameCycle("a", "a"));
+        assertFalse(graph.inSameCycle("b", "b"));
+    }
+
+    @Test
+    public void test_longChainsDoNotOverflowTheStack() {
+        ControlFlowGraph.Builder builder = ControlFlowGraph.builder();
+        int length = 200_000;
+        for (int i = 0; i < length; i++) {
+            builder.addEdge("n" + i, "n" + (i + 1));
+        }
+        builder.addEdge("n" + length, "n0");
+        builder.addEdge("n" + (length / 2), "exit");
+        ControlFlowGraph graph = builder.build();
+
+        assertTrue(graph.inSameCycle("n0", "n" + length));
+        assertEquals("n1", graph.immediatePostDominator("n0"));
+        assertEquals("n" + (length / 2), graph.immediatePostDominator("n" + (length / 2 - 1)));
+        assertEquals("exit", graph.immediatePostDominator("n" + (length / 2)));
+    }
+
+    @Test
+    public void test_documentIndexBuildsGraphFromSequenceFlows() throws Exception {
+        String xml;
+        try (InputStream is = getClass().getClassLoader().getResourceAsStream("gateway_combinations/LP_Simple.bpmn")) {
+            xml = new String(is.readAllBytes(), StandardCharsets.UTF_8);
+        }
+        ControlFlowGraph graph = new BpmnDocumentIndex(convertStringToXMLDocument(xml)).getControlFlowGraph();
+
+        long cyclicNodes = graph.getNodeIds().stream().filter(node -> graph.inSameCycle(node, node)).count();
+        assertTrue(cyclicNodes >= 2, "A loop diagram must contain a cycle: " + graph);
+    }
+}
@@ -0,0 +1,50 @@
+package com.example.B2XKlaim.ServiceTest.Parser;
+
+import com.example.B2XKlaim.Service.Parser.BpmnParser;
+import com.example.B2XKlaim.Service.Parser.BpmnParser.ReaderMode;
+import com.example.B2XKlaim.Service.Parser.XmlParsers;
+import org.junit.jupiter.api.Test;
+import org.w3c.dom.Document;
+import org.xml.sax.InputSource;
+
+import javax.xml.parsers.DocumentBuilder;
+import java.io.StringReader;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class XmlParsersTest {
+
+    private static final String XXE = "<?xml version=\"1.0\"?>\n" +
+            "<!DOCTYPE foo [ <!ENTITY xxe SYSTEM \"file:///etc/passwd\"> ]>\n" +
+            "<bpmn:definitions xmlns:bpmn=\"http://www.omg.org/spec/BPMN/20100524/MODEL\">" +
+            "<bpmn:process id=\"P\" name=\"&xxe;\"/></bpmn:definitions>";
+
+    @Test
+    public void test_builderIsReusedPerThreadAndNotShared() throws Exception {
+        DocumentBuilder first = XmlParsers.documentBuilder();
+        DocumentBuilder again = XmlParsers.documentBuilder();
+        DocumentBuilder other = CompletableFuture.supplyAsync(XmlParsers::documentBuilder).get();
+
+        assertSame(first, again);
+        assertNotSame(first, other);
+    }
+
+    @Test
+    public void test_builderIsNamespaceAwareAndKeepsQualifiedNames() throws Exception {
+        String xml = "<bpmn:definitions xmlns:bpmn=\"http://www.omg.org/spec/BPMN/20100524/MODEL\">" +
+                "<bpmn:scriptTask id=\"T\"/></bpmn:definitions>";
+        Document document = XmlParsers.documentBuilder().parse(new InputSource(new StringReader(xml)));
+
+        assertTrue(XmlParsers.documentBuilder().isNamespaceAware());
+        assertEquals("http://www.omg.org/spec/BPMN/20100524/MODEL", document.getDocumentElement().getNamespaceURI());
+        assertEquals(1, document.getElementsByTagName("bpmn:scriptTask").getLength());
+    }
+
+    @Test
+    public void test_domParserRejectsDoctypesAndExternalEntities() {
+        assertThrows(Exception.class,
+                () -> XmlParsers.documentBuilder().parse(new InputSource(new StringReader(XXE))));
+        assertThrows(Exception.class, () -> new BpmnParser(ReaderMode.DOM).parse(XXE));
+    }
+}
@@ -0,0 +1,253 @@
+package com.example.B2XKlaim.ServiceTest.bpmnElements;
+
+import com.example.B2XKlaim.Service.bpmnElements.BpmnElement;
+import com.example.B2XKlaim.Service.bpmnElements.BpmnElements;
+import com.example.B2XKlaim.Service.bpmnElements.activities.ST;
+import com.example.B2XKlaim.Service.bpmnElements.events.NEE;
+import com.example.B2XKlaim.Service.bpmnElements.events.NSE;
+import com.example.B2XKlaim.Service.bpmnElements.flows.SQ;
+import com.example.B2XKlaim.Service.bpmnElements.gateways.AND;
+import com.example.B2XKlaim.Service.bpmnElements.gateways.XOR;
+import com.example.B2XKlaim.Service.bpmnElements.objects.pool.PL;
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for BpmnElements navigation (next element, gateway successors, owning
+ * participant) and its type and process indexes.
+ */
+public class BpmnElementsTest {
+
+    private BpmnElements buildElements(BpmnElement... elements) {
+        BpmnElements bpmnElements = new BpmnElements();
+        for (BpmnElement el : elements) {
+            bpmnElements.addElement(el);
+        }
+        return bpmnElements;
+    }
+
+    // start → f1 → task → f2 → end, owned by participant p1 through process proc1
+    private final PL pool = PL.builder().id("p1").name("robot").ProcessId("proc1").build();
+    private final NSE start = NSE.builder().id("start").outgoingEdge("f1").ProcessId("proc1").build();
+    private final SQ f1 = SQ.builder().id("f1").source("start").target("task").build();
+    private final ST task = ST.builder().id("task").name("Work").outgoingEdge("f2").build();
+    private final SQ f2 = SQ.builder().id("f2").source("task").target("end").build();
+    private final NEE end = NEE.builder().id("end").incomingEdge("f2").build();
+
+    @Test
+    public void nextElement_followsOutgoingSequenceFlow() {
+        BpmnElements elements = buildElements(pool, start, f1, task, f2, end);
+
+        assertSame(task, elements.getNextElement(start));
+        assertSame(end, elements.getNextElement(task));
+        assertNull(elements.getNextElement(end));
+    }
+
+    @Test
+    public void nextElementById_unknownIdOrEndReturnsNull() {
+        BpmnElements elements = buildElements(pool, start, f1, task, f2, end);
+
+        assertSame(task, elements.getNextElementById("start"));
+        assertNull(elements.getNextElementById("missing"));
+        assertNull(elements.getNextElementById("end"));
+        assertNull(elements.getNextElementById(null));
+    }
+
+    @Test
+    public void gatewaySuccessors_areBranchEntriesInBranchOrder() {
+        ST a = ST.builder().id("a").name("A").build();
+        ST b = ST.builder().id("b").name("B").build();
+
+        Map<String, List<String>> conditions = new LinkedHashMap<>();
+        conditions.put("x > 1", List.of("a"));
+        conditions.put("default", List.of("b"));
+        XOR xor = new XOR("xor", conditions, "fOut");
+
+        Map<Integer, List<String>> branches = new LinkedHashMap<>();
+        branches.put(0, List.of("b"));
+        branches.put(1, List.of("a"));
+        AND and = AND.builder().id("and").flowElementMap(branches).build();
+
+        BpmnElements elements = buildElements(xor, and, a, b);
+
+        assertEquals(List.of(a, b), elements.getGatewaySuccessors(xor));
+        assertEquals(List.of(b, a), elements.getGatewaySuccessors(and));
+    }
+
+    @Test
+    public void gatewaySuccessors_ofPlainElementIsNextElement() {
+        BpmnElements elements = buildElements(pool, start, f1, task, f2, end);
+
+        assertEquals(List.of(task), elements.getGatewaySuccessors(start));
+        assertTrue(elements.getGatewaySuccessors(end).isEmpty());
+    }
+
+    @Test
+    public void owningParticipant_resolvedFromProcessId() {
+        BpmnElements elements = buildElements(pool, start, f1, task, f2, end);
+
+        assertSame(pool, elements.getOwningParticipant("start"));
+        assertNull(elements.getOwningParticipant("task"), "task carries no processId and no document ownership");
+        assertNull(elements.getOwningParticipant("missing"));
+    }
+
+    @Test
+    public void startEventsForProcess_matchOnProcessId() {
+        BpmnElements elements = buildElements(pool, start, f1, task, f2, end);
+
+        assertEquals(List.of(start), elements.findStartEventsForProcess("proc1"));
+        assertTrue(elements.findStartEventsForProcess("proc2").isEmpty());
+    }
+
+    // ── Indexes ──
+
+    @Test
+    public void typeQueries_keepElementMapOrder() {
+        BpmnElements elements = new BpmnElements();
+        for (int i = 0; i < 50; i++) {
+            elements.addElement(ST.builder().id("task" + i).name("T" + i).build());
+            elements.addElement(SQ.builder().id("flow" + i).build());
+        }
+
+        List<BpmnElement> expected = elements.getElementsById().values().stream()
+                .filter(ST.class::isInstance).toList();
+
+        assertEquals(expected, elements.getElementsByType(ST.class));
+        assertEquals(expected, elements.getElementsByElementType(BpmnElements.ElementType.ST));
+        assertEquals(List.copyOf(elements.getElementsById().values()), elements.getElementsByType(BpmnElement.class));
+    }
+
+    @Test
+    public void typeQueries_returnCachedUnmodifiableViews() {
+        BpmnElements elements = buildElements(pool, start, f1, task, f2, end);
+
+        List<SQ> flows = elements.getElementsByType(SQ.class);
+
+        assertSame(flows, elements.getElementsByType(SQ.class));
+        assertThrows(UnsupportedOperationException.class, () -> flows.add(f1));
+        assertThrows(UnsupportedOperationException.class, () -> elements.getAllStartEvents().clear());
+        assertThrows(UnsupportedOperationException.class, () -> elements.getParticipantsMap().clear());
+    }
+
+    @Test
+    public void addElement_updatesIndexes() {
+        BpmnElements elements = buildElements(pool, start, f1, task);
+        assertEquals(1, elements.getElementsByType(SQ.class).size());
+        assertTrue(elements.getElementsByElementType(BpmnElements.ElementType.NEE).isEmpty());
+
+        elements.addElement(f2);
+        elements.addElement(end);
+
+        assertEquals(2, elements.getElementsByType(SQ.class).size());
+        assertEquals(List.of(end), elements.getElementsByElementType(BpmnElements.ElementType.NEE));
+    }
+
+    @Test
+    public void processQuery_returnsElementsOfThatProcess() {
+        ST other = ST.builder().id("other").name("Other").build();
+        other.setProcessId("proc2");
+        BpmnElements elements = buildElements(pool, start, f1, task, f2, end, other);
+
+        assertEquals(Set.of(pool, start), new HashSet<>(elements.getElementsByProcessId("proc1")), "the pool references proc1 too");
+        assertEquals(List.of(other), elements.getElementsByProcessId("proc2"));
+        assertTrue(elements.getElementsByProcessId("missing").isEmpty());
+        assertTrue(elements.getElementsByProcessId(null).isEmpty());
+    }
+
+    @Test
+    public void frozenContainer_sharesOneIndexAcrossThreads() throws Exception {
+        BpmnElements frozen = buildElements(pool, start, f1, task, f2, end).toSnapshot();
+
+        List<Callable<List<SQ>>> readers = new ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+            readers.add(() -> frozen.getElementsByType(SQ.class));
+        }
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            List<SQ> first = frozen.getElementsByType(SQ.class);
+            for (Future<List<SQ>> result : executor.invokeAll(readers)) {
+                assertSame(first, result.get());
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    // ── Frozen snapshot ──
+
+    @Test
+    public void frozenSnapshot_navigatesLikeTheOriginal() {
+        BpmnElements original = buildElements(pool, start, f1, task, f2, end);
+        BpmnElements frozen = buildElements(pool, start, f1, task, f2, end).toSnapshot();
+
+        assertTrue(frozen.isFrozen());
+        assertFalse(original.isFrozen());
+        assertEquals(List.copyOf(original.getElementsById().keySet()), List.copyOf(frozen.getElementsById().keySet()));
+        assertSame(task, frozen.getNextElement(start));
+        assertSame(end, frozen.getNextElement(task));
+        assertNull(frozen.getNextElement(end));
+        assertSame(end, frozen.getElementAfterSequenceFlow("f2"));
+        assertNull(frozen.getElementAfterSequenceFlow("missing"));
+        assertEquals(List.of(task), frozen.getGatewaySuccessors(start));
+    }
+
+    @Test
+    public void frozenSnapshot_fallsBackForDanglingFlows() {
+        ST dangling = ST.builder().id("dangling").name("D").outgoingEdge("nowhere").build();
+        SQ broken = SQ.builder().id("broken").source("x").target("missing").build();
+        BpmnElements frozen = buildElements(dangling, broken).toSnapshot();
+
+        assertNull(frozen.getNextElement(dangling));
+        assertNull(frozen.getElementAfterSequenceFlow("broken"));
+    }
+
+    @Test
+    public void frozenSnapshot_sharesOneInstancePerId() {
+        NSE otherStart = NSE.builder().id("start2").ProcessId(new String("proc1")).build();
+        BpmnElements frozen = buildElements(pool, start, otherStart, f1, task).toSnapshot();
+
+        assertSame(pool.getProcessId(), otherStart.getProcessId());
+        assertSame(start.getProcessId(), otherStart.getProcessId());
+        assertSame(f1.getTarget(), task.getId());
+        assertSame(frozen.getElementsById().keySet().stream().filter("task"::equals).findFirst().orElseThrow(), task.getId());
+    }
+
+    @Test
+    public void frozenSnapshot_precomputesStartEventsPerProcess() {
+        BpmnElements frozen = buildElements(pool, start, f1, task, f2, end).toSnapshot();
+
+        List<BpmnElement> starts = frozen.findStartEventsForProcess("proc1");
+        assertEquals(List.of(start), starts);
+        assertSame(starts, frozen.findStartEventsForProcess("proc1"));
+        assertTrue(frozen.findStartEventsForProcess("proc2").isEmpty());
+    }
+
+    @Test
+    public void toSnapshot_handsElementsOverToTheSnapshot() {
+        BpmnElements elements = buildElements(pool, start, f1, task);
+        BpmnElements frozen = elements.toSnapshot();
+
+        assertSame(task, frozen.getElementById("task"));
+        assertTrue(elements.getElementsById().isEmpty());
+        assertNull(elements.getElementById("task"));
+        assertThrows(UnsupportedOperationException.class, () -> elements.addElement(end));
+    }
+
+    @Test
+    public void frozenSnapshot_rejectsMutation() {
+        BpmnElements frozen = buildElements(pool, start, f1).toSnapshot();
+
+        assertThrows(UnsupportedOperationException.class, () -> frozen.addElement(task));
+        assertThrows(UnsupportedOperationException.class, () -> frozen.setElementsById(new HashMap<>()));
+        assertThrows(UnsupportedOperationException.class, () -> frozen.setRequiredParticipantRefs(new HashMap<>()));
+        assertThrows(UnsupportedOperationException.class, frozen::analyzeInteractions);
+        assertSame(frozen, frozen.toSnapshot());
+    }
+}
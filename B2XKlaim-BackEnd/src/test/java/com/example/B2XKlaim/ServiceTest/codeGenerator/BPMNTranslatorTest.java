@@ -408,6 +408,37 @@ public class BPMNTranslatorTest {
         assertTrue(result.contains("in('flow2')@self"), "Should consume flow2 token");
     }
 
+    @Test
+    public void test_traversal_dispatches_each_element_to_its_visit_method() throws Exception {
+        // Start → Flow1 → ScriptTask → Flow2 → MessageEnd
+        NSE start = NSE.builder().id("start").name("start").outgoingEdge("flow1").ProcessId("proc1").build();
+        SQ flow1 = SQ.builder().id("flow1").source("start").target("task1").build();
+        ST task1 = ST.builder().name("MyTask").id("task1").outgoingEdge("flow2").build();
+        SQ flow2 = SQ.builder().id("flow2").source("task1").target("end").build();
+        MEE end = MEE.builder().id("end").name("end").messageId("msg1").build();
+
+        BpmnElements elements = buildElements(start, flow1, task1, flow2, end);
+        elements.analyzeInteractions();
+        BPMNTranslator translator = new BPMNTranslator(elements);
+
+        String expected = translator.visit(start) + translator.visit(flow1)
+                + translator.visit(task1) + translator.visit(flow2) + translator.visit(end);
+
+        assertEquals(expected, translator.translateProcessBody(start));
+    }
+
+    @Test
+    public void test_collab_accept_dispatches_to_visit_collab() throws Exception {
+        PL robot1 = PL.builder().name("robot1").id("p1").ProcessId("proc1").ProcessName("Robot1Behavior").build();
+        Collab collab = new Collab("collab1", Arrays.asList(robot1));
+        NSE start1 = NSE.builder().id("start1").name("start").ProcessId("proc1").ProcessName("Robot1Behavior").build();
+
+        BpmnElements elements = buildElements(collab, robot1, start1);
+        elements.analyzeInteractions();
+
+        assertEquals(new BPMNTranslator(elements).visit(collab), collab.accept(new BPMNTranslator(elements)));
+    }
+
     @Test
     public void test_collaboration_with_message_flow() throws Exception {
         // Two participants exchanging a message
@@ -449,4 +480,40 @@ public class BPMNTranslatorTest {
         assertTrue(result.contains("out('msg1')@"), "Robot1 should send message");
         assertTrue(result.contains("in('msg1'"), "Robot2 should receive message");
     }
+
+    @Test
+    public void test_parallel_participant_translation_matches_sequential() throws Exception {
+        // 12 participants, each start → AND(two tasks) → end, declared in reverse name order
+        List<BpmnElement> all = new ArrayList<>();
+        List<PL> pools = new ArrayList<>();
+        for (int i = 11; i >= 0; i--) {
+            String proc = "proc" + i;
+            PL pool = PL.builder().name(String.format("robot%02d", i)).id("p" + i).ProcessId(proc).ProcessName("Behavior" + i).build();
+            NSE start = NSE.builder().id("start" + i).outgoingEdge("f" + i).ProcessId(proc).ProcessName("Behavior" + i).build();
+            SQ flow = SQ.builder().id("f" + i).source("start" + i).target("and" + i).build();
+            ST a = ST.builder().id("a" + i).name("TaskA" + i).outgoingEdge("fa" + i).build();
+            ST b = ST.builder().id("b" + i).name("TaskB" + i).outgoingEdge("fb" + i).build();
+            Map<Integer, List<String>> branches = new LinkedHashMap<>();
+            branches.put(0, List.of("a" + i));
+            branches.put(1, List.of("b" + i));
+            AND and = AND.builder().id("and" + i).flowElementMap(branches).outgoingEdge("fOut" + i).build();
+            pools.add(pool);
+            all.addAll(List.of(pool, start, flow, a, b, and));
+        }
+        Collab collab = new Collab("collab1", new ArrayList<>(pools));
+        all.add(collab);
+
+        BpmnElements elements = buildElements(all.toArray(new BpmnElement[0]));
+        elements.analyzeInteractions();
+
+        BPMNTranslator sequential = new BPMNTranslator(elements, false);
+        BPMNTranslator parallel = new BPMNTranslator(elements, true);
+        String expected = sequential.visit(collab);
+
+        assertEquals(expected, parallel.visit(collab));
+        assertEquals(sequential.getAllAndBranchProcs(), parallel.getAllAndBranchProcs());
+        assertEquals(24, parallel.getAllAndBranchProcs().size());
+        assertTrue(expected.indexOf("node robot00") < expected.indexOf("node robot11"), "nodes are assembled in name order");
+        assertTrue(expected.indexOf("proc Behavior0(") < expected.indexOf("proc Behavior11("), "procs are assembled in name order");
+    }
 }
@@ -0,0 +1,136 @@
+package com.example.B2XKlaim.ServiceTest.codeGenerator;
+
+import com.example.B2XKlaim.Service.CodeFormattingService;
+import com.example.B2XKlaim.Service.codeGenerator.CodeBlock;
+import com.example.B2XKlaim.Service.codeGenerator.LineJoiner;
+import com.example.B2XKlaim.Service.codeGenerator.ir.RendezvousPass;
+import com.example.B2XKlaim.Service.codeGenerator.ir.XklaimNode;
+import com.example.B2XKlaim.Service.codeGenerator.ir.XklaimNode.*;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for the dataflow step of RendezvousPass: out/in rendezvous on the same
+ * tuple at self are removed across statements, branches and loops only when
+ * nothing else can observe the tuple.
+ */
+public class RendezvousPassTest {
+
+    private static final Line WORK = new Line("Thread.sleep(10)");
+
+    private static int eliminated(List<XklaimNode> code) {
+        return RendezvousPass.optimize(code, new LineJoiner());
+    }
+
+    @Test
+    public void removesRendezvousSeparatedByUnrelatedStatements() {
+        List<XklaimNode> code = List.of(
+                Out.self("f1"), Line.BLANK, new Line("// comment"), WORK, In.self("other"), In.self("f1"),
+                Out.self("f2"));
+
+        assertEquals("\n// comment\nThread.sleep(10)\nin('other')@self\nout('f2')@self", RendezvousPass.optimize(code));
+        assertEquals(2, eliminated(code));
+    }
+
+    @Test
+    public void removesRendezvousTakenOnEveryBranch() {
+        List<XklaimNode> code = List.of(
+                Out.self("f1"),
+                new If("", List.of(new Branch(new Line("c"), List.of(WORK, In.self("f1")))), List.of(In.self("f1"))));
+
+        assertEquals("if(c){\nThread.sleep(10)\n} else {\n}", RendezvousPass.optimize(code));
+        assertEquals(3, eliminated(code));
+    }
+
+    @Test
+    public void keepsRendezvousMissingOnSomeBranch() {
+        List<XklaimNode> withoutElse = List.of(
+                Out.self("f1"),
+                new If("", List.of(new Branch(new Line("c"), List.of(In.self("f1")))), null));
+        List<XklaimNode> consumedAfterBranch = List.of(
+                Out.self("f1"),
+                new If("", List.of(new Branch(new Line("c"), List.of(In.self("f1")))), List.of(WORK)),
+                In.self("f1"));
+
+        assertEquals(0, eliminated(withoutElse));
+        assertEquals(0, eliminated(consumedAfterBranch));
+    }
+
+    @Test
+    public void removesRendezvousAroundAndThroughLoops() {
+        List<XklaimNode> aroundLoop = List.of(
+                Out.self("f1"), new While("", "x > 0", List.of(WORK)), In.self("f1"));
+        List<XklaimNode> carriedByLoop = List.of(
+                Out.self("t"), new While("", "x > 0", List.of(In.self("t"), WORK, Out.self("t"))), In.self("t"));
+
+        assertEquals("while(x > 0){\nThread.sleep(10)\n}", RendezvousPass.optimize(aroundLoop));
+        assertEquals(4, eliminated(carriedByLoop));
+    }
+
+    @Test
+    public void keepsOutsRepeatedByALoop() {
+        List<XklaimNode> code = List.of(
+                new While("", "x > 0", List.of(WORK, Out.self("t"))), In.self("t"));
+
+        assertEquals(0, eliminated(code));
+    }
+
+    @Test
+    public void keepsTuplesOthersCanObserve() {
+        List<XklaimNode> evalBetween = List.of(Out.self("f1"), new Eval("Worker", "", "self"), WORK, In.self("f1"));
+        List<XklaimNode> readBetween = List.of(Out.self("f1"), WORK, new Read("'f1'", "self"), In.self("f1"));
+        List<XklaimNode> otherLocality = List.of(Out.self("f1"), WORK, new In("'f1'", "robot_loc"), In.self("f1"));
+        List<XklaimNode> pendingAtEnd = List.of(WORK, Out.self("f1"));
+        List<XklaimNode> sharedWithOtherProc = List.of(
+                new Proc("A", "", List.of(Out.self("m"), WORK, In.self("m"))),
+                new Proc("B", "", List.of(In.self("m"))));
+        List<XklaimNode> passedToEval = List.of(
+                Out.self("f1"), WORK, In.self("f1"), new Eval("Task", "'f1'", "self"));
+
+        for (List<XklaimNode> code : List.of(evalBetween, readBetween, otherLocality, pendingAtEnd,
+                sharedWithOtherProc, passedToEval)) {
+            assertEquals(0, eliminated(code), () -> code.toString());
+        }
+    }
+
+    @Test
+    public void analysesEachProcOnItsOwn() {
+        List<XklaimNode> code = List.of(
+                new Proc("A", "", List.of(Out.self("a"), WORK, In.self("a"))),
+                new Proc("B", "", List.of(Out.self("b"), WORK, In.self("b"))));
+
+        assertEquals("proc A() {\nThread.sleep(10)\n}\nproc B() {\nThread.sleep(10)\n}", RendezvousPass.optimize(code));
+        assertEquals(4, eliminated(code));
+    }
+
+    @Test
+    public void recordsWhereTheNetAndEachProcEnd() {
+        List<XklaimNode> code = List.of(
+                new Net("Collab_1", "localhost:9999", List.of(new NodeDef("Robot", new Eval("Robot", "", "self")))),
+                Line.BLANK,
+                new Proc("Robot", "", List.of(Out.self("a"), In.self("a"), new Line("out('x')@Other"),
+                        new Line("in('x')@Other"), WORK)),
+                new Proc("Other", "String x", List.of(new Line("if(c){"), WORK, new Line("}"), Line.BLANK)),
+                Line.BLANK);
+        LineJoiner joiner = new LineJoiner();
+        List<CodeBlock> blocks = new ArrayList<>();
+        RendezvousPass.optimize(code, joiner, blocks);
+        String text = joiner.toString();
+
+        assertEquals(List.of(CodeBlock.Kind.NET, CodeBlock.Kind.PROC, CodeBlock.Kind.PROC),
+                blocks.stream().map(CodeBlock::kind).toList());
+        assertEquals("Other", blocks.get(2).name());
+        assertEquals("String x", blocks.get(2).params());
+
+        CodeFormattingService formatting = new CodeFormattingService();
+        assertEquals(formatting.extractCollaborationBlock(text), formatting.collaborationBlock(text, blocks));
+        List<Map<String, String>> procs = formatting.extractProcessBlocks(text);
+        assertEquals(procs, formatting.processBlocks(text, blocks));
+        assertEquals(2, procs.size());
+    }
+}
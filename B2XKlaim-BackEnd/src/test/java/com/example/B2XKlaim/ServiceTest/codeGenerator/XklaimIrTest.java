@@ -0,0 +1,107 @@
+package com.example.B2XKlaim.ServiceTest.codeGenerator;
+
+import com.example.B2XKlaim.Service.bpmnElements.BpmnElements;
+import com.example.B2XKlaim.Service.bpmnElements.events.SIT;
+import com.example.B2XKlaim.Service.codeGenerator.BPMNTranslator;
+import com.example.B2XKlaim.Service.codeGenerator.Optimizer;
+import com.example.B2XKlaim.Service.codeGenerator.ir.RendezvousPass;
+import com.example.B2XKlaim.Service.codeGenerator.ir.XklaimNode;
+import com.example.B2XKlaim.Service.codeGenerator.ir.XklaimNode.*;
+import com.example.B2XKlaim.Service.codeGenerator.ir.XklaimPrinter;
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for the XKlaim IR: printing reproduces the former templates, and the
+ * adjacent-pair step of the rendezvous pass matches Optimizer over the printed text.
+ */
+public class XklaimIrTest {
+
+    @Test
+    public void printer_rendersBlocksLikeTheTemplates() {
+        List<XklaimNode> code = List.of(
+                new If("", List.of(new Branch(new In("'m'", "self", 500L), List.of(
+                        new Nested("  ", List.of(In.self("f1"), Line.BLANK))))),
+                        List.of(new Nested("  ", List.of(Out.self("t"))))),
+                new While("", "!eventOccured", List.of(new Line("x"))),
+                new Proc("P", "Locality a_loc", List.of(
+                        new Indented("  ", List.of(Out.self("e"), Line.BLANK, new Eval("T", "'e'", "self")))))
+        );
+
+        assertEquals("if(in('m')@self within 500){\n"
+                        + "  in('f1')@self\n"
+                        + "\n"
+                        + "} else {\n"
+                        + "  out('t')@self\n"
+                        + "}\n"
+                        + "while(!eventOccured){\n"
+                        + "x\n"
+                        + "}\n"
+                        + "proc P(Locality a_loc) {\n"
+                        + "  out('e')@self\n"
+                        + "  eval(new T('e'))@self\n"
+                        + "}\n",
+                XklaimPrinter.print(code));
+    }
+
+    @Test
+    public void visit_returnsThePrintedLowering() throws Exception {
+        SIT sit = SIT.builder().id("sit").signalId("sig").outgoingEdge("f2").build();
+        BPMNTranslator translator = new BPMNTranslator(new BpmnElements());
+
+        assertEquals("out('sig')@self\n"
+                        + "val SIGNAL_DURATION = 1000 // Adjust the signal duration as needed\n"
+                        + "Thread.sleep(SIGNAL_DURATION)\n"
+                        + "in('sig')@self\n"
+                        + "out('f2')@self\n",
+                translator.visit(sit));
+        assertEquals(translator.visit(sit), XklaimPrinter.print(translator.lower(sit)));
+    }
+
+    @Test
+    public void rendezvousPass_removesAdjacentPairsOnTheTree() {
+        List<XklaimNode> code = List.of(
+                Out.self("a"), In.self("a"),
+                new Out("'b'", "robot_loc"), In.self("b"),
+                new Nested("  ", List.of(Out.self("c"))), new Nested("  ", List.of(In.self("c"))),
+                Line.BLANK, Line.BLANK);
+
+        assertEquals("", RendezvousPass.optimize(code));
+    }
+
+    @Test
+    public void rendezvousPass_matchesTextOptimizerOnRandomCode() {
+        Random random = new Random(18);
+        for (int run = 0; run < 500; run++) {
+            // An eval mentioning every literal keeps the dataflow step out of the comparison
+            List<XklaimNode> code = new ArrayList<>();
+            code.add(new Eval("P", "'a', 'b', 'm'", "self"));
+            code.addAll(randomNodes(random, 2));
+            String expected = String.join("\n", Optimizer.optimize(Arrays.asList(XklaimPrinter.print(code).split("\\r?\\n"))));
+            assertEquals(expected, RendezvousPass.optimize(code), () -> XklaimPrinter.print(code));
+        }
+    }
+
+    private static List<XklaimNode> randomNodes(Random random, int depth) {
+        String[] tuples = {"'a'", "'b'", "'m' ", "x", "'a', 1", "f(x)", "'a')@self, ('a'"};
+        List<XklaimNode> nodes = new ArrayList<>();
+        int count = random.nextInt(8);
+        for (int i = 0; i < count; i++) {
+            String tuple = tuples[random.nextInt(tuples.length)];
+            switch (random.nextInt(depth > 0 ? 9 : 6)) {
+                case 0, 1 -> nodes.add(new Out(tuple, random.nextBoolean() ? "self" : "robot_loc"));
+                case 2, 3 -> nodes.add(new In(tuple, "self"));
+                case 4 -> nodes.add(random.nextBoolean() ? Line.BLANK : new Line("in(" + tuple + ")@self"));
+                case 5 -> nodes.add(new Eval("P", "", "self"));
+                case 6 -> nodes.add(new Nested("  ", randomNodes(random, depth - 1)));
+                case 7 -> nodes.add(new If("", List.of(new Branch(new Line("c"), randomNodes(random, depth - 1))),
+                        random.nextBoolean() ? null : randomNodes(random, depth - 1)));
+                default -> nodes.add(new Indented("  ", randomNodes(random, depth - 1)));
+            }
+        }
+        return nodes;
+    }
+}
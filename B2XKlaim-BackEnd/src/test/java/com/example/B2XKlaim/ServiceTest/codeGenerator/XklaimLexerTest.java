@@ -0,0 +1,104 @@
+package com.example.B2XKlaim.ServiceTest.codeGenerator;
+
+import com.example.B2XKlaim.Service.codeGenerator.Optimizer;
+import com.example.B2XKlaim.Service.codeGenerator.XklaimLexer;
+import com.example.B2XKlaim.Service.codeGenerator.XklaimLexer.Action;
+import com.example.B2XKlaim.Service.codeGenerator.XklaimLexer.Token;
+import com.example.B2XKlaim.Service.codeGenerator.XklaimLexer.TokenSink;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for the XKlaim line lexer: out and in arguments must be read exactly
+ * as the regexes the optimizer used before.
+ */
+public class XklaimLexerTest {
+
+    private static final Pattern OUT_PATTERN = Pattern.compile("^\\s*out\\((['\"].*?['\"]|[^()]+)\\)@.*");
+    private static final Pattern IN_PATTERN = Pattern.compile("^\\s*in\\((['\"].*?['\"]|[^()]+)\\)@.*");
+
+    private static String regexArgument(Pattern pattern, String line) {
+        Matcher matcher = pattern.matcher(line);
+        return matcher.matches() ? matcher.group(1) : null;
+    }
+
+    @Test
+    public void scan_classifiesActionsWithLocality() {
+        Token out = XklaimLexer.scan("\t\tout('Task_1')@self");
+        assertEquals(Action.OUT, out.action());
+        assertEquals("'Task_1'", out.argument());
+        assertEquals("self", out.locality());
+
+        Token in = XklaimLexer.scan("  in('msg', var x)@robot_loc within 5000");
+        assertEquals(Action.IN, in.action());
+        assertEquals("'msg', var x", in.argument());
+        assertEquals("robot_loc", in.locality());
+
+        Token read = XklaimLexer.scan("read(\"flag\")@self");
+        assertEquals(Action.READ, read.action());
+        assertEquals("\"flag\"", read.argument());
+
+        Token eval = XklaimLexer.scan("    eval(new Sub(self, 'a'))@self");
+        assertEquals(Action.EVAL, eval.action());
+        assertEquals("new Sub(self, 'a')", eval.argument());
+        assertEquals("self", eval.locality());
+
+        assertNull(XklaimLexer.scan("if(in('x')@self){"));
+        assertNull(XklaimLexer.scan("outer('x')@self"));
+        assertNull(XklaimLexer.scan("out('x')"));
+        assertNull(XklaimLexer.scan(""));
+    }
+
+    @Test
+    public void scan_readsArgumentsLikeTheRegexes() {
+        List<String> samples = new ArrayList<>(List.of(
+                "out('a')@self", " \t out(\"a\")@self", "out('a)(b')@self", "out('a')@self and ')@x",
+                "out(a, b)@self", "out()@self", "out('')@self", "out('a\")@self", "out('a'@self",
+                "out('a')@self\r", "out(a\n)@self", "out('a\n')@self", "out('a')@\u2028", "\u000Bin('x')@l",
+                "in(x(y))@self", "in('x' )@self", "in( 'x')@self", "in('x')@", "in('x')", "in'x')@self"));
+        Random random = new Random(20);
+        String alphabet = "oiutn()'\"@ \t\rxs\n";
+        for (int i = 0; i < 20_000; i++) {
+            StringBuilder line = new StringBuilder(random.nextBoolean() ? "out(" : " in(");
+            for (int length = random.nextInt(10); length > 0; length--) {
+                line.append(alphabet.charAt(random.nextInt(alphabet.length())));
+            }
+            samples.add(line.toString());
+        }
+
+        for (String line : samples) {
+            String description = line.replace("\n", "\\n").replace("\r", "\\r");
+            assertEquals(regexArgument(OUT_PATTERN, line), Optimizer.outArgument(line), () -> "out of " + description);
+            assertEquals(regexArgument(IN_PATTERN, line), Optimizer.inArgument(line), () -> "in of " + description);
+        }
+    }
+
+    @Test
+    public void optimizer_handsTokensOnWithTheLines() {
+        List<Token> tokens = new ArrayList<>();
+        TokenSink optimizer = Optimizer.streamingTokens(new TokenSink() {
+            @Override public void line(String line, Token token) { tokens.add(token); }
+        });
+
+        Token out = XklaimLexer.scan("out('x')@self");
+        Token kept = XklaimLexer.scan("out('y')@self");
+        optimizer.line("out('x')@self", out);
+        optimizer.line("in('x')@self", XklaimLexer.scan("in('x')@self"));
+        optimizer.line("out('y')@self", kept);
+        optimizer.line("print", null);
+        optimizer.finish();
+
+        assertEquals(2, tokens.size());
+        assertSame(kept, tokens.get(0));
+        assertNull(tokens.get(1));
+        assertTrue(out.cancels(XklaimLexer.scan("  in('x')@robot")));
+        assertFalse(kept.cancels(XklaimLexer.scan("in('x')@self")));
+    }
+}